@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+
+/**
+ * The random number generators of a single battle.
+ * <p>
+ * Each battle has its own generators, so battles running at the same time in one JVM do not share any random state.
+ * The placement of robots, the order in which robots and bullets are processed, and each robot get separate streams
+ * that are split from one root generator. When the RANDOMSEED system property is set, the root generator is seeded
+ * with it, so every battle started with the same robots is repeated exactly, no matter what other battles are running.
+ * <p>
+ * When a generator has been set with {@link robocode.control.RandomFactory#setRandom(Random)}, all battles share
+ * that generator for all their random numbers, which is how tests have made battles repeatable in the past.
+ * <p>
+ * The stream of a robot is bound to the robot thread, and to threads created by the robot, so
+ * {@link robocode.control.RandomFactory#getRandom()} returns the stream of the robot calling it.
+ *
+ * @since 1.9.5.3
+ */
+public final class BattleRandom {
+
+	private static final InheritableThreadLocal<Random> threadRandom = new InheritableThreadLocal<Random>();
+
+	private static volatile Random sharedRandom;
+	private static Random defaultRandom;
+
+	private final Random placementRandom;
+	private final Random orderRandom;
+	private final Random[] robotRandoms;
+
+	private BattleRandom(Random random, int robotCount) {
+		placementRandom = random;
+		orderRandom = random;
+		robotRandoms = new Random[robotCount];
+		for (int i = 0; i < robotCount; i++) {
+			robotRandoms[i] = random;
+		}
+	}
+
+	private BattleRandom(SplittableRandom root, int robotCount) {
+		// The streams are always split in the same order, so a seeded root gives the same streams every time
+		placementRandom = new SplitRandom(root.split());
+		orderRandom = new SplitRandom(root.split());
+		robotRandoms = new Random[robotCount];
+		for (int i = 0; i < robotCount; i++) {
+			robotRandoms[i] = new SplitRandom(root.split());
+		}
+	}
+
+	/**
+	 * Creates the random number generators for a new battle.
+	 *
+	 * @param robotCount the number of robots in the battle
+	 * @return the generators of the battle
+	 */
+	public static BattleRandom create(int robotCount) {
+		final Random shared = sharedRandom;
+
+		if (shared != null) {
+			return new BattleRandom(shared, robotCount);
+		}
+		final String seed = System.getProperty("RANDOMSEED", "none");
+
+		if (!seed.equals("none")) {
+			return new BattleRandom(new SplittableRandom(Long.valueOf(seed)), robotCount);
+		}
+		return new BattleRandom(new SplittableRandom(), robotCount);
+	}
+
+	/**
+	 * Returns the generator used for placing the robots on the battlefield.
+	 */
+	public Random getPlacementRandom() {
+		return placementRandom;
+	}
+
+	/**
+	 * Returns the generator used for shuffling the order in which robots and bullets are processed.
+	 */
+	public Random getOrderRandom() {
+		return orderRandom;
+	}
+
+	/**
+	 * Returns the generator of the robot with the specified index.
+	 *
+	 * @param robotIndex the index of the robot in the battle
+	 */
+	public Random getRobotRandom(int robotIndex) {
+		return robotRandoms[robotIndex];
+	}
+
+	/**
+	 * Binds a generator to the current thread and the threads it creates, or removes the binding if the generator
+	 * is {@code null}.
+	 *
+	 * @param random the generator for the current thread
+	 */
+	public static void setThreadRandom(Random random) {
+		if (random == null) {
+			threadRandom.remove();
+		} else {
+			threadRandom.set(random);
+		}
+	}
+
+	/**
+	 * Sets the generator shared by all battles, or turns off sharing if the generator is {@code null}.
+	 *
+	 * @param random the shared generator
+	 */
+	public static void setSharedRandom(Random random) {
+		sharedRandom = random;
+	}
+
+	/**
+	 * Returns the generator bound to the current thread. If no generator is bound, the shared generator is
+	 * returned if one has been set, and otherwise a generator common to the whole JVM.
+	 */
+	public static Random getRandom() {
+		Random random = threadRandom.get();
+
+		if (random == null) {
+			random = sharedRandom;
+		}
+		if (random == null) {
+			random = getDefaultRandom();
+		}
+		return random;
+	}
+
+	private static synchronized Random getDefaultRandom() {
+		if (defaultRandom == null) {
+			defaultRandom = new Random();
+		}
+		return defaultRandom;
+	}
+
+	/**
+	 * A {@link Random} drawing its numbers from a {@link SplittableRandom}, which is not a {@link Random} itself.
+	 * The numbers are drawn under a lock, as the robot threads may share the stream of a robot.
+	 */
+	private static final class SplitRandom extends Random {
+		private static final long serialVersionUID = 1L;
+
+		private SplittableRandom random;
+
+		SplitRandom(SplittableRandom random) {
+			this.random = random;
+		}
+
+		@Override
+		public synchronized void setSeed(long seed) {
+			// Also called by the constructor of Random, before the stream has been set
+			super.setSeed(seed);
+			random = new SplittableRandom(seed);
+		}
+
+		@Override
+		protected synchronized int next(int bits) {
+			return random.nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public synchronized long nextLong() {
+			return random.nextLong();
+		}
+
+		@Override
+		public synchronized double nextDouble() {
+			return random.nextDouble();
+		}
+	}
+}
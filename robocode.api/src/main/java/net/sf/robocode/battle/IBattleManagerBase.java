@@ -10,6 +10,7 @@ package net.sf.robocode.battle;
 
 import robocode.control.BattleSpecification;
 import robocode.control.events.IBattleListener;
+import robocode.control.metrics.IBattleMetricsListener;
 
 
 /**
@@ -20,6 +21,10 @@ public interface IBattleManagerBase {
 
 	void removeListener(IBattleListener listener);
 
+	void addMetricsListener(IBattleMetricsListener listener);
+
+	void removeMetricsListener(IBattleMetricsListener listener);
+
 	void waitTillOver();
 
 	void stop(boolean waitTillEnd);
@@ -19,6 +19,7 @@ public final class RobocodeProperties {
 	private static final boolean NO_SECURITY = System.getProperty("NOSECURITY", "false").equals("true");
 	private static final boolean DEBUG = System.getProperty("debug", "false").equals("true");
 	private static final boolean ALLOW_LOCALHOST = System.getProperty("ALLOWLOCALHOST", "false").equals("true");
+	private static final boolean ROBOT_DATA_IN_MEMORY = System.getProperty("ROBOTDATAINMEMORY", "false").equals("true");
 
 	private RobocodeProperties() {}
 
@@ -60,6 +61,14 @@ public final class RobocodeProperties {
 	 */
 	public static boolean isAllowLocalhostOn() { return ALLOW_LOCALHOST; }
 
+	/**
+	 * Checks if the data files that robots write are kept in memory, and only written to disk now and then.
+	 * @return true if the <code>ROBOTDATAINMEMORY</code> property has been set to <code>true</code>; false otherwise.
+	 */
+	public static boolean isRobotDataInMemory() {
+		return ROBOT_DATA_IN_MEMORY;
+	}
+
 	/**
 	 * Sets the testing flag.
 	 * @param enabled true if testing is being enabled; false if testing is being disabled.
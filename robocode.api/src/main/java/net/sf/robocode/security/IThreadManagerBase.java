@@ -8,8 +8,8 @@
 package net.sf.robocode.security;
 
 
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 
 /**
@@ -17,5 +17,5 @@ import java.io.IOException;
  */
 public interface IThreadManagerBase {
 	boolean isSafeThread();
-	FileOutputStream createRobotFileStream(String fileName, boolean append) throws IOException;
+	OutputStream createRobotFileStream(String fileName, boolean append) throws IOException;
 }
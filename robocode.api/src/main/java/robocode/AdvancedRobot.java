@@ -750,6 +750,7 @@ public class AdvancedRobot extends _AdvancedRadiansRobot implements IAdvancedRob
 	 *   Key and mouse events:  98
 	 *   {@link CustomEvent}:           80 (default value)
 	 *   {@link MessageEvent}:          75
+	 *   {@link BinaryMessageEvent}:    75
 	 *   {@link RobotDeathEvent}:       70
 	 *   {@link BulletMissedEvent}:     60
 	 *   {@link BulletHitBulletEvent}:  55
@@ -1028,6 +1029,7 @@ public class AdvancedRobot extends _AdvancedRadiansRobot implements IAdvancedRob
 	 * 	 {@link BulletMissedEvent}:     60
 	 * 	 {@link RobotDeathEvent}:       70
 	 * 	 {@link MessageEvent}:          75
+	 * 	 {@link BinaryMessageEvent}:    75
 	 * 	 {@link CustomEvent}:           80
 	 *   {@link StatusEvent}:           99
 	 * 	 {@link SkippedTurnEvent}:     100 (cannot be changed)
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode;
+
+
+import net.sf.robocode.peer.IRobotStatics;
+import robocode.robotinterfaces.IBasicRobot;
+import robocode.robotinterfaces.ITeamEvents;
+import robocode.robotinterfaces.ITeamEvents2;
+import robocode.robotinterfaces.ITeamRobot;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+
+
+/**
+ * A BinaryMessageEvent is sent to {@link TeamRobot#onBinaryMessageReceived(BinaryMessageEvent)
+ * onBinaryMessageReceived()} when a teammate sends a binary message to your robot with
+ * {@link TeamRobot#sendBinaryMessage(String, ByteBuffer) sendBinaryMessage()} or
+ * {@link TeamRobot#broadcastBinaryMessage(ByteBuffer) broadcastBinaryMessage()}.
+ * <p>
+ * Unlike a {@link MessageEvent}, the message is not a serialized Java object, but the raw bytes sent by the
+ * teammate, which you read yourself from the buffer returned by {@link #getMessage()}.
+ *
+ * @see MessageEvent
+ *
+ * @since 1.9.5.3
+ */
+public final class BinaryMessageEvent extends Event {
+	private static final long serialVersionUID = 1L;
+	private final static int DEFAULT_PRIORITY = 75;
+
+	private final String sender;
+	private final ByteBuffer message;
+
+	/**
+	 * Called by the game to create a new BinaryMessageEvent.
+	 *
+	 * @param sender  the name of the sending robot
+	 * @param message a read-only buffer with the message for your robot
+	 */
+	public BinaryMessageEvent(String sender, ByteBuffer message) {
+		this.sender = sender;
+		this.message = message;
+	}
+
+	/**
+	 * Returns the name of the sending robot.
+	 *
+	 * @return the name of the sending robot
+	 */
+	public String getSender() {
+		return sender;
+	}
+
+	/**
+	 * Returns a read-only buffer with the message, positioned at the first byte of the message.
+	 * The limit of the buffer is the length of the message, and the byte order is big-endian.
+	 * <p>
+	 * Each call returns a new buffer, so reading from one buffer does not move the position of another.
+	 *
+	 * @return the message
+	 */
+	public ByteBuffer getMessage() {
+		return message.duplicate();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	final int getDefaultPriority() {
+		return DEFAULT_PRIORITY;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	final void dispatch(IBasicRobot robot, IRobotStatics statics, Graphics2D graphics) {
+		if (statics.isTeamRobot()) {
+			ITeamEvents listener = ((ITeamRobot) robot).getTeamEventListener();
+
+			if (listener != null && ITeamEvents2.class.isAssignableFrom(listener.getClass())) {
+				((ITeamEvents2) listener).onBinaryMessageReceived(this);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	byte getSerializationType() {
+		throw new Error("Serialization of event type not supported");
+	}
+}
@@ -33,7 +33,7 @@ import java.io.*;
  * @author Flemming N. Larsen (contributor)
  */
 public class RobocodeFileOutputStream extends OutputStream {
-	private final FileOutputStream out;
+	private final OutputStream out;
 	private final String fileName;
 
 	/**
@@ -9,11 +9,13 @@ package robocode;
 
 
 import robocode.robotinterfaces.ITeamEvents;
+import robocode.robotinterfaces.ITeamEvents2;
 import robocode.robotinterfaces.ITeamRobot;
 import robocode.robotinterfaces.peer.ITeamRobotPeer;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Vector;
 
 
@@ -51,7 +53,7 @@ import java.util.Vector;
  * @author Flemming N. Larsen (contributor)
  * @author Pavel Savara (contributor)
  */
-public class TeamRobot extends AdvancedRobot implements ITeamRobot, ITeamEvents {
+public class TeamRobot extends AdvancedRobot implements ITeamRobot, ITeamEvents2 {
 
 	/**
 	 * Broadcasts a message to all teammates.
@@ -201,4 +203,97 @@ public class TeamRobot extends AdvancedRobot implements ITeamRobot, ITeamEvents
 			uninitializedException();
 		}
 	}
+
+	/**
+	 * Broadcasts a binary message to all teammates.
+	 * <p>
+	 * The bytes from the current position to the limit of the buffer are sent. The buffer itself is not modified,
+	 * so it can be reused right away. The teammates receive the message in a {@link BinaryMessageEvent}, which
+	 * avoids the cost of Java serialization for messages like positions and bearings.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   public void run() {
+	 *       ByteBuffer message = ByteBuffer.allocate(16);
+	 *       message.putDouble(getX()).putDouble(getY()).flip();
+	 *       broadcastBinaryMessage(message);
+	 *   }
+	 * </pre>
+	 *
+	 * @param message the message to broadcast to all teammates
+	 * @throws IOException if the message could not be broadcasted to the
+	 *                     teammates
+	 * @see #sendBinaryMessage(String, ByteBuffer)
+	 * @see #onBinaryMessageReceived(BinaryMessageEvent)
+	 * @since 1.9.5.3
+	 */
+	public void broadcastBinaryMessage(ByteBuffer message) throws IOException {
+		if (peer != null) {
+			((ITeamRobotPeer) peer).broadcastBinaryMessage(message);
+		} else {
+			uninitializedException();
+		}
+	}
+
+	/**
+	 * Sends a binary message to one (or more) teammates.
+	 * <p>
+	 * The bytes from the current position to the limit of the buffer are sent. The buffer itself is not modified,
+	 * so it can be reused right away.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   public void run() {
+	 *       ByteBuffer message = ByteBuffer.allocate(16);
+	 *       message.putDouble(getX()).putDouble(getY()).flip();
+	 *       sendBinaryMessage("sample.DroidBot", message);
+	 *   }
+	 * </pre>
+	 *
+	 * @param name	the name of the intended recipient of the message
+	 * @param message the message to send
+	 * @throws IOException if the message could not be sent
+	 * @see #broadcastBinaryMessage(ByteBuffer)
+	 * @see #onBinaryMessageReceived(BinaryMessageEvent)
+	 * @since 1.9.5.3
+	 */
+	public void sendBinaryMessage(String name, ByteBuffer message) throws IOException {
+		if (peer != null) {
+			((ITeamRobotPeer) peer).sendBinaryMessage(name, message);
+		} else {
+			uninitializedException();
+		}
+	}
+
+	/**
+	 * Returns a vector containing all BinaryMessageEvents currently in the robot's
+	 * queue. You might, for example, call this while processing another event.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   for (BinaryMessageEvent e : getBinaryMessageEvents()) {
+	 *      // do something with e
+	 *   }
+	 * </pre>
+	 *
+	 * @return a vector containing all BinaryMessageEvents currently in the robot's
+	 *         queue
+	 * @see #onBinaryMessageReceived(BinaryMessageEvent)
+	 * @see BinaryMessageEvent
+	 * @since 1.9.5.3
+	 */
+	public Vector<BinaryMessageEvent> getBinaryMessageEvents() {
+		if (peer != null) {
+			return new Vector<BinaryMessageEvent>(((ITeamRobotPeer) peer).getBinaryMessageEvents());
+		}
+		uninitializedException();
+		return null; // never called
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @since 1.9.5.3
+	 */
+	public void onBinaryMessageReceived(BinaryMessageEvent event) {}
 }
@@ -9,6 +9,7 @@ package robocode.control;
 
 
 import robocode.control.events.IBattleListener;
+import robocode.control.metrics.IBattleMetricsListener;
 
 
 /**
@@ -38,6 +39,26 @@ public interface IRobocodeEngine {
 	 */
 	void removeBattleListener(IBattleListener listener);
 
+	/**
+	 * Adds a metrics listener that must receive the timings measured while running battles.
+	 * The game only measures timings while at least one metrics listener has been added.
+	 *
+	 * @param listener the metrics listener that must retrieve the timings from
+	 *                 the battles.
+	 * @see #removeBattleMetricsListener(robocode.control.metrics.IBattleMetricsListener)
+	 * @since 1.9.5.3
+	 */
+	void addBattleMetricsListener(IBattleMetricsListener listener);
+
+	/**
+	 * Removes a metrics listener that has previously been added to this object.
+	 *
+	 * @param listener the metrics listener that must be removed.
+	 * @see #addBattleMetricsListener(robocode.control.metrics.IBattleMetricsListener)
+	 * @since 1.9.5.3
+	 */
+	void removeBattleMetricsListener(IBattleMetricsListener listener);
+
 	/**
 	 * Closes the RobocodeEngine and releases any allocated resources it holds.
 	 * You should call this when you have finished using the RobocodeEngine.
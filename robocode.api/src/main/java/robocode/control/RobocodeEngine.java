@@ -17,6 +17,7 @@ import net.sf.robocode.manager.IVersionManagerBase;
 import net.sf.robocode.repository.IRepositoryManagerBase;
 import net.sf.robocode.security.HiddenAccess;
 import robocode.control.events.*;
+import robocode.control.metrics.IBattleMetricsListener;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -46,6 +47,7 @@ public class RobocodeEngine implements IRobocodeEngine {
 	private BattleObserver battleObserver;
 	private BattleSpecification battleSpecification;
 	private final List<IBattleListener> listeners = new ArrayList<IBattleListener>();
+	private final List<IBattleMetricsListener> metricsListeners = new ArrayList<IBattleMetricsListener>();
 
 	/**
 	 * Creates a new RobocodeEngine for controlling Robocode.
@@ -154,6 +156,22 @@ public class RobocodeEngine implements IRobocodeEngine {
 		ContainerBase.getComponent(IBattleManagerBase.class).removeListener(listener);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public void addBattleMetricsListener(IBattleMetricsListener listener) {
+		metricsListeners.add(listener);
+		ContainerBase.getComponent(IBattleManagerBase.class).addMetricsListener(listener);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void removeBattleMetricsListener(IBattleMetricsListener listener) {
+		metricsListeners.remove(listener);
+		ContainerBase.getComponent(IBattleManagerBase.class).removeMetricsListener(listener);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -166,6 +184,10 @@ public class RobocodeEngine implements IRobocodeEngine {
 			ContainerBase.getComponent(IBattleManagerBase.class).removeListener(listener);
 		}
 		listeners.clear();
+		for (IBattleMetricsListener listener : metricsListeners) {
+			ContainerBase.getComponent(IBattleManagerBase.class).removeMetricsListener(listener);
+		}
+		metricsListeners.clear();
 		HiddenAccess.cleanup();
 	}
 
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.metrics;
+
+
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Timings measured by the game while running a round or a whole battle.
+ * <p>
+ * The timings are recorded into histograms: one for the complete turn, one for each {@link TurnPhase}, and two
+ * for each robot. The compute histogram of a robot contains the time the game waited for the robot to take
+ * action after it was woken up, which is where a slow robot slows down the whole battle. The wakeup histogram
+ * contains the time it took to hand over control to the robot thread.
+ * <p>
+ * The robots are indexed in the same order as the robots in the battle specification.
+ *
+ * @see IBattleMetricsListener
+ *
+ * @since 1.9.5.3
+ */
+public final class BattleMetrics {
+
+	private final int round;
+	private final int turns;
+	private final Histogram turnHistogram;
+	private final Map<TurnPhase, Histogram> phaseHistograms;
+	private final String[] robotNames;
+	private final Histogram[] robotComputeHistograms;
+	private final Histogram[] robotWakeupHistograms;
+
+	/**
+	 * Called by the game to create a new BattleMetrics.
+	 * Please don't use this constructor as it might change.
+	 *
+	 * @param round the round number (zero indexed), or -1 if the metrics cover the whole battle.
+	 * @param turns the number of turns covered by the metrics.
+	 * @param turnHistogram the histogram of complete turns.
+	 * @param phaseHistograms the histograms of the individual phases of the turns.
+	 * @param robotNames the names of the robots.
+	 * @param robotComputeHistograms the compute histograms of the robots.
+	 * @param robotWakeupHistograms the wakeup histograms of the robots.
+	 */
+	public BattleMetrics(int round, int turns, Histogram turnHistogram, Map<TurnPhase, Histogram> phaseHistograms,
+			String[] robotNames, Histogram[] robotComputeHistograms, Histogram[] robotWakeupHistograms) {
+		this.round = round;
+		this.turns = turns;
+		this.turnHistogram = turnHistogram;
+		this.phaseHistograms = new EnumMap<TurnPhase, Histogram>(phaseHistograms);
+		this.robotNames = robotNames;
+		this.robotComputeHistograms = robotComputeHistograms;
+		this.robotWakeupHistograms = robotWakeupHistograms;
+	}
+
+	/**
+	 * Returns the round number the metrics were measured for.
+	 *
+	 * @return the round number, which is zero indexed, or -1 if the metrics cover the whole battle.
+	 */
+	public int getRound() {
+		return round;
+	}
+
+	/**
+	 * Returns the number of turns the metrics were measured for.
+	 *
+	 * @return the number of turns covered by the metrics.
+	 */
+	public int getTurns() {
+		return turns;
+	}
+
+	/**
+	 * Returns the histogram of complete turns, i.e. the sum of all phases plus the time spent by the
+	 * battle listeners.
+	 *
+	 * @return the histogram of complete turns.
+	 */
+	public Histogram getTurnHistogram() {
+		return turnHistogram;
+	}
+
+	/**
+	 * Returns the histogram of a specific phase of the turns.
+	 *
+	 * @param phase the phase of the turn.
+	 * @return the histogram of the phase.
+	 */
+	public Histogram getPhaseHistogram(TurnPhase phase) {
+		return phaseHistograms.get(phase);
+	}
+
+	/**
+	 * Returns the number of robots in the battle.
+	 *
+	 * @return the number of robots.
+	 */
+	public int getRobotCount() {
+		return robotNames.length;
+	}
+
+	/**
+	 * Returns the name of a robot.
+	 *
+	 * @param robotIndex the index of the robot.
+	 * @return the name of the robot.
+	 */
+	public String getRobotName(int robotIndex) {
+		return robotNames[robotIndex];
+	}
+
+	/**
+	 * Returns the histogram of the time the game waited for a robot to take action.
+	 *
+	 * @param robotIndex the index of the robot.
+	 * @return the compute histogram of the robot.
+	 */
+	public Histogram getRobotComputeHistogram(int robotIndex) {
+		return robotComputeHistograms[robotIndex];
+	}
+
+	/**
+	 * Returns the histogram of the time it took to wake up a robot.
+	 *
+	 * @param robotIndex the index of the robot.
+	 * @return the wakeup histogram of the robot.
+	 */
+	public Histogram getRobotWakeupHistogram(int robotIndex) {
+		return robotWakeupHistograms[robotIndex];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(round < 0 ? "Battle" : "Round " + (round + 1)).append(", ").append(turns).append(" turns\n");
+		sb.append("  turn: ").append(turnHistogram).append('\n');
+		for (TurnPhase phase : TurnPhase.values()) {
+			sb.append("  ").append(phase).append(": ").append(phaseHistograms.get(phase)).append('\n');
+		}
+		for (int i = 0; i < robotNames.length; i++) {
+			sb.append("  ").append(robotNames[i]).append(": compute ").append(robotComputeHistograms[i]);
+			sb.append(", wakeup ").append(robotWakeupHistograms[i]).append('\n');
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.metrics;
+
+
+import java.util.Arrays;
+
+
+/**
+ * A histogram of durations measured in nanoseconds.
+ * <p>
+ * The values are counted in log-linear buckets, i.e. every power of two is split into 8 buckets of equal width.
+ * Hence the relative error of a percentile is at most 12.5%, while recording a value costs only a few
+ * arithmetic operations and never allocates memory. The minimum, maximum, and mean values are exact.
+ * <p>
+ * A histogram is not thread-safe. The game records into its own histograms on the battle thread, and hands out
+ * copies of these to the listeners.
+ *
+ * @see BattleMetrics
+ *
+ * @since 1.9.5.3
+ */
+public final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (Long.SIZE - 1 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final long[] counts;
+	private long count;
+	private long sum;
+	private long min;
+	private long max;
+
+	/**
+	 * Creates a new, empty histogram.
+	 */
+	public Histogram() {
+		counts = new long[BUCKET_COUNT];
+		reset();
+	}
+
+	private Histogram(Histogram histogram) {
+		counts = histogram.counts.clone();
+		count = histogram.count;
+		sum = histogram.sum;
+		min = histogram.min;
+		max = histogram.max;
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 *
+	 * @param nanos the value to record in nanoseconds.
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts[bucketIndexOf(nanos)]++;
+		count++;
+		sum += nanos;
+		if (nanos < min) {
+			min = nanos;
+		}
+		if (nanos > max) {
+			max = nanos;
+		}
+	}
+
+	/**
+	 * Adds all values recorded by another histogram to this histogram.
+	 *
+	 * @param histogram the histogram containing the values to add.
+	 */
+	public void add(Histogram histogram) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] += histogram.counts[i];
+		}
+		count += histogram.count;
+		sum += histogram.sum;
+		min = Math.min(min, histogram.min);
+		max = Math.max(max, histogram.max);
+	}
+
+	/**
+	 * Removes all recorded values from this histogram.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+
+	/**
+	 * Returns a copy of this histogram, which is not affected by values recorded later into this histogram.
+	 *
+	 * @return a copy of this histogram.
+	 */
+	public Histogram copy() {
+		return new Histogram(this);
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 *
+	 * @return the number of recorded values.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the sum of all recorded values.
+	 *
+	 * @return the sum of all recorded values in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return sum;
+	}
+
+	/**
+	 * Returns the smallest recorded value.
+	 *
+	 * @return the smallest recorded value in nanoseconds, or 0 if no values have been recorded.
+	 */
+	public long getMinNanos() {
+		return count == 0 ? 0 : min;
+	}
+
+	/**
+	 * Returns the largest recorded value.
+	 *
+	 * @return the largest recorded value in nanoseconds, or 0 if no values have been recorded.
+	 */
+	public long getMaxNanos() {
+		return max;
+	}
+
+	/**
+	 * Returns the mean of the recorded values.
+	 *
+	 * @return the mean of the recorded values in nanoseconds, or 0 if no values have been recorded.
+	 */
+	public double getMeanNanos() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Returns the value below which the given percentage of the recorded values fall.
+	 *
+	 * @param percentile the percentile between 0 and 100, e.g. 99.9.
+	 * @return the upper bound of the bucket containing the percentile in nanoseconds, which is capped by the
+	 *         largest recorded value, or 0 if no values have been recorded.
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * count);
+
+		if (rank < 1) {
+			rank = 1;
+		}
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				final long upperBound = (i + 1 < BUCKET_COUNT) ? bucketLowerBound(i + 1) - 1 : Long.MAX_VALUE;
+
+				return Math.max(getMinNanos(), Math.min(max, upperBound));
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + count + " mean=" + (long) getMeanNanos() + "ns p50=" + getPercentileNanos(50) + "ns p99="
+				+ getPercentileNanos(99) + "ns max=" + max + "ns";
+	}
+
+	static int bucketIndexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long bucketLowerBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		final int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		final long subBucket = index % SUB_BUCKET_COUNT;
+
+		return (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.metrics;
+
+
+/**
+ * The listener interface for receiving the timings measured by the game while running battles.
+ * <p>
+ * The game only measures timings while at least one metrics listener is registered, or when the system property
+ * {@code PROFILE} is set to {@code true}. The methods are called on the battle thread, so they should return
+ * quickly.
+ *
+ * @see robocode.control.IRobocodeEngine#addBattleMetricsListener(IBattleMetricsListener)
+ *
+ * @since 1.9.5.3
+ */
+public interface IBattleMetricsListener {
+
+	/**
+	 * This method is called when a round has ended with the metrics measured for that round.
+	 *
+	 * @param metrics the metrics of the round.
+	 */
+	void onRoundMetrics(BattleMetrics metrics);
+
+	/**
+	 * This method is called when the battle has finished with the metrics measured for all rounds.
+	 *
+	 * @param metrics the metrics of the whole battle.
+	 */
+	void onBattleMetrics(BattleMetrics metrics);
+}
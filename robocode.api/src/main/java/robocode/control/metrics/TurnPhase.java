@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.metrics;
+
+
+/**
+ * Defines the phases that the game runs through every turn of a battle, in the order they are executed.
+ *
+ * @see BattleMetrics#getPhaseHistogram(TurnPhase)
+ *
+ * @since 1.9.5.3
+ */
+public enum TurnPhase {
+
+	/** The commands from the robots are loaded, including the bullets fired in the last turn. */
+	LOAD_COMMANDS,
+
+	/** All bullets are moved and checked for hits. */
+	UPDATE_BULLETS,
+
+	/** All robots are moved, checked for collisions, and are scanning. */
+	UPDATE_ROBOTS,
+
+	/** Scores are computed and death events are published for robots that died in this turn. */
+	HANDLE_DEAD_ROBOTS,
+
+	/** The new status is published to every robot. */
+	PUBLISH_STATUSES,
+
+	/** The robot threads are woken up, and the game waits for the robots to take action. */
+	WAKEUP_ROBOTS
+}
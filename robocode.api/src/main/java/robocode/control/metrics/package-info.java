@@ -0,0 +1,12 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+/**
+ * Battle metrics, e.g. timings of the individual phases of a turn and of the robots, which are used for the
+ * robocode.control.metrics.IBattleMetricsListener class.
+ */
+package robocode.control.metrics;
@@ -25,6 +25,32 @@ public interface ITurnSnapshot {
 	 */
 	IRobotSnapshot[] getRobots();
 
+	/**
+	 * Returns the number of robots participating in the battle, which is the length of the array returned by
+	 * {@link #getRobots()}.
+	 *
+	 * @return the number of robots participating in the battle.
+	 *
+	 * @since 1.9.5.3
+	 */
+	default int getRobotCount() {
+		return getRobots().length;
+	}
+
+	/**
+	 * Returns the snapshot of a robot participating in the battle, without copying the list of snapshots like
+	 * {@link #getRobots()} does. The default implementation calls {@link #getRobots()}, and is overridden by the
+	 * snapshots of Robocode.
+	 *
+	 * @param index the index of the snapshot in the array returned by {@link #getRobots()}.
+	 * @return the snapshot of the robot with the specified index.
+	 *
+	 * @since 1.9.5.3
+	 */
+	default IRobotSnapshot getRobot(int index) {
+		return getRobots()[index];
+	}
+
 	/**
 	 * Returns a list of snapshots for the bullets that are currently on the battlefield.
 	 *
@@ -32,6 +58,32 @@ public interface ITurnSnapshot {
 	 */
 	IBulletSnapshot[] getBullets();
 
+	/**
+	 * Returns the number of bullets that are currently on the battlefield, which is the length of the array
+	 * returned by {@link #getBullets()}.
+	 *
+	 * @return the number of bullets that are currently on the battlefield.
+	 *
+	 * @since 1.9.5.3
+	 */
+	default int getBulletCount() {
+		return getBullets().length;
+	}
+
+	/**
+	 * Returns the snapshot of a bullet that is currently on the battlefield, without copying the list of snapshots
+	 * like {@link #getBullets()} does. The default implementation calls {@link #getBullets()}, and is overridden by
+	 * the snapshots of Robocode.
+	 *
+	 * @param index the index of the snapshot in the array returned by {@link #getBullets()}.
+	 * @return the snapshot of the bullet with the specified index.
+	 *
+	 * @since 1.9.5.3
+	 */
+	default IBulletSnapshot getBullet(int index) {
+		return getBullets()[index];
+	}
+
 	/**
 	 * Returns the current TPS (turns per second) rate.
 	 *
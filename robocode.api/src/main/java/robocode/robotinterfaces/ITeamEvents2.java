@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.robotinterfaces;
+
+
+import robocode.BinaryMessageEvent;
+
+
+/**
+ * First extended version of the {@link ITeamEvents} interface.
+ *
+ * @since 1.9.5.3
+ */
+public interface ITeamEvents2 extends ITeamEvents {
+
+	/**
+	 * This method is called when your robot receives a binary message from a teammate.
+	 * You should override it in your robot if you want to be informed of this event.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   public void onBinaryMessageReceived(BinaryMessageEvent event) {
+	 *       ByteBuffer message = event.getMessage();
+	 *       double x = message.getDouble();
+	 *       double y = message.getDouble();
+	 *       out.println(event.getSender() + " is at " + x + "," + y);
+	 *   }
+	 * </pre>
+	 *
+	 * @param event the binary message event sent by the game
+	 * @see robocode.BinaryMessageEvent
+	 * @see robocode.Event
+	 *
+	 * @since 1.9.5.3
+	 */
+	void onBinaryMessageReceived(BinaryMessageEvent event);
+}
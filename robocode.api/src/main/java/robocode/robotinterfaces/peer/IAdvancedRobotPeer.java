@@ -360,6 +360,7 @@ public interface IAdvancedRobotPeer extends IStandardRobotPeer {
 	 *   Key and mouse events:  98
 	 *   {@link CustomEvent}:           80 (default value)
 	 *   {@link MessageEvent}:          75
+	 *   {@link BinaryMessageEvent}:    75
 	 *   {@link RobotDeathEvent}:       70
 	 *   {@link BulletMissedEvent}:     60
 	 *   {@link BulletHitBulletEvent}:  55
@@ -409,6 +410,7 @@ public interface IAdvancedRobotPeer extends IStandardRobotPeer {
 	 *   Key and mouse events:  98
 	 *   {@link CustomEvent}:           80 (default value)
 	 *   {@link MessageEvent}:          75
+	 *   {@link BinaryMessageEvent}:    75
 	 *   {@link RobotDeathEvent}:       70
 	 *   {@link BulletMissedEvent}:     60
 	 *   {@link BulletHitBulletEvent}:  55
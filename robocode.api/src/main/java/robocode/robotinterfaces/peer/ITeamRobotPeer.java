@@ -8,10 +8,12 @@
 package robocode.robotinterfaces.peer;
 
 
+import robocode.BinaryMessageEvent;
 import robocode.MessageEvent;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 
@@ -138,4 +140,74 @@ public interface ITeamRobotPeer extends IAdvancedRobotPeer {
 	 * @since 1.2.6
 	 */
 	List<MessageEvent> getMessageEvents();
+
+	/**
+	 * Broadcasts a binary message to all teammates.
+	 * <p>
+	 * The bytes from the current position to the limit of the buffer are sent. The buffer itself is not modified,
+	 * so it can be reused right away. The message is delivered as a {@link BinaryMessageEvent} without using Java
+	 * serialization, and is limited to the same size as messages sent with {@link #broadcastMessage(Serializable)}.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   public void run() {
+	 *       ByteBuffer message = ByteBuffer.allocate(16);
+	 *       message.putDouble(getX()).putDouble(getY()).flip();
+	 *       broadcastBinaryMessage(message);
+	 *   }
+	 * </pre>
+	 *
+	 * @param message the message to broadcast to all teammates
+	 * @throws IOException if the message could not be broadcasted to the
+	 *                     teammates
+	 * @see #sendBinaryMessage(String, ByteBuffer)
+	 * @see #broadcastMessage(Serializable)
+	 * @since 1.9.5.3
+	 */
+	void broadcastBinaryMessage(ByteBuffer message) throws IOException;
+
+	/**
+	 * Sends a binary message to one (or more) teammates.
+	 * <p>
+	 * The bytes from the current position to the limit of the buffer are sent. The buffer itself is not modified,
+	 * so it can be reused right away. The message is delivered as a {@link BinaryMessageEvent} without using Java
+	 * serialization, and is limited to the same size as messages sent with {@link #sendMessage(String, Serializable)}.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   public void run() {
+	 *       ByteBuffer message = ByteBuffer.allocate(16);
+	 *       message.putDouble(getX()).putDouble(getY()).flip();
+	 *       sendBinaryMessage("sample.DroidBot", message);
+	 *   }
+	 * </pre>
+	 *
+	 * @param name	the name of the intended recipient of the message
+	 * @param message the message to send
+	 * @throws IOException if the message could not be sent
+	 * @see #broadcastBinaryMessage(ByteBuffer)
+	 * @see #sendMessage(String, Serializable)
+	 * @since 1.9.5.3
+	 */
+	void sendBinaryMessage(String name, ByteBuffer message) throws IOException;
+
+	/**
+	 * Returns a list containing all BinaryMessageEvents currently in the robot's
+	 * queue. You might, for example, call this while processing another event.
+	 * <p>
+	 * Example:
+	 * <pre>
+	 *   for (BinaryMessageEvent e : getBinaryMessageEvents()) {
+	 *      // do something with e
+	 *   }
+	 * </pre>
+	 *
+	 * @return a list containing all BinaryMessageEvents currently in the robot's
+	 *         queue
+	 * @see robocode.robotinterfaces.ITeamEvents2#onBinaryMessageReceived(BinaryMessageEvent)
+	 *      onBinaryMessageReceived(BinaryMessageEvent)
+	 * @see BinaryMessageEvent
+	 * @since 1.9.5.3
+	 */
+	List<BinaryMessageEvent> getBinaryMessageEvents();
 }
@@ -180,6 +180,9 @@ public class Utils {
 
 	/**
 	 * Returns random number generator. It might be configured for repeatable behavior by setting -DRANDOMSEED option.
+	 * <p>
+	 * Each robot gets its own generator, which is not affected by the random numbers used by other robots or
+	 * battles. Use this generator instead of {@link Math#random()} to make a robot behave the same in repeated battles.
 	 *
 	 * @return random number generator
 	 */
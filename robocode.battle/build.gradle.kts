@@ -9,6 +9,7 @@ dependencies {
     implementation(project(":robocode.host"))
     implementation("org.picocontainer:picocontainer:2.15")
     runtimeOnly(project(":robocode.repository"))
+    testImplementation("junit:junit:4.13.2")
 }
 
 description = "Robocode Battle"
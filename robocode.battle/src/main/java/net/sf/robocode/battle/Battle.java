@@ -9,9 +9,11 @@ package net.sf.robocode.battle;
 
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.battle.events.BattleMetricsDispatcher;
 import net.sf.robocode.battle.peer.BulletPeer;
 import net.sf.robocode.battle.peer.ContestantPeer;
 import net.sf.robocode.battle.peer.RobotPeer;
+import net.sf.robocode.battle.peer.RobotPhysics;
 import net.sf.robocode.battle.peer.TeamPeer;
 import net.sf.robocode.battle.snapshot.TurnSnapshot;
 import net.sf.robocode.host.ICpuManager;
@@ -22,12 +24,13 @@ import net.sf.robocode.repository.IRobotItem;
 import net.sf.robocode.security.HiddenAccess;
 import net.sf.robocode.settings.ISettingsManager;
 import robocode.*;
-import robocode.control.RandomFactory;
 import robocode.control.RobotResults;
 import robocode.control.RobotSetup;
 import robocode.control.RobotSpecification;
 import robocode.control.events.*;
 import robocode.control.events.RoundEndedEvent;
+import robocode.control.metrics.BattleMetrics;
+import robocode.control.metrics.TurnPhase;
 import robocode.control.snapshot.BulletState;
 import robocode.control.snapshot.ITurnSnapshot;
 import robocode.robotinterfaces.IBasicRobot;
@@ -57,16 +60,27 @@ public final class Battle extends BaseBattle {
 
 	private final IHostManager hostManager;
 	private final long cpuConstant;
+	private final BattleMetricsDispatcher metricsDispatcher;
 
 	// Inactivity related items
 	private int inactiveTurnCount;
 	private double inactivityEnergy;
 
+	// Profiling of turns, which is null when disabled
+	private TurnProfiler profiler;
+	private boolean isProfilingLogged;
+
 	// Turn skip related items
 	private boolean parallelOn;
 	private long millisWait;
 	private int nanoWait;
 
+	// Physics that move all robots at once, which is null when each robot moves by itself
+	private RobotPhysics physics;
+
+	// True if the round ends as soon as its scores are final, without the turns shown after the winner is found
+	private boolean isFastRoundEnd;
+
 	// Objects in the battle
 	private int robotsCount;
 	private List<RobotPeer> robots = new ArrayList<RobotPeer>();
@@ -83,10 +97,14 @@ public final class Battle extends BaseBattle {
 	// Initial robot setups (if any)
 	private RobotSetup[] initialRobotSetups;
 
-	public Battle(ISettingsManager properties, IBattleManager battleManager, IHostManager hostManager, ICpuManager cpuManager, BattleEventDispatcher eventDispatcher) { // NO_UCD (unused code)
+	// Random number generators of this battle
+	private BattleRandom battleRandom;
+
+	public Battle(ISettingsManager properties, IBattleManager battleManager, IHostManager hostManager, ICpuManager cpuManager, BattleEventDispatcher eventDispatcher, BattleMetricsDispatcher metricsDispatcher) { // NO_UCD (unused code)
 		super(properties, battleManager, eventDispatcher);
 		this.hostManager = hostManager;
 		this.cpuConstant = cpuManager.getCpuConstant();
+		this.metricsDispatcher = metricsDispatcher;
 	}
 
 	void setup(RobotSpecification[] battlingRobotsList, BattleProperties battleProps, boolean paused) {
@@ -95,6 +113,7 @@ public final class Battle extends BaseBattle {
 				battleProps.getNumRounds(), battleProps.getGunCoolingRate(), battleProps.getInactivityTime(),
 				battleProps.getHideEnemyNames(), battleProps.getSentryBorderSize());
 		robotsCount = battlingRobotsList.length;
+		battleRandom = BattleRandom.create(robotsCount);
 		computeInitialPositions(battleProps.getInitialPositions());
 		createPeers(battlingRobotsList);
 	}
@@ -181,6 +200,10 @@ public final class Battle extends BaseBattle {
 		return robotsCount;
 	}
 
+	public BattleRandom getBattleRandom() {
+		return battleRandom;
+	}
+
 	public boolean isDebugging() {
 		return RobocodeProperties.isDebuggingOn();
 	}
@@ -235,10 +258,9 @@ public final class Battle extends BaseBattle {
 
 		battleManager = null;
 
-		// Request garbage collecting
-		for (int i = 4; i >= 0; i--) { // Make sure it is run
-			System.gc();
-		}
+		// The resources of the robots are left to the garbage collector, which is not forced to run, but the ones
+		// that are still reachable a few battles later are reported
+		hostManager.checkForLeaks();
 	}
 
 	@Override
@@ -265,10 +287,40 @@ public final class Battle extends BaseBattle {
 		if (nanoWait == 0) {
 			nanoWait = 1;
 		}
+
+		if (System.getProperty("PHYSICSKERNEL", "false").equals("true")) {
+			physics = new RobotPhysics(robots.size(), battleRules.getBattlefieldWidth(),
+					battleRules.getBattlefieldHeight());
+		}
+
+		isFastRoundEnd = System.getProperty("FASTROUNDEND", "false").equals("true");
+
+		// Turns are only profiled if somebody is interested in the metrics, as measuring is not free
+		isProfilingLogged = System.getProperty("PROFILE", "false").equals("true");
+		final boolean isJfrRecording = TurnProfiler.isJfrRecording();
+
+		if (isProfilingLogged || isJfrRecording || metricsDispatcher.hasListeners()) {
+			String[] robotNames = new String[robots.size()];
+
+			for (RobotPeer robotPeer : robots) {
+				robotNames[robotPeer.getRobotIndex()] = robotPeer.getName();
+			}
+			profiler = new TurnProfiler(robotNames, isJfrRecording);
+		}
 	}
 
 	@Override
 	protected void finalizeBattle() {
+		if (profiler != null) {
+			final BattleMetrics metrics = profiler.getBattleMetrics();
+
+			if (isProfilingLogged) {
+				Logger.logMessage(metrics.toString());
+			}
+			metricsDispatcher.onBattleMetrics(metrics);
+			profiler = null;
+		}
+
 		eventDispatcher.onBattleFinished(new BattleFinishedEvent(isAborted()));
 
 		if (!isAborted()) {
@@ -357,12 +409,20 @@ public final class Battle extends BaseBattle {
 		bullets.clear();
 
 		eventDispatcher.onRoundEnded(new RoundEndedEvent(getRoundNum(), currentTime, totalTurns));
+
+		if (profiler != null) {
+			metricsDispatcher.onRoundMetrics(profiler.endRound(getRoundNum()));
+		}
 	}
 
 	@Override
 	protected void initializeTurn() {
 		super.initializeTurn();
 
+		if (profiler != null) {
+			profiler.startTurn(getRoundNum(), currentTime + 1);
+		}
+
 		eventDispatcher.onTurnStarted(new TurnStartedEvent());
 	}
 
@@ -370,13 +430,19 @@ public final class Battle extends BaseBattle {
 	protected void runTurn() {
 		super.runTurn();
 
+		long phaseStartTime = startPhase();
+
 		loadCommands();
+		phaseStartTime = endPhase(TurnPhase.LOAD_COMMANDS, phaseStartTime);
 
 		updateBullets();
+		phaseStartTime = endPhase(TurnPhase.UPDATE_BULLETS, phaseStartTime);
 
 		updateRobots();
+		phaseStartTime = endPhase(TurnPhase.UPDATE_ROBOTS, phaseStartTime);
 
 		handleDeadRobots();
+		endPhase(TurnPhase.HANDLE_DEAD_ROBOTS, phaseStartTime);
 
 		if (isAborted() || oneTeamRemaining()) {
 			shutdownTurn();
@@ -386,10 +452,21 @@ public final class Battle extends BaseBattle {
 
 		computeActiveRobots();
 
+		phaseStartTime = startPhase();
 		publishStatuses();
+		phaseStartTime = endPhase(TurnPhase.PUBLISH_STATUSES, phaseStartTime);
 
 		// Robot time!
 		wakeupRobots();
+		endPhase(TurnPhase.WAKEUP_ROBOTS, phaseStartTime);
+	}
+
+	private long startPhase() {
+		return profiler == null ? 0 : System.nanoTime();
+	}
+
+	private long endPhase(TurnPhase phase, long phaseStartTime) {
+		return profiler == null ? 0 : profiler.endPhase(phase, phaseStartTime);
 	}
 
 	@Override
@@ -444,7 +521,8 @@ public final class Battle extends BaseBattle {
 			}
 		}
 
-		if (endTimer > 4 * TURNS_DISPLAYED_AFTER_ENDING) {
+		// With a fast round end, the robots are halted when they have handled the events of the turn where it ended
+		if (endTimer > 4 * TURNS_DISPLAYED_AFTER_ENDING || (isFastRoundEnd && endTimer > 0)) {
 			for (RobotPeer robotPeer : robots) {
 				robotPeer.setHalt(true);
 			}
@@ -453,10 +531,20 @@ public final class Battle extends BaseBattle {
 		super.shutdownTurn();
 	}
 
+	@Override
+	protected boolean isRoundOver() {
+		// The totals of the round are made when it ends, so the turns after it cannot change them
+		return (isFastRoundEnd && endTimer > 1) || super.isRoundOver();
+	}
+
 	@Override
 	protected void finalizeTurn() {
 		eventDispatcher.onTurnEnded(new TurnEndedEvent(new TurnSnapshot(this, robots, bullets, true)));
 
+		if (profiler != null) {
+			profiler.endTurn();
+		}
+
 		super.finalizeTurn();
 	}
 
@@ -493,7 +581,7 @@ public final class Battle extends BaseBattle {
 	private List<RobotPeer> getRobotsAtRandom() {
 		List<RobotPeer> shuffledList = new ArrayList<RobotPeer>(robots);
 
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
+		Collections.shuffle(shuffledList, battleRandom.getOrderRandom());
 		return shuffledList;
 	}
 
@@ -505,7 +593,7 @@ public final class Battle extends BaseBattle {
 	private List<BulletPeer> getBulletsAtRandom() {
 		List<BulletPeer> shuffledList = new ArrayList<BulletPeer>(bullets);
 
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
+		Collections.shuffle(shuffledList, battleRandom.getOrderRandom());
 		return shuffledList;
 	}
 
@@ -517,7 +605,7 @@ public final class Battle extends BaseBattle {
 	private List<RobotPeer> getDeathRobotsAtRandom() {
 		List<RobotPeer> shuffledList = new ArrayList<RobotPeer>(deathRobots);
 
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
+		Collections.shuffle(shuffledList, battleRandom.getOrderRandom());
 		return shuffledList;
 	}
 
@@ -542,6 +630,14 @@ public final class Battle extends BaseBattle {
 
 		final double zapEnergy = isAborted() ? 5 : zap ? .1 : 0;
 
+		// Turn and move all bots at once, before they check for collisions one by one
+		if (physics != null) {
+			for (RobotPeer robotPeer : robots) {
+				robotPeer.stageMove(physics);
+			}
+			physics.advance();
+		}
+
 		// Move all bots
 		for (RobotPeer robotPeer : getRobotsAtRandom()) {
 			robotPeer.performMove(getRobotsAtRandom(), zapEnergy);
@@ -630,42 +726,63 @@ public final class Battle extends BaseBattle {
 	private void wakeupSerial(List<RobotPeer> robotsAtRandom) {
 		for (RobotPeer robotPeer : robotsAtRandom) {
 			if (robotPeer.isRunning()) {
+				final long wakeupStartTime = startPhase();
+
 				// This call blocks until the robot's thread actually wakes up.
 				robotPeer.waitWakeup();
 
+				final long computeStartTime = startPhase();
+
 				if (robotPeer.isAlive()) {
-					if (isDebugging() || robotPeer.isPaintEnabled()) {
-						robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
-					} else if (currentTime == 1) {
-						robotPeer.waitSleeping(millisWait * 10, 1);
-					} else {
-						robotPeer.waitSleeping(millisWait, nanoWait);
-					}
+					waitSleeping(robotPeer);
+				}
+				if (profiler != null) {
+					profiler.recordRobot(robotPeer.getRobotIndex(), computeStartTime - wakeupStartTime,
+							System.nanoTime() - computeStartTime);
 				}
 			}
 		}
 	}
 
 	private void wakeupParallel(List<RobotPeer> robotsAtRandom) {
+		long[] wakeupDurations = profiler == null ? null : new long[robots.size()];
+
 		for (RobotPeer robotPeer : robotsAtRandom) {
 			if (robotPeer.isRunning()) {
+				final long wakeupStartTime = startPhase();
+
 				// This call blocks until the robot's thread actually wakes up.
 				robotPeer.waitWakeup();
+
+				if (wakeupDurations != null) {
+					wakeupDurations[robotPeer.getRobotIndex()] = System.nanoTime() - wakeupStartTime;
+				}
 			}
 		}
 		for (RobotPeer robotPeer : robotsAtRandom) {
 			if (robotPeer.isRunning() && robotPeer.isAlive()) {
-				if (isDebugging() || robotPeer.isPaintEnabled()) {
-					robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
-				} else if (currentTime == 1) {
-					robotPeer.waitSleeping(millisWait * 10, 1);
-				} else {
-					robotPeer.waitSleeping(millisWait, nanoWait);
+				final long computeStartTime = startPhase();
+
+				waitSleeping(robotPeer);
+
+				if (wakeupDurations != null) {
+					profiler.recordRobot(robotPeer.getRobotIndex(), wakeupDurations[robotPeer.getRobotIndex()],
+							System.nanoTime() - computeStartTime);
 				}
 			}
 		}
 	}
 
+	private void waitSleeping(RobotPeer robotPeer) {
+		if (isDebugging() || robotPeer.isPaintEnabled()) {
+			robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
+		} else if (currentTime == 1) {
+			robotPeer.waitSleeping(millisWait * 10, 1);
+		} else {
+			robotPeer.waitSleeping(millisWait, nanoWait);
+		}
+	}
+
 	private int getActiveContestantCount(RobotPeer peer) {
 		int count = 0;
 
@@ -717,7 +834,7 @@ public final class Battle extends BaseBattle {
 		for (int i = 0; i < positions.size(); i++) {
 			coords = positions.get(i).split(",");
 
-			Random random = RandomFactory.getRandom();
+			Random random = battleRandom.getPlacementRandom();
 
 			x = RobotPeer.WIDTH + random.nextDouble() * (battleRules.getBattlefieldWidth() - 2 * RobotPeer.WIDTH);
 			y = RobotPeer.HEIGHT + random.nextDouble() * (battleRules.getBattlefieldHeight() - 2 * RobotPeer.HEIGHT);
@@ -9,8 +9,8 @@ package net.sf.robocode.battle;
 
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.battle.events.BattleMetricsDispatcher;
 import net.sf.robocode.core.Container;
-import net.sf.robocode.host.ICpuManager;
 import net.sf.robocode.host.IHostManager;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
@@ -24,12 +24,12 @@ import net.sf.robocode.settings.ISettingsManager;
 import net.sf.robocode.ui.IWindowManager;
 import robocode.Event;
 import robocode.control.BattleSpecification;
-import robocode.control.RandomFactory;
 import robocode.control.RobotSetup;
 import robocode.control.RobotSpecification;
 import robocode.control.events.BattlePausedEvent;
 import robocode.control.events.BattleResumedEvent;
 import robocode.control.events.IBattleListener;
+import robocode.control.metrics.IBattleMetricsListener;
 
 import java.io.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,7 +46,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class BattleManager implements IBattleManager {
 	private final ISettingsManager properties;
 	private final IHostManager hostManager;
-	private final ICpuManager cpuManager;
 	private final IRecordManager recordManager;
 	private final IRepositoryManager repositoryManager;
 
@@ -55,6 +54,7 @@ public class BattleManager implements IBattleManager {
 	private BattleProperties battleProperties;
 
 	private final BattleEventDispatcher battleEventDispatcher;
+	private final BattleMetricsDispatcher battleMetricsDispatcher;
 
 	private String battleFilename;
 	private String battlePath;
@@ -62,13 +62,13 @@ public class BattleManager implements IBattleManager {
 	private int pauseCount = 0;
 	private final AtomicBoolean isManagedTPS = new AtomicBoolean(false);
 
-	public BattleManager(ISettingsManager properties, IRepositoryManager repositoryManager, IHostManager hostManager, ICpuManager cpuManager, BattleEventDispatcher battleEventDispatcher, IRecordManager recordManager) { // NO_UCD (unused code)
+	public BattleManager(ISettingsManager properties, IRepositoryManager repositoryManager, IHostManager hostManager, BattleEventDispatcher battleEventDispatcher, BattleMetricsDispatcher battleMetricsDispatcher, IRecordManager recordManager) { // NO_UCD (unused code)
 		this.properties = properties;
 		this.recordManager = recordManager;
 		this.repositoryManager = repositoryManager;
-		this.cpuManager = cpuManager;
 		this.hostManager = hostManager;
 		this.battleEventDispatcher = battleEventDispatcher;
+		this.battleMetricsDispatcher = battleMetricsDispatcher;
 		Logger.setLogListener(battleEventDispatcher);
 		battleProperties = new BattleProperties(properties);
 	}
@@ -137,16 +137,6 @@ public class BattleManager implements IBattleManager {
 			recordManager.detachRecorder();
 		}
 
-		// resets seed for deterministic behavior of Random
-		final String seed = System.getProperty("RANDOMSEED", "none");
-
-		if (!seed.equals("none")) {
-			// init soon as it reads random
-			cpuManager.getCpuConstant();
-
-			RandomFactory.resetDeterministic(Long.valueOf(seed));
-		}
-
 		Battle realBattle = Container.createComponent(Battle.class);
 		realBattle.setup(battlingRobotsList, battleProperties, isPaused());
 
@@ -298,6 +288,14 @@ public class BattleManager implements IBattleManager {
 		battleEventDispatcher.removeListener(listener);
 	}
 
+	public synchronized void addMetricsListener(IBattleMetricsListener listener) {
+		battleMetricsDispatcher.addListener(listener);
+	}
+
+	public synchronized void removeMetricsListener(IBattleMetricsListener listener) {
+		battleMetricsDispatcher.removeListener(listener);
+	}
+
 	public synchronized void stop(boolean waitTillEnd) {
 		if (battle != null && battle.isRunning()) {
 			battle.stop(waitTillEnd);
@@ -9,6 +9,7 @@ package net.sf.robocode.battle;
 
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.battle.events.BattleMetricsDispatcher;
 import net.sf.robocode.core.Container;
 import net.sf.robocode.recording.BattlePlayer;
 import net.sf.robocode.recording.IRecordManager;
@@ -22,6 +23,7 @@ public class Module {
 	static {
 		Container.cache.addComponent(IBattleManager.class, BattleManager.class);
 		Container.cache.addComponent(BattleEventDispatcher.class);
+		Container.cache.addComponent(BattleMetricsDispatcher.class);
 		Container.cache.addComponent(IRecordManager.class, RecordManager.class);
 
 		Container.factory.addComponent(Battle.class);
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import robocode.control.metrics.BattleMetrics;
+import robocode.control.metrics.Histogram;
+import robocode.control.metrics.TurnPhase;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Records the durations of the turn phases and the robots of a battle into histograms.
+ * All methods must be called on the battle thread.
+ * <p>
+ * The durations are also committed as JFR events, if a flight recording was running when the battle started.
+ *
+ * @since 1.9.5.3
+ */
+final class TurnProfiler {
+
+	private final String[] robotNames;
+	private final boolean isJfrEnabled;
+
+	private final Histogram roundTurnHistogram = new Histogram();
+	private final Histogram battleTurnHistogram = new Histogram();
+	private final Map<TurnPhase, Histogram> roundPhaseHistograms = new EnumMap<TurnPhase, Histogram>(TurnPhase.class);
+	private final Map<TurnPhase, Histogram> battlePhaseHistograms = new EnumMap<TurnPhase, Histogram>(TurnPhase.class);
+	private final Histogram[] roundComputeHistograms;
+	private final Histogram[] battleComputeHistograms;
+	private final Histogram[] roundWakeupHistograms;
+	private final Histogram[] battleWakeupHistograms;
+
+	private int roundTurns;
+	private int battleTurns;
+	private int round;
+	private int turn;
+	private long turnStartTime;
+
+	TurnProfiler(String[] robotNames, boolean isJfrEnabled) {
+		this.robotNames = robotNames;
+		this.isJfrEnabled = isJfrEnabled;
+
+		for (TurnPhase phase : TurnPhase.values()) {
+			roundPhaseHistograms.put(phase, new Histogram());
+			battlePhaseHistograms.put(phase, new Histogram());
+		}
+		roundComputeHistograms = createHistograms(robotNames.length);
+		battleComputeHistograms = createHistograms(robotNames.length);
+		roundWakeupHistograms = createHistograms(robotNames.length);
+		battleWakeupHistograms = createHistograms(robotNames.length);
+	}
+
+	/**
+	 * Checks if a flight recording is running, so that the profiler should commit JFR events.
+	 *
+	 * @return true if JFR events must be committed; false otherwise.
+	 */
+	static boolean isJfrRecording() {
+		try {
+			Class.forName("jdk.jfr.FlightRecorder");
+		} catch (ClassNotFoundException e) {
+			return false; // JFR is not supported by this JVM
+		}
+		return TurnProfilerEvents.isRecording();
+	}
+
+	void startTurn(int round, int turn) {
+		this.round = round;
+		this.turn = turn;
+		turnStartTime = System.nanoTime();
+	}
+
+	void endTurn() {
+		final long duration = System.nanoTime() - turnStartTime;
+
+		roundTurnHistogram.record(duration);
+		roundTurns++;
+	}
+
+	/**
+	 * Records the duration of a turn phase.
+	 *
+	 * @param phase the phase that has ended.
+	 * @param startTime the time the phase started as returned by {@link System#nanoTime()}.
+	 * @return the time the phase ended, which can be used as the start time of the next phase.
+	 */
+	long endPhase(TurnPhase phase, long startTime) {
+		final long endTime = System.nanoTime();
+		final long duration = endTime - startTime;
+
+		roundPhaseHistograms.get(phase).record(duration);
+		if (isJfrEnabled) {
+			TurnProfilerEvents.commitPhase(round, turn, phase, duration);
+		}
+		return endTime;
+	}
+
+	/**
+	 * Records the time it took to wake up a robot and the time the robot then used before taking action.
+	 *
+	 * @param robotIndex the index of the robot.
+	 * @param wakeupDuration the time spent waking up the robot in nanoseconds.
+	 * @param computeDuration the time spent waiting for the robot to take action in nanoseconds.
+	 */
+	void recordRobot(int robotIndex, long wakeupDuration, long computeDuration) {
+		roundWakeupHistograms[robotIndex].record(wakeupDuration);
+		roundComputeHistograms[robotIndex].record(computeDuration);
+		if (isJfrEnabled) {
+			TurnProfilerEvents.commitRobot(round, turn, robotNames[robotIndex], wakeupDuration, computeDuration);
+		}
+	}
+
+	/**
+	 * Returns the metrics of the current round, and starts measuring a new round.
+	 *
+	 * @param round the round number of the round that has ended.
+	 * @return the metrics of the round that has ended.
+	 */
+	BattleMetrics endRound(int round) {
+		final BattleMetrics metrics = createMetrics(round, roundTurns, roundTurnHistogram, roundPhaseHistograms,
+				roundComputeHistograms, roundWakeupHistograms);
+
+		battleTurnHistogram.add(roundTurnHistogram);
+		roundTurnHistogram.reset();
+		for (TurnPhase phase : TurnPhase.values()) {
+			battlePhaseHistograms.get(phase).add(roundPhaseHistograms.get(phase));
+			roundPhaseHistograms.get(phase).reset();
+		}
+		for (int i = 0; i < robotNames.length; i++) {
+			battleComputeHistograms[i].add(roundComputeHistograms[i]);
+			roundComputeHistograms[i].reset();
+			battleWakeupHistograms[i].add(roundWakeupHistograms[i]);
+			roundWakeupHistograms[i].reset();
+		}
+		battleTurns += roundTurns;
+		roundTurns = 0;
+
+		return metrics;
+	}
+
+	/**
+	 * Returns the metrics of all the rounds that have ended.
+	 *
+	 * @return the metrics of the battle.
+	 */
+	BattleMetrics getBattleMetrics() {
+		return createMetrics(-1, battleTurns, battleTurnHistogram, battlePhaseHistograms, battleComputeHistograms,
+				battleWakeupHistograms);
+	}
+
+	private BattleMetrics createMetrics(int round, int turns, Histogram turnHistogram,
+			Map<TurnPhase, Histogram> phaseHistograms, Histogram[] computeHistograms, Histogram[] wakeupHistograms) {
+		Map<TurnPhase, Histogram> phases = new EnumMap<TurnPhase, Histogram>(TurnPhase.class);
+
+		for (Map.Entry<TurnPhase, Histogram> entry : phaseHistograms.entrySet()) {
+			phases.put(entry.getKey(), entry.getValue().copy());
+		}
+		return new BattleMetrics(round, turns, turnHistogram.copy(), phases, robotNames.clone(),
+				copyHistograms(computeHistograms), copyHistograms(wakeupHistograms));
+	}
+
+	private static Histogram[] createHistograms(int count) {
+		Histogram[] histograms = new Histogram[count];
+
+		for (int i = 0; i < count; i++) {
+			histograms[i] = new Histogram();
+		}
+		return histograms;
+	}
+
+	private static Histogram[] copyHistograms(Histogram[] histograms) {
+		Histogram[] copies = new Histogram[histograms.length];
+
+		for (int i = 0; i < histograms.length; i++) {
+			copies[i] = histograms[i].copy();
+		}
+		return copies;
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import robocode.control.metrics.TurnPhase;
+
+
+/**
+ * JFR events committed by the {@link TurnProfiler}.
+ * This class must only be loaded when the JVM supports JFR, which is checked by
+ * {@link TurnProfiler#isJfrRecording()}.
+ *
+ * @since 1.9.5.3
+ */
+final class TurnProfilerEvents {
+
+	private TurnProfilerEvents() {}
+
+	static boolean isRecording() {
+		return FlightRecorder.isAvailable() && FlightRecorder.isInitialized()
+				&& !FlightRecorder.getFlightRecorder().getRecordings().isEmpty();
+	}
+
+	static void commitPhase(int round, int turn, TurnPhase phase, long duration) {
+		TurnPhaseEvent event = new TurnPhaseEvent();
+
+		if (event.isEnabled()) {
+			event.round = round;
+			event.turn = turn;
+			event.phase = phase.name();
+			event.phaseDuration = duration;
+			event.commit();
+		}
+	}
+
+	static void commitRobot(int round, int turn, String robot, long wakeupDuration, long computeDuration) {
+		RobotTurnEvent event = new RobotTurnEvent();
+
+		if (event.isEnabled()) {
+			event.round = round;
+			event.turn = turn;
+			event.robot = robot;
+			event.wakeupDuration = wakeupDuration;
+			event.computeDuration = computeDuration;
+			event.commit();
+		}
+	}
+
+	@Name("robocode.TurnPhase")
+	@Label("Turn Phase")
+	@Description("Time spent by the battle thread in a phase of a turn")
+	@Category({"Robocode", "Battle"})
+	@StackTrace(false)
+	public static final class TurnPhaseEvent extends Event {
+		@Label("Round")
+		int round;
+
+		@Label("Turn")
+		int turn;
+
+		@Label("Phase")
+		String phase;
+
+		@Label("Phase Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long phaseDuration;
+	}
+
+	@Name("robocode.RobotTurn")
+	@Label("Robot Turn")
+	@Description("Time the battle thread waited for a robot to wake up and take action")
+	@Category({"Robocode", "Battle"})
+	@StackTrace(false)
+	public static final class RobotTurnEvent extends Event {
+		@Label("Round")
+		int round;
+
+		@Label("Turn")
+		int turn;
+
+		@Label("Robot")
+		String robot;
+
+		@Label("Wakeup Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long wakeupDuration;
+
+		@Label("Compute Duration")
+		@Timespan(Timespan.NANOSECONDS)
+		long computeDuration;
+	}
+}
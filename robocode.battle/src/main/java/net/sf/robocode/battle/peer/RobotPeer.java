@@ -23,7 +23,6 @@ import net.sf.robocode.repository.IRobotItem;
 import net.sf.robocode.security.HiddenAccess;
 import net.sf.robocode.serialization.RbSerializer;
 import robocode.*;
-import robocode.control.RandomFactory;
 import robocode.control.RobotSetup;
 import robocode.control.RobotSpecification;
 import robocode.control.snapshot.BulletState;
@@ -37,7 +36,6 @@ import robocode.util.Utils;
 import static robocode.util.Utils.*;
 
 import java.awt.geom.Arc2D;
-import java.awt.geom.Rectangle2D;
 import java.io.IOException;
 
 import static java.lang.Math.*;
@@ -137,8 +135,13 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private boolean inCollision;
 	private boolean isOverDriving;
 
+	// the physics this robot has been staged in for the current turn, or null if it moves by itself
+	private RobotPhysics physics;
+
 	private RobotState state;
+	private final ScanSector scanSector;
 	private final Arc2D scanArc;
+	private boolean isScanArcOutdated;
 	private final BoundingRectangle boundingBox;
 	private final RbSerializer rbSerializer;
 
@@ -151,6 +154,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		this.rbSerializer = new RbSerializer();
 
 		this.boundingBox = new BoundingRectangle();
+		this.scanSector = new ScanSector();
 		this.scanArc = new Arc2D.Double();
 		this.teamPeer = team;
 		this.state = RobotState.ACTIVE;
@@ -272,6 +276,10 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		return statics.getRobotIndex();
 	}
 
+	public Random getRandom() {
+		return battle.getBattleRandom().getRobotRandom(statics.getRobotIndex());
+	}
+
 	public IBasicRobot getRobotObject() {
 		return robotProxy.getRobotObject();
 	}
@@ -341,6 +349,11 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	}
 
 	public Arc2D getScanArc() {
+		// The arc is only needed for the snapshots, so it is not made before somebody asks for it
+		if (isScanArcOutdated) {
+			scanSector.toArc(scanArc);
+			isScanArcOutdated = false;
+		}
 		return scanArc;
 	}
 
@@ -677,7 +690,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 
 		if (!valid) {
-			final Random random = RandomFactory.getRandom();
+			final Random random = battle.getBattleRandom().getPlacementRandom();
 
 			double maxWidth = battleRules.getBattlefieldWidth() - RobotPeer.WIDTH;
 			double maxHeight = battleRules.getBattlefieldHeight() - RobotPeer.HEIGHT;
@@ -757,6 +770,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		scanArc.setAngleStart(0);
 		scanArc.setAngleExtent(0);
 		scanArc.setFrame(-100, -100, 1, 1);
+		isScanArcOutdated = false;
 
 		lastExecutionTime = -1;
 
@@ -816,8 +830,14 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		synchronized (isSleeping) {
 			try {
-				// Wait for the robot to go to sleep (take action)
-				isSleeping.wait(waitMillis, waitNanos);
+				// Wait for the robot to go to sleep (take action). A robot thread that is reused from the last round
+				// can already be asleep before this thread gets the lock, so it is only waited for while it is awake.
+				final long deadline = System.nanoTime() + waitMillis * 1000000 + waitNanos;
+				long remaining;
+
+				while (!isSleeping() && (remaining = deadline - System.nanoTime()) > 0) {
+					isSleeping.wait(remaining / 1000000, (int) (remaining % 1000000));
+				}
 			} catch (InterruptedException e) {
 				logMessage("Wait for " + getName() + " interrupted.");
 
@@ -902,19 +922,24 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		final double lastX = x;
 		final double lastY = y;
 
-		if (!inCollision) {
-			updateHeading();
-		}
+		if (physics != null) {
+			// The robot has been turned and moved, and stopped at the walls, by the physics
+			updateFromPhysics();
+		} else {
+			if (!inCollision) {
+				updateHeading();
+			}
 
-		updateGunHeading();
-		updateRadarHeading();
-		updateMovement();
+			updateGunHeading();
+			updateRadarHeading();
+			updateMovement();
 
-		// At this point, robot has turned then moved.
-		// We could be touching a wall or another bot...
+			// At this point, robot has turned then moved.
+			// We could be touching a wall or another bot...
 
-		// First and foremost, we can never go through a wall:
-		checkWallCollision();
+			// First and foremost, we can never go through a wall:
+			checkWallCollision();
+		}
 
 		// If this robot is a border sentry robot then check if it hits its "range border"
 		if (isSentryRobot()) {
@@ -1072,6 +1097,87 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 	}
 
+	/**
+	 * Copies the movement state and commands of this robot into the physics, which moves all staged robots before
+	 * they perform their moves.
+	 *
+	 * @param physics the physics of the battle
+	 */
+	public void stageMove(RobotPhysics physics) {
+		final int index = getRobotIndex();
+
+		if (isDead()) {
+			physics.isStaged[index] = false;
+			this.physics = null;
+			return;
+		}
+		this.physics = physics;
+
+		physics.x[index] = x;
+		physics.y[index] = y;
+		physics.bodyHeading[index] = bodyHeading;
+		physics.gunHeading[index] = gunHeading;
+		physics.radarHeading[index] = radarHeading;
+		physics.velocity[index] = velocity;
+		physics.isOverDriving[index] = isOverDriving;
+
+		physics.bodyTurnRemaining[index] = currentCommands.getBodyTurnRemaining();
+		physics.gunTurnRemaining[index] = currentCommands.getGunTurnRemaining();
+		physics.radarTurnRemaining[index] = currentCommands.getRadarTurnRemaining();
+		physics.distanceRemaining[index] = currentCommands.getDistanceRemaining();
+		physics.maxVelocity[index] = currentCommands.getMaxVelocity();
+		physics.maxTurnRate[index] = currentCommands.getMaxTurnRate();
+		physics.isAdjustGunForBodyTurn[index] = currentCommands.isAdjustGunForBodyTurn();
+		physics.isAdjustRadarForBodyTurn[index] = currentCommands.isAdjustRadarForBodyTurn();
+		physics.isAdjustRadarForGunTurn[index] = currentCommands.isAdjustRadarForGunTurn();
+
+		physics.isTurning[index] = !inCollision;
+		physics.isStaged[index] = true;
+	}
+
+	private void updateFromPhysics() {
+		final int index = getRobotIndex();
+
+		// The commands have been changed since the robot was staged, so it is moved again by itself
+		if (!physics.isStaged[index]) {
+			stageMove(physics);
+			physics.advance(index);
+		}
+
+		x = physics.x[index];
+		y = physics.y[index];
+		bodyHeading = physics.bodyHeading[index];
+		gunHeading = physics.gunHeading[index];
+		radarHeading = physics.radarHeading[index];
+		velocity = physics.velocity[index];
+		isOverDriving = physics.isOverDriving[index];
+
+		currentCommands.setBodyTurnRemaining(physics.bodyTurnRemaining[index]);
+		currentCommands.setGunTurnRemaining(physics.gunTurnRemaining[index]);
+		currentCommands.setRadarTurnRemaining(physics.radarTurnRemaining[index]);
+		currentCommands.setDistanceRemaining(physics.distanceRemaining[index]);
+
+		final boolean hitWall = physics.hitWall[index];
+		final double hitWallAngle = physics.hitWallAngle[index];
+		final double hitWallVelocity = physics.hitWallVelocity[index];
+
+		physics.isStaged[index] = false;
+		physics = null;
+
+		if (velocity != 0 || hitWall) {
+			updateBoundingBox();
+		}
+		if (hitWall) {
+			addEvent(new HitWallEvent(hitWallAngle));
+
+			// Update energy, but do not reset inactiveTurnCount
+			if (statics.isAdvancedRobot()) {
+				setEnergy(energy - Rules.getWallHitDamage(hitWallVelocity), false);
+			}
+			setState(RobotState.HIT_WALL);
+		}
+	}
+
 	private void checkWallCollision() {
 		int minX = 0 + HALF_WIDTH_OFFSET;
 		int minY = 0 + HALF_HEIGHT_OFFSET;
@@ -1448,66 +1554,11 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	}
 
 	private double getDistanceTraveledUntilStop(double velocity) {
-		double distance = 0;
-
-		velocity = Math.abs(velocity);
-		while (velocity > 0) {
-			distance += (velocity = getNewVelocity(velocity, 0));
-		}
-		return distance;
+		return RobotPhysics.getDistanceTraveledUntilStop(velocity, currentCommands.getMaxVelocity());
 	}
 
-	/**
-	 * Returns the new velocity based on the current velocity and distance to move.
-	 *
-	 * @param velocity the current velocity
-	 * @param distance the distance to move
-	 * @return the new velocity based on the current velocity and distance to move
-	 * 
-	 * This is Patrick Cupka (aka Voidious), Julian Kent (aka Skilgannon), and Positive's method described here:
-	 *   https://robowiki.net/wiki/User:Voidious/Optimal_Velocity#Hijack_2
-	 */
 	private double getNewVelocity(double velocity, double distance) {
-		if (distance < 0) {
-			// If the distance is negative, then change it to be positive
-			// and change the sign of the input velocity and the result
-			return -getNewVelocity(-velocity, -distance);
-		}
-
-		final double goalVel;
-
-		if (distance == Double.POSITIVE_INFINITY) {
-			goalVel = currentCommands.getMaxVelocity();
-		} else {
-			goalVel = Math.min(getMaxVelocity(distance), currentCommands.getMaxVelocity());
-		}
-
-		if (velocity >= 0) {
-			return Math.max(velocity - Rules.DECELERATION, Math.min(goalVel, velocity + Rules.ACCELERATION));
-		}
-		// else
-		return Math.max(velocity - Rules.ACCELERATION, Math.min(goalVel, velocity + maxDecel(-velocity)));
-	}
-
-	private final static double getMaxVelocity(double distance) {
-		final double decelTime = Math.max(1, Math.ceil(// sum of 0... decelTime, solving for decelTime using quadratic formula
-				(Math.sqrt((4 * 2 / Rules.DECELERATION) * distance + 1) - 1) / 2));
-
-		if (decelTime == Double.POSITIVE_INFINITY) {
-			return Rules.MAX_VELOCITY;
-		}
-
-		final double decelDist = (decelTime / 2.0) * (decelTime - 1) // sum of 0..(decelTime-1)
-				* Rules.DECELERATION;
-
-		return ((decelTime - 1) * Rules.DECELERATION) + ((distance - decelDist) / decelTime);
-	}
-
-	private static double maxDecel(double speed) {
-		double decelTime = speed / Rules.DECELERATION;
-		double accelTime = (1 - decelTime);
-
-		return Math.min(1, decelTime) * Rules.DECELERATION + Math.max(0, accelTime) * Rules.ACCELERATION;
+		return RobotPhysics.getNewVelocity(velocity, distance, currentCommands.getMaxVelocity());
 	}
 
 	private void updateGunHeat() {
@@ -1522,8 +1573,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 			return;
 		}
 
-		double startAngle = lastRadarHeading;
-		double scanRadians = getRadarHeading() - startAngle;
+		double scanRadians = getRadarHeading() - lastRadarHeading;
 
 		// Check if we passed through 360
 		if (scanRadians < -PI) {
@@ -1532,19 +1582,12 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 			scanRadians = scanRadians - 2 * PI;
 		}
 
-		// In our coords, we are scanning clockwise, with +y up
-		// In java coords, we are scanning counterclockwise, with +y down
-		// All we need to do is adjust our angle by -90 for this to work.
-		startAngle -= PI / 2;
-
-		startAngle = normalAbsoluteAngle(startAngle);
-
-		scanArc.setArc(x - Rules.RADAR_SCAN_RADIUS, y - Rules.RADAR_SCAN_RADIUS, 2 * Rules.RADAR_SCAN_RADIUS,
-				2 * Rules.RADAR_SCAN_RADIUS, 180.0 * startAngle / PI, 180.0 * scanRadians / PI, Arc2D.PIE);
+		scanSector.set(x, y, Rules.RADAR_SCAN_RADIUS, lastRadarHeading, scanRadians);
+		isScanArcOutdated = true;
 
 		for (RobotPeer otherRobot : robots) {
 			if (!(otherRobot == null || otherRobot == this || otherRobot.isDead())
-					&& intersects(scanArc, otherRobot.boundingBox)) {
+					&& scanSector.intersects(otherRobot.boundingBox)) {
 				double dx = otherRobot.x - x;
 				double dy = otherRobot.y - y;
 				double angle = atan2(dx, dy);
@@ -1559,12 +1602,6 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 	}
 
-	private boolean intersects(Arc2D arc, Rectangle2D rect) {
-		return (rect.intersectsLine(arc.getCenterX(), arc.getCenterY(), arc.getStartPoint().getX(),
-				arc.getStartPoint().getY()))
-				|| arc.intersects(rect);
-	}
-
 	private void zap(double zapAmount) {
 		if (energy == 0) {
 			kill();
@@ -1644,6 +1681,10 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 			localCommands.setDistanceRemaining(0);
 			localCommands.setBodyTurnRemaining(0);
+
+			if (physics != null) {
+				physics.isStaged[getRobotIndex()] = false;
+			}
 		}
 	}
 
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import net.sf.robocode.io.Logger;
+import robocode.Rules;
+
+import static java.lang.Math.*;
+import static robocode.util.Utils.*;
+
+
+/**
+ * The movement of all robots in a battle, where the headings, velocities, positions and the remaining turns and
+ * distances of the robots are kept in arrays indexed by the robot index.
+ * <p>
+ * At the start of each turn, the robots copy their state and commands into the arrays, and all robots are moved at
+ * once with a few tight loops over the arrays. Each robot copies the result back when it performs its move, and then
+ * checks for collisions with the other robots. Moving a robot only depends on its own state and commands, so the
+ * robots end up exactly where they end up when each robot moves by itself, which is what the rest of RobotPeer still
+ * does when no physics is used.
+ * <p>
+ * A robot whose commands are changed after it has been staged, e.g. when it is disabled by a robot moving before it,
+ * is staged and moved again by itself.
+ *
+ * @since 1.9.5.3
+ */
+public final class RobotPhysics {
+
+	private static final int
+			HALF_WIDTH_OFFSET = RobotPeer.WIDTH / 2,
+			HALF_HEIGHT_OFFSET = RobotPeer.HEIGHT / 2;
+
+	private final int count;
+
+	private final int minX;
+	private final int minY;
+	private final int maxX;
+	private final int maxY;
+
+	// state of the robots
+	final double[] x;
+	final double[] y;
+	final double[] bodyHeading;
+	final double[] gunHeading;
+	final double[] radarHeading;
+	final double[] velocity;
+	final boolean[] isOverDriving;
+
+	// commands of the robots
+	final double[] bodyTurnRemaining;
+	final double[] gunTurnRemaining;
+	final double[] radarTurnRemaining;
+	final double[] distanceRemaining;
+	final double[] maxVelocity;
+	final double[] maxTurnRate;
+	final boolean[] isAdjustGunForBodyTurn;
+	final boolean[] isAdjustRadarForBodyTurn;
+	final boolean[] isAdjustRadarForGunTurn;
+
+	// robots that move this turn, and robots that can turn their body, i.e. are not in a collision
+	final boolean[] isStaged;
+	final boolean[] isTurning;
+
+	// wall hits of this turn, with the velocity the robot had when it hit the wall
+	final boolean[] hitWall;
+	final double[] hitWallAngle;
+	final double[] hitWallVelocity;
+
+	/**
+	 * Creates the physics of a battle.
+	 *
+	 * @param count the number of robots in the battle
+	 * @param battlefieldWidth the width of the battlefield
+	 * @param battlefieldHeight the height of the battlefield
+	 */
+	public RobotPhysics(int count, int battlefieldWidth, int battlefieldHeight) {
+		this.count = count;
+
+		minX = HALF_WIDTH_OFFSET;
+		minY = HALF_HEIGHT_OFFSET;
+		maxX = battlefieldWidth - HALF_WIDTH_OFFSET;
+		maxY = battlefieldHeight - HALF_HEIGHT_OFFSET;
+
+		x = new double[count];
+		y = new double[count];
+		bodyHeading = new double[count];
+		gunHeading = new double[count];
+		radarHeading = new double[count];
+		velocity = new double[count];
+		isOverDriving = new boolean[count];
+
+		bodyTurnRemaining = new double[count];
+		gunTurnRemaining = new double[count];
+		radarTurnRemaining = new double[count];
+		distanceRemaining = new double[count];
+		maxVelocity = new double[count];
+		maxTurnRate = new double[count];
+		isAdjustGunForBodyTurn = new boolean[count];
+		isAdjustRadarForBodyTurn = new boolean[count];
+		isAdjustRadarForGunTurn = new boolean[count];
+
+		isStaged = new boolean[count];
+		isTurning = new boolean[count];
+
+		hitWall = new boolean[count];
+		hitWallAngle = new double[count];
+		hitWallVelocity = new double[count];
+	}
+
+	/**
+	 * Moves all staged robots one turn.
+	 */
+	public void advance() {
+		advance(0, count);
+	}
+
+	/**
+	 * Moves a single staged robot one turn.
+	 *
+	 * @param index the robot index
+	 */
+	void advance(int index) {
+		advance(index, index + 1);
+	}
+
+	private void advance(int from, int to) {
+		updateHeadings(from, to);
+		updateGunHeadings(from, to);
+		updateRadarHeadings(from, to);
+		updateMovements(from, to);
+		checkWallCollisions(from, to);
+	}
+
+	private void updateHeadings(int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!isStaged[i] || !isTurning[i]) {
+				continue;
+			}
+			final double turn = bodyTurnRemaining[i];
+			final double turnRate = min(maxTurnRate[i],
+					(.4 + .6 * (1 - (abs(velocity[i]) / Rules.MAX_VELOCITY))) * Rules.MAX_TURN_RATE_RADIANS);
+
+			if ((turn > 0 && turn < turnRate) || (turn < 0 && turn > -turnRate)) {
+				bodyHeading[i] += turn;
+				gunHeading[i] += turn;
+				radarHeading[i] += turn;
+				if (isAdjustGunForBodyTurn[i]) {
+					gunTurnRemaining[i] -= turn;
+				}
+				if (isAdjustRadarForBodyTurn[i]) {
+					radarTurnRemaining[i] -= turn;
+				}
+				bodyTurnRemaining[i] = 0;
+			} else if (turn > 0) {
+				bodyHeading[i] += turnRate;
+				gunHeading[i] += turnRate;
+				radarHeading[i] += turnRate;
+				bodyTurnRemaining[i] = turn - turnRate;
+				if (isAdjustGunForBodyTurn[i]) {
+					gunTurnRemaining[i] -= turnRate;
+				}
+				if (isAdjustRadarForBodyTurn[i]) {
+					radarTurnRemaining[i] -= turnRate;
+				}
+			} else if (turn < 0) {
+				bodyHeading[i] -= turnRate;
+				gunHeading[i] -= turnRate;
+				radarHeading[i] -= turnRate;
+				bodyTurnRemaining[i] = turn + turnRate;
+				if (isAdjustGunForBodyTurn[i]) {
+					gunTurnRemaining[i] += turnRate;
+				}
+				if (isAdjustRadarForBodyTurn[i]) {
+					radarTurnRemaining[i] += turnRate;
+				}
+			}
+			if (turn != 0 && !Double.isNaN(turn)) {
+				if (bodyTurnRemaining[i] == 0) {
+					bodyHeading[i] = normalNearAbsoluteAngle(bodyHeading[i]);
+				} else {
+					bodyHeading[i] = normalAbsoluteAngle(bodyHeading[i]);
+				}
+			}
+			if (Double.isNaN(bodyHeading[i])) {
+				Logger.realErr.println("HOW IS HEADING NAN HERE");
+			}
+		}
+	}
+
+	private void updateGunHeadings(int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!isStaged[i]) {
+				continue;
+			}
+			final double turn = gunTurnRemaining[i];
+
+			if ((turn > 0 && turn < Rules.GUN_TURN_RATE_RADIANS) || (turn < 0 && turn > -Rules.GUN_TURN_RATE_RADIANS)) {
+				gunHeading[i] += turn;
+				radarHeading[i] += turn;
+				if (isAdjustRadarForGunTurn[i]) {
+					radarTurnRemaining[i] -= turn;
+				}
+				gunTurnRemaining[i] = 0;
+			} else if (turn > 0) {
+				gunHeading[i] += Rules.GUN_TURN_RATE_RADIANS;
+				radarHeading[i] += Rules.GUN_TURN_RATE_RADIANS;
+				gunTurnRemaining[i] = turn - Rules.GUN_TURN_RATE_RADIANS;
+				if (isAdjustRadarForGunTurn[i]) {
+					radarTurnRemaining[i] -= Rules.GUN_TURN_RATE_RADIANS;
+				}
+			} else if (turn < 0) {
+				gunHeading[i] -= Rules.GUN_TURN_RATE_RADIANS;
+				radarHeading[i] -= Rules.GUN_TURN_RATE_RADIANS;
+				gunTurnRemaining[i] = turn + Rules.GUN_TURN_RATE_RADIANS;
+				if (isAdjustRadarForGunTurn[i]) {
+					radarTurnRemaining[i] += Rules.GUN_TURN_RATE_RADIANS;
+				}
+			}
+			gunHeading[i] = normalAbsoluteAngle(gunHeading[i]);
+		}
+	}
+
+	private void updateRadarHeadings(int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!isStaged[i]) {
+				continue;
+			}
+			final double turn = radarTurnRemaining[i];
+
+			if ((turn > 0 && turn < Rules.RADAR_TURN_RATE_RADIANS)
+					|| (turn < 0 && turn > -Rules.RADAR_TURN_RATE_RADIANS)) {
+				radarHeading[i] += turn;
+				radarTurnRemaining[i] = 0;
+			} else if (turn > 0) {
+				radarHeading[i] += Rules.RADAR_TURN_RATE_RADIANS;
+				radarTurnRemaining[i] = turn - Rules.RADAR_TURN_RATE_RADIANS;
+			} else if (turn < 0) {
+				radarHeading[i] -= Rules.RADAR_TURN_RATE_RADIANS;
+				radarTurnRemaining[i] = turn + Rules.RADAR_TURN_RATE_RADIANS;
+			}
+			radarHeading[i] = normalAbsoluteAngle(radarHeading[i]);
+		}
+	}
+
+	/**
+	 * Updates the velocities and positions. This is Nat Pavasants method, see RobotPeer.updateMovement().
+	 */
+	private void updateMovements(int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!isStaged[i]) {
+				continue;
+			}
+			double distance = distanceRemaining[i];
+
+			if (Double.isNaN(distance)) {
+				distance = 0;
+			}
+			final double newVelocity = getNewVelocity(velocity[i], distance, maxVelocity[i]);
+
+			velocity[i] = newVelocity;
+
+			// If we are over-driving our distance and we are now at velocity=0 then we stopped
+			if (isNear(newVelocity, 0) && isOverDriving[i]) {
+				distance = 0;
+				isOverDriving[i] = false;
+			}
+
+			// If we are moving normally and the breaking distance is more than remaining distance, enable overdrive
+			if (Math.signum(distance * newVelocity) != -1) {
+				isOverDriving[i] = getDistanceTraveledUntilStop(newVelocity, maxVelocity[i]) > Math.abs(distance);
+			}
+			distanceRemaining[i] = distance - newVelocity;
+
+			if (newVelocity != 0) {
+				x[i] += newVelocity * sin(bodyHeading[i]);
+				y[i] += newVelocity * cos(bodyHeading[i]);
+			}
+		}
+	}
+
+	private void checkWallCollisions(int from, int to) {
+		for (int i = from; i < to; i++) {
+			hitWall[i] = false;
+			if (!isStaged[i]) {
+				continue;
+			}
+			final double heading = bodyHeading[i];
+
+			boolean isHit = false;
+			double adjustX = 0, adjustY = 0;
+			double angle = 0;
+
+			if (x[i] < minX) {
+				isHit = true;
+				adjustX = minX - x[i];
+				angle = normalRelativeAngle(3 * PI / 2 - heading);
+			} else if (x[i] > maxX) {
+				isHit = true;
+				adjustX = maxX - x[i];
+				angle = normalRelativeAngle(PI / 2 - heading);
+			}
+			if (y[i] < minY) {
+				isHit = true;
+				adjustY = minY - y[i];
+				angle = normalRelativeAngle(PI - heading);
+			} else if (y[i] > maxY) {
+				isHit = true;
+				adjustY = maxY - y[i];
+				angle = normalRelativeAngle(-heading);
+			}
+			if (!isHit) {
+				continue;
+			}
+
+			// only fix both x and y values if hitting wall at an angle
+			if ((heading % (Math.PI / 2)) != 0) {
+				final double tanHeading = tan(heading);
+
+				if (adjustX == 0) {
+					adjustX = adjustY * tanHeading;
+				} else if (adjustY == 0) {
+					adjustY = adjustX / tanHeading;
+				} else if (abs(adjustX / tanHeading) > abs(adjustY)) {
+					adjustY = adjustX / tanHeading;
+				} else if (abs(adjustY * tanHeading) > abs(adjustX)) {
+					adjustX = adjustY * tanHeading;
+				}
+			}
+			x[i] += adjustX;
+			y[i] += adjustY;
+
+			if (x[i] < minX) {
+				x[i] = minX;
+			} else if (x[i] > maxX) {
+				x[i] = maxX;
+			}
+			if (y[i] < minY) {
+				y[i] = minY;
+			} else if (y[i] > maxY) {
+				y[i] = maxY;
+			}
+			hitWall[i] = true;
+			hitWallAngle[i] = angle;
+			hitWallVelocity[i] = velocity[i];
+
+			distanceRemaining[i] = 0;
+			velocity[i] = 0;
+		}
+	}
+
+	/**
+	 * Returns the distance a robot travels until it stops, when it brakes at the given velocity.
+	 */
+	static double getDistanceTraveledUntilStop(double velocity, double maxVelocity) {
+		double distance = 0;
+
+		velocity = Math.abs(velocity);
+		while (velocity > 0) {
+			distance += (velocity = getNewVelocity(velocity, 0, maxVelocity));
+		}
+		return distance;
+	}
+
+	/**
+	 * Returns the new velocity based on the current velocity and distance to move.
+	 * <p>
+	 * This is Patrick Cupka (aka Voidious), Julian Kent (aka Skilgannon), and Positive's method described here:
+	 *   https://robowiki.net/wiki/User:Voidious/Optimal_Velocity#Hijack_2
+	 *
+	 * @param velocity the current velocity
+	 * @param distance the distance to move
+	 * @param maxVelocity the max. velocity set by the robot
+	 * @return the new velocity based on the current velocity and distance to move
+	 */
+	static double getNewVelocity(double velocity, double distance, double maxVelocity) {
+		if (distance < 0) {
+			// If the distance is negative, then change it to be positive
+			// and change the sign of the input velocity and the result
+			return -getNewVelocity(-velocity, -distance, maxVelocity);
+		}
+
+		final double goalVel;
+
+		if (distance == Double.POSITIVE_INFINITY) {
+			goalVel = maxVelocity;
+		} else {
+			goalVel = Math.min(getMaxVelocity(distance), maxVelocity);
+		}
+
+		if (velocity >= 0) {
+			return Math.max(velocity - Rules.DECELERATION, Math.min(goalVel, velocity + Rules.ACCELERATION));
+		}
+		// else
+		return Math.max(velocity - Rules.ACCELERATION, Math.min(goalVel, velocity + maxDecel(-velocity)));
+	}
+
+	private static double getMaxVelocity(double distance) {
+		final double decelTime = Math.max(1, Math.ceil(// sum of 0... decelTime, solving for decelTime using quadratic formula
+				(Math.sqrt((4 * 2 / Rules.DECELERATION) * distance + 1) - 1) / 2));
+
+		if (decelTime == Double.POSITIVE_INFINITY) {
+			return Rules.MAX_VELOCITY;
+		}
+
+		final double decelDist = (decelTime / 2.0) * (decelTime - 1) // sum of 0..(decelTime-1)
+				* Rules.DECELERATION;
+
+		return ((decelTime - 1) * Rules.DECELERATION) + ((distance - decelDist) / decelTime);
+	}
+
+	private static double maxDecel(double speed) {
+		double decelTime = speed / Rules.DECELERATION;
+		double accelTime = (1 - decelTime);
+
+		return Math.min(1, decelTime) * Rules.DECELERATION + Math.max(0, accelTime) * Rules.ACCELERATION;
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import java.awt.geom.Arc2D;
+import java.awt.geom.Rectangle2D;
+
+import static java.lang.Math.*;
+import static robocode.util.Utils.normalAbsoluteAngle;
+
+
+/**
+ * The sector swept by the radar of a robot in a turn, which is tested against the bounding boxes of the other robots
+ * with plain arithmetic instead of the generic shape math of Arc2D.
+ * <p>
+ * The sector is given in the coordinates of the battlefield, where a heading of 0 points to +y and headings grow
+ * clockwise, and can span up to 180 degrees in either direction, so it is always convex. A rectangle intersects the
+ * sector if a corner of the rectangle lies inside the sector, if one of the two radii of the sector crosses the
+ * rectangle, or if an edge of the rectangle crosses the arc of the sector.
+ *
+ * @since 1.9.5.3
+ */
+final class ScanSector {
+
+	private double centerX;
+	private double centerY;
+	private double radius;
+	private double startHeading;
+	private double extent;
+
+	// The end points of the start and end radii, relative to the center
+	private double startX;
+	private double startY;
+	private double endX;
+	private double endY;
+
+	/**
+	 * Sets the sector.
+	 *
+	 * @param centerX the x coordinate of the center
+	 * @param centerY the y coordinate of the center
+	 * @param radius the radius
+	 * @param startHeading the heading where the sector starts in radians
+	 * @param extent the angle the sector spans in radians, between -PI and PI, where positive angles are clockwise
+	 */
+	void set(double centerX, double centerY, double radius, double startHeading, double extent) {
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.radius = radius;
+		this.startHeading = startHeading;
+		this.extent = extent;
+
+		startX = radius * sin(startHeading);
+		startY = radius * cos(startHeading);
+		endX = radius * sin(startHeading + extent);
+		endY = radius * cos(startHeading + extent);
+	}
+
+	/**
+	 * Checks if the sector intersects a rectangle.
+	 *
+	 * @param rect the rectangle
+	 * @return true if the sector and rectangle intersect; false otherwise
+	 */
+	boolean intersects(Rectangle2D.Float rect) {
+		// The sums are done in double like BoundingRectangle.outcode() does
+		return intersects(rect.x, rect.y, rect.x + (double) rect.width, rect.y + (double) rect.height);
+	}
+
+	/**
+	 * Checks if the sector intersects a rectangle.
+	 *
+	 * @param minX the smallest x coordinate of the rectangle
+	 * @param minY the smallest y coordinate of the rectangle
+	 * @param maxX the largest x coordinate of the rectangle
+	 * @param maxY the largest y coordinate of the rectangle
+	 * @return true if the sector and rectangle intersect; false otherwise
+	 */
+	boolean intersects(double minX, double minY, double maxX, double maxY) {
+		if (!(minX < maxX && minY < maxY)) {
+			return false;
+		}
+		final double x0 = minX - centerX;
+		final double y0 = minY - centerY;
+		final double x1 = maxX - centerX;
+		final double y1 = maxY - centerY;
+
+		// The rectangle is not even near the circle
+		final double nearX = (x0 > 0) ? x0 : (x1 < 0) ? x1 : 0;
+		final double nearY = (y0 > 0) ? y0 : (y1 < 0) ? y1 : 0;
+		final double radiusSq = radius * radius;
+
+		if (nearX * nearX + nearY * nearY > radiusSq) {
+			return false;
+		}
+
+		// The start radius is checked even when the sector has no extent, so the radar can see along a line
+		if (radiusIntersects(x0, y0, x1, y1, startX, startY)) {
+			return true;
+		}
+		if (extent == 0 || Double.isNaN(extent)) {
+			return false;
+		}
+		if (radiusIntersects(x0, y0, x1, y1, endX, endY)) {
+			return true;
+		}
+
+		// The rectangle is inside the sector
+		if (contains(x0, y0, radiusSq) || contains(x1, y0, radiusSq) || contains(x0, y1, radiusSq)
+				|| contains(x1, y1, radiusSq)) {
+			return true;
+		}
+
+		// An edge of the rectangle crosses the arc
+		return verticalEdgeCrossesArc(x0, y0, y1, radiusSq) || verticalEdgeCrossesArc(x1, y0, y1, radiusSq)
+				|| horizontalEdgeCrossesArc(y0, x0, x1, radiusSq) || horizontalEdgeCrossesArc(y1, x0, x1, radiusSq);
+	}
+
+	/**
+	 * Sets an arc to the shape of this sector in the coordinates used by Arc2D, where angles are in degrees and grow
+	 * counterclockwise from the 3 o'clock position.
+	 *
+	 * @param arc the arc to set
+	 */
+	void toArc(Arc2D arc) {
+		// In our coords, we are scanning clockwise, with +y up
+		// In java coords, we are scanning counterclockwise, with +y down
+		// All we need to do is adjust our angle by -90 for this to work.
+		final double arcStart = normalAbsoluteAngle(startHeading - PI / 2);
+
+		arc.setArc(centerX - radius, centerY - radius, 2 * radius, 2 * radius, 180.0 * arcStart / PI,
+				180.0 * extent / PI, Arc2D.PIE);
+	}
+
+	private boolean contains(double x, double y, double radiusSq) {
+		return x * x + y * y <= radiusSq && isInAngle(x, y);
+	}
+
+	/**
+	 * Checks if a point relative to the center lies between the start and end radii.
+	 */
+	private boolean isInAngle(double x, double y) {
+		if (extent > 0) {
+			return startX * y - startY * x <= 0 && x * endY - y * endX <= 0;
+		}
+		return endX * y - endY * x <= 0 && x * startY - y * startX <= 0;
+	}
+
+	private boolean verticalEdgeCrossesArc(double x, double y0, double y1, double radiusSq) {
+		final double rest = radiusSq - x * x;
+
+		if (rest < 0) {
+			return false;
+		}
+		final double y = sqrt(rest);
+
+		return (y >= y0 && y <= y1 && isInAngle(x, y)) || (-y >= y0 && -y <= y1 && isInAngle(x, -y));
+	}
+
+	private boolean horizontalEdgeCrossesArc(double y, double x0, double x1, double radiusSq) {
+		final double rest = radiusSq - y * y;
+
+		if (rest < 0) {
+			return false;
+		}
+		final double x = sqrt(rest);
+
+		return (x >= x0 && x <= x1 && isInAngle(x, y)) || (-x >= x0 && -x <= x1 && isInAngle(-x, y));
+	}
+
+	/**
+	 * Checks if the radius from the center to the given end point crosses the rectangle, by clipping the parameter of
+	 * the radius, which runs from 0 at the center to 1 at the end point, against the sides of the rectangle.
+	 */
+	private static boolean radiusIntersects(double x0, double y0, double x1, double y1, double endX, double endY) {
+		double enter = 0;
+		double exit = 1;
+
+		if (endX == 0) {
+			if (x0 > 0 || x1 < 0) {
+				return false;
+			}
+		} else {
+			final double t0 = x0 / endX;
+			final double t1 = x1 / endX;
+
+			enter = max(enter, min(t0, t1));
+			exit = min(exit, max(t0, t1));
+		}
+		if (endY == 0) {
+			if (y0 > 0 || y1 < 0) {
+				return false;
+			}
+		} else {
+			final double t0 = y0 / endY;
+			final double t1 = y1 / endY;
+
+			enter = max(enter, min(t0, t1));
+			exit = min(exit, max(t0, t1));
+		}
+		return enter <= exit;
+	}
+}
@@ -17,6 +17,8 @@ import robocode.control.snapshot.BulletState;
 import robocode.control.snapshot.IBulletSnapshot;
 import robocode.util.Utils;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 
 
@@ -269,94 +271,68 @@ public final class BulletSnapshot implements java.io.Serializable, IXmlSerializa
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Reads a bullet snapshot written by {@link #writeXml(XmlWriter, SerializableOptions)}.
+	 *
+	 * @param reader the reader at the start of the bullet element.
+	 * @return the bullet snapshot.
 	 */
-	public XmlReader.Element readXml(XmlReader reader) {
-		return reader.expect("bullet", "b", new XmlReader.Element() {
-			public IXmlSerializable read(XmlReader reader) {
-				final BulletSnapshot snapshot = new BulletSnapshot();
-
-				reader.expect("id", new XmlReader.Attribute() {
-					public void read(String value) {
-						String[] parts = value.split("-");
-
-						snapshot.ownerIndex = Integer.parseInt(parts[0]);
-						snapshot.bulletId = Integer.parseInt(parts[1]);
-					}
-				});
-
-				reader.expect("state", "s", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.state = BulletState.valueOf(value);
-					}
-				});
-
-				reader.expect("power", "p", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.power = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("heading", "h", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.heading = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("victim", "v", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.victimIndex = Integer.parseInt(value);
-					}
-				});
-
-				reader.expect("owner", "o", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.ownerIndex = Integer.parseInt(value);
-					}
-				});
-
-				reader.expect("x", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.x = Double.parseDouble(value);
-						snapshot.paintX = snapshot.x;
-					}
-				});
-
-				reader.expect("y", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.y = Double.parseDouble(value);
-						snapshot.paintY = snapshot.y;
-					}
-				});
-
-				reader.expect("color", "c", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.color = Long.valueOf(value.toUpperCase(), 16).intValue();
-					}
-				});
-
-				reader.expect("isExplosion", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.isExplosion = Boolean.parseBoolean(value);
-						if (snapshot.isExplosion && snapshot.state == null) {
-							snapshot.state = BulletState.EXPLODED;
-						}
-					}
-				});
-
-				reader.expect("explosion", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.explosionImageIndex = Integer.parseInt(value);
-					}
-				});
-
-				reader.expect("frame", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.frame = Integer.parseInt(value);
-					}
-				});
-				return snapshot;
+	public static BulletSnapshot readXml(XMLStreamReader reader) throws XMLStreamException {
+		final BulletSnapshot snapshot = new BulletSnapshot();
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String value = reader.getAttributeValue(i);
+
+			switch (reader.getAttributeLocalName(i)) {
+			case "id":
+				final int separator = value.indexOf('-');
+
+				snapshot.ownerIndex = Integer.parseInt(value.substring(0, separator));
+				snapshot.bulletId = Integer.parseInt(value.substring(separator + 1));
+				break;
+			case "state":
+			case "s":
+				snapshot.state = BulletState.valueOf(value);
+				break;
+			case "power":
+			case "p":
+				snapshot.power = Double.parseDouble(value);
+				break;
+			case "heading":
+			case "h":
+				snapshot.heading = Double.parseDouble(value);
+				break;
+			case "victim":
+			case "v":
+				snapshot.victimIndex = Integer.parseInt(value);
+				break;
+			case "owner":
+			case "o":
+				snapshot.ownerIndex = Integer.parseInt(value);
+				break;
+			case "x":
+				snapshot.x = Double.parseDouble(value);
+				snapshot.paintX = snapshot.x;
+				break;
+			case "y":
+				snapshot.y = Double.parseDouble(value);
+				snapshot.paintY = snapshot.y;
+				break;
+			case "color":
+			case "c":
+				snapshot.color = Long.valueOf(value.toUpperCase(), 16).intValue();
+				break;
+			case "isExplosion":
+				snapshot.isExplosion = Boolean.parseBoolean(value);
+				break;
+			case "explosion":
+				snapshot.explosionImageIndex = Integer.parseInt(value);
+				break;
+			case "frame":
+				snapshot.frame = Integer.parseInt(value);
+				break;
 			}
-		});
+		}
+		XmlStreamReaders.skipElement(reader);
+		return snapshot;
 	}
 }
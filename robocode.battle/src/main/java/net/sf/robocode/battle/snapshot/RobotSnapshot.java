@@ -17,6 +17,8 @@ import robocode.control.snapshot.IScoreSnapshot;
 import robocode.control.snapshot.RobotState;
 import robocode.util.Utils;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.awt.geom.Arc2D;
 import java.io.IOException;
 import java.io.Serializable;
@@ -519,179 +521,120 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 	}
 
 	/**
-	 * {@inheritDoc}
-	 */
-	public XmlReader.Element readXml(XmlReader reader) {
-		return reader.expect("robot", "r", new XmlReader.Element() {
-			public IXmlSerializable read(final XmlReader reader) {
-				final RobotSnapshot snapshot = new RobotSnapshot();
-
-				reader.expect("id", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.robotIndex = Integer.parseInt(value);
-
-						// allows loading of minimalistic XML, which robot names for subsequent turns
-						Map<String, Object> context = reader.getContext();
-
-						if (context.containsKey(value)) {
-							String n = (String) context.get(value);
-
-							if (snapshot.shortName == null) {
-								snapshot.name = n;
-							}
-							if (snapshot.shortName == null) {
-								snapshot.shortName = n;
-							}
-							if (snapshot.teamName == null) {
-								snapshot.teamName = n;
-							}
-							if (snapshot.veryShortName == null) {
-								snapshot.veryShortName = n;
-							}
-						}
-					}
-				});
-
-				reader.expect("name", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.name = value;
-						Map<String, Object> context = reader.getContext();
-
-						context.put(Integer.toString(snapshot.robotIndex), value);
-						if (snapshot.shortName == null) {
-							snapshot.shortName = value;
-						}
-						if (snapshot.teamName == null) {
-							snapshot.teamName = value;
-						}
-						if (snapshot.veryShortName == null) {
-							snapshot.veryShortName = value;
-						}
-					}
-				});
-
-				reader.expect("sName", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.shortName = value;
-					}
-				});
-
-				reader.expect("vsName", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.veryShortName = value;
-					}
-				});
-
-				reader.expect("teamName", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.teamName = value;
-					}
-				});
-
-				reader.expect("state", "s", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.state = RobotState.valueOf(value);
-					}
-				});
-
-				reader.expect("isDroid", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.isDroid = Boolean.valueOf(value);
-					}
-				});
-
-				reader.expect("bodyColor", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.bodyColor = (Long.valueOf(value.toUpperCase(), 16).intValue());
-					}
-				});
-
-				reader.expect("gunColor", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.gunColor = Long.valueOf(value.toUpperCase(), 16).intValue();
-					}
-				});
-
-				reader.expect("radarColor", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.radarColor = Long.valueOf(value.toUpperCase(), 16).intValue();
-					}
-				});
-
-				reader.expect("scanColor", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.scanColor = Long.valueOf(value.toUpperCase(), 16).intValue();
-					}
-				});
-
-				reader.expect("energy", "e", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.energy = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("velocity", "v", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.velocity = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("gunHeat", "h", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.gunHeat = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("bodyHeading", "b", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.bodyHeading = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("gunHeading", "g", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.gunHeading = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("radarHeading", "r", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.radarHeading = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("x", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.x = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("y", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.y = Double.parseDouble(value);
-					}
-				});
-
-				reader.expect("out", new XmlReader.Attribute() {
-					public void read(String value) {
-						if (value != null && value.length() != 0) {
-							snapshot.outputStreamSnapshot = value;
-						}
-					}
-				});
+	 * Reads a robot snapshot written by {@link #writeXml(XmlWriter, SerializableOptions)}.
+	 *
+	 * @param reader the reader at the start of the robot element.
+	 * @param robotNames the names of the robots by robot index, which are read from the first turn of a record
+	 *                   and used for the subsequent turns, where the names are skipped.
+	 * @return the robot snapshot.
+	 */
+	public static RobotSnapshot readXml(XMLStreamReader reader, String[] robotNames) throws XMLStreamException {
+		final RobotSnapshot snapshot = new RobotSnapshot();
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String value = reader.getAttributeValue(i);
+
+			switch (reader.getAttributeLocalName(i)) {
+			case "id":
+				snapshot.robotIndex = Integer.parseInt(value);
+				break;
+			case "name":
+				snapshot.name = value;
+				break;
+			case "sName":
+				snapshot.shortName = value;
+				break;
+			case "vsName":
+				snapshot.veryShortName = value;
+				break;
+			case "teamName":
+				snapshot.teamName = value;
+				break;
+			case "state":
+			case "s":
+				snapshot.state = RobotState.valueOf(value);
+				break;
+			case "isDroid":
+				snapshot.isDroid = Boolean.valueOf(value);
+				break;
+			case "bodyColor":
+				snapshot.bodyColor = Long.valueOf(value.toUpperCase(), 16).intValue();
+				break;
+			case "gunColor":
+				snapshot.gunColor = Long.valueOf(value.toUpperCase(), 16).intValue();
+				break;
+			case "radarColor":
+				snapshot.radarColor = Long.valueOf(value.toUpperCase(), 16).intValue();
+				break;
+			case "scanColor":
+				snapshot.scanColor = Long.valueOf(value.toUpperCase(), 16).intValue();
+				break;
+			case "energy":
+			case "e":
+				snapshot.energy = Double.parseDouble(value);
+				break;
+			case "velocity":
+			case "v":
+				snapshot.velocity = Double.parseDouble(value);
+				break;
+			case "gunHeat":
+			case "h":
+				snapshot.gunHeat = Double.parseDouble(value);
+				break;
+			case "bodyHeading":
+			case "b":
+				snapshot.bodyHeading = Double.parseDouble(value);
+				break;
+			case "gunHeading":
+			case "g":
+				snapshot.gunHeading = Double.parseDouble(value);
+				break;
+			case "radarHeading":
+			case "r":
+				snapshot.radarHeading = Double.parseDouble(value);
+				break;
+			case "x":
+				snapshot.x = Double.parseDouble(value);
+				break;
+			case "y":
+				snapshot.y = Double.parseDouble(value);
+				break;
+			case "out":
+				if (value.length() != 0) {
+					snapshot.outputStreamSnapshot = value;
+				}
+				break;
+			}
+		}
 
-				final XmlReader.Element element = (new ScoreSnapshot()).readXml(reader);
+		// allows loading of minimalistic XML, which skips robot names for subsequent turns
+		final boolean isKnownIndex = snapshot.robotIndex >= 0 && snapshot.robotIndex < robotNames.length;
 
-				reader.expect("score", "sc", new XmlReader.Element() {
-					public IXmlSerializable read(XmlReader reader) {
-						snapshot.robotScoreSnapshot = (IScoreSnapshot) element.read(reader);
-						return (ScoreSnapshot) snapshot.robotScoreSnapshot;
-					}
-				});
+		if (snapshot.name != null) {
+			if (isKnownIndex) {
+				robotNames[snapshot.robotIndex] = snapshot.name;
+			}
+		} else if (isKnownIndex) {
+			snapshot.name = robotNames[snapshot.robotIndex];
+		}
+		if (snapshot.shortName == null) {
+			snapshot.shortName = snapshot.name;
+		}
+		if (snapshot.teamName == null) {
+			snapshot.teamName = snapshot.name;
+		}
+		if (snapshot.veryShortName == null) {
+			snapshot.veryShortName = snapshot.name;
+		}
 
-				return snapshot;
+		while (XmlStreamReaders.nextChild(reader)) {
+			if (XmlStreamReaders.isElement(reader, "score", "sc")) {
+				snapshot.robotScoreSnapshot = ScoreSnapshot.readXml(reader);
+			} else {
+				XmlStreamReaders.skipElement(reader);
 			}
-		});
+		}
+		return snapshot;
 	}
 
 	/**
@@ -12,6 +12,8 @@ import net.sf.robocode.battle.peer.RobotStatistics;
 import net.sf.robocode.serialization.*;
 import robocode.control.snapshot.IScoreSnapshot;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.Serializable;
 
@@ -344,101 +346,89 @@ public final class ScoreSnapshot implements Serializable, IXmlSerializable, ISco
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Reads a score snapshot written by {@link #writeXml(XmlWriter, SerializableOptions)}.
+	 *
+	 * @param reader the reader at the start of the score element.
+	 * @return the score snapshot.
 	 */
-	public XmlReader.Element readXml(XmlReader reader) {
-		return reader.expect("score", "sc", new XmlReader.Element() {
-			public IXmlSerializable read(XmlReader reader) {
-				final ScoreSnapshot snapshot = new ScoreSnapshot();
-
-				reader.expect("name", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.name = value;
-					}
-				});
-				reader.expect("totalScore", "t", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalSurvivalScore", "tss", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalSurvivalScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalLastSurvivorBonus", "tls", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalLastSurvivorBonus = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalBulletDamageScore", "tbd", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalBulletDamageScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalBulletKillBonus", "tbk", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalBulletKillBonus = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalRammingDamageScore", "trd", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalRammingDamageScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalRammingKillBonus", "trk", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalRammingKillBonus = Double.parseDouble(value);
-					}
-				});
-				reader.expect("totalFirsts", "t1", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalFirsts = Integer.parseInt(value);
-					}
-				});
-				reader.expect("totalSeconds", "t2", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalSeconds = Integer.parseInt(value);
-					}
-				});
-				reader.expect("totalThirds", "t3", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.totalThirds = Integer.parseInt(value);
-					}
-				});
-				reader.expect("currentScore", "c", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.currentScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("currentSurvivalScore", "ss", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.currentSurvivalScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("currentBulletDamageScore", "bd", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.currentBulletDamageScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("currentBulletKillBonus", "bk", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.currentBulletKillBonus = Double.parseDouble(value);
-					}
-				});
-				reader.expect("currentRammingDamageScore", "rd", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.currentRammingDamageScore = Double.parseDouble(value);
-					}
-				});
-				reader.expect("currentRammingKillBonus", "rk", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.currentRammingKillBonus = Double.parseDouble(value);
-					}
-				});
-				return snapshot;
+	public static ScoreSnapshot readXml(XMLStreamReader reader) throws XMLStreamException {
+		final ScoreSnapshot snapshot = new ScoreSnapshot();
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String value = reader.getAttributeValue(i);
+
+			switch (reader.getAttributeLocalName(i)) {
+			case "name":
+				snapshot.name = value;
+				break;
+			case "totalScore":
+			case "t":
+				snapshot.totalScore = Double.parseDouble(value);
+				break;
+			case "totalSurvivalScore":
+			case "tss":
+				snapshot.totalSurvivalScore = Double.parseDouble(value);
+				break;
+			case "totalLastSurvivorBonus":
+			case "tls":
+				snapshot.totalLastSurvivorBonus = Double.parseDouble(value);
+				break;
+			case "totalBulletDamageScore":
+			case "tbd":
+				snapshot.totalBulletDamageScore = Double.parseDouble(value);
+				break;
+			case "totalBulletKillBonus":
+			case "tbk":
+				snapshot.totalBulletKillBonus = Double.parseDouble(value);
+				break;
+			case "totalRammingDamageScore":
+			case "trd":
+				snapshot.totalRammingDamageScore = Double.parseDouble(value);
+				break;
+			case "totalRammingKillBonus":
+			case "trk":
+				snapshot.totalRammingKillBonus = Double.parseDouble(value);
+				break;
+			case "totalFirsts":
+			case "t1":
+				snapshot.totalFirsts = Integer.parseInt(value);
+				break;
+			case "totalSeconds":
+			case "t2":
+				snapshot.totalSeconds = Integer.parseInt(value);
+				break;
+			case "totalThirds":
+			case "t3":
+				snapshot.totalThirds = Integer.parseInt(value);
+				break;
+			case "currentScore":
+			case "c":
+				snapshot.currentScore = Double.parseDouble(value);
+				break;
+			case "currentSurvivalScore":
+			case "ss":
+				snapshot.currentSurvivalScore = Double.parseDouble(value);
+				break;
+			case "currentBulletDamageScore":
+			case "bd":
+				snapshot.currentBulletDamageScore = Double.parseDouble(value);
+				break;
+			case "currentBulletKillBonus":
+			case "bk":
+				snapshot.currentBulletKillBonus = Double.parseDouble(value);
+				break;
+			case "currentRammingDamageScore":
+			case "rd":
+				snapshot.currentRammingDamageScore = Double.parseDouble(value);
+				break;
+			case "currentRammingKillBonus":
+			case "rk":
+				snapshot.currentRammingKillBonus = Double.parseDouble(value);
+				break;
 			}
-		});
+		}
+		XmlStreamReaders.skipElement(reader);
+		return snapshot;
 	}
 
 	@Override
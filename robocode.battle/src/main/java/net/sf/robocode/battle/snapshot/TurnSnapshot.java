@@ -12,12 +12,17 @@ import net.sf.robocode.battle.Battle;
 import net.sf.robocode.battle.peer.BulletPeer;
 import net.sf.robocode.battle.peer.RobotPeer;
 import net.sf.robocode.serialization.IXmlSerializable;
-import net.sf.robocode.serialization.XmlReader;
+import net.sf.robocode.serialization.XmlStreamReaders;
 import net.sf.robocode.serialization.SerializableOptions;
 import net.sf.robocode.serialization.XmlWriter;
 import robocode.control.snapshot.*;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.*;
 
 
@@ -34,11 +39,22 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 
 	private static final long serialVersionUID = 1L;
 
-	/** List of snapshots for the robots participating in the battle */
-	private List<IRobotSnapshot> robots;
+	// The snapshot is serialized with the lists it was serialized with before it kept arrays, so battle records
+	// written with earlier versions can still be read
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("robots", List.class), new ObjectStreamField("bullets", List.class),
+		new ObjectStreamField("tps", int.class), new ObjectStreamField("round", int.class),
+		new ObjectStreamField("turn", int.class)
+	};
 
-	/** List of snapshots for the bullets that are currently on the battlefield */
-	private List<IBulletSnapshot> bullets;
+	private static final IRobotSnapshot[] NO_ROBOTS = new IRobotSnapshot[0];
+	private static final IBulletSnapshot[] NO_BULLETS = new IBulletSnapshot[0];
+
+	/** Snapshots for the robots participating in the battle */
+	private IRobotSnapshot[] robots = NO_ROBOTS;
+
+	/** Snapshots for the bullets that are currently on the battlefield */
+	private IBulletSnapshot[] bullets = NO_BULLETS;
 
 	/** Current TPS (turns per second) */
 	private int tps;
@@ -49,6 +65,12 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 	/** Current turn in the battle round */
 	private int turn;
 
+	/** Team scores by team index, computed when first requested */
+	private transient volatile IScoreSnapshot[] indexedTeamScores;
+
+	/** Team scores by position, computed when first requested */
+	private transient volatile IScoreSnapshot[] sortedTeamScores;
+
 	/**
 	 * Creates a snapshot of a battle turn that must be filled out with data later.
 	 */
@@ -64,15 +86,15 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 	 *                    {@code false} otherwise.
 	 */
 	public TurnSnapshot(Battle battle, List<RobotPeer> battleRobots, List<BulletPeer> battleBullets, boolean readoutText) {
-		robots = new ArrayList<IRobotSnapshot>();
-		bullets = new ArrayList<IBulletSnapshot>();
+		robots = new IRobotSnapshot[battleRobots.size()];
+		bullets = new IBulletSnapshot[battleBullets.size()];
 
-		for (RobotPeer robotPeer : battleRobots) {
-			robots.add(new RobotSnapshot(robotPeer, readoutText));
+		for (int i = 0; i < robots.length; i++) {
+			robots[i] = new RobotSnapshot(battleRobots.get(i), readoutText);
 		}
 
-		for (BulletPeer bulletPeer : battleBullets) {
-			bullets.add(new BulletSnapshot(bulletPeer));
+		for (int i = 0; i < bullets.length; i++) {
+			bullets[i] = new BulletSnapshot(battleBullets.get(i));
 		}
 
 		tps = battle.getTPS();
@@ -82,21 +104,49 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 
 	@Override
 	public String toString() {
-		return this.round + "/" + turn + " (" + this.robots.size() + ")";
+		return this.round + "/" + turn + " (" + this.robots.length + ")";
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public IRobotSnapshot[] getRobots() {
-		return robots.toArray(new IRobotSnapshot[robots.size()]);
+		return robots.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getRobotCount() {
+		return robots.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public IRobotSnapshot getRobot(int index) {
+		return robots[index];
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public IBulletSnapshot[] getBullets() {
-		return bullets.toArray(new IBulletSnapshot[bullets.size()]);
+		return bullets.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getBulletCount() {
+		return bullets.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public IBulletSnapshot getBullet(int index) {
+		return bullets[index];
 	}
 
 	/**
@@ -124,34 +174,50 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 	 * {@inheritDoc}
 	 */
 	public IScoreSnapshot[] getSortedTeamScores() {
-		List<IScoreSnapshot> copy = new ArrayList<IScoreSnapshot>(Arrays.asList(getIndexedTeamScores()));
+		IScoreSnapshot[] scores = sortedTeamScores;
+
+		if (scores == null) {
+			List<IScoreSnapshot> copy = new ArrayList<IScoreSnapshot>(Arrays.asList(getTeamScores()));
 
-		Collections.sort(copy);
-		Collections.reverse(copy);
-		return copy.toArray(new IScoreSnapshot[copy.size()]);
+			Collections.sort(copy);
+			Collections.reverse(copy);
+			scores = copy.toArray(new IScoreSnapshot[copy.size()]);
+			sortedTeamScores = scores;
+		}
+		return scores.clone();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public IScoreSnapshot[] getIndexedTeamScores() {
-		// team scores are computed on demand from team scores to not duplicate data in the snapshot
+		return getTeamScores().clone();
+	}
 
-		List<IScoreSnapshot> results = new ArrayList<IScoreSnapshot>();
+	private IScoreSnapshot[] getTeamScores() {
+		IScoreSnapshot[] scores = indexedTeamScores;
 
-		// noinspection ForLoopReplaceableByForEach
-		for (int i = 0; i < robots.size(); i++) {
-			results.add(null);
+		if (scores == null) {
+			scores = computeTeamScores();
+			indexedTeamScores = scores;
 		}
+		return scores;
+	}
+
+	private IScoreSnapshot[] computeTeamScores() {
+		// team scores are computed on demand from team scores to not duplicate data in the snapshot
+
+		IScoreSnapshot[] results = new IScoreSnapshot[robots.length];
+
 		for (IRobotSnapshot robot : robots) {
 			final int contestantIndex = robot.getContestantIndex();
-			final IScoreSnapshot snapshot = results.get(contestantIndex);
+			final IScoreSnapshot snapshot = results[contestantIndex];
 
 			IScoreSnapshot score = (snapshot == null)
 					? robot.getScoreSnapshot()
 					: new ScoreSnapshot(robot.getTeamName(), snapshot, robot.getScoreSnapshot());
 
-			results.set(contestantIndex, score);
+			results[contestantIndex] = score;
 		}
 		List<IScoreSnapshot> scores = new ArrayList<IScoreSnapshot>();
 
@@ -165,7 +231,7 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 	}
 
 	public void stripDetails(SerializableOptions options) {
-		for (IRobotSnapshot r : getRobots()) {
+		for (IRobotSnapshot r : robots) {
 			((RobotSnapshot) r).stripDetails(options);
 		}
 	}
@@ -228,70 +294,96 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Reads a turn snapshot written by {@link #writeXml(XmlWriter, SerializableOptions)}.
+	 *
+	 * @param reader the reader at the start of the turn element.
+	 * @param robotNames the names of the robots by robot index, which are read from the first turn of a record
+	 *                   and used for the subsequent turns, where the names are skipped.
+	 * @return the turn snapshot.
 	 */
-	public XmlReader.Element readXml(final XmlReader reader) {
-		return reader.expect("turn", "t", new XmlReader.Element() {
-			public IXmlSerializable read(final XmlReader reader) {
-				final TurnSnapshot snapshot = new TurnSnapshot();
-
-				reader.expect("turn", "tu", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.turn = Integer.parseInt(value);
-					}
-				});
-				reader.expect("round", "ro", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.round = Integer.parseInt(value);
-					}
-				});
+	public static TurnSnapshot readXml(XMLStreamReader reader, String[] robotNames) throws XMLStreamException {
+		final TurnSnapshot snapshot = new TurnSnapshot();
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String value = reader.getAttributeValue(i);
+
+			switch (reader.getAttributeLocalName(i)) {
+			case "turn":
+			case "tu":
+				snapshot.turn = Integer.parseInt(value);
+				break;
+			case "round":
+			case "ro":
+				snapshot.round = Integer.parseInt(value);
+				break;
+			}
+		}
 
-				reader.expect("robots", "rs", new XmlReader.ListElement() {
-					public IXmlSerializable read(XmlReader reader) {
-						snapshot.robots = new ArrayList<IRobotSnapshot>();
-						// prototype
-						return new RobotSnapshot();
-					}
+		while (XmlStreamReaders.nextChild(reader)) {
+			if (XmlStreamReaders.isElement(reader, "robots", "rs")) {
+				final List<IRobotSnapshot> robots = new ArrayList<IRobotSnapshot>(robotNames.length);
+				final boolean[] present = new boolean[robotNames.length];
 
-					public void add(IXmlSerializable child) {
-						snapshot.robots.add((RobotSnapshot) child);
+				while (XmlStreamReaders.nextChild(reader)) {
+					if (!XmlStreamReaders.isElement(reader, "robot", "r")) {
+						XmlStreamReaders.skipElement(reader);
+						continue;
 					}
+					final RobotSnapshot robot = RobotSnapshot.readXml(reader, robotNames);
 
-					public void close() {
-						// allows loading of minimalistic XML, which skips dead robots, but GUI expects them
-						Map<String, Object> context = reader.getContext();
-						Integer robotCount = (Integer) context.get("robots");
-						boolean[] present = new boolean[robotCount];
+					robots.add(robot);
+					if (robot.getRobotIndex() >= 0 && robot.getRobotIndex() < present.length) {
+						present[robot.getRobotIndex()] = true;
+					}
+				}
+				// allows loading of minimalistic XML, which skips dead robots, but GUI expects them
+				for (int i = 0; i < present.length; i++) {
+					if (!present[i]) {
+						robots.add(new RobotSnapshot(robotNames[i], i, RobotState.DEAD));
+					}
+				}
+				snapshot.robots = robots.toArray(new IRobotSnapshot[robots.size()]);
 
-						for (IRobotSnapshot robot : snapshot.robots) {
-							present[robot.getRobotIndex()] = true;
-						}
-						for (int i = 0; i < robotCount; i++) {
-							if (!present[i]) {
-								String name = (String) context.get(Integer.toString(i));
+			} else if (XmlStreamReaders.isElement(reader, "bullets", "bs")) {
+				final List<IBulletSnapshot> bullets = new ArrayList<IBulletSnapshot>();
 
-								snapshot.robots.add(new RobotSnapshot(name, i, RobotState.DEAD));
-							}
-						}
+				while (XmlStreamReaders.nextChild(reader)) {
+					if (XmlStreamReaders.isElement(reader, "bullet", "b")) {
+						bullets.add(BulletSnapshot.readXml(reader));
+					} else {
+						XmlStreamReaders.skipElement(reader);
 					}
-				});
+				}
+				snapshot.bullets = bullets.toArray(new IBulletSnapshot[bullets.size()]);
 
-				reader.expect("bullets", "bs", new XmlReader.ListElement() {
-					public IXmlSerializable read(XmlReader reader) {
-						snapshot.bullets = new ArrayList<IBulletSnapshot>();
-						// prototype
-						return new BulletSnapshot();
-					}
+			} else {
+				XmlStreamReaders.skipElement(reader);
+			}
+		}
+		return snapshot;
+	}
 
-					public void add(IXmlSerializable child) {
-						snapshot.bullets.add((BulletSnapshot) child);
-					}
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
 
-					public void close() {}
-				});
+		fields.put("robots", new ArrayList<IRobotSnapshot>(Arrays.asList(robots)));
+		fields.put("bullets", new ArrayList<IBulletSnapshot>(Arrays.asList(bullets)));
+		fields.put("tps", tps);
+		fields.put("round", round);
+		fields.put("turn", turn);
+		out.writeFields();
+	}
 
-				return snapshot;
-			}
-		});
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		List<IRobotSnapshot> robotList = (List<IRobotSnapshot>) fields.get("robots", null);
+		List<IBulletSnapshot> bulletList = (List<IBulletSnapshot>) fields.get("bullets", null);
+
+		robots = (robotList == null) ? NO_ROBOTS : robotList.toArray(new IRobotSnapshot[robotList.size()]);
+		bullets = (bulletList == null) ? NO_BULLETS : bulletList.toArray(new IBulletSnapshot[bulletList.size()]);
+		tps = fields.get("tps", 0);
+		round = fields.get("round", 0);
+		turn = fields.get("turn", 0);
 	}
 }
@@ -15,7 +15,6 @@ import net.sf.robocode.battle.snapshot.RobotSnapshot;
 import net.sf.robocode.settings.ISettingsManager;
 import robocode.BattleResults;
 import robocode.control.events.*;
-import robocode.control.snapshot.IRobotSnapshot;
 import robocode.control.snapshot.ITurnSnapshot;
 
 import java.util.List;
@@ -98,10 +97,8 @@ public final class BattlePlayer extends BaseBattle {
 		final ITurnSnapshot snapshot = recordManager.readSnapshot();
 
 		if (snapshot != null) {
-			final IRobotSnapshot[] robots = snapshot.getRobots();
-
-			for (int i = 0; i < robots.length; i++) {
-				RobotSnapshot robot = (RobotSnapshot) robots[i];
+			for (int i = 0; i < snapshot.getRobotCount(); i++) {
+				RobotSnapshot robot = (RobotSnapshot) snapshot.getRobot(i);
 
 				robot.setPaintEnabled(paint[i]);
 			}
@@ -14,6 +14,8 @@ import net.sf.robocode.serialization.*;
 import robocode.BattleResults;
 import robocode.BattleRules;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -74,86 +76,92 @@ public class BattleRecordInfo implements Serializable, IXmlSerializable {
 		writer.endElement();
 	}
 
-	public XmlReader.Element readXml(XmlReader reader) {
-		return reader.expect("recordInfo", new XmlReader.Element() {
-			public IXmlSerializable read(XmlReader reader) {
-				final BattleRecordInfo recordInfo = new BattleRecordInfo();
-
-				reader.expect("robotCount", new XmlReader.Attribute() {
-					public void read(String value) {
-						recordInfo.robotCount = Integer.parseInt(value);
-					}
-				});
-				reader.expect("roundsCount", new XmlReader.Attribute() {
-					public void read(String value) {
-						recordInfo.roundsCount = Integer.parseInt(value);
-					}
-				});
-
-				new BattleRulesWrapper(recordInfo).readXml(reader);
+	/**
+	 * Reads record info written by {@link #writeXml(XmlWriter, SerializableOptions)}.
+	 *
+	 * @param reader the reader at the start of the recordInfo element
+	 * @return the record info
+	 */
+	static BattleRecordInfo readXml(XMLStreamReader reader) throws XMLStreamException {
+		final BattleRecordInfo recordInfo = new BattleRecordInfo();
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String value = reader.getAttributeValue(i);
+
+			switch (reader.getAttributeLocalName(i)) {
+			case "robotCount":
+				recordInfo.robotCount = Integer.parseInt(value);
+				break;
+			case "roundsCount":
+				recordInfo.roundsCount = Integer.parseInt(value);
+				break;
+			}
+		}
 
-				reader.expect("rounds", new XmlReader.ListElement() {
-					final ArrayList<Integer> ints = new ArrayList<Integer>();
+		while (XmlStreamReaders.nextChild(reader)) {
+			final String name = reader.getLocalName();
 
-					public IXmlSerializable read(XmlReader reader) {
-						// prototype
-						return new IntValue("turns");
-					}
+			if (name.equals("rules")) {
+				recordInfo.battleRules = readRulesXml(reader);
+			} else if (name.equals("rounds")) {
+				final List<Integer> turns = new ArrayList<Integer>();
 
-					public void add(IXmlSerializable child) {
-						ints.add(((IntValue) child).intValue);
-					}
+				while (XmlStreamReaders.nextChild(reader)) {
+					final String value = reader.getAttributeValue(null, "value");
 
-					public void close() {
-						recordInfo.turnsInRounds = new Integer[ints.size()];
-						ints.toArray(recordInfo.turnsInRounds);
+					if (reader.getLocalName().equals("turns") && value != null) {
+						turns.add(Integer.parseInt(value));
 					}
-				});
-
-				reader.expect("results", new XmlReader.ListElement() {
-
-					public IXmlSerializable read(XmlReader reader) {
-						recordInfo.results = new ArrayList<BattleResults>();
-						// prototype
-						return new BattleResultsWrapper();
-					}
-
-					public void add(IXmlSerializable child) {
-						recordInfo.results.add((BattleResults) child);
+					XmlStreamReaders.skipElement(reader);
+				}
+				recordInfo.turnsInRounds = turns.toArray(new Integer[turns.size()]);
+			} else if (name.equals("results")) {
+				recordInfo.results = new ArrayList<BattleResults>();
+
+				while (XmlStreamReaders.nextChild(reader)) {
+					if (reader.getLocalName().equals("result")) {
+						recordInfo.results.add(BattleResultsWrapper.readXml(reader));
+					} else {
+						XmlStreamReaders.skipElement(reader);
 					}
-
-					public void close() {}
-				});
-				return recordInfo;
+				}
+			} else {
+				XmlStreamReaders.skipElement(reader);
 			}
-		});
-	}
-
-	private class IntValue implements IXmlSerializable {
-		private IntValue(String name) {
-			this.name = name;
 		}
-		private final String name;
-		private int intValue;
-
-		public void writeXml(XmlWriter writer, SerializableOptions options) throws IOException {}
+		return recordInfo;
+	}
 
-		public XmlReader.Element readXml(XmlReader reader) {
-			return reader.expect(name, new XmlReader.Element() {
-				public IXmlSerializable read(XmlReader reader) {
-					final IntValue recordInfo = new IntValue(name);
+	private static BattleRules readRulesXml(XMLStreamReader reader) throws XMLStreamException {
+		final BattleProperties props = new BattleProperties();
 
-					reader.expect("value", new XmlReader.Attribute() {
-						public void read(String value) {
-							recordInfo.intValue = Integer.parseInt(value);
-						}
-					});
-					return recordInfo;
-				}
-			});
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String value = reader.getAttributeValue(i);
+
+			switch (reader.getAttributeLocalName(i)) {
+			case "battlefieldWidth":
+				props.setBattlefieldWidth(Integer.parseInt(value));
+				break;
+			case "battlefieldHeight":
+				props.setBattlefieldHeight(Integer.parseInt(value));
+				break;
+			case "numRounds":
+				props.setNumRounds(Integer.parseInt(value));
+				break;
+			case "inactivityTime":
+				props.setInactivityTime(Integer.parseInt(value));
+				break;
+			case "gunCoolingRate":
+				props.setGunCoolingRate(Double.parseDouble(value));
+				break;
+			}
 		}
-	}
+		XmlStreamReaders.skipElement(reader);
 
+		return HiddenAccess.createRules(props.getBattlefieldWidth(), props.getBattlefieldHeight(),
+				props.getNumRounds(), props.getGunCoolingRate(), props.getInactivityTime(), props.getHideEnemyNames(),
+				props.getSentryBorderSize());
+	}
 
 	/**
 	 * This class is used for wrapping a robocode.BattleResults object and provides
@@ -198,131 +206,53 @@ public class BattleRecordInfo implements Serializable, IXmlSerializable {
 			writer.endElement();
 		}
 
-		public XmlReader.Element readXml(XmlReader reader) {
-			return reader.expect("result", new XmlReader.Element() {
-				public IXmlSerializable read(XmlReader reader) {
-					final BattleResultsWrapper rules = new BattleResultsWrapper();
-
-					reader.expect("teamLeaderName", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.teamLeaderName = value;
-						}
-					});
-
-					reader.expect("rank", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.rank = Integer.parseInt(value);
-						}
-					});
-					reader.expect("score", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.score = Double.parseDouble(value);
-						}
-					});
-					reader.expect("survival", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.survival = Double.parseDouble(value);
-						}
-					});
-					reader.expect("lastSurvivorBonus", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.lastSurvivorBonus = Double.parseDouble(value);
-						}
-					});
-					reader.expect("bulletDamage", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.bulletDamage = Double.parseDouble(value);
-						}
-					});
-					reader.expect("bulletDamageBonus", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.bulletDamageBonus = Double.parseDouble(value);
-						}
-					});
-					reader.expect("ramDamage", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.ramDamage = Double.parseDouble(value);
-						}
-					});
-					reader.expect("ramDamageBonus", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.ramDamageBonus = Double.parseDouble(value);
-						}
-					});
-					reader.expect("firsts", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.firsts = Integer.parseInt(value);
-						}
-					});
-					reader.expect("seconds", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.seconds = Integer.parseInt(value);
-						}
-					});
-					reader.expect("thirds", new XmlReader.Attribute() {
-						public void read(String value) {
-							rules.thirds = Integer.parseInt(value);
-						}
-					});
-
-					return rules;
+		static BattleResultsWrapper readXml(XMLStreamReader reader) throws XMLStreamException {
+			final BattleResultsWrapper results = new BattleResultsWrapper();
+
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String value = reader.getAttributeValue(i);
+
+				switch (reader.getAttributeLocalName(i)) {
+				case "teamLeaderName":
+					results.teamLeaderName = value;
+					break;
+				case "rank":
+					results.rank = Integer.parseInt(value);
+					break;
+				case "score":
+					results.score = Double.parseDouble(value);
+					break;
+				case "survival":
+					results.survival = Double.parseDouble(value);
+					break;
+				case "lastSurvivorBonus":
+					results.lastSurvivorBonus = Double.parseDouble(value);
+					break;
+				case "bulletDamage":
+					results.bulletDamage = Double.parseDouble(value);
+					break;
+				case "bulletDamageBonus":
+					results.bulletDamageBonus = Double.parseDouble(value);
+					break;
+				case "ramDamage":
+					results.ramDamage = Double.parseDouble(value);
+					break;
+				case "ramDamageBonus":
+					results.ramDamageBonus = Double.parseDouble(value);
+					break;
+				case "firsts":
+					results.firsts = Integer.parseInt(value);
+					break;
+				case "seconds":
+					results.seconds = Integer.parseInt(value);
+					break;
+				case "thirds":
+					results.thirds = Integer.parseInt(value);
+					break;
 				}
-			});
-		}
-	}
-
-
-	private static class BattleRulesWrapper implements IXmlSerializable {
-		BattleRulesWrapper(BattleRecordInfo recinfo) {
-			this.recinfo = recinfo;
-		}
-
-		final BattleProperties props = new BattleProperties();
-		final BattleRecordInfo recinfo;
-
-		public void writeXml(XmlWriter writer, SerializableOptions options) throws IOException {}
-
-		public XmlReader.Element readXml(XmlReader reader) {
-			return reader.expect("rules",
-					new XmlReader.ElementClose() {
-				public IXmlSerializable read(XmlReader reader) {
-
-					reader.expect("battlefieldWidth", new XmlReader.Attribute() {
-						public void read(String value) {
-							props.setBattlefieldWidth(Integer.parseInt(value));
-						}
-					});
-					reader.expect("battlefieldHeight", new XmlReader.Attribute() {
-						public void read(String value) {
-							props.setBattlefieldHeight(Integer.parseInt(value));
-						}
-					});
-
-					reader.expect("numRounds", new XmlReader.Attribute() {
-						public void read(String value) {
-							props.setNumRounds(Integer.parseInt(value));
-						}
-					});
-					reader.expect("inactivityTime", new XmlReader.Attribute() {
-						public void read(String value) {
-							props.setInactivityTime(Integer.parseInt(value));
-						}
-					});
-					reader.expect("gunCoolingRate", new XmlReader.Attribute() {
-						public void read(String value) {
-							props.setGunCoolingRate(Double.parseDouble(value));
-						}
-					});
-
-					return BattleRulesWrapper.this;
-				}
-
-				public void close() {
-					recinfo.battleRules = HiddenAccess.createRules(props.getBattlefieldWidth(),
-							props.getBattlefieldHeight(), props.getNumRounds(), props.getGunCoolingRate(),
-							props.getInactivityTime(), props.getHideEnemyNames(), props.getSentryBorderSize());
-				}
-			});
+			}
+			XmlStreamReaders.skipElement(reader);
+			return results;
 		}
 	}
 
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+
+/**
+ * Writes a zip file with a single entry, which is compressed by several threads.
+ * <p>
+ * The data is cut into blocks that are compressed in parallel, where each block is primed with the last 32 KB of the
+ * block before it, like a single compressor would see it. Every block but the last ends with a sync flush, so the
+ * compressed blocks together form one ordinary deflate stream, and the file can be read with any zip reader,
+ * including the {@link java.util.zip.ZipInputStream} used for loading records.
+ * <p>
+ * The sizes and checksum of the entry are written after the data, as the zip format allows, so the data is streamed
+ * to the output. Like {@link java.util.zip.ZipOutputStream}, the zip64 format is used for the sizes and offsets that
+ * do not fit in 32 bits, so records of 4 GB and more can be written, e.g. long battles saved as XML.
+ *
+ * @since 1.9.5.3
+ */
+class ParallelZipOutputStream extends OutputStream {
+
+	private static final int BLOCK_SIZE = 128 * 1024;
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static ExecutorService executor;
+
+	private final OutputStream out;
+	private final byte[] entryName;
+	private final int dosTime;
+	private final boolean isZip64Forced;
+
+	private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<Future<byte[]>>();
+	private final CRC32 crc = new CRC32();
+
+	private byte[] block = new byte[BLOCK_SIZE];
+	private int blockLength;
+	private byte[] dictionary;
+
+	private long size;
+	private long compressedSize;
+	private long written;
+	private boolean isClosed;
+
+	/**
+	 * Creates a stream writing a zip file with a single entry.
+	 *
+	 * @param out the stream to write the zip file to, which is not closed by this stream
+	 * @param entryName the name of the entry
+	 */
+	ParallelZipOutputStream(OutputStream out, String entryName) throws IOException {
+		this(out, entryName, false);
+	}
+
+	/**
+	 * Creates a stream writing a zip file with a single entry, where the central directory can be written in the
+	 * zip64 format whatever the sizes, so the zip64 records can be tested without writing 4 GB.
+	 *
+	 * @param out the stream to write the zip file to, which is not closed by this stream
+	 * @param entryName the name of the entry
+	 * @param isZip64Forced true if the central directory must be written in the zip64 format
+	 */
+	ParallelZipOutputStream(OutputStream out, String entryName, boolean isZip64Forced) throws IOException {
+		this.out = out;
+		this.entryName = entryName.getBytes(StandardCharsets.UTF_8);
+		this.dosTime = toDosTime(Calendar.getInstance());
+		this.isZip64Forced = isZip64Forced;
+
+		writeLocalHeader();
+	}
+
+	/**
+	 * Checks if more than one thread is available for compressing, as the stream is slower than a
+	 * {@link java.util.zip.ZipOutputStream} with a single thread.
+	 */
+	static boolean isParallel() {
+		return THREADS > 1;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Record compression");
+
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (blockLength == BLOCK_SIZE) {
+			submitBlock(false);
+		}
+		block[blockLength++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || off + len > b.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		while (len > 0) {
+			if (blockLength == BLOCK_SIZE) {
+				submitBlock(false);
+			}
+			final int n = Math.min(len, BLOCK_SIZE - blockLength);
+
+			System.arraycopy(b, off, block, blockLength, n);
+			blockLength += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Finishes the zip file. The underlying stream is flushed, but not closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (isClosed) {
+			return;
+		}
+		isClosed = true;
+		submitBlock(true);
+		while (!pendingBlocks.isEmpty()) {
+			writeBlock(pendingBlocks.removeFirst());
+		}
+		writeDataDescriptor();
+		writeCentralDirectory();
+		out.flush();
+	}
+
+	private void submitBlock(final boolean isLast) throws IOException {
+		final byte[] data = block;
+		final int length = blockLength;
+		final byte[] dict = dictionary;
+
+		crc.update(data, 0, length);
+		size += length;
+
+		if (length >= DICTIONARY_SIZE) {
+			dictionary = new byte[DICTIONARY_SIZE];
+			System.arraycopy(data, length - DICTIONARY_SIZE, dictionary, 0, DICTIONARY_SIZE);
+		}
+		pendingBlocks.addLast(getExecutor().submit(new Callable<byte[]>() {
+			public byte[] call() {
+				return deflate(data, length, dict, isLast);
+			}
+		}));
+
+		// Limits the memory used, as the blocks must be written in order
+		while (pendingBlocks.size() > 2 * THREADS) {
+			writeBlock(pendingBlocks.removeFirst());
+		}
+		if (!isLast) {
+			block = new byte[BLOCK_SIZE];
+			blockLength = 0;
+		}
+	}
+
+	private static byte[] deflate(byte[] data, int length, byte[] dictionary, boolean isLast) {
+		final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+		try {
+			if (dictionary != null) {
+				deflater.setDictionary(dictionary);
+			}
+			deflater.setInput(data, 0, length);
+
+			byte[] buffer = new byte[length / 2 + 1024];
+			int compressedLength = 0;
+
+			if (isLast) {
+				deflater.finish();
+			}
+			while (true) {
+				if (compressedLength == buffer.length) {
+					byte[] larger = new byte[buffer.length * 2];
+
+					System.arraycopy(buffer, 0, larger, 0, compressedLength);
+					buffer = larger;
+				}
+				final int space = buffer.length - compressedLength;
+				final int n = isLast
+						? deflater.deflate(buffer, compressedLength, space)
+						: deflater.deflate(buffer, compressedLength, space, Deflater.SYNC_FLUSH);
+
+				compressedLength += n;
+
+				// A sync flush is complete when the output did not fill the space given
+				if (isLast ? deflater.finished() : n < space) {
+					break;
+				}
+			}
+			final byte[] compressed = new byte[compressedLength];
+
+			System.arraycopy(buffer, 0, compressed, 0, compressedLength);
+			return compressed;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeBlock(Future<byte[]> pendingBlock) throws IOException {
+		final byte[] compressed;
+
+		try {
+			compressed = pendingBlock.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+		out.write(compressed);
+		compressedSize += compressed.length;
+		written += compressed.length;
+	}
+
+	private void writeLocalHeader() throws IOException {
+		writeInt(0x04034b50); // local file header signature
+		writeShort(20); // version needed to extract
+		writeShort(0x0008); // sizes and crc are in the data descriptor
+		writeShort(Deflater.DEFLATED);
+		writeInt(dosTime);
+		writeInt(0); // crc
+		writeInt(0); // compressed size
+		writeInt(0); // uncompressed size
+		writeShort(entryName.length);
+		writeShort(0); // extra field length
+		writeBytes(entryName);
+	}
+
+	private void writeDataDescriptor() throws IOException {
+		writeInt(0x08074b50); // data descriptor signature
+		writeInt((int) crc.getValue());
+
+		// ZipInputStream expects 64-bit sizes when one of them is larger than the 32-bit maximum
+		if (size > ZIP64_MAGIC || compressedSize > ZIP64_MAGIC) {
+			writeLong(compressedSize);
+			writeLong(size);
+		} else {
+			writeInt((int) compressedSize);
+			writeInt((int) size);
+		}
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		final long centralDirectoryOffset = written;
+		final boolean isZip64Entry = isZip64Forced || size >= ZIP64_MAGIC || compressedSize >= ZIP64_MAGIC;
+		final int version = isZip64Entry ? 45 : 20;
+
+		writeInt(0x02014b50); // central file header signature
+		writeShort(version); // version made by
+		writeShort(version); // version needed to extract
+		writeShort(0x0008);
+		writeShort(Deflater.DEFLATED);
+		writeInt(dosTime);
+		writeInt((int) crc.getValue());
+		writeInt(isZip64Entry ? (int) ZIP64_MAGIC : (int) compressedSize);
+		writeInt(isZip64Entry ? (int) ZIP64_MAGIC : (int) size);
+		writeShort(entryName.length);
+		writeShort(isZip64Entry ? 20 : 0); // extra field length
+		writeShort(0); // file comment length
+		writeShort(0); // disk number start
+		writeShort(0); // internal file attributes
+		writeInt(0); // external file attributes
+		writeInt(0); // offset of local header
+		writeBytes(entryName);
+		if (isZip64Entry) {
+			writeShort(0x0001); // zip64 extended information extra field
+			writeShort(16); // size of the extra field data
+			writeLong(size);
+			writeLong(compressedSize);
+		}
+
+		final long centralDirectorySize = written - centralDirectoryOffset;
+		final boolean isZip64End = isZip64Forced || centralDirectoryOffset >= ZIP64_MAGIC;
+
+		if (isZip64End) {
+			final long zip64EndOffset = written;
+
+			writeInt(0x06064b50); // zip64 end of central directory signature
+			writeLong(44); // size of the rest of the zip64 end of central directory record
+			writeShort(45); // version made by
+			writeShort(45); // version needed to extract
+			writeInt(0); // number of this disk
+			writeInt(0); // disk with the central directory
+			writeLong(1); // entries on this disk
+			writeLong(1); // entries in total
+			writeLong(centralDirectorySize);
+			writeLong(centralDirectoryOffset);
+
+			writeInt(0x07064b50); // zip64 end of central directory locator signature
+			writeInt(0); // disk with the zip64 end of central directory
+			writeLong(zip64EndOffset);
+			writeInt(1); // disks in total
+		}
+
+		writeInt(0x06054b50); // end of central directory signature
+		writeShort(0); // number of this disk
+		writeShort(0); // disk with the central directory
+		writeShort(1); // entries on this disk
+		writeShort(1); // entries in total
+		writeInt((int) centralDirectorySize);
+		writeInt(isZip64End ? (int) ZIP64_MAGIC : (int) centralDirectoryOffset);
+		writeShort(0); // comment length
+	}
+
+	private void writeShort(int value) throws IOException {
+		out.write(value & 0xff);
+		out.write((value >>> 8) & 0xff);
+		written += 2;
+	}
+
+	private void writeInt(int value) throws IOException {
+		writeShort(value & 0xffff);
+		writeShort(value >>> 16);
+	}
+
+	private void writeLong(long value) throws IOException {
+		writeInt((int) value);
+		writeInt((int) (value >>> 32));
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		out.write(bytes);
+		written += bytes.length;
+	}
+
+	private static int toDosTime(Calendar calendar) {
+		final int year = Math.max(calendar.get(Calendar.YEAR), 1980);
+
+		return ((year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21)
+				| (calendar.get(Calendar.DAY_OF_MONTH) << 16) | (calendar.get(Calendar.HOUR_OF_DAY) << 11)
+				| (calendar.get(Calendar.MINUTE) << 5) | (calendar.get(Calendar.SECOND) >> 1);
+	}
+}
@@ -26,6 +26,8 @@ import robocode.control.snapshot.IRobotSnapshot;
 import robocode.control.snapshot.IScoreSnapshot;
 import robocode.control.snapshot.ITurnSnapshot;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -192,6 +194,8 @@ public class RecordManager implements IRecordManager {
                     oos = new ObjectOutputStream(bos);
 
                     for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
+                        // the written turns are forgotten for each round, like when the battle was recorded
+                        oos.reset();
                         for (int j = recordInfo.turnsInRounds[i] - 1; j >= 0; j--) {
                             try {
                                 ITurnSnapshot turn = (ITurnSnapshot) ois.readObject();
@@ -204,16 +208,10 @@ public class RecordManager implements IRecordManager {
                     }
                 }
             } else {
-                final RecordRoot root = new RecordRoot();
-
                 fos = new FileOutputStream(tempFile);
                 bos = new BufferedOutputStream(fos, 1024 * 1024);
-                root.oos = new ObjectOutputStream(bos);
-                XmlReader.deserialize(xis, root);
-                if (root.lastException != null) {
-                    logError(root.lastException);
-                }
-                recordInfo = root.recordInfo;
+                oos = new ObjectOutputStream(bos);
+                recordInfo = readXmlRecord(xis, oos);
             }
         } catch (IOException e) {
             logError(e);
@@ -238,56 +236,55 @@ public class RecordManager implements IRecordManager {
         }
     }
 
-    private static class RecordRoot implements IXmlSerializable {
-
-        public RecordRoot() {
-            me = this;
-        }
-
-        public ObjectOutputStream oos;
-        public IOException lastException;
-        public final RecordRoot me;
-        public BattleRecordInfo recordInfo;
+    /**
+     * Reads an XML record, and writes its turns to the specified stream one by one, as they are read.
+     *
+     * @return the record info, or null if the record has no record info
+     */
+    private static BattleRecordInfo readXmlRecord(InputStream input, ObjectOutputStream oos) throws IOException {
+        XMLStreamReader reader = null;
 
-        public void writeXml(XmlWriter writer, SerializableOptions options) {
-        }
-
-        public XmlReader.Element readXml(XmlReader reader) {
-            return reader.expect("record", innerReader -> {
-
-                final XmlReader.Element element = (new BattleRecordInfo()).readXml(innerReader);
-
-                innerReader.expect("recordInfo", new XmlReader.ElementClose() {
-                    public IXmlSerializable read(XmlReader reader1) {
-                        recordInfo = (BattleRecordInfo) element.read(reader1);
-                        return recordInfo;
-                    }
-
-                    public void close() {
-                        innerReader.getContext().put("robots", recordInfo.robotCount);
-                    }
-                });
-
-                innerReader.expect("turns", new XmlReader.ListElement() {
-                    public IXmlSerializable read(XmlReader reader1) {
-                        // prototype
-                        return new TurnSnapshot();
-                    }
-
-                    public void add(IXmlSerializable child) {
-                        try {
-                            me.oos.writeObject(child);
-                        } catch (IOException e) {
-                            me.lastException = e;
+        try {
+            reader = XmlStreamReaders.createReader(input);
+            if (!XmlStreamReaders.nextChild(reader) || !reader.getLocalName().equals("record")) {
+                throw new IOException("The file is not a battle record");
+            }
+            BattleRecordInfo info = null;
+            String[] robotNames = null;
+
+            while (XmlStreamReaders.nextChild(reader)) {
+                final String name = reader.getLocalName();
+
+                if (name.equals("recordInfo")) {
+                    info = BattleRecordInfo.readXml(reader);
+                    robotNames = new String[info.robotCount];
+                } else if (name.equals("turns") && robotNames != null) {
+                    while (XmlStreamReaders.nextChild(reader)) {
+                        if (!XmlStreamReaders.isElement(reader, "turn", "t")) {
+                            XmlStreamReaders.skipElement(reader);
+                            continue;
                         }
-                    }
+                        final TurnSnapshot turn = TurnSnapshot.readXml(reader, robotNames);
 
-                    public void close() {
+                        // the written turns are forgotten for each round, like when the battle was recorded
+                        if (turn.getTurn() == 0) {
+                            oos.reset();
+                        }
+                        oos.writeObject(turn);
                     }
-                });
-
-                return me;
-            });
+                } else {
+                    XmlStreamReaders.skipElement(reader);
+                }
+            }
+            return info;
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignore) {}
+            }
         }
     }
 
@@ -308,15 +305,9 @@ public class RecordManager implements IRecordManager {
 
         try (FileOutputStream fos = new FileOutputStream(recordFilename);
             BufferedOutputStream bos = new BufferedOutputStream(fos, 1024 * 1024);
-            ZipOutputStream zos = new ZipOutputStream(bos)) {
+            OutputStream os = openRecordStream(bos, format == BattleRecordFormat.BINARY_ZIP, "-robocode.br")) {
 
-            boolean isZip = format == BattleRecordFormat.BINARY_ZIP;
-            if (isZip) {
-                zos.putNextEntry(new ZipEntry(dateFormat.format(calendar.getTime()) + "-robocode.br"));
-            }
-            ObjectOutputStream oos = isZip
-                    ? new ObjectOutputStream(zos)
-                    : new ObjectOutputStream(bos);
+            ObjectOutputStream oos = new ObjectOutputStream(os);
 
             oos.writeObject(recordInfo);
 
@@ -324,11 +315,16 @@ public class RecordManager implements IRecordManager {
                 try {
                     TurnSnapshot t = (TurnSnapshot) turn;
                     t.stripDetails(options);
+                    // the written turns are forgotten for each round, like when the battle was recorded
+                    if (t.getTurn() == 0) {
+                        oos.reset();
+                    }
                     oos.writeObject(turn);
                 } catch (IOException e) {
                     logError(e);
                 }
             });
+            oos.flush();
 
         } catch (IOException | ClassNotFoundException e) {
             logError(e);
@@ -344,15 +340,10 @@ public class RecordManager implements IRecordManager {
 
         try (FileOutputStream fos = new FileOutputStream(recordFilename);
             BufferedOutputStream bos = new BufferedOutputStream(fos, 1024 * 1024);
-            ZipOutputStream zos = new ZipOutputStream(bos)) {
+            OutputStream os = openRecordStream(bos, format == BattleRecordFormat.XML_ZIP, "-robocode.xml")) {
 
             boolean isZip = format == BattleRecordFormat.XML_ZIP;
-            if (isZip) {
-                zos.putNextEntry(new ZipEntry(dateFormat.format(calendar.getTime()) + "-robocode.xml"));
-            }
-            OutputStreamWriter osw = isZip
-                    ? new OutputStreamWriter(zos, utf8)
-                    : new OutputStreamWriter(bos, utf8);
+            OutputStreamWriter osw = new OutputStreamWriter(os, utf8);
             XmlWriter xwr = isZip
                     ? new XmlWriter(osw, false)
                     : new XmlWriter(osw, true);
@@ -390,6 +381,24 @@ public class RecordManager implements IRecordManager {
         }
     }
 
+    /**
+     * Returns the stream a record is written to, which zips the record into a single entry if requested.
+     */
+    private OutputStream openRecordStream(OutputStream bos, boolean isZip, String entrySuffix) throws IOException {
+        if (!isZip) {
+            return bos;
+        }
+        final String entryName = dateFormat.format(calendar.getTime()) + entrySuffix;
+
+        if (ParallelZipOutputStream.isParallel()) {
+            return new ParallelZipOutputStream(bos, entryName);
+        }
+        final ZipOutputStream zos = new ZipOutputStream(bos);
+
+        zos.putNextEntry(new ZipEntry(entryName));
+        return zos;
+    }
+
     protected void saveCsvRecord(String recordFilename, SerializableOptions options) {
         FileOutputStream fosResults = null;
         FileOutputStream fosRounds = null;
@@ -599,6 +608,10 @@ public class RecordManager implements IRecordManager {
         return recordInfo != null;
     }
 
+    public BattleRules getBattleRules() {
+        return recordInfo != null ? recordInfo.battleRules : null;
+    }
+
     void createRecordInfo(BattleRules rules, int numRobots, UUID battleId) {
         try {
             createTempFile();
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.Rules;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Tests that the {@link RobotPhysics} move robots exactly like RobotPeer moves them by itself.
+ * <p>
+ * The golden trace was recorded with the movement code of RobotPeer, by moving robots with random commands on a small
+ * battlefield so they hit the walls often. It holds the state of the robots every {@link #SAMPLE_TURNS} turns, and a
+ * digest of their state after every turn, which must be bit for bit the same.
+ */
+public class RobotPhysicsTest {
+
+	static final String GOLDEN_TRACE = "golden-movement-trace.txt";
+
+	static final int ROBOTS = 5;
+	static final int TURNS = 5000;
+	static final int SAMPLE_TURNS = 250;
+	static final int WIDTH = 400;
+	static final int HEIGHT = 300;
+	static final long SEED = 20231024L;
+
+	@Test
+	public void movesLikeGoldenTrace() throws Exception {
+		Assert.assertEquals(readGoldenTrace(), run(false));
+	}
+
+	@Test
+	public void movesSingleRobotsLikeGoldenTrace() throws Exception {
+		Assert.assertEquals(readGoldenTrace(), run(true));
+	}
+
+	@Test
+	public void skipsRobotsThatAreNotStaged() {
+		final RobotPhysics physics = new RobotPhysics(2, WIDTH, HEIGHT);
+
+		for (int i = 0; i < 2; i++) {
+			physics.x[i] = 100;
+			physics.y[i] = 100;
+			physics.velocity[i] = 8;
+			physics.maxVelocity[i] = Rules.MAX_VELOCITY;
+			physics.maxTurnRate[i] = Rules.MAX_TURN_RATE_RADIANS;
+			physics.distanceRemaining[i] = Double.POSITIVE_INFINITY;
+			physics.bodyTurnRemaining[i] = 1;
+			physics.isTurning[i] = true;
+		}
+		physics.isStaged[0] = true;
+
+		physics.advance();
+
+		Assert.assertEquals(100, physics.x[1], 0);
+		Assert.assertEquals(100, physics.y[1], 0);
+		Assert.assertEquals(1, physics.bodyTurnRemaining[1], 0);
+		Assert.assertTrue(physics.y[0] != 100);
+		Assert.assertTrue(physics.bodyTurnRemaining[0] != 1);
+	}
+
+	/**
+	 * Moves the robots of the scenario, either all at once or one by one, and returns their trace.
+	 */
+	private static List<String> run(boolean isSingle) throws NoSuchAlgorithmException {
+		final Random random = new Random(SEED);
+		final RobotPhysics physics = createRobots(random);
+		final Trace trace = new Trace();
+
+		for (int turn = 1; turn <= TURNS; turn++) {
+			issueCommands(random, physics);
+			if (isSingle) {
+				for (int i = ROBOTS - 1; i >= 0; i--) {
+					physics.advance(i);
+				}
+			} else {
+				physics.advance();
+			}
+			trace.add(turn, physics);
+		}
+		return trace.getLines();
+	}
+
+	/**
+	 * Places the robots at random positions with random headings.
+	 */
+	static RobotPhysics createRobots(Random random) {
+		final RobotPhysics physics = new RobotPhysics(ROBOTS, WIDTH, HEIGHT);
+
+		for (int i = 0; i < ROBOTS; i++) {
+			physics.x[i] = RobotPeer.WIDTH + random.nextDouble() * (WIDTH - 2 * RobotPeer.WIDTH);
+			physics.y[i] = RobotPeer.HEIGHT + random.nextDouble() * (HEIGHT - 2 * RobotPeer.HEIGHT);
+			physics.bodyHeading[i] = random.nextDouble() * 2 * Math.PI;
+			physics.gunHeading[i] = random.nextDouble() * 2 * Math.PI;
+			physics.radarHeading[i] = random.nextDouble() * 2 * Math.PI;
+			physics.maxVelocity[i] = Rules.MAX_VELOCITY;
+			physics.maxTurnRate[i] = Rules.MAX_TURN_RATE_RADIANS;
+			physics.isStaged[i] = true;
+		}
+		return physics;
+	}
+
+	/**
+	 * Gives some of the robots new commands, and puts some of the robots in a collision, where they can not turn.
+	 */
+	static void issueCommands(Random random, RobotPhysics physics) {
+		for (int i = 0; i < ROBOTS; i++) {
+			if (random.nextInt(12) == 0) {
+				physics.bodyTurnRemaining[i] = randomTurn(random);
+				physics.gunTurnRemaining[i] = randomTurn(random);
+				physics.radarTurnRemaining[i] = randomTurn(random);
+
+				switch (random.nextInt(8)) {
+				case 0:
+					physics.distanceRemaining[i] = Double.POSITIVE_INFINITY;
+					break;
+
+				case 1:
+					physics.distanceRemaining[i] = Double.NEGATIVE_INFINITY;
+					break;
+
+				case 2:
+					physics.distanceRemaining[i] = Double.NaN;
+					break;
+
+				case 3:
+					physics.distanceRemaining[i] = 0;
+					break;
+
+				default:
+					physics.distanceRemaining[i] = (random.nextDouble() * 2 - 1) * 400;
+				}
+				physics.maxVelocity[i] = random.nextBoolean()
+						? Rules.MAX_VELOCITY
+						: random.nextDouble() * Rules.MAX_VELOCITY;
+				physics.maxTurnRate[i] = random.nextBoolean()
+						? Rules.MAX_TURN_RATE_RADIANS
+						: random.nextDouble() * Rules.MAX_TURN_RATE_RADIANS;
+
+				physics.isAdjustGunForBodyTurn[i] = random.nextBoolean();
+				physics.isAdjustRadarForBodyTurn[i] = random.nextBoolean();
+				physics.isAdjustRadarForGunTurn[i] = random.nextBoolean();
+			}
+			physics.isTurning[i] = random.nextInt(25) != 0;
+		}
+	}
+
+	private static double randomTurn(Random random) {
+		return (random.nextInt(4) == 0) ? 0 : (random.nextDouble() * 4 - 2) * Math.PI;
+	}
+
+	private List<String> readGoldenTrace() throws IOException {
+		final InputStream in = getClass().getResourceAsStream(GOLDEN_TRACE);
+
+		Assert.assertNotNull(in);
+
+		final List<String> lines = new ArrayList<String>();
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+
+		try {
+			for (String line; (line = reader.readLine()) != null; ) {
+				if (!line.startsWith("#")) {
+					lines.add(line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return lines;
+	}
+
+	/**
+	 * The state of the robots after each turn.
+	 */
+	static final class Trace {
+		private final List<String> lines = new ArrayList<String>();
+		private final MessageDigest digest;
+
+		Trace() throws NoSuchAlgorithmException {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+
+		void add(int turn, RobotPhysics physics) {
+			for (int i = 0; i < ROBOTS; i++) {
+				final StringBuilder line = new StringBuilder();
+
+				line.append(turn).append(' ').append(i);
+				line.append(" x=").append(physics.x[i]).append(" y=").append(physics.y[i]);
+				line.append(" body=").append(physics.bodyHeading[i]);
+				line.append(" gun=").append(physics.gunHeading[i]);
+				line.append(" radar=").append(physics.radarHeading[i]);
+				line.append(" velocity=").append(physics.velocity[i]);
+				line.append(" turns=").append(physics.bodyTurnRemaining[i]).append(',')
+						.append(physics.gunTurnRemaining[i]).append(',').append(physics.radarTurnRemaining[i]);
+				line.append(" distance=").append(physics.distanceRemaining[i]);
+				line.append(" overdriving=").append(physics.isOverDriving[i]);
+				if (physics.hitWall[i]) {
+					line.append(" wall=").append(physics.hitWallAngle[i]).append(',').append(physics.hitWallVelocity[i]);
+				}
+				final String text = line.toString();
+
+				digest.update(text.getBytes(StandardCharsets.US_ASCII));
+				if (turn % SAMPLE_TURNS == 0) {
+					lines.add(text);
+				}
+			}
+		}
+
+		List<String> getLines() {
+			final List<String> result = new ArrayList<String>(lines);
+			final StringBuilder hex = new StringBuilder();
+
+			for (byte b : digest.digest()) {
+				hex.append(String.format("%02x", b));
+			}
+			result.add("digest=" + hex);
+			return result;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import net.sf.robocode.battle.BoundingRectangle;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.Rules;
+
+import java.awt.geom.Arc2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import static java.lang.Math.*;
+import static robocode.util.Utils.normalAbsoluteAngle;
+
+
+/**
+ * Tests that the {@link ScanSector} finds the same robots as the Arc2D that RobotPeer used to scan with.
+ */
+public class ScanSectorTest {
+
+	private static final double RADIUS = Rules.RADAR_SCAN_RADIUS;
+
+	@Test
+	public void matchesArc2D() {
+		final Random random = new Random(1);
+		final ScanSector sector = new ScanSector();
+		final Arc2D arc = new Arc2D.Double();
+		final BoundingRectangle rect = new BoundingRectangle();
+
+		int hits = 0;
+
+		for (int i = 0; i < 2000000; i++) {
+			final double x = 18 + random.nextDouble() * 1964;
+			final double y = 18 + random.nextDouble() * 1964;
+			final double startHeading = random.nextDouble() * 2 * PI;
+			final double extent;
+
+			switch (random.nextInt(4)) {
+			case 0:
+				extent = 0;
+				break;
+
+			case 1:
+				extent = (random.nextDouble() * 2 - 1) * PI;
+				break;
+
+			default:
+				// the most the radar, gun and body can turn together
+				extent = (random.nextDouble() * 2 - 1) * toRadians(75);
+			}
+
+			// Half of the robots are placed anywhere, and half of them near the sector, often near its arc
+			double otherX = 18 + random.nextDouble() * 1964;
+			double otherY = 18 + random.nextDouble() * 1964;
+
+			if (random.nextBoolean()) {
+				final double heading = startHeading + random.nextDouble() * extent;
+				final double distance = random.nextBoolean()
+						? random.nextDouble() * (RADIUS + 60)
+						: RADIUS - 40 + random.nextDouble() * 80;
+
+				otherX = x + distance * sin(heading) + (random.nextDouble() - .5) * 40;
+				otherY = y + distance * cos(heading) + (random.nextDouble() - .5) * 40;
+			}
+			rect.setRect(otherX - 18, otherY - 18, 36, 36);
+
+			sector.set(x, y, RADIUS, startHeading, extent);
+			setArc(arc, x, y, startHeading, extent);
+
+			final boolean expected = intersects(arc, rect);
+
+			if (expected != sector.intersects(rect)) {
+				Assert.fail("Case " + i + ": expected " + expected + " for x=" + x + " y=" + y + " start="
+						+ startHeading + " extent=" + extent + " rect=" + rect);
+			}
+			if (expected) {
+				hits++;
+			}
+		}
+		// Both outcomes are well covered
+		Assert.assertTrue(hits > 800000 && hits < 1200000);
+	}
+
+	@Test
+	public void seesAlongStartRadiusWithoutExtent() {
+		final ScanSector sector = new ScanSector();
+
+		sector.set(400, 300, RADIUS, 0, 0);
+
+		Assert.assertTrue(sector.intersects(382, 1000, 418, 1036));
+		Assert.assertFalse(sector.intersects(420, 1000, 456, 1036));
+		Assert.assertFalse(sector.intersects(382, 1600, 418, 1636));
+		Assert.assertFalse(sector.intersects(382, 200, 418, 236));
+	}
+
+	@Test
+	public void seesRobotsCoveringTheCenter() {
+		final ScanSector sector = new ScanSector();
+
+		sector.set(400, 300, RADIUS, PI / 2, PI / 4);
+
+		Assert.assertTrue(sector.intersects(390, 290, 426, 326));
+		Assert.assertFalse(sector.intersects(300, 290, 336, 326));
+	}
+
+	@Test
+	public void seesBothWays() {
+		final ScanSector sector = new ScanSector();
+
+		// From east to north east, which is a counterclockwise scan
+		sector.set(0, 0, RADIUS, PI / 2, -PI / 4);
+
+		Assert.assertTrue(sector.intersects(600, 300, 636, 336));
+		Assert.assertFalse(sector.intersects(600, -336, 636, -300));
+
+		// A half circle to the east
+		sector.set(0, 0, RADIUS, 0, PI);
+
+		Assert.assertTrue(sector.intersects(600, -336, 636, -300));
+		Assert.assertFalse(sector.intersects(-636, -336, -600, -300));
+	}
+
+	@Test
+	public void makesSameArcAsBefore() {
+		final ScanSector sector = new ScanSector();
+		final Arc2D arc = new Arc2D.Double();
+		final Arc2D expected = new Arc2D.Double();
+
+		sector.set(123.5, 456.25, RADIUS, 0.3, -0.7);
+		sector.toArc(arc);
+		setArc(expected, 123.5, 456.25, 0.3, -0.7);
+
+		Assert.assertEquals(expected, arc);
+	}
+
+	/**
+	 * How RobotPeer.scan() made the arc before.
+	 */
+	private static void setArc(Arc2D arc, double x, double y, double startHeading, double extent) {
+		final double startAngle = normalAbsoluteAngle(startHeading - PI / 2);
+
+		arc.setArc(x - RADIUS, y - RADIUS, 2 * RADIUS, 2 * RADIUS, 180.0 * startAngle / PI, 180.0 * extent / PI,
+				Arc2D.PIE);
+	}
+
+	/**
+	 * How RobotPeer tested the arc against a bounding box before.
+	 */
+	private static boolean intersects(Arc2D arc, Rectangle2D rect) {
+		return (rect.intersectsLine(arc.getCenterX(), arc.getCenterY(), arc.getStartPoint().getX(),
+				arc.getStartPoint().getY()))
+				|| arc.intersects(rect);
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+
+/**
+ * Tests that the zip files written by the {@link ParallelZipOutputStream} are read back by the zip readers of Java.
+ */
+public class ParallelZipOutputStreamTest {
+
+	private static final String ENTRY_NAME = "20230101-120000-robocode.xml";
+
+	private File zipFile;
+
+	@Before
+	public void setUp() throws IOException {
+		zipFile = Files.createTempFile("parallelzip", ".zip").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		zipFile.delete();
+	}
+
+	@Test
+	public void roundTripsThroughZipInputStream() throws IOException {
+		// Several blocks of data that repeats across the blocks, so the dictionary of each block is used
+		final byte[] data = createRecordLikeData(1000 * 1000);
+
+		write(data);
+
+		final ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile));
+
+		try {
+			final ZipEntry entry = zis.getNextEntry();
+
+			Assert.assertEquals(ENTRY_NAME, entry.getName());
+			Assert.assertArrayEquals(data, readFully(zis));
+			Assert.assertEquals(data.length, entry.getSize());
+			Assert.assertNull(zis.getNextEntry());
+		} finally {
+			zis.close();
+		}
+	}
+
+	@Test
+	public void writesCentralDirectory() throws IOException {
+		final byte[] data = createRecordLikeData(300 * 1000);
+
+		write(data);
+
+		final ZipFile zip = new ZipFile(zipFile);
+
+		try {
+			final ZipEntry entry = zip.getEntry(ENTRY_NAME);
+			final CRC32 crc = new CRC32();
+
+			crc.update(data);
+			Assert.assertEquals(1, zip.size());
+			Assert.assertEquals(data.length, entry.getSize());
+			Assert.assertEquals(crc.getValue(), entry.getCrc());
+			Assert.assertArrayEquals(data, readFully(zip.getInputStream(entry)));
+		} finally {
+			zip.close();
+		}
+	}
+
+	@Test
+	public void roundTripsEmptyEntry() throws IOException {
+		write(new byte[0]);
+
+		final ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile));
+
+		try {
+			Assert.assertEquals(ENTRY_NAME, zis.getNextEntry().getName());
+			Assert.assertEquals(0, readFully(zis).length);
+			Assert.assertNull(zis.getNextEntry());
+		} finally {
+			zis.close();
+		}
+	}
+
+	@Test
+	public void writesZip64Records() throws IOException {
+		final byte[] data = createRecordLikeData(300 * 1000);
+		final OutputStream out = new FileOutputStream(zipFile);
+
+		try {
+			final ParallelZipOutputStream zos = new ParallelZipOutputStream(out, ENTRY_NAME, true);
+
+			zos.write(data);
+			zos.close();
+		} finally {
+			out.close();
+		}
+
+		final ByteBuffer zip = ByteBuffer.wrap(Files.readAllBytes(zipFile.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+
+		// The end of central directory record refers to the zip64 end of central directory record by its locator
+		final int endOffset = zip.limit() - 22;
+		final int locatorOffset = endOffset - 20;
+
+		Assert.assertEquals(0x06054b50, zip.getInt(endOffset));
+		Assert.assertEquals(0xFFFFFFFF, zip.getInt(endOffset + 16));
+		Assert.assertEquals(0x07064b50, zip.getInt(locatorOffset));
+
+		final int zip64EndOffset = (int) zip.getLong(locatorOffset + 8);
+
+		Assert.assertEquals(0x06064b50, zip.getInt(zip64EndOffset));
+		Assert.assertEquals(1, zip.getLong(zip64EndOffset + 32));
+
+		// The central file header keeps the sizes in its zip64 extra field
+		final int centralOffset = (int) zip.getLong(zip64EndOffset + 48);
+
+		Assert.assertEquals(0x02014b50, zip.getInt(centralOffset));
+		Assert.assertEquals(45, zip.getShort(centralOffset + 6));
+		Assert.assertEquals(0xFFFFFFFF, zip.getInt(centralOffset + 20));
+		Assert.assertEquals(0xFFFFFFFF, zip.getInt(centralOffset + 24));
+
+		final int extraOffset = centralOffset + 46 + zip.getShort(centralOffset + 28);
+
+		Assert.assertEquals(20, zip.getShort(centralOffset + 30));
+		Assert.assertEquals(0x0001, zip.getShort(extraOffset));
+		Assert.assertEquals(16, zip.getShort(extraOffset + 2));
+		Assert.assertEquals(data.length, zip.getLong(extraOffset + 4));
+		// The compressed data is between the local file header and the data descriptor
+		Assert.assertEquals(centralOffset - (30 + ENTRY_NAME.length()) - 16, zip.getLong(extraOffset + 12));
+
+		// The zip readers of Java read the entry through the zip64 records
+		final ZipFile zipFileReader = new ZipFile(zipFile);
+
+		try {
+			final ZipEntry entry = zipFileReader.getEntry(ENTRY_NAME);
+
+			Assert.assertEquals(data.length, entry.getSize());
+			Assert.assertArrayEquals(data, readFully(zipFileReader.getInputStream(entry)));
+		} finally {
+			zipFileReader.close();
+		}
+	}
+
+	@Test
+	@Ignore("writes 4 GB, please run explicitly if you did something to the zip64 records")
+	public void usesZip64ForEntriesOf4GB() throws IOException {
+		// Zeros compress about 1000 times, so the zip file stays small
+		final byte[] zeros = new byte[1024 * 1024];
+		final long size = 0x100000000L + zeros.length;
+
+		final OutputStream out = new BufferedOutputStream(new FileOutputStream(zipFile));
+
+		try {
+			final ParallelZipOutputStream zos = new ParallelZipOutputStream(out, ENTRY_NAME);
+
+			for (long written = 0; written < size; written += zeros.length) {
+				zos.write(zeros);
+			}
+			zos.close();
+		} finally {
+			out.close();
+		}
+
+		final ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile));
+
+		try {
+			final ZipEntry entry = zis.getNextEntry();
+			final byte[] buffer = new byte[64 * 1024];
+			long read = 0;
+
+			for (int n; (n = zis.read(buffer)) > 0; ) {
+				read += n;
+			}
+			Assert.assertEquals(size, read);
+			Assert.assertEquals(size, entry.getSize());
+			Assert.assertNull(zis.getNextEntry());
+		} finally {
+			zis.close();
+		}
+
+		final ZipFile zip = new ZipFile(zipFile);
+
+		try {
+			Assert.assertEquals(size, zip.getEntry(ENTRY_NAME).getSize());
+		} finally {
+			zip.close();
+		}
+	}
+
+	private void write(byte[] data) throws IOException {
+		final OutputStream out = new FileOutputStream(zipFile);
+
+		try {
+			final ParallelZipOutputStream zos = new ParallelZipOutputStream(out, ENTRY_NAME);
+
+			// Written in odd pieces, so the blocks are filled across writes
+			for (int off = 0; off < data.length; off += 7777) {
+				zos.write(data, off, Math.min(7777, data.length - off));
+			}
+			zos.close();
+		} finally {
+			out.close();
+		}
+	}
+
+	private static byte[] createRecordLikeData(int size) {
+		final Random random = new Random(42);
+		final StringBuilder xml = new StringBuilder(size + 100);
+
+		while (xml.length() < size) {
+			xml.append("<robot id=\"").append(random.nextInt(10)).append("\" x=\"").append(random.nextInt(800))
+					.append("\" y=\"").append(random.nextInt(600)).append("\"/>\n");
+		}
+		return xml.substring(0, size).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+
+		for (int n; (n = in.read(buffer)) > 0; ) {
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+}
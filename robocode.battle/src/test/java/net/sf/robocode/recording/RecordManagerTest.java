@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.security.HiddenAccess;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.serialization.XmlStreamReaders;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import robocode.BattleResults;
+import robocode.BattleRules;
+import robocode.control.snapshot.BulletState;
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.IScoreSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * Tests that a battle recorded by the {@link RecordManager} and saved in the binary and the XML formats is loaded with
+ * the same turns.
+ * <p>
+ * The turns of the small battle are made from XML with known values, as the snapshots can only be taken from a running
+ * battle otherwise.
+ */
+public class RecordManagerTest {
+
+	private static final int ROBOTS = 2;
+	private static final int[] TURNS_IN_ROUNDS = { 3, 2 };
+
+	private File recordFile;
+	private RecordManager recordManager;
+	private List<ITurnSnapshot> recordedTurns;
+
+	@Before
+	public void setUp() throws Exception {
+		HiddenAccess.init();
+
+		recordFile = Files.createTempFile("battle", ".xml").toFile();
+		recordManager = new RecordManager(null, null);
+		recordedTurns = createTurns();
+
+		final BattleRules rules = HiddenAccess.createRules(800, 600, TURNS_IN_ROUNDS.length, 0.1, 450, false, 100);
+
+		recordManager.createRecordInfo(rules, ROBOTS, UUID.randomUUID());
+		for (ITurnSnapshot turn : recordedTurns) {
+			recordManager.writeTurn(turn, turn.getRound(), turn.getTurn());
+		}
+		recordManager.updateRecordInfoResults(Arrays.asList(
+				new BattleResults("sample.Fire", 1, 210.5, 100, 20, 80.25, 10, 0, 0, 2, 0, 0),
+				new BattleResults("sample.Walls", 2, 90.75, 50, 0, 40.5, 0, 7.75, 0, 0, 2, 0)));
+		recordManager.cleanupStreams();
+	}
+
+	@After
+	public void tearDown() {
+		recordFile.delete();
+	}
+
+	@Test
+	public void loadsSavedBinaryRecord() throws Exception {
+		assertRoundTrip(BattleRecordFormat.BINARY, new SerializableOptions(false));
+	}
+
+	@Test
+	public void loadsSavedBinaryZipRecord() throws Exception {
+		assertRoundTrip(BattleRecordFormat.BINARY_ZIP, new SerializableOptions(false));
+	}
+
+	@Test
+	public void keepsSerializedFormOfTurns() {
+		// Binary records written by earlier versions of Robocode must still be read
+		final ObjectStreamClass streamClass = ObjectStreamClass.lookup(TurnSnapshot.class);
+		final List<String> fields = new ArrayList<String>();
+
+		for (ObjectStreamField field : streamClass.getFields()) {
+			fields.add(field.getName() + ':' + field.getType().getName());
+		}
+		Assert.assertEquals(1L, streamClass.getSerialVersionUID());
+		Assert.assertEquals(Arrays.asList("round:int", "tps:int", "turn:int", "bullets:java.util.List",
+				"robots:java.util.List"), fields);
+	}
+
+	@Test
+	public void accessesSnapshotsOfOtherTurnsThroughArrays() {
+		final ITurnSnapshot recorded = recordedTurns.get(4);
+
+		// A turn snapshot that only implements the methods that were there before the count and index accessors
+		final ITurnSnapshot other = new ITurnSnapshot() {
+			public IRobotSnapshot[] getRobots() {
+				return recorded.getRobots();
+			}
+
+			public IBulletSnapshot[] getBullets() {
+				return recorded.getBullets();
+			}
+
+			public int getTPS() {
+				return recorded.getTPS();
+			}
+
+			public int getRound() {
+				return recorded.getRound();
+			}
+
+			public int getTurn() {
+				return recorded.getTurn();
+			}
+
+			public IScoreSnapshot[] getSortedTeamScores() {
+				return recorded.getSortedTeamScores();
+			}
+
+			public IScoreSnapshot[] getIndexedTeamScores() {
+				return recorded.getIndexedTeamScores();
+			}
+		};
+
+		assertTurnEquals(recorded, other);
+	}
+
+	@Test
+	public void loadsSavedXmlRecord() throws Exception {
+		assertRoundTrip(BattleRecordFormat.XML, new SerializableOptions(false));
+	}
+
+	@Test
+	public void loadsSavedXmlRecordWithShortAttributes() throws Exception {
+		final SerializableOptions options = new SerializableOptions(false);
+
+		options.shortAttributes = true;
+		assertRoundTrip(BattleRecordFormat.XML_ZIP, options);
+	}
+
+	private void assertRoundTrip(BattleRecordFormat format, SerializableOptions options) throws Exception {
+		recordManager.saveRecord(recordFile.getPath(), format, options);
+
+		final RecordManager loadingManager = new RecordManager(null, null);
+
+		loadingManager.loadRecord(recordFile.getPath(), format);
+
+		Assert.assertTrue(loadingManager.hasRecord());
+		Assert.assertEquals(ROBOTS, loadingManager.recordInfo.robotCount);
+		Assert.assertEquals(TURNS_IN_ROUNDS.length, loadingManager.recordInfo.roundsCount);
+		Assert.assertEquals(800, loadingManager.getBattleRules().getBattlefieldWidth());
+		Assert.assertEquals(450, loadingManager.getBattleRules().getInactivityTime());
+		Assert.assertEquals(2, loadingManager.recordInfo.results.size());
+		Assert.assertEquals("sample.Walls", loadingManager.recordInfo.results.get(1).getTeamLeaderName());
+		Assert.assertEquals(8, loadingManager.recordInfo.results.get(1).getRamDamage());
+
+		final List<ITurnSnapshot> loadedTurns = new ArrayList<ITurnSnapshot>();
+
+		loadingManager.provideTurns(loadedTurns::add);
+
+		Assert.assertEquals(recordedTurns.size(), loadedTurns.size());
+		for (int i = 0; i < recordedTurns.size(); i++) {
+			assertTurnEquals(recordedTurns.get(i), loadedTurns.get(i));
+		}
+
+		// The values are those of the battle, and not only the same defaults in both
+		final IRobotSnapshot robot = loadedTurns.get(4).getRobots()[1];
+
+		Assert.assertEquals("sample.Walls", robot.getName());
+		Assert.assertEquals(getValue(1, 1, 1, 1), robot.getX(), 0);
+		Assert.assertEquals(getValue(1, 1, 1, 6), robot.getGunHeat(), 0);
+		Assert.assertEquals(getValue(1, 1, 1, 10), robot.getScoreSnapshot().getCurrentScore(), 0);
+		Assert.assertEquals(BulletState.HIT_VICTIM, loadedTurns.get(4).getBullets()[0].getState());
+		Assert.assertEquals(BulletState.FIRED, loadedTurns.get(4).getBullets()[1].getState());
+	}
+
+	private static void assertTurnEquals(ITurnSnapshot expected, ITurnSnapshot actual) {
+		Assert.assertEquals(expected.getRound(), actual.getRound());
+		Assert.assertEquals(expected.getTurn(), actual.getTurn());
+		Assert.assertEquals(expected.getRobots().length, actual.getRobots().length);
+		Assert.assertEquals(expected.getBullets().length, actual.getBullets().length);
+		Assert.assertEquals(actual.getRobots().length, actual.getRobotCount());
+		Assert.assertEquals(actual.getBullets().length, actual.getBulletCount());
+
+		for (int i = 0; i < expected.getRobots().length; i++) {
+			final IRobotSnapshot e = expected.getRobots()[i];
+			final IRobotSnapshot a = actual.getRobots()[i];
+
+			Assert.assertSame(a, actual.getRobot(i));
+
+			Assert.assertEquals(e.getRobotIndex(), a.getRobotIndex());
+			Assert.assertEquals(e.getName(), a.getName());
+			Assert.assertEquals(e.getShortName(), a.getShortName());
+			Assert.assertEquals(e.getVeryShortName(), a.getVeryShortName());
+			Assert.assertEquals(e.getTeamName(), a.getTeamName());
+			Assert.assertEquals(e.getState(), a.getState());
+			Assert.assertEquals(e.getEnergy(), a.getEnergy(), 0);
+			Assert.assertEquals(e.getX(), a.getX(), 0);
+			Assert.assertEquals(e.getY(), a.getY(), 0);
+			Assert.assertEquals(e.getBodyHeading(), a.getBodyHeading(), 0);
+			Assert.assertEquals(e.getGunHeading(), a.getGunHeading(), 0);
+			Assert.assertEquals(e.getRadarHeading(), a.getRadarHeading(), 0);
+			Assert.assertEquals(e.getGunHeat(), a.getGunHeat(), 0);
+			Assert.assertEquals(e.getVelocity(), a.getVelocity(), 0);
+			Assert.assertEquals(e.getBodyColor(), a.getBodyColor());
+			Assert.assertEquals(e.isDroid(), a.isDroid());
+			Assert.assertEquals(e.getOutputStreamSnapshot(), a.getOutputStreamSnapshot());
+			assertScoreEquals(e.getScoreSnapshot(), a.getScoreSnapshot());
+		}
+		for (int i = 0; i < expected.getBullets().length; i++) {
+			final IBulletSnapshot e = expected.getBullets()[i];
+			final IBulletSnapshot a = actual.getBullets()[i];
+
+			Assert.assertSame(a, actual.getBullet(i));
+
+			Assert.assertEquals(e.getBulletId(), a.getBulletId());
+			Assert.assertEquals(e.getOwnerIndex(), a.getOwnerIndex());
+			Assert.assertEquals(e.getVictimIndex(), a.getVictimIndex());
+			Assert.assertEquals(e.getState(), a.getState());
+			Assert.assertEquals(e.getPower(), a.getPower(), 0);
+			Assert.assertEquals(e.getHeading(), a.getHeading(), 0);
+			Assert.assertEquals(e.getPaintX(), a.getPaintX(), 0);
+			Assert.assertEquals(e.getPaintY(), a.getPaintY(), 0);
+			Assert.assertEquals(e.getColor(), a.getColor());
+			Assert.assertEquals(e.getFrame(), a.getFrame());
+			Assert.assertEquals(e.isExplosion(), a.isExplosion());
+			Assert.assertEquals(e.getExplosionImageIndex(), a.getExplosionImageIndex());
+		}
+	}
+
+	private static void assertScoreEquals(IScoreSnapshot expected, IScoreSnapshot actual) {
+		Assert.assertEquals(expected.getName(), actual.getName());
+		Assert.assertEquals(expected.getTotalScore(), actual.getTotalScore(), 0);
+		Assert.assertEquals(expected.getTotalBulletDamageScore(), actual.getTotalBulletDamageScore(), 0);
+		Assert.assertEquals(expected.getTotalFirsts(), actual.getTotalFirsts());
+		Assert.assertEquals(expected.getCurrentScore(), actual.getCurrentScore(), 0);
+		Assert.assertEquals(expected.getCurrentSurvivalScore(), actual.getCurrentSurvivalScore(), 0);
+		Assert.assertEquals(expected.getCurrentBulletDamageScore(), actual.getCurrentBulletDamageScore(), 0);
+		Assert.assertEquals(expected.getCurrentRammingKillBonus(), actual.getCurrentRammingKillBonus(), 0);
+	}
+
+	/**
+	 * Creates the turns of a small battle, where every robot fires a bullet in every turn, and the previous bullets
+	 * have hit the other robot.
+	 */
+	private static List<ITurnSnapshot> createTurns() throws Exception {
+		final String[] names = { "sample.Fire", "sample.Walls" };
+		final List<ITurnSnapshot> turns = new ArrayList<ITurnSnapshot>();
+
+		for (int round = 0; round < TURNS_IN_ROUNDS.length; round++) {
+			for (int turn = 0; turn < TURNS_IN_ROUNDS[round]; turn++) {
+				final StringBuilder xml = new StringBuilder();
+
+				xml.append("<turn round=\"").append(round).append("\" turn=\"").append(turn).append("\"><robots>");
+				for (int robot = 0; robot < ROBOTS; robot++) {
+					xml.append("<robot id=\"").append(robot).append("\" name=\"").append(names[robot])
+							.append("\" sName=\"").append(names[robot].substring(7)).append("\" vsName=\"")
+							.append(names[robot].substring(7, 9)).append("\" teamName=\"").append(names[robot])
+							.append("\" state=\"").append(turn == 0 ? "ACTIVE" : "HIT_WALL")
+							.append("\" bodyColor=\"FF0000\"");
+					appendValues(xml, round, turn, robot, 0, "energy", "x", "y", "bodyHeading", "gunHeading",
+							"radarHeading", "gunHeat", "velocity");
+					if (robot == 0) {
+						xml.append(" out=\"Turn ").append(turn).append(" &amp; counting\"");
+					}
+					xml.append("><score name=\"").append(names[robot]).append("\"");
+					appendValues(xml, round, turn, robot, 8, "totalScore", "totalBulletDamageScore",
+							"currentScore", "currentSurvivalScore", "currentBulletDamageScore",
+							"currentRammingKillBonus");
+					xml.append(" totalFirsts=\"").append(round).append("\"/></robot>");
+				}
+				xml.append("</robots><bullets>");
+				for (int robot = 0; robot < ROBOTS; robot++) {
+					if (turn > 0) {
+						xml.append("<bullet id=\"").append(robot).append('-').append(turn)
+								.append("\" state=\"HIT_VICTIM\" victim=\"").append(1 - robot)
+								.append("\" power=\"1.5\" x=\"").append(getValue(round, turn, 1 - robot, 1))
+								.append("\" y=\"").append(getValue(round, turn, 1 - robot, 2))
+								.append("\" color=\"FF00\" frame=\"1\" isExplosion=\"true\" explosion=\"0\"/>");
+					}
+					xml.append("<bullet id=\"").append(robot).append('-').append(turn + 1)
+							.append("\" state=\"FIRED\" owner=\"").append(robot).append("\" power=\"")
+							.append(0.1 + robot).append("\" heading=\"").append(getValue(round, turn, robot, 4))
+							.append("\" x=\"").append(getValue(round, turn, robot, 1)).append("\" y=\"")
+							.append(getValue(round, turn, robot, 2)).append("\"/>");
+				}
+				xml.append("</bullets></turn>");
+
+				final XMLStreamReader reader = XmlStreamReaders.createReader(
+						new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)));
+
+				Assert.assertTrue(XmlStreamReaders.nextChild(reader));
+				turns.add(TurnSnapshot.readXml(reader, new String[ROBOTS]));
+				reader.close();
+			}
+		}
+		return turns;
+	}
+
+	private static void appendValues(StringBuilder xml, int round, int turn, int robot, int first, String... names) {
+		for (int i = 0; i < names.length; i++) {
+			xml.append(' ').append(names[i]).append("=\"").append(getValue(round, turn, robot, first + i)).append('"');
+		}
+	}
+
+	/**
+	 * Returns a value that differs for every attribute, robot, turn and round.
+	 */
+	private static double getValue(int round, int turn, int robot, int attribute) {
+		return 1000 * round + 100 * turn + 10 * robot + attribute + 0.125 * (attribute % 5) + 1.0 / 3;
+	}
+}
@@ -0,0 +1,42 @@
+plugins {
+    id("net.sf.robocode.java-conventions")
+    `java-library`
+}
+
+val jmhVersion = "1.36"
+
+dependencies {
+    implementation(project(":robocode.api"))
+    implementation(project(":robocode.core"))
+    implementation(project(":robocode.host"))
+    implementation(project(":robocode.battle"))
+    implementation(project(":robocode.repository"))
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+    runtimeOnly(project(":robocode.content"))
+    runtimeOnly(project(":robocode.samples"))
+}
+
+description = "Robocode Benchmarks"
+
+tasks {
+    publishMavenJavaPublicationToSonatypeRepository {
+        enabled = false
+    }
+    register("jmh", JavaExec::class) {
+        description = "Runs the JMH benchmarks. JMH options can be given with -Pjmh=\"...\", e.g. -Pjmh=\"TurnThroughput -f 1\"."
+        group = "verification"
+
+        classpath = sourceSets["main"].runtimeClasspath
+        mainClass.set("org.openjdk.jmh.Main")
+        workingDir = projectDir
+
+        // The forked benchmark JVMs inherit these options
+        if (JavaVersion.current() > JavaVersion.VERSION_11) {
+            jvmArgs("-Djava.security.manager=allow")
+        }
+        if (project.hasProperty("jmh")) {
+            args(project.property("jmh").toString().split(" ").filter { it.isNotEmpty() })
+        }
+    }
+}
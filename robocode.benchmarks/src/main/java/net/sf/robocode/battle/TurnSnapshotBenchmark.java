@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import net.sf.robocode.battle.peer.BenchmarkPeers;
+import net.sf.robocode.battle.peer.BulletPeer;
+import net.sf.robocode.battle.peer.RobotPeer;
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.benchmarks.BenchmarkEnvironment;
+import net.sf.robocode.core.Container;
+import net.sf.robocode.host.IHostManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.BattleRules;
+import robocode.control.RobotSpecification;
+import robocode.control.snapshot.BulletState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the construction of the {@link TurnSnapshot} that the battle creates at the end of every turn.
+ * <p>
+ * The benchmark sets up a battle with sample.Target robots without running it, and lets each robot have a few
+ * bullets in the air. It lives in the battle package as the battle can only be set up from here.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnSnapshotBenchmark {
+
+	private static final int BULLETS_PER_ROBOT = 3;
+
+	@Param({"2", "10"})
+	public int robotCount;
+
+	private Battle battle;
+	private final List<RobotPeer> robots = new ArrayList<RobotPeer>();
+	private final List<BulletPeer> bullets = new ArrayList<BulletPeer>();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		StringBuilder robotNames = new StringBuilder("sample.Target");
+
+		for (int i = 1; i < robotCount; i++) {
+			robotNames.append(",sample.Target");
+		}
+		RobotSpecification[] specifications = BenchmarkEnvironment.loadRobots(BenchmarkEnvironment.getEngine(true),
+				robotNames.toString(), robotCount);
+
+		BattleProperties battleProperties = new BattleProperties();
+
+		battleProperties.setBattlefieldWidth(1000);
+		battleProperties.setBattlefieldHeight(1000);
+
+		battle = Container.createComponent(Battle.class);
+		battle.setup(specifications, battleProperties, false);
+
+		IHostManager hostManager = Container.getComponent(IHostManager.class);
+		BattleRules battleRules = battle.getBattleRules();
+
+		for (int i = 0; i < robotCount; i++) {
+			robots.add(new RobotPeer(battle, hostManager, specifications[i], "sample.Target (" + (i + 1) + ")",
+					" (" + (i + 1) + ")", null, i));
+		}
+		for (RobotPeer robot : robots) {
+			robot.initializeRound(robots, null);
+
+			for (int i = 0; i < BULLETS_PER_ROBOT; i++) {
+				BulletPeer bullet = BenchmarkPeers.createBullet(robot, battleRules, bullets.size() + 1);
+
+				bullet.setX(robot.getX());
+				bullet.setY(robot.getY());
+				bullet.setHeading(robot.getGunHeading());
+				bullet.setPower(1 + i);
+				bullet.setState(BulletState.MOVING);
+				bullets.add(bullet);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (RobotPeer robot : robots) {
+			robot.cleanup();
+		}
+		battle.cleanup();
+	}
+
+	@Benchmark
+	public TurnSnapshot construct() {
+		return new TurnSnapshot(battle, robots, bullets, true);
+	}
+}
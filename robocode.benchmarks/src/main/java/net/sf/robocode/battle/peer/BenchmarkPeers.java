@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import robocode.BattleRules;
+
+
+/**
+ * Creates the peers that are otherwise only created by the robots of a running battle.
+ *
+ * @since 1.9.5.3
+ */
+public final class BenchmarkPeers {
+
+	private BenchmarkPeers() {}
+
+	/**
+	 * Creates a bullet fired by a robot.
+	 *
+	 * @param owner the robot that fired the bullet.
+	 * @param battleRules the rules of the battle.
+	 * @param bulletId the id of the bullet.
+	 * @return the new bullet.
+	 */
+	public static BulletPeer createBullet(RobotPeer owner, BattleRules battleRules, int bulletId) {
+		return new BulletPeer(owner, battleRules, bulletId);
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * Prepares the system properties shared by all benchmarks, and creates the engine used for running them.
+ * <p>
+ * The benchmarks must be run with the current directory in 'robocode.benchmarks', so that the robots are read
+ * from the '.sandbox/robots' directory populated by the build. The random generator of the game is always seeded,
+ * so that each benchmark runs the same battles every time. The seed can be changed with -DRANDOMSEED.
+ *
+ * @since 1.9.5.3
+ */
+public final class BenchmarkEnvironment {
+
+	/**
+	 * The seed used for the random generator of the game, if -DRANDOMSEED has not been set.
+	 */
+	public static final String DEFAULT_RANDOM_SEED = "19088743";
+
+	private static RobocodeEngine engine;
+
+	private BenchmarkEnvironment() {}
+
+	/**
+	 * Returns the engine used for running the benchmarks, which is created on the first call.
+	 *
+	 * @param isSecurityOff {@code true} if the engine classes must be loaded by the current class loader, which is
+	 *                      required for benchmarking the internals of the engine; {@code false} if the engine must
+	 *                      run as it does for a normal battle.
+	 * @return the engine.
+	 */
+	public static synchronized RobocodeEngine getEngine(boolean isSecurityOff) {
+		if (engine == null) {
+			if (!new File("").getAbsolutePath().endsWith("robocode.benchmarks")) {
+				throw new Error("Please run benchmarks with current directory in 'robocode.benchmarks'");
+			}
+			try {
+				System.setProperty("ROBOTPATH", new File("../.sandbox/robots").getCanonicalPath());
+			} catch (IOException e) {
+				throw new Error(e);
+			}
+			if (System.getProperty("RANDOMSEED") == null) {
+				System.setProperty("RANDOMSEED", DEFAULT_RANDOM_SEED);
+			}
+			if (isSecurityOff) {
+				System.setProperty("NOSECURITY", "true");
+			}
+			RobocodeEngine.setLogMessagesEnabled(false);
+
+			engine = new RobocodeEngine();
+		}
+		return engine;
+	}
+
+	/**
+	 * Loads robots from the robot repository.
+	 *
+	 * @param engine the engine returned by {@link #getEngine(boolean)}.
+	 * @param robots a comma separated list of robot and team names.
+	 * @param robotCount the number of robots expected, where teams are expanded into their members.
+	 * @return the specifications of the robots.
+	 */
+	public static RobotSpecification[] loadRobots(RobocodeEngine engine, String robots, int robotCount) {
+		RobotSpecification[] specifications = engine.getLocalRepository(robots);
+
+		if (specifications.length != robotCount) {
+			throw new Error("Could not load all robots of " + robots + " from " + System.getProperty("ROBOTPATH"));
+		}
+		return specifications;
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.host.IHostManager;
+import net.sf.robocode.host.RobotStatics;
+import net.sf.robocode.host.events.EventManager;
+import net.sf.robocode.host.proxies.StandardRobotProxy;
+import net.sf.robocode.peer.IRobotPeer;
+import net.sf.robocode.repository.IRobotItem;
+import net.sf.robocode.security.HiddenAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import robocode.AdvancedRobot;
+import robocode.BattleRules;
+import robocode.Condition;
+import robocode.HitByBulletEvent;
+import robocode.RobotStatus;
+import robocode.ScannedRobotEvent;
+import robocode.StatusEvent;
+import robocode.control.RobotSpecification;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures {@link EventManager#processEvents()} for a turn of a robot that receives a status event, a scanned
+ * robot event for each enemy, a hit by bullet event, and tests a custom event condition.
+ * <p>
+ * The event manager is attached to a robot proxy for sample.Walls, which is never started. The events are
+ * dispatched to a robot created by the benchmark, so only the event handling of the game is measured.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventManagerBenchmark {
+
+	@Param({"1", "9"})
+	public int enemies;
+
+	private BenchmarkRobotProxy robotProxy;
+	private EventManager eventManager;
+	private StatusEvent statusEvent;
+	private ScannedRobotEvent[] scannedRobotEvents;
+	private HitByBulletEvent hitByBulletEvent;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		RobotSpecification specification = BenchmarkEnvironment.loadRobots(BenchmarkEnvironment.getEngine(true),
+				"sample.Walls", 1)[0];
+		BattleRules rules = HiddenAccess.createRules(800, 600, 10, 0.1, 450, false, 100);
+		RobotStatics statics = new RobotStatics(specification, "sample.Walls", "", false, rules, null, null, 0, -1);
+
+		robotProxy = new BenchmarkRobotProxy((IRobotItem) HiddenAccess.getFileSpecification(specification),
+				Container.getComponent(IHostManager.class), new IdleRobotPeer(), statics);
+
+		final BenchmarkRobot robot = new BenchmarkRobot();
+
+		eventManager = new EventManager(robotProxy);
+		eventManager.setRobot(robot);
+		eventManager.addCustomEvent(new Condition("odd turn") {
+			@Override
+			public boolean test() {
+				return (robotProxy.time & 1) == 1;
+			}
+		});
+
+		RobotStatus status = HiddenAccess.createStatus(87.5, 400, 300, 1.2, 1.4, 1.6, 8, 0.1, 0.2, 0.3, 50, 0.5,
+				enemies, 0, 3, 10, 0);
+
+		statusEvent = new StatusEvent(status);
+		scannedRobotEvents = new ScannedRobotEvent[enemies];
+		for (int i = 0; i < enemies; i++) {
+			scannedRobotEvents[i] = new ScannedRobotEvent("sample.Target (" + i + ")", 100, 0.5 * i, 200 + i, 1.0, 8,
+					false);
+		}
+		hitByBulletEvent = new HitByBulletEvent(0.7, null);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		eventManager.cleanup();
+		robotProxy.cleanup();
+	}
+
+	@Benchmark
+	public void processEvents(Blackhole blackhole) {
+		robotProxy.time++;
+
+		eventManager.add(statusEvent);
+		for (ScannedRobotEvent event : scannedRobotEvents) {
+			eventManager.add(event);
+		}
+		eventManager.add(hitByBulletEvent);
+		eventManager.processEvents();
+
+		blackhole.consume(eventManager.getCurrentTopEventPriority());
+	}
+
+	/**
+	 * Robot proxy that reports the turn set by the benchmark instead of the turn of a running battle.
+	 */
+	private static class BenchmarkRobotProxy extends StandardRobotProxy {
+		long time;
+
+		BenchmarkRobotProxy(IRobotItem specification, IHostManager hostManager, IRobotPeer peer, RobotStatics statics) {
+			super(specification, hostManager, peer, statics);
+		}
+
+		@Override
+		public long getTimeImpl() {
+			return time;
+		}
+	}
+
+	/**
+	 * Robot that receives the events, but is never run.
+	 */
+	private static class BenchmarkRobot extends AdvancedRobot {
+		double sum;
+
+		@Override
+		public void onStatus(StatusEvent event) {
+			sum += event.getStatus().getEnergy();
+		}
+
+		@Override
+		public void onScannedRobot(ScannedRobotEvent event) {
+			sum += event.getDistance();
+		}
+
+		@Override
+		public void onHitByBullet(HitByBulletEvent event) {
+			sum += event.getBearingRadians();
+		}
+	}
+}
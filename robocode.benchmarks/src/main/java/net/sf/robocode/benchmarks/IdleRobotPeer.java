@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.peer.BadBehavior;
+import net.sf.robocode.peer.ExecCommands;
+import net.sf.robocode.peer.ExecResults;
+import net.sf.robocode.peer.IRobotPeer;
+
+import java.util.Random;
+
+
+/**
+ * Robot peer of a robot proxy created by a benchmark, which is never called as the robot is never run.
+ *
+ * @since 1.9.5.3
+ */
+class IdleRobotPeer implements IRobotPeer {
+
+	public void drainEnergy() {}
+
+	public void punishBadBehavior(BadBehavior badBehavior) {}
+
+	public void setRunning(boolean value) {}
+
+	public boolean isRunning() {
+		return false;
+	}
+
+	public ExecResults waitForBattleEndImpl(ExecCommands newCommands) {
+		return null;
+	}
+
+	public ExecResults executeImpl(ExecCommands newCommands) {
+		return null;
+	}
+
+	public Random getRandom() {
+		return null;
+	}
+}
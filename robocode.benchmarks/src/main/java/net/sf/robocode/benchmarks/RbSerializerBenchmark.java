@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.peer.BulletCommand;
+import net.sf.robocode.peer.BulletStatus;
+import net.sf.robocode.peer.DebugProperty;
+import net.sf.robocode.peer.ExecCommands;
+import net.sf.robocode.peer.ExecResults;
+import net.sf.robocode.peer.TeamMessage;
+import net.sf.robocode.security.HiddenAccess;
+import net.sf.robocode.serialization.RbSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.Event;
+import robocode.RobotStatus;
+import robocode.ScannedRobotEvent;
+import robocode.StatusEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures round-trips through the {@link RbSerializer} of the commands sent by a robot and the results sent back
+ * by the battle, both through streams and through a reused buffer.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RbSerializerBenchmark {
+
+	private RbSerializer serializer;
+	private ExecCommands commands;
+	private ExecResults results;
+	private ByteBuffer buffer;
+	private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+	@Setup(Level.Trial)
+	public void setup() {
+		BenchmarkEnvironment.getEngine(true);
+
+		serializer = new RbSerializer();
+		buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+		commands = new ExecCommands();
+		commands.setBodyTurnRemaining(150.123);
+		commands.setGunTurnRemaining(-12.5);
+		commands.setDistanceRemaining(100);
+		commands.getBullets().add(new BulletCommand(1.0, true, 0.9354, 11));
+		commands.getBullets().add(new BulletCommand(3.0, false, 0.9454, 12));
+		commands.getTeamMessages().add(new TeamMessage("sender", "receiver", new byte[64]));
+		commands.getDebugProperties().add(new DebugProperty("target", "sample.Walls (1)"));
+
+		RobotStatus status = HiddenAccess.createStatus(87.5, 400, 300, 1.2, 1.4, 1.6, 8, 0.1, 0.2, 0.3, 50, 0.5, 9, 0,
+				3, 10, 1234);
+		List<Event> events = new ArrayList<Event>();
+
+		events.add(new StatusEvent(status));
+		for (int i = 0; i < 3; i++) {
+			events.add(new ScannedRobotEvent("sample.Walls (" + i + ")", 100 - i, 0.5 * i, 200 + i, 1.0, 8, false));
+		}
+		List<BulletStatus> bullets = new ArrayList<BulletStatus>();
+
+		bullets.add(new BulletStatus(11, 410, 310, null, true));
+		bullets.add(new BulletStatus(12, 420, 320, "sample.Walls (1)", false));
+
+		results = new ExecResults(commands, status, events, new ArrayList<TeamMessage>(), bullets, false, true, false);
+	}
+
+	@Benchmark
+	public Object execCommandsStream() throws IOException {
+		out.reset();
+		serializer.serialize(out, RbSerializer.ExecCommands_TYPE, commands);
+		return serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Benchmark
+	public Object execCommandsBuffer() throws IOException {
+		return roundTrip(RbSerializer.ExecCommands_TYPE, commands);
+	}
+
+	@Benchmark
+	public Object execResultsBuffer() throws IOException {
+		return roundTrip(RbSerializer.ExecResults_TYPE, results);
+	}
+
+	private Object roundTrip(byte type, Object object) throws IOException {
+		buffer.clear();
+		serializer.serializeToBuffer(buffer, type, object);
+		buffer.flip();
+		return serializer.deserialize(buffer);
+	}
+}
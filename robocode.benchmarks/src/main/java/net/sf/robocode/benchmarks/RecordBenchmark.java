@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.recording.BattleRecordFormat;
+import net.sf.robocode.recording.IRecordManager;
+import net.sf.robocode.serialization.SerializableOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobocodeEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures writing and reading a battle record in each of the record formats.
+ * <p>
+ * The record is made from a seeded 1-vs-1 battle between sample robots, which is run once before the measurements.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecordBenchmark {
+
+	@Param({"BINARY", "BINARY_ZIP", "XML", "XML_ZIP"})
+	public BattleRecordFormat format;
+
+	@Param("3")
+	public int numRounds;
+
+	private IRecordManager recordManager;
+	private final SerializableOptions options = new SerializableOptions(false);
+	private File writtenRecord;
+	private File readRecord;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		RobocodeEngine engine = BenchmarkEnvironment.getEngine(true);
+
+		engine.runBattle(new BattleSpecification(numRounds, new BattlefieldSpecification(800, 600),
+				BenchmarkEnvironment.loadRobots(engine, "sample.Fire,sample.Walls", 2)), null, true, true);
+
+		recordManager = Container.getComponent(IRecordManager.class);
+		if (!recordManager.hasRecord()) {
+			throw new IllegalStateException("The battle was not recorded");
+		}
+
+		writtenRecord = File.createTempFile("robocode-benchmark-write", ".record");
+		readRecord = File.createTempFile("robocode-benchmark-read", ".record");
+		recordManager.saveRecord(readRecord.getPath(), format, options);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		writtenRecord.delete();
+		readRecord.delete();
+	}
+
+	@Benchmark
+	public long write() {
+		recordManager.saveRecord(writtenRecord.getPath(), format, options);
+		return writtenRecord.length();
+	}
+
+	@Benchmark
+	public boolean read() {
+		recordManager.loadRecord(readRecord.getPath(), format);
+		return recordManager.hasRecord();
+	}
+}
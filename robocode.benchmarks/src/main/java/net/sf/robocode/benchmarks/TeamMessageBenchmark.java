@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.host.IHostManager;
+import net.sf.robocode.host.RobotStatics;
+import net.sf.robocode.host.proxies.TeamRobotProxy;
+import net.sf.robocode.peer.ExecCommands;
+import net.sf.robocode.peer.IRobotPeer;
+import net.sf.robocode.peer.TeamMessage;
+import net.sf.robocode.repository.IRobotItem;
+import net.sf.robocode.security.HiddenAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import robocode.BattleRules;
+import robocode.BinaryMessageEvent;
+import robocode.MessageEvent;
+import robocode.RobotStatus;
+import robocode.control.RobotSpecification;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares a team message sent with {@link TeamRobotProxy#broadcastMessage(java.io.Serializable)} to the same
+ * message sent with {@link TeamRobotProxy#broadcastBinaryMessage(ByteBuffer)}.
+ * <p>
+ * The message is an array of doubles, like the positions of enemies a leader sends to its droids. A turn consists
+ * of broadcasting the message, receiving it once for every recipient, and reading the received message events.
+ * For the binary message, this includes writing the doubles to the buffer and reading them back again, which a
+ * robot must do itself. The proxies are created for the robots of sampleteam.MyFirstTeam, but are never started.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamMessageBenchmark {
+
+	@Param({"1", "4"})
+	public int recipients;
+
+	@Param({"4", "32"})
+	public int doubles;
+
+	private BenchmarkTeamRobotProxy sender;
+	private BenchmarkTeamRobotProxy receiver;
+	private double[] message;
+	private double[] receivedMessage;
+	private ByteBuffer buffer;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		RobotSpecification[] specifications = BenchmarkEnvironment.loadRobots(BenchmarkEnvironment.getEngine(true),
+				"sampleteam.MyFirstLeader,sampleteam.MyFirstDroid", 2);
+		BattleRules rules = HiddenAccess.createRules(800, 600, 10, 0.1, 450, false, 100);
+		List<String> members = Arrays.asList("sampleteam.MyFirstLeader", "sampleteam.MyFirstDroid");
+		IHostManager hostManager = Container.getComponent(IHostManager.class);
+
+		sender = new BenchmarkTeamRobotProxy((IRobotItem) HiddenAccess.getFileSpecification(specifications[0]),
+				hostManager, new IdleRobotPeer(),
+				new RobotStatics(specifications[0], members.get(0), "", true, rules, "MyFirstTeam", members, 0, 0));
+		receiver = new BenchmarkTeamRobotProxy((IRobotItem) HiddenAccess.getFileSpecification(specifications[1]),
+				hostManager, new IdleRobotPeer(),
+				new RobotStatics(specifications[1], members.get(1), "", false, rules, "MyFirstTeam", members, 1, 0));
+
+		message = new double[doubles];
+		for (int i = 0; i < doubles; i++) {
+			message[i] = 100.5 + i;
+		}
+		receivedMessage = new double[doubles];
+		buffer = ByteBuffer.allocate(8 * doubles);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		sender.cleanup();
+		receiver.cleanup();
+	}
+
+	@Benchmark
+	public void serializedMessage(Blackhole blackhole) throws IOException {
+		sender.startTurn();
+		receiver.startTurn();
+
+		sender.broadcastMessage(message);
+		for (int i = 0; i < recipients; i++) {
+			receiver.receive(sender.getSentMessages());
+		}
+		for (MessageEvent event : receiver.getMessageEvents()) {
+			blackhole.consume(event.getMessage());
+		}
+	}
+
+	@Benchmark
+	public void binaryMessage(Blackhole blackhole) throws IOException {
+		sender.startTurn();
+		receiver.startTurn();
+
+		buffer.clear();
+		for (double value : message) {
+			buffer.putDouble(value);
+		}
+		buffer.flip();
+
+		sender.broadcastBinaryMessage(buffer);
+		for (int i = 0; i < recipients; i++) {
+			receiver.receive(sender.getSentMessages());
+		}
+		for (BinaryMessageEvent event : receiver.getBinaryMessageEvents()) {
+			event.getMessage().asDoubleBuffer().get(receivedMessage);
+			blackhole.consume(receivedMessage);
+		}
+	}
+
+	/**
+	 * Team robot proxy that lets the benchmark start a new turn and hand over the messages sent by another proxy,
+	 * which is otherwise done by the battle.
+	 */
+	private static class BenchmarkTeamRobotProxy extends TeamRobotProxy {
+		private final ExecCommands turnCommands = new ExecCommands();
+		private final RobotStatus status = HiddenAccess.createStatus(100, 400, 300, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0,
+				1, 10, 0);
+
+		BenchmarkTeamRobotProxy(IRobotItem specification, IHostManager hostManager, IRobotPeer peer,
+				RobotStatics statics) {
+			super(specification, hostManager, peer, statics);
+		}
+
+		void startTurn() {
+			turnCommands.getTeamMessages().clear();
+			initializeRound(turnCommands, status);
+		}
+
+		List<TeamMessage> getSentMessages() {
+			return commands.getTeamMessages();
+		}
+
+		void receive(List<TeamMessage> teamMessages) {
+			loadTeamMessages(teamMessages);
+		}
+	}
+}
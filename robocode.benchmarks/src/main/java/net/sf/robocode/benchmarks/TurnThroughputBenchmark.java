@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleErrorEvent;
+import robocode.control.events.TurnEndedEvent;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures how many turns per second the game runs for complete battles between sample robots.
+ * <p>
+ * Each invocation runs a whole battle with the security manager enabled, just like a battle started from the
+ * command line. Besides the number of battles per second, JMH reports the number of turns per second as the
+ * secondary "turns" result, which is the number to compare between runs.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TurnThroughputBenchmark {
+
+	/**
+	 * The battles that can be benchmarked.
+	 */
+	public enum Scenario {
+		ONE_VS_ONE("sample.Fire,sample.Walls", 2, 800, 600),
+		MELEE("sample.Corners,sample.Crazy,sample.Fire,sample.MyFirstRobot,sample.RamFire,sample.SpinBot,"
+				+ "sample.Target,sample.TrackFire,sample.Tracker,sample.Walls", 10, 1000, 1000),
+		TEAMS("sampleteam.MyFirstTeam,sampleteam.MyFirstTeam", 10, 1200, 1200);
+
+		final String robots;
+		final int robotCount;
+		final int battlefieldWidth;
+		final int battlefieldHeight;
+
+		Scenario(String robots, int robotCount, int battlefieldWidth, int battlefieldHeight) {
+			this.robots = robots;
+			this.robotCount = robotCount;
+			this.battlefieldWidth = battlefieldWidth;
+			this.battlefieldHeight = battlefieldHeight;
+		}
+	}
+
+	@Param
+	public Scenario scenario;
+
+	@Param("10")
+	public int numRounds;
+
+	private RobocodeEngine engine;
+	private BattleSpecification battleSpecification;
+	private final TurnCounter turnCounter = new TurnCounter();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		engine = BenchmarkEnvironment.getEngine(false);
+		engine.addBattleListener(turnCounter);
+
+		RobotSpecification[] robots = BenchmarkEnvironment.loadRobots(engine, scenario.robots, scenario.robotCount);
+
+		battleSpecification = new BattleSpecification(numRounds,
+				new BattlefieldSpecification(scenario.battlefieldWidth, scenario.battlefieldHeight), robots);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		engine.removeBattleListener(turnCounter);
+	}
+
+	@Benchmark
+	public int runBattle(Turns turns) {
+		turnCounter.turns = 0;
+		engine.runBattle(battleSpecification, true);
+		if (turnCounter.error != null) {
+			throw new IllegalStateException("Battle error: " + turnCounter.error);
+		}
+		turns.turns += turnCounter.turns;
+		return turnCounter.turns;
+	}
+
+	/**
+	 * Secondary result containing the number of turns run by the battles.
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Turns {
+		public long turns;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			turns = 0;
+		}
+	}
+
+	private static class TurnCounter extends BattleAdaptor {
+		// Written by the battle thread, and read after the battle has ended
+		volatile int turns;
+		volatile String error;
+
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {
+			turns++;
+		}
+
+		@Override
+		public void onBattleError(BattleErrorEvent event) {
+			error = event.getError();
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.benchmarks.BenchmarkEnvironment;
+import net.sf.robocode.core.Container;
+import net.sf.robocode.serialization.SerializableOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobocodeEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+
+/**
+ * Measures the throughput of compressing a battle record into a zip file, with a single thread as a
+ * {@link ZipOutputStream} does it, and with the {@link ParallelZipOutputStream} used for saving zipped records.
+ * <p>
+ * The record is made from a seeded 1-vs-1 battle between sample robots, saved without compression, and repeated until
+ * it has the given size. The throughput in MB/s is the score multiplied by the size in MB. The benchmark lives in the
+ * recording package as the parallel stream can only be created from here.
+ *
+ * @since 1.9.5.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecordCompressionBenchmark {
+
+	@Param({"BINARY", "XML"})
+	public BattleRecordFormat format;
+
+	@Param("32")
+	public int sizeMB;
+
+	private byte[] record;
+	private final CountingOutputStream output = new CountingOutputStream();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		RobocodeEngine engine = BenchmarkEnvironment.getEngine(true);
+
+		engine.runBattle(new BattleSpecification(10, new BattlefieldSpecification(800, 600),
+				BenchmarkEnvironment.loadRobots(engine, "sample.Fire,sample.Walls", 2)), null, true, true);
+
+		IRecordManager recordManager = Container.getComponent(IRecordManager.class);
+
+		if (!recordManager.hasRecord()) {
+			throw new IllegalStateException("The battle was not recorded");
+		}
+
+		File file = File.createTempFile("robocode-benchmark-compression", ".record");
+
+		try {
+			recordManager.saveRecord(file.getPath(), format, new SerializableOptions(false));
+			byte[] battleRecord = Files.readAllBytes(file.toPath());
+
+			ByteArrayOutputStream data = new ByteArrayOutputStream(sizeMB * 1024 * 1024);
+
+			while (data.size() < sizeMB * 1024 * 1024) {
+				data.write(battleRecord);
+			}
+			record = data.toByteArray();
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Benchmark
+	public long serial() throws IOException {
+		output.count = 0;
+
+		ZipOutputStream zos = new ZipOutputStream(output);
+
+		zos.putNextEntry(new ZipEntry("benchmark-robocode.br"));
+		zos.write(record);
+		zos.close();
+		return output.count;
+	}
+
+	@Benchmark
+	public long parallel() throws IOException {
+		output.count = 0;
+
+		ParallelZipOutputStream zos = new ParallelZipOutputStream(output, "benchmark-robocode.br");
+
+		zos.write(record);
+		zos.close();
+		return output.count;
+	}
+
+	/**
+	 * Counts the compressed bytes instead of keeping them, so only the compression is measured.
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+		long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
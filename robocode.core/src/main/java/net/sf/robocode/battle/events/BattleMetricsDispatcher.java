@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.events;
+
+
+import static net.sf.robocode.io.Logger.logError;
+
+import robocode.control.metrics.BattleMetrics;
+import robocode.control.metrics.IBattleMetricsListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Dispatches the metrics measured by the battle to the registered metrics listeners.
+ *
+ * @since 1.9.5.3
+ */
+public class BattleMetricsDispatcher implements IBattleMetricsListener {
+	// Accessed by both the battle thread and battle manager thread
+	private final List<IBattleMetricsListener> listeners = new CopyOnWriteArrayList<IBattleMetricsListener>();
+
+	public BattleMetricsDispatcher() {}
+
+	public void addListener(IBattleMetricsListener listener) {
+		assert (listener != null);
+
+		listeners.add(listener);
+	}
+
+	public void removeListener(IBattleMetricsListener listener) {
+		assert (listener != null);
+		listeners.remove(listener);
+	}
+
+	public boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	public void onRoundMetrics(BattleMetrics metrics) {
+		for (IBattleMetricsListener listener : listeners) {
+			try {
+				listener.onRoundMetrics(metrics);
+			} catch (Throwable ex) {
+				logError("onRoundMetrics " + listener.getClass(), ex);
+			}
+		}
+	}
+
+	public void onBattleMetrics(BattleMetrics metrics) {
+		for (IBattleMetricsListener listener : listeners) {
+			try {
+				listener.onBattleMetrics(metrics);
+			} catch (Throwable ex) {
+				logError("onBattleMetrics " + listener.getClass(), ex);
+			}
+		}
+	}
+}
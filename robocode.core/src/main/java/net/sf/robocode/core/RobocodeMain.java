@@ -331,7 +331,10 @@ public final class RobocodeMain extends RobocodeMainBase {
 						+ "  -DEXPERIMENTAL=true|false  Enable/disable access to peer in robot interfaces\n"
 						+ "  -DPARALLEL=true|false      Enable/disable parallel processing of robots turns\n"
 						+ "  -DRANDOMSEED=<long number> Set seed for deterministic behavior of random\n"
-						+ "                             numbers\n");
+						+ "                             numbers\n"
+						+ "  -DROBOTDATAINMEMORY=true|false\n"
+						+ "                             Keep the data files written by robots in memory,\n"
+						+ "                             and write them to disk now and then\n");
 	}
 
 	private void printResultsData(BattleCompletedEvent event) {
@@ -37,6 +37,19 @@ public interface IHostManager {
 
 	void cleanup();
 
+	/**
+	 * Watches a resource of a battle that has been released, so it can be reported if it is never collected.
+	 *
+	 * @param resource the resource
+	 * @param description what the resource is
+	 */
+	void watchForLeaks(Object resource, String description);
+
+	/**
+	 * Reports the resources of earlier battles that are still reachable, when a battle has been torn down.
+	 */
+	void checkForLeaks();
+
 	String[] getReferencedClasses(IRobotItem robotItem);
 
 	RobotType getRobotType(IRobotItem robotItem, boolean resolve, boolean message);
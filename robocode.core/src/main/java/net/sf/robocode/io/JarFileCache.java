@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.io;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+
+/**
+ * The robot JAR files opened by Robocode, which are shared by everybody reading them.
+ * <p>
+ * A JAR file is opened when it is first acquired, and closed when the last handle to it is closed. So a JAR file is
+ * opened once for a repository scan or a battle, when the scan or the robots of the battle hold a handle to it, and
+ * it is never left open when nobody needs it.
+ * <p>
+ * JAR files are given by URLs like {@code jar:file:/robots/robot.jar!/sample/Robot.class}. A JAR file inside another
+ * JAR file is given with the jarjar protocol, like {@code jar:jarjar:file:/robots/team.jar^/robot.jar!/Robot.class}.
+ * An inner JAR file is never extracted to disk. Its entries are indexed from its central directory when it is opened,
+ * and the inner JAR file itself is read into memory, where it is inflated if it is deflated. The inner JAR files in
+ * memory are kept after they are closed, up to {@code -DJARJARCACHESIZE=<megabytes>} in all (32 MB by default), so
+ * they are not read again for every battle.
+ * <p>
+ * Only an inner JAR file of at least 1 MB that is stored without compression is mapped from the file on disk instead.
+ * Java cannot unmap a file, so such a file stays mapped until the mapping is garbage collected, even though the JAR
+ * file has been closed. Until then the outer JAR file cannot be deleted or replaced on Windows, and if the outer JAR
+ * file is rewritten in place, reading the mapping fails with an {@link InternalError} instead of an
+ * {@link IOException}.
+ *
+ * @since 1.9.5.3
+ */
+public final class JarFileCache {
+
+	private static final String JAR_PREFIX = "jar:";
+	private static final String JARJAR_PREFIX = "jarjar:";
+	private static final String JAR_SEPARATOR = "!/";
+
+	// The least size of a stored inner JAR file that is mapped instead of read into memory
+	private static final long MAPPED_MIN_SIZE = 1024 * 1024;
+
+	private static final long IN_MEMORY_CACHE_SIZE = Long.parseLong(System.getProperty("JARJARCACHESIZE", "32")) * 1024 * 1024;
+
+	private static final Map<String, OpenJar> openJars = new HashMap<String, OpenJar>();
+
+	// The inner JAR files read into memory, with the least recently used first
+	private static final LinkedHashMap<String, byte[]> inMemoryJars = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+	private static long inMemorySize;
+
+	private JarFileCache() {}
+
+	/**
+	 * Checks if a URL points into a JAR file on disk, or a JAR file inside such a JAR file.
+	 *
+	 * @param url the URL
+	 * @return true if the URL can be read through this cache; false otherwise
+	 */
+	public static boolean isJarURL(URL url) {
+		if (url == null || !"jar".equals(url.getProtocol())) {
+			return false;
+		}
+		final String spec = url.toString();
+		final int separator = spec.indexOf(JAR_SEPARATOR);
+
+		return separator >= 0 && stripJarJar(spec.substring(JAR_PREFIX.length(), separator)).startsWith("file:");
+	}
+
+	/**
+	 * Acquires the JAR file that a URL points into, which is opened if nobody holds it.
+	 *
+	 * @param url the URL of the JAR file or of an entry in it
+	 * @return a handle to the JAR file, which must be closed when the JAR file is no longer needed
+	 * @throws IOException if the JAR file could not be opened
+	 */
+	public static Handle acquire(URL url) throws IOException {
+		if (!isJarURL(url)) {
+			throw new MalformedURLException("Not a URL of a JAR file: " + url);
+		}
+		final String spec = url.toString();
+		final String base = spec.substring(JAR_PREFIX.length(), spec.indexOf(JAR_SEPARATOR));
+		final String[] parts = stripJarJar(base).split("\\" + JarJar.SEPARATOR);
+
+		final File file = toFile(parts[0]);
+		final List<String> innerNames = new ArrayList<String>();
+
+		for (int i = 1; i < parts.length; i++) {
+			innerNames.add(parts[i]);
+		}
+		return new Handle(acquire(file, innerNames), JAR_PREFIX + base + JAR_SEPARATOR);
+	}
+
+	/**
+	 * Opens an entry of a JAR file, or any other URL.
+	 *
+	 * @param url the URL of the entry
+	 * @return the input stream of the entry, which releases the JAR file when it is closed
+	 * @throws IOException if the JAR file could not be opened, or it does not contain the entry
+	 */
+	public static InputStream openStream(URL url) throws IOException {
+		if (!isJarURL(url)) {
+			final URLConnection connection = url.openConnection();
+
+			connection.setUseCaches(false);
+			return connection.getInputStream();
+		}
+		final Handle handle = acquire(url);
+
+		try {
+			final String spec = url.toString();
+			final InputStream in = handle.getInputStream(spec.substring(spec.indexOf(JAR_SEPARATOR) + JAR_SEPARATOR.length()));
+
+			if (in == null) {
+				throw new FileNotFoundException(spec);
+			}
+			return new FilterInputStream(in) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						handle.close();
+					}
+				}
+			};
+		} catch (IOException | RuntimeException e) {
+			handle.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of JAR files that are open.
+	 *
+	 * @return the number of open JAR files
+	 */
+	public static synchronized int getOpenCount() {
+		return openJars.size();
+	}
+
+	/**
+	 * Returns the number of bytes of the inner JAR files that are kept in memory.
+	 *
+	 * @return the size of the inner JAR files in memory
+	 */
+	static synchronized long getInMemorySize() {
+		return inMemorySize;
+	}
+
+	private static synchronized OpenJar acquire(final File file, final List<String> innerNames) throws IOException {
+		final String key = toKey(file, innerNames);
+		OpenJar openJar = openJars.get(key);
+
+		if (openJar != null && !openJar.isChanged()) {
+			openJar.refs++;
+			return openJar;
+		}
+		// A JAR file that has changed on disk is opened again, while the old one is closed when its holders let go
+		try {
+			openJar = AccessController.doPrivileged(new PrivilegedExceptionAction<OpenJar>() {
+				public OpenJar run() throws IOException {
+					return open(file, innerNames);
+				}
+			});
+		} catch (PrivilegedActionException e) {
+			throw (IOException) e.getException();
+		}
+		openJars.put(key, openJar);
+		return openJar;
+	}
+
+	private static OpenJar open(File file, List<String> innerNames) throws IOException {
+		final String key = toKey(file, innerNames);
+
+		if (innerNames.isEmpty()) {
+			return new FileJar(key, file);
+		}
+		final String innerName = innerNames.get(innerNames.size() - 1);
+		final OpenJar outer = acquire(file, innerNames.subList(0, innerNames.size() - 1));
+
+		try {
+			final JarEntry entry = outer.getEntry(innerName);
+
+			if (entry == null) {
+				throw new FileNotFoundException(outer.key + JarJar.SEPARATOR + innerName);
+			}
+			ByteBuffer data = null;
+
+			if (entry.getMethod() == ZipEntry.STORED) {
+				try {
+					data = outer.getStoredData(entry);
+				} catch (ZipException e) {
+					// The outer JAR file could not be indexed, e.g. as it is a ZIP64 file, so the entry is read instead
+					Logger.logWarning(outer.key + ": " + e.getMessage());
+				}
+			}
+			if (data == null) {
+				data = ByteBuffer.wrap(readIntoMemory(outer, entry));
+			}
+			return new BufferJar(key, file, data);
+		} finally {
+			release(outer);
+		}
+	}
+
+	private static byte[] readIntoMemory(OpenJar outer, JarEntry entry) throws IOException {
+		// The outermost file is part of the key, so a JAR file that has changed on disk is read again
+		final String key = outer.key + JarJar.SEPARATOR + entry.getName() + '@' + outer.length + '@' + outer.lastModified;
+		byte[] data = inMemoryJars.get(key);
+
+		if (data != null) {
+			return data;
+		}
+		final InputStream in = outer.getInputStream(entry);
+
+		try {
+			if (entry.getSize() >= 0 && entry.getSize() <= Integer.MAX_VALUE) {
+				data = new byte[(int) entry.getSize()];
+				for (int pos = 0, len; pos < data.length; pos += len) {
+					if ((len = in.read(data, pos, data.length - pos)) < 0) {
+						throw new EOFException(key);
+					}
+				}
+			} else {
+				final ByteArrayOutputStream out = new ByteArrayOutputStream();
+				final byte[] buf = new byte[8192];
+
+				for (int len; (len = in.read(buf)) != -1;) {
+					out.write(buf, 0, len);
+				}
+				data = out.toByteArray();
+			}
+		} finally {
+			FileUtil.cleanupStream(in);
+		}
+		if (data.length <= IN_MEMORY_CACHE_SIZE) {
+			inMemoryJars.put(key, data);
+			inMemorySize += data.length;
+
+			for (Iterator<byte[]> it = inMemoryJars.values().iterator(); inMemorySize > IN_MEMORY_CACHE_SIZE;) {
+				inMemorySize -= it.next().length;
+				it.remove();
+			}
+		}
+		return data;
+	}
+
+	private static synchronized void release(final OpenJar openJar) {
+		if (--openJar.refs > 0) {
+			return;
+		}
+		if (openJars.get(openJar.key) == openJar) {
+			openJars.remove(openJar.key);
+		}
+		try {
+			openJar.close();
+		} catch (IOException e) {
+			Logger.logError(e);
+		}
+	}
+
+	private static String stripJarJar(String base) {
+		while (base.startsWith(JARJAR_PREFIX)) {
+			base = base.substring(JARJAR_PREFIX.length());
+		}
+		return base;
+	}
+
+	private static String toKey(File file, List<String> innerNames) {
+		final StringBuilder key = new StringBuilder(file.getPath());
+
+		for (String innerName : innerNames) {
+			key.append(JarJar.SEPARATOR).append(innerName);
+		}
+		return key.toString();
+	}
+
+	private static File toFile(String fileURL) throws MalformedURLException {
+		try {
+			final URI uri = new URI(fileURL);
+
+			return uri.isOpaque() ? new File(uri.getSchemeSpecificPart()) : new File(uri);
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			// The URL was not escaped
+			return new File(new URL(fileURL).getPath());
+		}
+	}
+
+	/**
+	 * A JAR file that is open, and the number of handles to it.
+	 */
+	private abstract static class OpenJar {
+		final String key;
+		final File file;
+		final long length;
+		final long lastModified;
+		int refs = 1;
+
+		OpenJar(String key, File file) {
+			this.key = key;
+			this.file = file;
+			length = file.length();
+			lastModified = file.lastModified();
+		}
+
+		boolean isChanged() {
+			return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+				public Boolean run() {
+					return file.length() != length || file.lastModified() != lastModified;
+				}
+			});
+		}
+
+		abstract List<JarEntry> getEntries();
+
+		abstract JarEntry getEntry(String name);
+
+		abstract InputStream getInputStream(JarEntry entry) throws IOException;
+
+		/**
+		 * Returns the data of a stored entry without copying it, or null if it must be read into memory instead.
+		 */
+		abstract ByteBuffer getStoredData(JarEntry entry) throws IOException;
+
+		abstract void close() throws IOException;
+	}
+
+	/**
+	 * A JAR file on disk.
+	 */
+	private static final class FileJar extends OpenJar {
+		private final JarFile jarFile;
+		private List<JarEntry> entries;
+		private FileChannel channel;
+		private ZipIndex index;
+
+		FileJar(String key, File file) throws IOException {
+			super(key, file);
+			jarFile = new JarFile(file);
+		}
+
+		@Override
+		synchronized List<JarEntry> getEntries() {
+			if (entries == null) {
+				entries = Collections.unmodifiableList(Collections.list(jarFile.entries()));
+			}
+			return entries;
+		}
+
+		@Override
+		JarEntry getEntry(String name) {
+			return jarFile.getJarEntry(name);
+		}
+
+		@Override
+		InputStream getInputStream(JarEntry entry) throws IOException {
+			return jarFile.getInputStream(entry);
+		}
+
+		@Override
+		synchronized ByteBuffer getStoredData(JarEntry entry) throws IOException {
+			// A mapping outlives the JAR file, so only large JAR files that would crowd the memory are mapped
+			if (entry.getCompressedSize() < MAPPED_MIN_SIZE) {
+				return null;
+			}
+			// The central directory is only read again for the offsets of the entries when an inner JAR file is opened
+			if (index == null) {
+				if (channel == null) {
+					channel = new RandomAccessFile(file, "r").getChannel();
+				}
+				index = ZipIndex.read(channel);
+			}
+			final JarEntry indexed = index.getEntry(entry.getName());
+
+			if (indexed == null) {
+				return null;
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, ZipIndex.getDataOffset(indexed, channel),
+					indexed.getCompressedSize());
+		}
+
+		@Override
+		synchronized void close() throws IOException {
+			try {
+				jarFile.close();
+			} finally {
+				if (channel != null) {
+					channel.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A JAR file inside another JAR file, which is either read into memory, or mapped from the file on disk.
+	 */
+	private static final class BufferJar extends OpenJar {
+		private final ByteBuffer data;
+		private final ZipIndex index;
+
+		BufferJar(String key, File file, ByteBuffer data) throws IOException {
+			super(key, file);
+			this.data = data.asReadOnlyBuffer();
+			index = ZipIndex.read(this.data);
+		}
+
+		@Override
+		List<JarEntry> getEntries() {
+			return index.getEntries();
+		}
+
+		@Override
+		JarEntry getEntry(String name) {
+			return index.getEntry(name);
+		}
+
+		@Override
+		InputStream getInputStream(JarEntry entry) throws IOException {
+			return ZipIndex.getInputStream(entry, ZipIndex.getData(entry, data));
+		}
+
+		@Override
+		ByteBuffer getStoredData(JarEntry entry) throws IOException {
+			return ZipIndex.getData(entry, data);
+		}
+
+		@Override
+		void close() {}
+	}
+
+	/**
+	 * A handle to an open JAR file, which must be closed when the JAR file is no longer needed.
+	 */
+	public static final class Handle implements Closeable {
+		private final OpenJar openJar;
+		private final String rootSpec;
+		private boolean isClosed;
+
+		private Handle(OpenJar openJar, String rootSpec) {
+			this.openJar = openJar;
+			this.rootSpec = rootSpec;
+		}
+
+		/**
+		 * Returns the entries of the JAR file.
+		 *
+		 * @return the entries, which must not be modified
+		 */
+		public List<JarEntry> getEntries() {
+			return openJar.getEntries();
+		}
+
+		/**
+		 * Returns the JAR file on disk, which is the outermost JAR file for a JAR file inside another one.
+		 *
+		 * @return the file on disk
+		 */
+		public File getFile() {
+			return openJar.file;
+		}
+
+		/**
+		 * Returns the URL of an entry of the JAR file.
+		 *
+		 * @param name the name of the entry
+		 * @return the URL of the entry, or null if the JAR file does not contain the entry
+		 */
+		public URL getURL(String name) {
+			if (openJar.getEntry(name) == null) {
+				return null;
+			}
+			try {
+				return new URL(rootSpec + name);
+			} catch (MalformedURLException e) {
+				return null;
+			}
+		}
+
+		/**
+		 * Opens an entry of the JAR file.
+		 *
+		 * @param name the name of the entry
+		 * @return the input stream of the entry, or null if the JAR file does not contain the entry
+		 * @throws IOException if the entry could not be read
+		 */
+		public InputStream getInputStream(String name) throws IOException {
+			final JarEntry entry = openJar.getEntry(name);
+
+			return (entry == null) ? null : openJar.getInputStream(entry);
+		}
+
+		/**
+		 * Opens an entry of the JAR file.
+		 *
+		 * @param entry one of the entries of the JAR file
+		 * @return the input stream of the entry
+		 * @throws IOException if the entry could not be read
+		 */
+		public InputStream getInputStream(JarEntry entry) throws IOException {
+			return openJar.getInputStream(entry);
+		}
+
+		/**
+		 * Releases the JAR file, which is closed when nobody else holds it.
+		 */
+		public synchronized void close() {
+			if (!isClosed) {
+				isClosed = true;
+				release(openJar);
+			}
+		}
+	}
+}
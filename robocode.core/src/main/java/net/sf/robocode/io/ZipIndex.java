@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.io;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+
+/**
+ * The entries of a ZIP or JAR file, read from its central directory, with the offsets of their local headers, so the
+ * data of an entry can be found without reading the file from the start.
+ * <p>
+ * Only what robot JAR files need is supported: entries that are stored or deflated, and no ZIP64.
+ *
+ * @since 1.9.5.3
+ */
+final class ZipIndex {
+
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_SIGNATURE = 0x06054b50;
+
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int CENTRAL_HEADER_SIZE = 46;
+	private static final int END_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xffff;
+
+	private final List<JarEntry> entries;
+	private final Map<String, Entry> entriesByName;
+
+	private ZipIndex(List<JarEntry> entries, Map<String, Entry> entriesByName) {
+		this.entries = Collections.unmodifiableList(entries);
+		this.entriesByName = entriesByName;
+	}
+
+	/**
+	 * Reads the index of a ZIP file that is held in a buffer.
+	 *
+	 * @param zip the ZIP file, from its position to its limit
+	 * @return the index
+	 * @throws ZipException if the buffer does not hold a ZIP file that is supported
+	 */
+	static ZipIndex read(ByteBuffer zip) throws ZipException {
+		final ByteBuffer buffer = zip.slice().order(ByteOrder.LITTLE_ENDIAN);
+		final int end = findEnd(buffer);
+		final long offset = getOffset(buffer, end);
+		final long size = getUnsignedInt(buffer, end + 12);
+
+		if (offset + size > end) {
+			throw new ZipException("Invalid central directory");
+		}
+		final ByteBuffer directory = buffer.duplicate();
+
+		directory.limit((int) (offset + size)).position((int) offset);
+		return readDirectory(directory.slice().order(ByteOrder.LITTLE_ENDIAN), getEntryCount(buffer, end));
+	}
+
+	/**
+	 * Reads the index of a ZIP file, by only reading the end and central directory of the file.
+	 *
+	 * @param channel the ZIP file
+	 * @return the index
+	 * @throws IOException if the file could not be read, or is not a ZIP file that is supported
+	 */
+	static ZipIndex read(FileChannel channel) throws IOException {
+		final long fileSize = channel.size();
+		final int tailSize = (int) Math.min(fileSize, END_SIZE + MAX_COMMENT_SIZE);
+		final ByteBuffer tail = readFully(channel, fileSize - tailSize, tailSize);
+		final int end = findEnd(tail);
+		final long offset = getOffset(tail, end);
+		final long size = getUnsignedInt(tail, end + 12);
+
+		if (offset + size > fileSize - tailSize + end) {
+			throw new ZipException("Invalid central directory");
+		}
+		return readDirectory(readFully(channel, offset, (int) size), getEntryCount(tail, end));
+	}
+
+	/**
+	 * Returns the entries in the order of the central directory.
+	 *
+	 * @return the entries
+	 */
+	List<JarEntry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Returns an entry.
+	 *
+	 * @param name the name of the entry
+	 * @return the entry, or null if there is no such entry
+	 */
+	JarEntry getEntry(String name) {
+		return entriesByName.get(name);
+	}
+
+	/**
+	 * Returns the offset of the data of an entry, by reading its local header.
+	 *
+	 * @param entry an entry of this index
+	 * @param channel the ZIP file
+	 * @return the offset of the data in the file
+	 * @throws IOException if the local header could not be read
+	 */
+	static long getDataOffset(JarEntry entry, FileChannel channel) throws IOException {
+		final long offset = ((Entry) entry).localHeaderOffset;
+
+		return offset + getLocalHeaderSize(readFully(channel, offset, LOCAL_HEADER_SIZE), 0);
+	}
+
+	/**
+	 * Returns the data of an entry as it is stored, which is compressed for a deflated entry.
+	 *
+	 * @param entry an entry of this index
+	 * @param zip the ZIP file this index was read from
+	 * @return the data of the entry
+	 * @throws ZipException if the local header of the entry is invalid
+	 */
+	static ByteBuffer getData(JarEntry entry, ByteBuffer zip) throws ZipException {
+		final ByteBuffer buffer = zip.slice().order(ByteOrder.LITTLE_ENDIAN);
+		final long offset = ((Entry) entry).localHeaderOffset;
+
+		if (offset + LOCAL_HEADER_SIZE > buffer.limit()) {
+			throw new ZipException("Invalid local header offset of " + entry.getName());
+		}
+		final long start = offset + getLocalHeaderSize(buffer, (int) offset);
+
+		if (start + entry.getCompressedSize() > buffer.limit()) {
+			throw new ZipException("Invalid size of " + entry.getName());
+		}
+		buffer.limit((int) (start + entry.getCompressedSize())).position((int) start);
+		return buffer.slice();
+	}
+
+	/**
+	 * Opens the data of an entry, which is inflated if the entry is deflated.
+	 *
+	 * @param entry the entry
+	 * @param data the data of the entry as it is stored
+	 * @return the input stream of the entry
+	 * @throws ZipException if the entry is compressed in a way that is not supported
+	 */
+	static InputStream getInputStream(JarEntry entry, ByteBuffer data) throws ZipException {
+		final InputStream in = new ByteBufferInputStream(data);
+
+		switch (entry.getMethod()) {
+		case ZipEntry.STORED:
+			return in;
+
+		case ZipEntry.DEFLATED:
+			final Inflater inflater = new Inflater(true);
+
+			// The inflater needs an extra byte at the end when the header and checksum of zlib are left out
+			return new InflaterInputStream(new SequenceInputStream(in, new ByteArrayInputStream(new byte[1])),
+					inflater) {
+				private boolean isClosed;
+
+				@Override
+				public void close() throws IOException {
+					if (!isClosed) {
+						isClosed = true;
+						inflater.end();
+						super.close();
+					}
+				}
+			};
+
+		default:
+			throw new ZipException("Unsupported compression method of " + entry.getName());
+		}
+	}
+
+	private static ZipIndex readDirectory(ByteBuffer directory, int count) throws ZipException {
+		final List<JarEntry> entries = new ArrayList<JarEntry>(count);
+		final Map<String, Entry> entriesByName = new HashMap<String, Entry>(count * 2);
+
+		int pos = 0;
+
+		for (int i = 0; i < count; i++) {
+			if (pos + CENTRAL_HEADER_SIZE > directory.limit() || directory.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+				throw new ZipException("Invalid central directory");
+			}
+			final int method = directory.getShort(pos + 10) & 0xffff;
+			final long crc = getUnsignedInt(directory, pos + 16);
+			final long compressedSize = getUnsignedInt(directory, pos + 20);
+			final long size = getUnsignedInt(directory, pos + 24);
+			final int nameLength = directory.getShort(pos + 28) & 0xffff;
+			final int extraLength = directory.getShort(pos + 30) & 0xffff;
+			final int commentLength = directory.getShort(pos + 32) & 0xffff;
+			final long localHeaderOffset = getUnsignedInt(directory, pos + 42);
+
+			if (compressedSize == 0xffffffffL || size == 0xffffffffL || localHeaderOffset == 0xffffffffL) {
+				throw new ZipException("ZIP64 is not supported");
+			}
+			if (pos + CENTRAL_HEADER_SIZE + nameLength > directory.limit()) {
+				throw new ZipException("Invalid central directory");
+			}
+			final byte[] name = new byte[nameLength];
+			final ByteBuffer nameBuffer = directory.duplicate();
+
+			nameBuffer.position(pos + CENTRAL_HEADER_SIZE);
+			nameBuffer.get(name);
+
+			final Entry entry = new Entry(new String(name, StandardCharsets.UTF_8), localHeaderOffset);
+
+			if (method == ZipEntry.STORED || method == ZipEntry.DEFLATED) {
+				entry.setMethod(method);
+			}
+			entry.setCrc(crc);
+			entry.setSize(size);
+			entry.setCompressedSize(compressedSize);
+
+			entries.add(entry);
+			entriesByName.put(entry.getName(), entry);
+
+			pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+		}
+		return new ZipIndex(entries, entriesByName);
+	}
+
+	/**
+	 * Finds the end of central directory record, where the comment after it must end at the end of the buffer.
+	 */
+	private static int findEnd(ByteBuffer buffer) throws ZipException {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		for (int pos = buffer.limit() - END_SIZE; pos >= 0 && pos >= buffer.limit() - END_SIZE - MAX_COMMENT_SIZE; pos--) {
+			if (buffer.getInt(pos) == END_SIGNATURE
+					&& pos + END_SIZE + (buffer.getShort(pos + 20) & 0xffff) == buffer.limit()) {
+				return pos;
+			}
+		}
+		throw new ZipException("No central directory found");
+	}
+
+	private static int getEntryCount(ByteBuffer buffer, int end) throws ZipException {
+		final int count = buffer.getShort(end + 10) & 0xffff;
+
+		if (count == 0xffff) {
+			throw new ZipException("ZIP64 is not supported");
+		}
+		return count;
+	}
+
+	private static long getOffset(ByteBuffer buffer, int end) throws ZipException {
+		final long offset = getUnsignedInt(buffer, end + 16);
+
+		if (offset == 0xffffffffL) {
+			throw new ZipException("ZIP64 is not supported");
+		}
+		return offset;
+	}
+
+	private static int getLocalHeaderSize(ByteBuffer buffer, int offset) throws ZipException {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt(offset) != LOCAL_HEADER_SIGNATURE) {
+			throw new ZipException("Invalid local header");
+		}
+		return LOCAL_HEADER_SIZE + (buffer.getShort(offset + 26) & 0xffff) + (buffer.getShort(offset + 28) & 0xffff);
+	}
+
+	private static long getUnsignedInt(ByteBuffer buffer, int pos) {
+		return buffer.getInt(pos) & 0xffffffffL;
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int size) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * An entry with the offset of its local header.
+	 */
+	private static final class Entry extends JarEntry {
+		final long localHeaderOffset;
+
+		Entry(String name, long localHeaderOffset) {
+			super(name);
+			this.localHeaderOffset = localHeaderOffset;
+		}
+	}
+
+	/**
+	 * Reads a buffer without copying it.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer.duplicate();
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			final int n = Math.min(len, buffer.remaining());
+
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public long skip(long n) {
+			final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -40,28 +40,6 @@ public class DebugProperty implements Serializable, IXmlSerializable, IDebugProp
 		writer.endElement();
 	}
 
-	public XmlReader.Element readXml(XmlReader reader) {
-		return reader.expect("debug", new XmlReader.Element() {
-			public IXmlSerializable read(XmlReader reader) {
-				final DebugProperty snapshot = new DebugProperty();
-
-				reader.expect("key", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.setKey(value);
-					}
-				});
-
-				reader.expect("value", new XmlReader.Attribute() {
-					public void read(String value) {
-						snapshot.setValue(value);
-					}
-				});
-
-				return snapshot;
-			}
-		});
-	}
-
 	public String getKey() {
 		return key;
 	}
@@ -10,6 +10,7 @@ package net.sf.robocode.peer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Random;
 
 
 /**
@@ -28,4 +29,11 @@ public interface IRobotPeer {
 	ExecResults waitForBattleEndImpl(ExecCommands newCommands);
 
 	ExecResults executeImpl(ExecCommands newCommands);
+
+	/**
+	 * Returns the random number generator of the robot, which is bound to the threads of the robot.
+	 *
+	 * @since 1.9.5.3
+	 */
+	Random getRandom();
 }
@@ -10,6 +10,7 @@ package net.sf.robocode.recording;
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
 import net.sf.robocode.serialization.SerializableOptions;
+import robocode.BattleRules;
 import robocode.control.snapshot.ITurnSnapshot;
 
 import java.io.IOException;
@@ -41,4 +42,11 @@ public interface IRecordManager {
     void generateCsvRecord(OutputStream fosResults, OutputStream fosRounds, OutputStream fosRobots, OutputStream fosBullets, SerializableOptions options, CheckedConsumer<ITurnSnapshot> extension) throws IOException, ClassNotFoundException;
 
     boolean hasRecord();
+
+    /**
+     * Returns the rules of the recorded battle, or {@code null} if there is no record.
+     *
+     * @since 1.9.5.3
+     */
+    BattleRules getBattleRules();
 }
@@ -26,18 +26,27 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.text.AttributedCharacterIterator;
 import java.text.CharacterIterator;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import javax.swing.UIManager;
 
 
 /**
+ * A graphics context that queues the method calls of a robot painting, so they can be processed on another graphics
+ * context later on.
+ * <p>
+ * The calls are written into chunks of a fixed size, which are kept and reused for the next turns, so a painting
+ * that grows does not copy what has been written so far. Each turn the calls are read out as a single array, which is
+ * processed directly from that array.
+ *
  * @author Flemming N. Larsen (original)
  * @author Pavel Savara (original)
  */
 public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 
-	private static final int INITIAL_BUFFER_SIZE = 2 * 1024;
+	private static final int CHUNK_SIZE = 4 * 1024;
 	private static final int MAX_BUFFER_SIZE = 64 * 1024;
 
 	private final Method[] methods = Method.class.getEnumConstants();
@@ -136,9 +145,16 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	// Flag indicating if painting is enabled
 	private transient boolean isPaintingEnabled;
 
-	// Byte buffer that works as a stack of method calls to this proxy
+	// Byte buffer that works as a stack of method calls to this proxy, which is the chunk being written
 	private ByteBuffer calls;
 
+	// The chunks with the method calls queued since the last readout, which are reused after the readout
+	private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+
+	// The index of the chunk being written, and the number of bytes written in the chunks before it
+	private int chunkIndex;
+	private int chunksSize;
+
 	// Serializer for this proxy
 	private final RbSerializer serializer = new RbSerializer();
 
@@ -169,7 +185,7 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	public Graphics create() {
 		Graphics2DSerialized gfxProxyCopy = new Graphics2DSerialized();
 
-		gfxProxyCopy.calls = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+		gfxProxyCopy.clearChunks();
 		gfxProxyCopy.transform = transform;
 		gfxProxyCopy.composite = copyOf(composite);
 		gfxProxyCopy.paint = paint;
@@ -1322,16 +1338,13 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 
 	public void setPaintingEnabled(boolean enabled) {
 		if (enabled && !isPaintingEnabled) {
-			calls = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
-			calls.put(calls.order() == ByteOrder.BIG_ENDIAN ? (byte) 1 : (byte) 0);
+			clearChunks();
 		}
 		isPaintingEnabled = enabled;
 	}
 
 	public void processTo(Graphics2D g) {
 		if (!isInitialized) {
-			calls = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
-
 			// Make sure the transform is not null
 			transform = g.getTransform();
 			transform = transform == null ? new AffineTransform() : new AffineTransform(transform);
@@ -1355,57 +1368,81 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 			isInitialized = true;
 		}
 
-		calls.flip();
+		final byte[] queuedCalls = readoutQueuedCalls();
 
-		while (calls.remaining() > 0) {
-			processQueuedCall(g);
+		if (queuedCalls != null) {
+			processTo(g, queuedCalls);
 		}
 	}
 
 	public void processTo(Graphics2D g, Object graphicsCalls) {
-		calls.clear();
+		final byte[] data = (byte[]) graphicsCalls;
 
-		calls.mark(); // Mark for rollback
-		try {
-			calls.put((byte[]) graphicsCalls);
-		} catch (BufferOverflowException e) {
-			calls.reset(); // Rollback buffer
-			if (reallocBuffer()) {
-				processTo(g, graphicsCalls);
-				return; // must exit here
-			}
-			calls.clear();
+		if (data.length == 0) {
+			return;
 		}
 
-		calls.flip();
-		calls.order(calls.get() == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+		// The calls are read directly from the array, and the chunk being written is restored afterwards
+		final ByteBuffer queuedCalls = calls;
 
-		while (calls.remaining() > 0) {
-			try {
-				processQueuedCall(g);
-			} catch (Exception e) {
-				e.printStackTrace();
-				// FOR-DEBUG } catch (Error e) {
-				// FOR-DEBUG 	calls.position(lastPos - 4);
+		calls = ByteBuffer.wrap(data);
+		try {
+			calls.order(calls.get() == 1 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+
+			while (calls.remaining() > 0) {
+				try {
+					processQueuedCall(g);
+				} catch (Exception e) {
+					e.printStackTrace();
+					// FOR-DEBUG } catch (Error e) {
+					// FOR-DEBUG 	calls.position(lastPos - 4);
+				}
 			}
+		} finally {
+			calls = queuedCalls;
 		}
 	}
 
+	/**
+	 * Reads out the method calls queued since the last readout.
+	 *
+	 * @return the queued calls, or {@code null} if no calls have been queued
+	 */
 	public byte[] readoutQueuedCalls() {
-		if (calls == null || calls.position() == 0) {
+		// The first byte is the byte order, which is not a call
+		if (calls == null || chunksSize + calls.position() <= 1) {
 			return null;
 		}
-		byte[] res = new byte[calls.position()];
+		byte[] res = new byte[chunksSize + calls.position()];
+		int length = 0;
 
-		calls.flip();
-		calls.get(res);
+		for (int i = 0; i <= chunkIndex; i++) {
+			final ByteBuffer chunk = chunks.get(i);
 
-		calls.clear();
-		calls.put(calls.order() == ByteOrder.BIG_ENDIAN ? (byte) 1 : (byte) 0);
+			System.arraycopy(chunk.array(), 0, res, length, chunk.position());
+			length += chunk.position();
+		}
+
+		clearChunks();
 
 		return res;
 	}
 
+	/**
+	 * Starts writing calls from the first chunk again, where the first byte is the byte order.
+	 */
+	private void clearChunks() {
+		if (chunks.isEmpty()) {
+			chunks.add(ByteBuffer.allocate(CHUNK_SIZE));
+		}
+		chunkIndex = 0;
+		chunksSize = 0;
+
+		calls = chunks.get(0);
+		calls.clear();
+		calls.put(calls.order() == ByteOrder.BIG_ENDIAN ? (byte) 1 : (byte) 0);
+	}
+
 	private void processQueuedCall(Graphics2D g) {
 		Method m = readMethod();
 
@@ -1875,47 +1912,41 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	}
 
 	/**
-	 * Reallocates the calls buffer by replacing it with a new one with doubled capacity
-	 * and copying the old one.
+	 * Continues writing in the next chunk, or in a larger chunk if a single call does not fit into an empty chunk.
 	 *
-	 * @return {@code true} if the buffer was reallocated;
-	 *         {@code false} if the max. capacity has been reached meaning that the reallocation
-	 *         was not performed. 
+	 * @return {@code true} if there is room for the call;
+	 *         {@code false} if the max. capacity has been reached meaning that there is no more room for calls.
 	 */
-	private boolean reallocBuffer() {
-		int bufferSize;
+	private boolean nextChunk() {
+		// The call has been rolled back, so the position is where the call started
+		final boolean isCallTooLarge = calls.position() == 0;
+		final int chunkSize = isCallTooLarge ? 2 * calls.capacity() : CHUNK_SIZE;
+		final int usedSize = chunksSize + calls.position();
+		final boolean isLimited = RobocodeProperties.isDebuggingOff();
 
-		if (calls == null) {
-			// No buffer -> Use initial buffer size
-			bufferSize = INITIAL_BUFFER_SIZE;
-		} else {
-			// Otherwise, double up capacity
-			bufferSize = 2 * calls.capacity();
+		// Check if the max. buffer size has been reached, or the call did not fit into what was left of it
+		if (isLimited && (usedSize >= MAX_BUFFER_SIZE || (isCallTooLarge && calls.limit() < calls.capacity()))) {
+			return false; // no more room!
 		}
 
-		// Check if the max. buffer size has been reached
-		if (RobocodeProperties.isDebuggingOff() && bufferSize > MAX_BUFFER_SIZE) {			
-			return false; // not reallocated!
-		}
-
-		// Allocate new buffer
-		ByteBuffer newBuffer = ByteBuffer.allocate(bufferSize);
-
-		if (calls != null) {
-			// Copy all bytes contained in the current buffer to the new buffer
-
-			byte[] copiedBytes = new byte[calls.position()];
+		if (isCallTooLarge) {
+			calls = ByteBuffer.allocate(chunkSize);
+			chunks.set(chunkIndex, calls);
+		} else {
+			chunksSize += calls.position();
+			chunkIndex++;
 
+			if (chunkIndex == chunks.size()) {
+				chunks.add(ByteBuffer.allocate(chunkSize));
+			}
+			calls = chunks.get(chunkIndex);
 			calls.clear();
-			calls.get(copiedBytes);
-
-			newBuffer.put(copiedBytes);
 		}
-
-		// Switch to the new buffer
-		calls = newBuffer;
-		
-		return true; // buffer was reallocated
+		// The chunk ends where the max. buffer size is reached, so a call overflows it if the call does not fit
+		if (isLimited) {
+			calls.limit(Math.min(calls.capacity(), MAX_BUFFER_SIZE - usedSize));
+		}
+		return true; // there is room for the call
 	}
 
 	private int unrecoveredBufferOverflowCount;
@@ -1923,7 +1954,7 @@ public class Graphics2DSerialized extends Graphics2D implements IGraphicsProxy {
 	private boolean recoverFromBufferOverflow() {
 		calls.reset(); // Rollback buffer
 
-		boolean recovered = reallocBuffer(); 
+		boolean recovered = nextChunk();
 
 		if (!recovered) {
 			if (unrecoveredBufferOverflowCount++ == 1) { // Prevent spamming 
@@ -16,6 +16,4 @@ import java.io.IOException;
  */
 public interface IXmlSerializable {
 	void writeXml(XmlWriter writer, SerializableOptions options) throws IOException;
-
-	XmlReader.Element readXml(XmlReader reader);
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.serialization;
+
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+
+
+/**
+ * Helpers for reading XML with a {@link XMLStreamReader}, which pulls the elements one by one, so the reading code
+ * decides what to create for each element, and no callbacks are registered per element.
+ * <p>
+ * The methods reading an element are called when the reader is at the start of the element, and leave the reader at
+ * the end of the element.
+ *
+ * @since 1.9.5.3
+ */
+public final class XmlStreamReaders {
+
+	private XmlStreamReaders() {}
+
+	/**
+	 * Creates a reader for an XML document. Document type declarations are not supported.
+	 *
+	 * @param input the document
+	 * @return the reader, which must be closed by the caller
+	 */
+	public static XMLStreamReader createReader(InputStream input) throws XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory.createXMLStreamReader(input);
+	}
+
+	/**
+	 * Moves the reader to the start of the next child element of the current element.
+	 *
+	 * @param reader the reader at the start of the current element, or at the end of a child element
+	 * @return {@code true} if the reader is at the start of the next child element; {@code false} if the reader is at
+	 *         the end of the current element, which has no more children
+	 */
+	public static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			final int event = reader.next();
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			}
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the reader to the end of the current element, skipping all its children.
+	 *
+	 * @param reader the reader at the start of the element
+	 */
+	public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+
+		while (depth > 0 && reader.hasNext()) {
+			final int event = reader.next();
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Checks if the current element has one of two names.
+	 *
+	 * @param reader the reader at the start or end of an element
+	 * @param name the name of the element
+	 * @param altName the short name of the element
+	 */
+	public static boolean isElement(XMLStreamReader reader, String name, String altName) {
+		final String localName = reader.getLocalName();
+
+		return localName.equals(name) || localName.equals(altName);
+	}
+}
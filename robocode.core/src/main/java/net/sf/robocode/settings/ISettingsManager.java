@@ -46,6 +46,15 @@ public interface ISettingsManager {
 
 	void setOptionsViewFPS(boolean optionsViewFPS);
 
+	/**
+	 * Checks if the FPS and the time spent drawing each frame are shown in the battle view.
+	 *
+	 * @since 1.9.5.3
+	 */
+	boolean getOptionsViewFrameTime();
+
+	void setOptionsViewFrameTime(boolean optionsViewFrameTime);
+
 	boolean getOptionsViewExplosions();
 
 	void setOptionsViewExplosions(boolean optionsViewExplosions);
@@ -88,6 +97,15 @@ public interface ISettingsManager {
 
 	void setOptionsRenderingForceBulletColor(boolean optionsRenderingForceBulletColor);
 
+	/**
+	 * Checks if the robot images are rotated in advance, so they are not rotated every time they are painted.
+	 *
+	 * @since 1.9.5.3
+	 */
+	boolean getOptionsRenderingPreRotateImages();
+
+	void setOptionsRenderingPreRotateImages(boolean optionsRenderingPreRotateImages);
+
 	int getOptionsBattleDesiredTPS();
 
 	void setOptionsBattleDesiredTPS(int optionsBattleDesiredTPS);
@@ -251,6 +269,7 @@ public interface ISettingsManager {
 			OPTIONS_VIEW_GROUND = "robocode.options.view.ground",
 			OPTIONS_VIEW_TPS = "robocode.options.view.TPS",
 			OPTIONS_VIEW_FPS = "robocode.options.view.FPS",
+			OPTIONS_VIEW_FRAME_TIME = "robocode.options.view.frameTime",
 			OPTIONS_VIEW_EXPLOSIONS = "robocode.options.view.explosions",
 			OPTIONS_VIEW_EXPLOSION_DEBRIS = "robocode.options.view.explosionDebris",
 			OPTIONS_VIEW_SENTRY_BORDER = "robocode.options.view.sentryBorder",
@@ -265,6 +284,7 @@ public interface ISettingsManager {
 			OPTIONS_RENDERING_NO_BUFFERS = "robocode.options.rendering.noBuffers",
 			OPTIONS_RENDERING_BUFFER_IMAGES = "robocode.options.rendering.bufferImages",
 			OPTIONS_RENDERING_FORCE_BULLET_COLOR = "robocode.options.rendering.forceBulletColor",
+			OPTIONS_RENDERING_PRE_ROTATE_IMAGES = "robocode.options.rendering.preRotateImages",
 
 			OPTIONS_SOUND_ENABLESOUND = "robocode.options.sound.enableSound",
 			OPTIONS_SOUND_ENABLEGUNSHOT = "robocode.options.sound.enableGunshot",
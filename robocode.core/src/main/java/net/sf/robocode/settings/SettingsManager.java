@@ -51,7 +51,8 @@ public class SettingsManager implements ISettingsManager {
 	// View Options (Turns Per Second)
 	private boolean
 			optionsViewTPS = true,
-			optionsViewFPS = true;
+			optionsViewFPS = true,
+			optionsViewFrameTime = false;
 
 	// Prevent speedup when view is minimized
 	private boolean
@@ -67,7 +68,8 @@ public class SettingsManager implements ISettingsManager {
 
 	private boolean
 			optionsRenderingBufferImages = true,
-			optionsRenderingForceBulletColor = false;
+			optionsRenderingForceBulletColor = false,
+			optionsRenderingPreRotateImages = false;
 
 	// Sound Options (Sound Effects)
 	private boolean
@@ -232,6 +234,15 @@ public class SettingsManager implements ISettingsManager {
 		props.setProperty(OPTIONS_VIEW_FPS, "" + optionsViewFPS);
 	}
 
+	public boolean getOptionsViewFrameTime() {
+		return optionsViewFrameTime;
+	}
+
+	public void setOptionsViewFrameTime(boolean optionsViewFrameTime) {
+		this.optionsViewFrameTime = optionsViewFrameTime;
+		props.setProperty(OPTIONS_VIEW_FRAME_TIME, "" + optionsViewFrameTime);
+	}
+
 	public boolean getOptionsViewExplosions() {
 		return optionsViewExplosions;
 	}
@@ -377,6 +388,15 @@ public class SettingsManager implements ISettingsManager {
 		props.setProperty(OPTIONS_RENDERING_FORCE_BULLET_COLOR, "" + optionsRenderingForceBulletColor);
 	}
 
+	public boolean getOptionsRenderingPreRotateImages() {
+		return optionsRenderingPreRotateImages;
+	}
+
+	public void setOptionsRenderingPreRotateImages(boolean optionsRenderingPreRotateImages) {
+		this.optionsRenderingPreRotateImages = optionsRenderingPreRotateImages;
+		props.setProperty(OPTIONS_RENDERING_PRE_ROTATE_IMAGES, "" + optionsRenderingPreRotateImages);
+	}
+
 	public int getOptionsBattleDesiredTPS() {
 		return optionsBattleDesiredTPS;
 	}
@@ -714,6 +734,7 @@ public class SettingsManager implements ISettingsManager {
 		optionsViewGround = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_GROUND, "true"));
 		optionsViewTPS = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_TPS, "true"));
 		optionsViewFPS = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_FPS, "true"));
+		optionsViewFrameTime = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_FRAME_TIME, "false"));
 		optionsViewExplosions = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_EXPLOSIONS, "true"));
 		optionsViewExplosionDebris = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_EXPLOSION_DEBRIS, "true"));
 		optionsViewSentryBorder = Boolean.valueOf(props.getProperty(OPTIONS_VIEW_SENTRY_BORDER, "false"));
@@ -731,6 +752,8 @@ public class SettingsManager implements ISettingsManager {
 		optionsRenderingBufferImages = Boolean.valueOf(props.getProperty(OPTIONS_RENDERING_BUFFER_IMAGES, "true"));
 		optionsRenderingForceBulletColor = Boolean.valueOf(
 				props.getProperty(OPTIONS_RENDERING_FORCE_BULLET_COLOR, "false"));
+		optionsRenderingPreRotateImages = Boolean.valueOf(
+				props.getProperty(OPTIONS_RENDERING_PRE_ROTATE_IMAGES, "false"));
 
 		optionsSoundEnableSound = Boolean.valueOf(props.getProperty(OPTIONS_SOUND_ENABLESOUND, "false"));
 		optionsSoundEnableGunshot = Boolean.valueOf(props.getProperty(OPTIONS_SOUND_ENABLEGUNSHOT, "true"));
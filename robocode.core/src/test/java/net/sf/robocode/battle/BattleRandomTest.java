@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Tests the random number generators of a battle.
+ */
+public class BattleRandomTest {
+	private String savedSeed;
+
+	@Before
+	public void setUp() {
+		savedSeed = System.getProperty("RANDOMSEED");
+		System.setProperty("RANDOMSEED", "12345");
+		BattleRandom.setSharedRandom(null);
+	}
+
+	@After
+	public void tearDown() {
+		if (savedSeed == null) {
+			System.clearProperty("RANDOMSEED");
+		} else {
+			System.setProperty("RANDOMSEED", savedSeed);
+		}
+		BattleRandom.setSharedRandom(null);
+		BattleRandom.setThreadRandom(null);
+	}
+
+	@Test
+	public void seededBattlesAreRepeated() {
+		BattleRandom first = BattleRandom.create(3);
+		BattleRandom second = BattleRandom.create(3);
+
+		Assert.assertEquals(first.getPlacementRandom().nextDouble(), second.getPlacementRandom().nextDouble(), 0);
+		Assert.assertEquals(first.getOrderRandom().nextInt(10), second.getOrderRandom().nextInt(10));
+		Assert.assertEquals(first.getRobotRandom(2).nextLong(), second.getRobotRandom(2).nextLong());
+	}
+
+	@Test
+	public void robotStreamsAreIndependent() {
+		BattleRandom first = BattleRandom.create(2);
+		BattleRandom second = BattleRandom.create(2);
+
+		// Draws by one robot, or by the game, must not change the numbers of another robot
+		for (int i = 0; i < 100; i++) {
+			first.getRobotRandom(0).nextDouble();
+			first.getPlacementRandom().nextDouble();
+		}
+		Assert.assertEquals(first.getRobotRandom(1).nextDouble(), second.getRobotRandom(1).nextDouble(), 0);
+		Assert.assertNotSame(first.getRobotRandom(0), first.getRobotRandom(1));
+	}
+
+	@Test
+	public void sharedRandomIsUsedForEverything() {
+		Random shared = new Random(0);
+
+		BattleRandom.setSharedRandom(shared);
+		BattleRandom battleRandom = BattleRandom.create(2);
+
+		Assert.assertSame(shared, battleRandom.getPlacementRandom());
+		Assert.assertSame(shared, battleRandom.getOrderRandom());
+		Assert.assertSame(shared, battleRandom.getRobotRandom(1));
+		Assert.assertSame(shared, BattleRandom.getRandom());
+	}
+
+	@Test
+	public void threadRandomIsInherited() throws InterruptedException {
+		final Random robotRandom = BattleRandom.create(1).getRobotRandom(0);
+		final AtomicReference<Random> childRandom = new AtomicReference<Random>();
+
+		BattleRandom.setThreadRandom(robotRandom);
+		Assert.assertSame(robotRandom, BattleRandom.getRandom());
+
+		Thread child = new Thread(new Runnable() {
+			public void run() {
+				childRandom.set(BattleRandom.getRandom());
+			}
+		});
+
+		child.start();
+		child.join();
+		Assert.assertSame(robotRandom, childRandom.get());
+
+		BattleRandom.setThreadRandom(null);
+		Assert.assertNotSame(robotRandom, BattleRandom.getRandom());
+	}
+
+	@Test
+	public void setSeedRestartsStream() {
+		Random random = BattleRandom.create(1).getRobotRandom(0);
+
+		random.setSeed(42);
+		double first = random.nextDouble();
+
+		random.setSeed(42);
+		Assert.assertEquals(first, random.nextDouble(), 0);
+	}
+}
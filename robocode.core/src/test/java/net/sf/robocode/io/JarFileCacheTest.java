@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.io;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+
+/**
+ * Tests that the {@link JarFileCache} opens each JAR file once, and closes it when nobody holds it.
+ */
+public class JarFileCacheTest {
+
+	// The jarjar protocol is registered by the host, so the URLs of inner JAR files are made with a dummy handler here
+	private static final URLStreamHandler JARJAR_HANDLER = new URLStreamHandler() {
+		protected java.net.URLConnection openConnection(URL u) {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	private File jar;
+
+	@Before
+	public void setUp() throws IOException {
+		jar = File.createTempFile("jarfilecache", ".jar");
+
+		final ByteArrayOutputStream inner = new ByteArrayOutputStream();
+
+		writeJar(inner, "Inner.txt", "inner");
+
+		// A stored inner JAR file, which holds a deflated one
+		final ByteArrayOutputStream stored = new ByteArrayOutputStream();
+		final JarOutputStream storedOut = new JarOutputStream(stored);
+
+		addEntry(storedOut, "Stored.txt", "stored".getBytes(StandardCharsets.US_ASCII));
+		addEntry(storedOut, "Inner.jar", inner.toByteArray());
+		storedOut.close();
+
+		final OutputStream out = new FileOutputStream(jar);
+
+		try {
+			final JarOutputStream jarOut = new JarOutputStream(out);
+
+			addEntry(jarOut, "sample/Robot.properties", "robot".getBytes(StandardCharsets.US_ASCII));
+			addEntry(jarOut, "Inner.jar", inner.toByteArray());
+			addStoredEntry(jarOut, "Stored.jar", stored.toByteArray());
+			jarOut.close();
+		} finally {
+			out.close();
+		}
+	}
+
+	@After
+	public void tearDown() {
+		Assert.assertEquals(0, JarFileCache.getOpenCount());
+		Assert.assertTrue(jar.delete());
+	}
+
+	@Test
+	public void sharesOpenJarFiles() throws IOException {
+		final URL root = new URL("jar:" + jar.toURI() + "!/");
+		final JarFileCache.Handle first = JarFileCache.acquire(root);
+		final JarFileCache.Handle second = JarFileCache.acquire(new URL(root, "sample/Robot.properties"));
+
+		Assert.assertSame(first.getEntries(), second.getEntries());
+		Assert.assertEquals(jar, first.getFile());
+		Assert.assertEquals(1, JarFileCache.getOpenCount());
+
+		first.close();
+		first.close();
+		Assert.assertEquals("robot", read(JarFileCache.openStream(new URL(root, "sample/Robot.properties"))));
+		Assert.assertEquals(1, JarFileCache.getOpenCount());
+
+		second.close();
+		Assert.assertEquals(0, JarFileCache.getOpenCount());
+	}
+
+	@Test
+	public void findsEntries() throws IOException {
+		final JarFileCache.Handle handle = JarFileCache.acquire(new URL("jar:" + jar.toURI() + "!/"));
+
+		try {
+			Assert.assertEquals(new URL("jar:" + jar.toURI() + "!/sample/Robot.properties"),
+					handle.getURL("sample/Robot.properties"));
+			Assert.assertNull(handle.getURL("sample/Missing.properties"));
+			Assert.assertNull(handle.getInputStream("sample/Missing.properties"));
+		} finally {
+			handle.close();
+		}
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void failsOnMissingEntries() throws IOException {
+		JarFileCache.openStream(new URL("jar:" + jar.toURI() + "!/sample/Missing.properties"));
+	}
+
+	@Test
+	public void readsInnerJarFiles() throws IOException {
+		final URL url = new URL("jar", "", -1, "jarjar:" + jar.toURI() + JarJar.SEPARATOR + "Inner.jar!/Inner.txt",
+				JARJAR_HANDLER);
+
+		Assert.assertTrue(JarFileCache.isJarURL(url));
+		Assert.assertEquals("inner", read(JarFileCache.openStream(url)));
+
+		// The deflated inner JAR file is kept in memory, so it is not inflated again
+		final long inflatedSize = JarFileCache.getInMemorySize();
+
+		Assert.assertTrue(inflatedSize > 0);
+		Assert.assertEquals("inner", read(JarFileCache.openStream(url)));
+		Assert.assertEquals(inflatedSize, JarFileCache.getInMemorySize());
+	}
+
+	@Test
+	public void readsStoredAndNestedInnerJarFiles() throws IOException {
+		final String stored = "jarjar:" + jar.toURI() + JarJar.SEPARATOR + "Stored.jar";
+		final JarFileCache.Handle handle = JarFileCache.acquire(new URL("jar", "", -1, stored + "!/", JARJAR_HANDLER));
+
+		try {
+			Assert.assertEquals(jar, handle.getFile());
+			Assert.assertEquals(2, handle.getEntries().size());
+			Assert.assertEquals("Stored.txt", handle.getEntries().get(0).getName());
+			Assert.assertEquals(6, handle.getEntries().get(0).getSize());
+			Assert.assertEquals("stored", read(handle.getInputStream(handle.getEntries().get(0))));
+			Assert.assertNull(handle.getInputStream("Missing.txt"));
+		} finally {
+			handle.close();
+		}
+		final URL nested = new URL("jar", "", -1,
+				"jarjar:" + stored + JarJar.SEPARATOR + "Inner.jar!/Inner.txt", JARJAR_HANDLER);
+
+		Assert.assertEquals("inner", read(JarFileCache.openStream(nested)));
+	}
+
+	@Test
+	public void ignoresOtherURLs() throws IOException {
+		Assert.assertFalse(JarFileCache.isJarURL(jar.toURI().toURL()));
+		Assert.assertFalse(JarFileCache.isJarURL(new URL("jar:http://example.com/robot.jar!/Robot.class")));
+		Assert.assertFalse(JarFileCache.isJarURL(null));
+	}
+
+	@Test
+	public void mapsOnlyLargeStoredInnerJarFiles() throws IOException {
+		final File largeJar = File.createTempFile("jarfilecache", ".jar");
+
+		try {
+			// An inner JAR file of more than 1 MB, which is stored without compression
+			final byte[] content = new byte[1024 * 1024];
+
+			for (int i = 0; i < content.length; i++) {
+				content[i] = (byte) i;
+			}
+			final ByteArrayOutputStream inner = new ByteArrayOutputStream();
+			final JarOutputStream innerOut = new JarOutputStream(inner);
+
+			addStoredEntry(innerOut, "Large.bin", content);
+			innerOut.close();
+
+			final OutputStream out = new FileOutputStream(largeJar);
+
+			try {
+				final JarOutputStream jarOut = new JarOutputStream(out);
+
+				addStoredEntry(jarOut, "Large.jar", inner.toByteArray());
+				jarOut.close();
+			} finally {
+				out.close();
+			}
+			final long inMemorySize = JarFileCache.getInMemorySize();
+			final InputStream in = JarFileCache.openStream(new URL("jar", "", -1,
+					"jarjar:" + largeJar.toURI() + JarJar.SEPARATOR + "Large.jar!/Large.bin", JARJAR_HANDLER));
+
+			try {
+				for (int i = 0; i < content.length; i++) {
+					Assert.assertEquals(content[i], (byte) in.read());
+				}
+				Assert.assertEquals(-1, in.read());
+			} finally {
+				in.close();
+			}
+			Assert.assertEquals(inMemorySize, JarFileCache.getInMemorySize());
+
+			// A small stored inner JAR file is read into memory instead
+			read(JarFileCache.openStream(new URL("jar", "", -1,
+					"jarjar:" + jar.toURI() + JarJar.SEPARATOR + "Stored.jar!/Stored.txt", JARJAR_HANDLER)));
+			Assert.assertTrue(JarFileCache.getInMemorySize() > inMemorySize);
+		} finally {
+			// The mapping keeps the file locked on Windows until it is garbage collected
+			if (!largeJar.delete()) {
+				largeJar.deleteOnExit();
+			}
+		}
+	}
+
+	private static void writeJar(OutputStream out, String name, String content) throws IOException {
+		final JarOutputStream jarOut = new JarOutputStream(out);
+
+		addEntry(jarOut, name, content.getBytes(StandardCharsets.US_ASCII));
+		jarOut.close();
+	}
+
+	private static void addEntry(JarOutputStream jarOut, String name, byte[] content) throws IOException {
+		jarOut.putNextEntry(new JarEntry(name));
+		jarOut.write(content);
+		jarOut.closeEntry();
+	}
+
+	private static void addStoredEntry(JarOutputStream jarOut, String name, byte[] content) throws IOException {
+		final JarEntry entry = new JarEntry(name);
+		final CRC32 crc = new CRC32();
+
+		crc.update(content);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(content.length);
+		entry.setCrc(crc.getValue());
+		jarOut.putNextEntry(entry);
+		jarOut.write(content);
+		jarOut.closeEntry();
+	}
+
+	private static String read(InputStream in) throws IOException {
+		try {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			final byte[] buf = new byte[256];
+
+			for (int len; (len = in.read(buf)) != -1;) {
+				out.write(buf, 0, len);
+			}
+			return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.robotpaint;
+
+
+import net.sf.robocode.security.HiddenAccess;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.geom.GeneralPath;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * Tests that the painting queued by a {@link Graphics2DSerialized} is processed like it was painted directly.
+ */
+public class Graphics2DSerializedTest {
+
+	@BeforeClass
+	public static void init() {
+		// The serializer used by the proxy needs the version from the container
+		System.setProperty("NOSECURITY", "true");
+		System.setProperty("TESTING", "true");
+		HiddenAccess.initContainer();
+	}
+
+	@AfterClass
+	public static void cleanup() {
+		System.setProperty("NOSECURITY", "false");
+	}
+
+	@Test
+	public void nothingQueued() {
+		final Graphics2DSerialized sg = new Graphics2DSerialized();
+
+		Assert.assertNull(sg.readoutQueuedCalls());
+
+		sg.setPaintingEnabled(true);
+		Assert.assertNull(sg.readoutQueuedCalls());
+
+		sg.setPaintingEnabled(false);
+		sg.fillRect(0, 0, 10, 10);
+		Assert.assertNull(sg.readoutQueuedCalls());
+	}
+
+	@Test
+	public void callsSpanningSeveralChunks() {
+		final Graphics2DSerialized sg = new Graphics2DSerialized();
+
+		sg.setPaintingEnabled(true);
+
+		// Several turns, so the chunks are reused
+		for (int turn = 0; turn < 3; turn++) {
+			final int offset = turn;
+			final Painting painting = new Painting() {
+				public void paint(Graphics2D g) {
+					for (int i = 0; i < 1000; i++) {
+						g.setColor(new Color(i * 7919 + offset));
+						g.drawLine(i % 200, i / 5, 199 - i % 200, 199 - i / 5);
+					}
+				}
+			};
+
+			assertSamePainting(queue(sg, painting), painting);
+		}
+	}
+
+	@Test
+	public void callLargerThanChunk() {
+		final Graphics2DSerialized sg = new Graphics2DSerialized();
+
+		sg.setPaintingEnabled(true);
+
+		final Painting painting = new Painting() {
+			public void paint(Graphics2D g) {
+				GeneralPath path = new GeneralPath();
+
+				path.moveTo(0, 0);
+				for (int i = 0; i < 500; i++) {
+					path.lineTo(i % 200, (i * 37) % 200);
+				}
+				g.setColor(Color.GREEN);
+				g.draw(path);
+				g.fillRect(50, 50, 20, 20);
+			}
+		};
+
+		assertSamePainting(queue(sg, painting), painting);
+	}
+
+	@Test
+	public void callsUpToMaxBufferSize() {
+		final Graphics2DSerialized sg = new Graphics2DSerialized();
+
+		sg.setPaintingEnabled(true);
+
+		// Far more lines than fit into a turn, where each line takes 1 + 4 * 4 bytes
+		for (int i = 0; i < 10000; i++) {
+			sg.drawLine(i, i, i + 1, i + 1);
+		}
+		final byte[] calls = sg.readoutQueuedCalls();
+
+		Assert.assertTrue(calls.length <= 64 * 1024);
+		Assert.assertTrue(calls.length > 64 * 1024 - 17);
+
+		// The chunks are reused for the next turn, without the limit of the last chunk
+		final Painting painting = new Painting() {
+			public void paint(Graphics2D g) {
+				for (int i = 0; i < 1000; i++) {
+					g.drawLine(i % 200, i / 5, 199 - i % 200, 199 - i / 5);
+				}
+			}
+		};
+
+		assertSamePainting(queue(sg, painting), painting);
+	}
+
+	private static byte[] queue(Graphics2DSerialized sg, Painting painting) {
+		painting.paint(sg);
+
+		final byte[] calls = sg.readoutQueuedCalls();
+
+		Assert.assertNotNull(calls);
+		return calls;
+	}
+
+	private static void assertSamePainting(byte[] calls, Painting painting) {
+		final BufferedImage expected = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+		final BufferedImage actual = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+
+		final Graphics2D expectedGraphics = expected.createGraphics();
+
+		painting.paint(expectedGraphics);
+		expectedGraphics.dispose();
+
+		final Graphics2D actualGraphics = actual.createGraphics();
+		final Graphics2DSerialized proxy = new Graphics2DSerialized();
+
+		proxy.setPaintingEnabled(true);
+		proxy.processTo(actualGraphics, calls);
+		actualGraphics.dispose();
+
+		for (int y = 0; y < 200; y++) {
+			for (int x = 0; x < 200; x++) {
+				Assert.assertEquals("Pixel at " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+			}
+		}
+	}
+
+	private interface Painting {
+		void paint(Graphics2D g);
+	}
+}
@@ -109,6 +109,7 @@ public class RbSerializerTest {
 		data[10] = 10;
 		ec.getTeamMessages().add(new TeamMessage("Foo", "Bar", data));
 		ec.getTeamMessages().add(new TeamMessage("Foo", "Bar", null));
+		ec.getTeamMessages().add(new TeamMessage("Foo", null, data, true));
 
 		ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
 		RbSerializer rbs = new RbSerializer();
@@ -121,7 +122,11 @@ public class RbSerializerTest {
 		Assert.assertEquals(ec2.getTeamMessages().get(0).message[10], 10);
 		Assert.assertEquals(ec2.getTeamMessages().get(0).sender, "Foo");
 		Assert.assertEquals(ec2.getTeamMessages().get(0).recipient, "Bar");
+		Assert.assertEquals(ec2.getTeamMessages().get(0).isBinary, false);
 		Assert.assertEquals(ec2.getTeamMessages().get(1).message, null);
+		Assert.assertEquals(ec2.getTeamMessages().get(2).message[10], 10);
+		Assert.assertEquals(ec2.getTeamMessages().get(2).recipient, null);
+		Assert.assertEquals(ec2.getTeamMessages().get(2).isBinary, true);
 	}
 
 	@Test
@@ -10,6 +10,7 @@ package net.sf.robocode.host;
 
 import net.sf.robocode.host.proxies.*;
 import net.sf.robocode.host.security.*;
+import net.sf.robocode.host.io.RobotDataStore;
 import net.sf.robocode.host.jarjar.JarJarURLConnection;
 import net.sf.robocode.io.Logger;
 import net.sf.robocode.io.RobocodeProperties;
@@ -23,6 +24,7 @@ import robocode.control.RobotSpecification;
 
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.List;
 
 
 /**
@@ -31,6 +33,7 @@ import java.io.PrintStream;
 public class HostManager implements IHostManager {
 	private final ISettingsManager properties;
 	private final IThreadManager threadManager;
+	private final LeakDetector leakDetector = new LeakDetector();
 
 	public HostManager(ISettingsManager properties, IThreadManager threadManager) { // NO_UCD (unused code)
 		this.properties = properties;
@@ -77,7 +80,24 @@ public class HostManager implements IHostManager {
 		return threadManager.getRobotOutputStream();
 	}
 
-	public void cleanup() {// TODO
+	public void cleanup() {
+		// Robot data files kept in memory must not be lost when Robocode is closed
+		RobotDataStore.writeBackAll();
+	}
+
+	public void watchForLeaks(Object resource, String description) {
+		leakDetector.watch(resource, description);
+	}
+
+	public void checkForLeaks() {
+		final List<String> leaks = leakDetector.checkTeardown();
+
+		if (RobocodeProperties.isDebuggingOn()) {
+			for (String leak : leaks) {
+				Logger.logWarning("Still reachable " + LeakDetector.BATTLES_BEFORE_REPORT
+						+ " battles after it was released: " + leak);
+			}
+		}
 	}
 
 	public String[] getReferencedClasses(IRobotItem robotItem) {
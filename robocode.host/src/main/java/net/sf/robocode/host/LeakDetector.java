@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host;
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Watches the resources of battles that have been torn down, like the class loaders, threads and thread groups of
+ * the robots, through weak references, so it can tell which of them are still reachable.
+ * <p>
+ * The garbage collector is never asked to run. A resource is only reported as leaked if it is still reachable when a
+ * few more battles have been torn down, where the garbage collector has had plenty of time to collect it by itself.
+ *
+ * @since 1.9.5.3
+ */
+public final class LeakDetector {
+
+	/**
+	 * The number of battles that must be torn down after a resource was released, before it is reported as leaked.
+	 */
+	public static final int BATTLES_BEFORE_REPORT = 3;
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	private final List<Watched> watched = new ArrayList<Watched>();
+	private int teardowns;
+
+	/**
+	 * Watches a resource that has been released, and should be collected.
+	 *
+	 * @param resource the resource
+	 * @param description what the resource is, as reported when it is leaked
+	 */
+	public synchronized void watch(Object resource, String description) {
+		if (resource != null) {
+			watched.add(new Watched(resource, description, teardowns, queue));
+		}
+	}
+
+	/**
+	 * Counts a battle that has been torn down, and returns the resources that have been reachable for
+	 * {@link #BATTLES_BEFORE_REPORT} battles since they were released. Each leaked resource is returned once.
+	 *
+	 * @return the descriptions of the leaked resources
+	 */
+	public synchronized List<String> checkTeardown() {
+		teardowns++;
+		removeCollected();
+
+		final List<String> leaks = new ArrayList<String>();
+
+		for (Iterator<Watched> it = watched.iterator(); it.hasNext();) {
+			final Watched w = it.next();
+
+			if (teardowns - w.teardown > BATTLES_BEFORE_REPORT) {
+				if (w.get() != null) {
+					leaks.add(w.description);
+				}
+				it.remove();
+			}
+		}
+		return leaks;
+	}
+
+	/**
+	 * Returns the resources that have been released, and are still reachable.
+	 *
+	 * @return the descriptions of the reachable resources
+	 */
+	public synchronized List<String> getReachable() {
+		removeCollected();
+
+		final List<String> reachable = new ArrayList<String>();
+
+		for (Watched w : watched) {
+			if (w.get() != null) {
+				reachable.add(w.description);
+			}
+		}
+		return reachable;
+	}
+
+	private void removeCollected() {
+		for (Reference<?> ref; (ref = queue.poll()) != null;) {
+			watched.remove(ref);
+		}
+	}
+
+	private static final class Watched extends WeakReference<Object> {
+		final String description;
+		final int teardown;
+
+		Watched(Object resource, String description, int teardown, ReferenceQueue<Object> queue) {
+			super(resource, queue);
+			this.description = description;
+			this.teardown = teardown;
+		}
+	}
+}
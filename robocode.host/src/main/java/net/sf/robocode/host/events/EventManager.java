@@ -274,6 +274,21 @@ public final class EventManager implements IEventManager {
 		return events;
 	}
 
+	/**
+	 * Returns a list containing all BinaryMessageEvents currently in the robot's queue.
+	 */
+	public List<BinaryMessageEvent> getBinaryMessageEvents() {
+		List<BinaryMessageEvent> events = new ArrayList<BinaryMessageEvent>();
+		synchronized (eventQueue) {
+			for (Event e : eventQueue) {
+				if (e instanceof BinaryMessageEvent) {
+					events.add((BinaryMessageEvent) e);
+				}
+			}
+		}
+		return events;
+	}
+
 	/**
 	 * Returns a list containing all StatusEvents currently in the robot's queue.
 	 */
@@ -522,6 +537,7 @@ public final class EventManager implements IEventManager {
 		eventNames = new HashMap<String, Event>();
 		dummyScannedRobotEvent = new ScannedRobotEvent(null, 0, 0, 0, 0, 0, false);
 		registerEventNames(new BattleEndedEvent(false, null));
+		registerEventNames(new BinaryMessageEvent(null, null));
 		registerEventNames(new BulletHitBulletEvent(null, null));
 		registerEventNames(new BulletHitEvent(null, 0, null));
 		registerEventNames(new BulletMissedEvent(null));
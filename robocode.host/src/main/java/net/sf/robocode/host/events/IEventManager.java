@@ -47,4 +47,6 @@ public interface IEventManager {
 
 	// team
 	List<MessageEvent> getMessageEvents();
+
+	List<BinaryMessageEvent> getBinaryMessageEvents();
 }
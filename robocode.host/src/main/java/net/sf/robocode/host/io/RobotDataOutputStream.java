@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.io;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * The stream a robot writes a data file with, when the data files are kept in memory by the {@link RobotDataStore}.
+ * The quota of the robot is enforced like with a {@link RobotFileOutputStream}. The content is handed to the store
+ * when the stream is flushed or closed.
+ *
+ * @since 1.9.5.3
+ */
+public class RobotDataOutputStream extends OutputStream {
+
+	private final File file;
+	private final RobotFileSystemManager fileSystemManager;
+	private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+	private boolean isClosed;
+
+	public RobotDataOutputStream(File file, boolean append, RobotFileSystemManager fileSystemManager) throws IOException {
+		this.file = file;
+		this.fileSystemManager = fileSystemManager;
+		if (append) {
+			data.write(RobotDataStore.read(file));
+		}
+		fileSystemManager.addStream(this);
+		if (!append) {
+			// Like a FileOutputStream, the file is truncated when the stream is opened
+			RobotDataStore.write(file, new byte[0]);
+		}
+	}
+
+	@Override
+	public final synchronized void close() throws IOException {
+		if (!isClosed) {
+			isClosed = true;
+			fileSystemManager.removeStream(this);
+			RobotDataStore.write(file, data.toByteArray());
+		}
+	}
+
+	@Override
+	public final synchronized void flush() throws IOException {
+		ensureOpen();
+		RobotDataStore.write(file, data.toByteArray());
+	}
+
+	@Override
+	public final void write(byte[] b) throws IOException {
+		write(b, 0, b.length);
+	}
+
+	@Override
+	public final synchronized void write(byte[] b, int off, int len) throws IOException {
+		if (len < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		ensureOpen();
+		try {
+			fileSystemManager.checkQuota(len);
+			data.write(b, off, len);
+		} catch (IOException e) {
+			try {
+				close();
+			} catch (IOException ignored) {}
+			throw e;
+		}
+	}
+
+	@Override
+	public final synchronized void write(int b) throws IOException {
+		ensureOpen();
+		try {
+			fileSystemManager.checkQuota(1);
+			data.write(b);
+		} catch (IOException e) {
+			try {
+				close();
+			} catch (IOException ignored) {}
+			throw e;
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (isClosed) {
+			throw new IOException("Stream Closed");
+		}
+	}
+}
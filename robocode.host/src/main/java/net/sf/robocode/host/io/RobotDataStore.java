@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.io;
+
+
+import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.io.Logger;
+import net.sf.robocode.io.RobocodeProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Holds the data files written by robots in memory, when the ROBOTDATAINMEMORY system property is set to true.
+ * <p>
+ * Robots write their data files with a {@link robocode.RobocodeFileOutputStream}, which then writes to memory instead
+ * of the disk. A file is written to disk when a robot is about to read it, when the first battle starts more than a
+ * minute after the last write-back, and when Robocode is closed. Robots that write their files every round or every
+ * battle, but only read them when a battle starts, hereby write each file once instead of many times.
+ * <p>
+ * The pending files are kept by their canonical paths, and are shared by all robots and battles in the JVM. The store
+ * remembers how the file was on disk when its content was first kept in memory. If the file on disk has been deleted
+ * or replaced since, e.g. because the robot has deleted the file, the content in memory is dropped instead of bringing
+ * the file back. Checking a permission for a file hereby never changes what the robot has written.
+ *
+ * @since 1.9.5.3
+ */
+public final class RobotDataStore {
+
+	private static final long WRITE_BACK_INTERVAL_MILLIS = 60 * 1000;
+
+	private static final boolean isEnabled = RobocodeProperties.isRobotDataInMemory();
+
+	// The files not yet written to disk
+	private static final Map<File, PendingFile> pendingFiles = new HashMap<File, PendingFile>();
+
+	private static long lastWriteBackMillis = System.currentTimeMillis();
+	private static boolean isShutdownHookAdded;
+
+	private RobotDataStore() {}
+
+	/**
+	 * Checks if the data files written by robots are kept in memory.
+	 */
+	public static boolean isEnabled() {
+		return isEnabled;
+	}
+
+	/**
+	 * Checks if the specified file has content that has not been written to disk yet.
+	 *
+	 * @param file the canonical file
+	 */
+	public static synchronized boolean isPending(File file) {
+		return getPending(file) != null;
+	}
+
+	/**
+	 * Returns the length of the specified file, as the robot sees it.
+	 *
+	 * @param file the canonical file
+	 * @return the length of the file, or -1 if the file does not exist
+	 */
+	static synchronized long getLength(File file) {
+		final PendingFile pending = getPending(file);
+
+		if (pending != null) {
+			return pending.data.length;
+		}
+		return file.exists() ? file.length() : -1;
+	}
+
+	/**
+	 * Returns the number of bytes the pending files in the specified directory will add to it, when they are written.
+	 *
+	 * @param directory the canonical directory
+	 */
+	static synchronized long getPendingGrowth(File directory) {
+		long growth = 0;
+
+		for (File file : getPendingFiles()) {
+			if (directory.equals(file.getParentFile())) {
+				final PendingFile pending = getPending(file);
+
+				if (pending != null) {
+					growth += pending.data.length - (file.exists() ? file.length() : 0);
+				}
+			}
+		}
+		return growth;
+	}
+
+	/**
+	 * Returns the content of the specified file, as the robot sees it.
+	 *
+	 * @param file the canonical file
+	 * @return the content of the file, which is empty if the file does not exist
+	 */
+	static byte[] read(final File file) throws IOException {
+		synchronized (RobotDataStore.class) {
+			final PendingFile pending = getPending(file);
+
+			if (pending != null) {
+				return pending.data;
+			}
+		}
+		final IOException[] exception = new IOException[1];
+		final byte[] data = AccessController.doPrivileged(new PrivilegedAction<byte[]>() {
+			public byte[] run() {
+				if (!file.exists()) {
+					return new byte[0];
+				}
+				InputStream is = null;
+
+				try {
+					is = new FileInputStream(file);
+					ByteArrayOutputStream os = new ByteArrayOutputStream((int) file.length());
+					byte[] buf = new byte[8192];
+					int len;
+
+					while ((len = is.read(buf)) > 0) {
+						os.write(buf, 0, len);
+					}
+					return os.toByteArray();
+				} catch (IOException e) {
+					exception[0] = e;
+					return null;
+				} finally {
+					FileUtil.cleanupStream(is);
+				}
+			}
+		});
+
+		if (exception[0] != null) {
+			throw exception[0];
+		}
+		return data;
+	}
+
+	/**
+	 * Replaces the content of the specified file in memory.
+	 *
+	 * @param file the canonical file
+	 * @param data the new content of the file
+	 */
+	static synchronized void write(File file, byte[] data) {
+		final PendingFile pending = getPending(file);
+
+		if (pending != null) {
+			pending.data = data;
+		} else {
+			pendingFiles.put(file, new PendingFile(data, DiskState.of(file)));
+		}
+
+		if (!isShutdownHookAdded) {
+			isShutdownHookAdded = true;
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				public void run() {
+					writeBackAll();
+				}
+			}, "Robot data write-back"));
+		}
+	}
+
+	/**
+	 * Writes the pending content of the specified file to disk.
+	 *
+	 * @param file the canonical file
+	 */
+	public static void writeBack(File file) {
+		final byte[] data;
+
+		synchronized (RobotDataStore.class) {
+			final PendingFile pending = getPending(file);
+
+			data = pending != null ? pending.data : null;
+		}
+		if (data != null) {
+			writeBack(file, data);
+		}
+	}
+
+	/**
+	 * Writes the pending content of all files in the specified directory to disk.
+	 *
+	 * @param directory the canonical directory
+	 */
+	public static void writeBackDirectory(File directory) {
+		for (File file : getPendingFiles()) {
+			if (directory.equals(file.getParentFile())) {
+				writeBack(file);
+			}
+		}
+	}
+
+	/**
+	 * Writes the pending content of all files to disk.
+	 */
+	public static void writeBackAll() {
+		for (File file : getPendingFiles()) {
+			writeBack(file);
+		}
+		synchronized (RobotDataStore.class) {
+			lastWriteBackMillis = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Writes the pending content of all files to disk, if this has not been done for a while.
+	 */
+	static void writeBackIfDue() {
+		synchronized (RobotDataStore.class) {
+			if (pendingFiles.isEmpty() || System.currentTimeMillis() - lastWriteBackMillis < WRITE_BACK_INTERVAL_MILLIS) {
+				return;
+			}
+		}
+		writeBackAll();
+	}
+
+	private static synchronized List<File> getPendingFiles() {
+		return new ArrayList<File>(pendingFiles.keySet());
+	}
+
+	/**
+	 * Returns the pending content of the specified file, unless the file on disk has been deleted or replaced since
+	 * the content was first kept in memory, in which case the content is dropped.
+	 */
+	private static synchronized PendingFile getPending(File file) {
+		final PendingFile pending = pendingFiles.get(file);
+
+		if (pending != null && !pending.diskState.equals(DiskState.of(file))) {
+			pendingFiles.remove(file);
+			return null;
+		}
+		return pending;
+	}
+
+	private static void writeBack(final File file, final byte[] data) {
+		AccessController.doPrivileged(new PrivilegedAction<Object>() {
+			public Object run() {
+				OutputStream os = null;
+
+				try {
+					os = new FileOutputStream(file);
+					os.write(data);
+				} catch (IOException e) {
+					// The content is kept in memory, so the write is tried again later
+					Logger.logError("Could not write the robot data file: " + file, e);
+					return null;
+				} finally {
+					FileUtil.cleanupStream(os);
+				}
+				synchronized (RobotDataStore.class) {
+					final PendingFile pending = pendingFiles.get(file);
+
+					// The file may have been written again by the robot in the meantime
+					if (pending != null) {
+						if (pending.data == data) {
+							pendingFiles.remove(file);
+						} else {
+							pending.diskState = DiskState.of(file);
+						}
+					}
+				}
+				return null;
+			}
+		});
+	}
+
+	private static final class PendingFile {
+		byte[] data;
+		DiskState diskState;
+
+		PendingFile(byte[] data, DiskState diskState) {
+			this.data = data;
+			this.diskState = diskState;
+		}
+	}
+
+	/**
+	 * The existence, length and modification time of a file on disk.
+	 */
+	private static final class DiskState {
+		private final boolean exists;
+		private final long length;
+		private final long lastModified;
+
+		private DiskState(boolean exists, long length, long lastModified) {
+			this.exists = exists;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		static DiskState of(final File file) {
+			return AccessController.doPrivileged(new PrivilegedAction<DiskState>() {
+				public DiskState run() {
+					return new DiskState(file.exists(), file.length(), file.lastModified());
+				}
+			});
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof DiskState)) {
+				return false;
+			}
+			final DiskState other = (DiskState) obj;
+
+			return exists == other.exists && length == other.length && lastModified == other.lastModified;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (length ^ lastModified);
+		}
+	}
+}
@@ -10,18 +10,22 @@ package net.sf.robocode.host.io;
 
 import net.sf.robocode.host.IHostedThread;
 import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.io.JarFileCache;
 import net.sf.robocode.io.Logger;
+import net.sf.robocode.io.RobocodeProperties;
 import net.sf.robocode.version.Version;
 
 import java.io.*;
-import java.net.JarURLConnection;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.ArrayList;
-import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 
 /**
@@ -30,15 +34,26 @@ import java.util.jar.JarFile;
  * @author Robert D. Maupin (contributor)
  */
 public class RobotFileSystemManager {
+
+	// What is known about the data directories of robots, so battles can skip extracting unchanged data files from
+	// the robot jars and listing the directories to compute the quota used
+	private static final ConcurrentMap<File, DataDirectoryState> dataDirectoryStates = new ConcurrentHashMap<File, DataDirectoryState>();
+
 	private final IHostedThread robotProxy;
 	private long quotaUsed;
 	private boolean quotaMessagePrinted;
-	private final List<RobotFileOutputStream> streams = new ArrayList<RobotFileOutputStream>();
+	private final List<OutputStream> streams = new ArrayList<OutputStream>();
 	private final long maxQuota;
 	private final String writableRootDirectory;
 	private final String readableRootDirectory;
 	private final String rootPath;
 	private final String dataDir;
+	private DataDirectoryState dataDirectoryState;
+
+	// The canonical files of the file names the robot has accessed, as canonicalizing a path accesses the disk
+	private final Map<String, File> canonicalFiles = new HashMap<String, File>();
+	private File writableDirectory;
+	private File readableDirectory;
 
 	public RobotFileSystemManager(IHostedThread robotProxy, long maxQuota, String writableRootDirectory, String readableRootDirectory, String rootPath) {
 		this.robotProxy = robotProxy;
@@ -51,17 +66,47 @@ public class RobotFileSystemManager {
 	}
 
 	public void initialize() {
-		initializeQuota();
-		updateDataFiles();
+		final File dataDirectory = getWritableDirectory();
+
+		if (dataDirectory == null) {
+			quotaUsed = 0;
+			quotaMessagePrinted = false;
+			return;
+		}
+		if (RobotDataStore.isEnabled()) {
+			RobotDataStore.writeBackIfDue();
+		}
+		final DataDirectoryState state = getDataDirectoryState(dataDirectory);
+
+		dataDirectoryState = state;
+		synchronized (state) {
+			updateDataFiles(dataDirectory, state);
+			initializeQuota(dataDirectory, state);
+		}
 	}
 
-	void addStream(RobotFileOutputStream s) throws IOException {
+	private static DataDirectoryState getDataDirectoryState(File dataDirectory) {
+		DataDirectoryState state = dataDirectoryStates.get(dataDirectory);
+
+		if (state == null) {
+			final DataDirectoryState newState = new DataDirectoryState();
+
+			state = dataDirectoryStates.putIfAbsent(dataDirectory, newState);
+			if (state == null) {
+				state = newState;
+			}
+		}
+		return state;
+	}
+
+	void addStream(OutputStream s) throws IOException {
 		if (s == null) {
 			throw new SecurityException("You may not add a null stream.");
 		}
 		if (!streams.contains(s)) {
 			if (streams.size() < 5) {
 				streams.add(s);
+				invalidateQuota();
 			} else {
 				throw new SecurityException(
 						"You may only have 5 streams open at a time.\n Make sure you call close() on your streams when you are finished with them.");
@@ -103,22 +148,43 @@ public class RobotFileSystemManager {
 	}
 
 	public File getReadableDirectory() {
-		try {
-			return (readableRootDirectory == null) ? null : new File(readableRootDirectory).getCanonicalFile();
-		} catch (IOException e) {
-			Logger.logError(e);
-			return null;
+		if (readableDirectory == null) {
+			try {
+				readableDirectory = (readableRootDirectory == null) ? null : new File(readableRootDirectory).getCanonicalFile();
+			} catch (IOException e) {
+				Logger.logError(e);
+				return null;
+			}
 		}
+		return readableDirectory;
 	}
 
 	public File getWritableDirectory() {
-		try {
-			return (writableRootDirectory == null)
-					? null
-					: new File(writableRootDirectory, robotProxy.getStatics().getShortClassName() + ".data").getCanonicalFile();
-		} catch (IOException e) {
-			Logger.logError(e);
-			return null;
+		if (writableDirectory == null) {
+			try {
+				writableDirectory = (writableRootDirectory == null)
+						? null
+						: new File(writableRootDirectory, robotProxy.getStatics().getShortClassName() + ".data").getCanonicalFile();
+			} catch (IOException e) {
+				Logger.logError(e);
+				return null;
+			}
+		}
+		return writableDirectory;
+	}
+
+	public File getCanonicalFile(String fileName) throws IOException {
+		synchronized (canonicalFiles) {
+			File file = canonicalFiles.get(fileName);
+
+			if (file == null) {
+				file = new File(fileName).getCanonicalFile();
+				if (canonicalFiles.size() >= 256) {
+					canonicalFiles.clear();
+				}
+				canonicalFiles.put(fileName, file);
+			}
+			return file;
 		}
 	}
 
@@ -128,6 +194,14 @@ public class RobotFileSystemManager {
 		final File parent = getWritableDirectory();
 		File file = new File(parent, filename);
 
+		if (RobotDataStore.isEnabled() && isPendingData(file)) {
+			// With security on, the file is written to disk when the robot is about to read it
+			if (RobocodeProperties.isSecurityOff()) {
+				writeBackData(file.getPath());
+			}
+			return file;
+		}
+
 		// TODO the file is never replaced from jar or directory after it was created
 		// TODO it would be good to replace it when it have bigger last modified date
 		if (!file.exists()) {
@@ -140,10 +214,8 @@ public class RobotFileSystemManager {
 			try {
 				URL url = new URL(rootPath + dataDir + filename);
 
-				URLConnection connection = url.openConnection();
-				connection.setUseCaches(false);
 				try {
-					is = connection.getInputStream();
+					is = JarFileCache.openStream(url);
 				} catch (FileNotFoundException ex) { // Expected as no file might exists with the specified input 'filename'
 					// #380 yet another historical bot related bug
 					Version robocodeVersion = toVersion(robotProxy.getStatics().getRobocodeVersion());
@@ -176,17 +248,82 @@ public class RobotFileSystemManager {
 		return file;
 	}
 
-	private void initializeQuota() {
-		quotaUsed = 0;
+	private void initializeQuota(File dataDirectory, DataDirectoryState state) {
 		quotaMessagePrinted = false;
 
-		File dataDirectory = getWritableDirectory();
+		// The directory is only listed again if files have been written, created, or deleted since it was last listed
+		final long lastModified = dataDirectory.lastModified();
+
+		if (!state.isQuotaValid || state.directoryLastModified != lastModified) {
+			long used = 0;
 
-		if (dataDirectory != null && dataDirectory.exists()) {
-			File[] dataFiles = dataDirectory.listFiles();
+			if (dataDirectory.exists()) {
+				File[] dataFiles = dataDirectory.listFiles();
 
-			for (File file : dataFiles) {
-				quotaUsed += file.length();
+				if (dataFiles != null) {
+					for (File file : dataFiles) {
+						used += file.length();
+					}
+				}
+			}
+			state.quotaUsed = used;
+			state.directoryLastModified = lastModified;
+			state.isQuotaValid = true;
+		}
+		quotaUsed = state.quotaUsed;
+		if (RobotDataStore.isEnabled()) {
+			quotaUsed += RobotDataStore.getPendingGrowth(dataDirectory);
+		}
+	}
+
+	/**
+	 * Returns the length of the specified file in the data directory, which may not have been written to disk yet.
+	 *
+	 * @param file the canonical file
+	 * @return the length of the file, or -1 if the file does not exist
+	 */
+	public long getDataFileLength(File file) {
+		if (RobotDataStore.isEnabled()) {
+			return RobotDataStore.getLength(file);
+		}
+		return file.exists() ? file.length() : -1;
+	}
+
+	/**
+	 * Writes the data file, or all data files if the data directory is specified, that are kept in memory to disk.
+	 *
+	 * @param fileName the name of the file or directory
+	 */
+	public void writeBackData(String fileName) {
+		if (!RobotDataStore.isEnabled()) {
+			return;
+		}
+		try {
+			final File file = getCanonicalFile(fileName);
+
+			if (file.equals(getWritableDirectory())) {
+				RobotDataStore.writeBackDirectory(file);
+			} else {
+				RobotDataStore.writeBack(file);
+			}
+		} catch (IOException ignore) {// the file cannot be in memory
+		}
+	}
+
+	private boolean isPendingData(File file) {
+		try {
+			return RobotDataStore.isPending(getCanonicalFile(file.getPath()));
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private void invalidateQuota() {
+		final DataDirectoryState state = dataDirectoryState;
+
+		if (state != null) {
+			synchronized (state) {
+				state.isQuotaValid = false;
 			}
 		}
 	}
@@ -199,7 +336,7 @@ public class RobotFileSystemManager {
 
 		File attemptedFile;
 		try {
-			attemptedFile = new File(fileName).getCanonicalFile();
+			attemptedFile = getCanonicalFile(fileName);
 		} catch (IOException e) {
 			return false;
 		}
@@ -236,7 +373,7 @@ public class RobotFileSystemManager {
 		File attemptedFile;
 
 		try {
-			attemptedFile = new File(fileName).getCanonicalFile();
+			attemptedFile = getCanonicalFile(fileName);
 		} catch (IOException e) {
 			return false;
 		}
@@ -244,65 +381,86 @@ public class RobotFileSystemManager {
 		return attemptedFile.equals(allowedDirectory) || attemptedFile.getParentFile().equals(allowedDirectory);
 	}
 
-	void removeStream(RobotFileOutputStream s) {
+	void removeStream(OutputStream s) {
 		if (s == null) {
 			throw new SecurityException("You may not remove a null stream.");
 		}
 		streams.remove(s);
 	}
 
-	private void updateDataFiles() {
+	private void updateDataFiles(File dataDirectory, DataDirectoryState state) {
 		try {
 			if (rootPath.startsWith("jar:")) {
-				updateDataFilesFromJar();
+				updateDataFilesFromJar(dataDirectory, state);
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
-	private void updateDataFilesFromJar() throws IOException {
-		URL url = new URL(rootPath);
-		JarURLConnection jarConnection = (JarURLConnection) url.openConnection();
+	private void updateDataFilesFromJar(File parent, DataDirectoryState state) throws IOException {
+		// The jar is held by the class loader of the robot, so it is not opened again here
+		final JarFileCache.Handle handle = JarFileCache.acquire(new URL(rootPath));
 
-		jarConnection.setUseCaches(false);
+		try {
+			extractDataFiles(parent, state, handle);
+		} finally {
+			handle.close();
+		}
+	}
 
-		JarFile jarFile = jarConnection.getJarFile();
-		
-		Enumeration<?> entries = jarFile.entries();
+	private void extractDataFiles(File parent, DataDirectoryState state, JarFileCache.Handle handle) throws IOException {
+		// The jar is only read if it has changed, or if a data file extracted from it has been changed since
+		final File jar = handle.getFile();
 
-		final File parent = getWritableDirectory();
+		if (jar.getPath().equals(state.jarPath) && jar.length() == state.jarLength
+				&& jar.lastModified() == state.jarLastModified && state.areExtractedFilesUnchanged(parent)) {
+			return;
+		}
 
 		if (!parent.exists() && !parent.mkdirs()) {
 			throw new IOException("Could not create writeable directory for " + robotProxy.getStatics().getName());
 		}
 
+		final Set<String> filenames = new HashSet<String>();
 		InputStream is = null;
 		OutputStream os = null;
 
-		while (entries.hasMoreElements()) {
-			JarEntry jarEntry = (JarEntry) entries.nextElement();
-
+		for (JarEntry jarEntry : handle.getEntries()) {
 			String filename = jarEntry.getName();
 
-			if (filename.startsWith(dataDir)) {			
+			if (filename.startsWith(dataDir)) {
 				filename = filename.substring(dataDir.length());
 				if (filename.length() == 0) { // Bugfix [2845608] - FileNotFoundException
 					continue;
 				}
+				filenames.add(filename);
+
+				final File file = new File(parent, filename);
+
+				if (state.isExtracted(filename, jarEntry, file)) {
+					continue;
+				}
+				state.extractedFiles.remove(filename);
 
 				is = null;
 				os = null;
 				try {
-					is = jarFile.getInputStream(jarEntry);
-					os = new FileOutputStream(new File(parent, filename));
+					is = handle.getInputStream(jarEntry);
+					os = new FileOutputStream(file);
 					copyStream(is, os);
 				} finally {
 					FileUtil.cleanupStream(is);
 					FileUtil.cleanupStream(os);
 				}
+				state.extractedFiles.put(filename, new ExtractedFile(jarEntry, file));
+				state.isQuotaValid = false;
 			}
 		}
+		state.extractedFiles.keySet().retainAll(filenames);
+		state.jarPath = jar.getPath();
+		state.jarLength = jar.length();
+		state.jarLastModified = jar.lastModified();
 	}
 
 	private void copyStream(InputStream is, OutputStream os) throws IOException {
@@ -318,6 +476,59 @@ public class RobotFileSystemManager {
 		bos.flush();
 	}
 
+	/**
+	 * What is known about the data directory of a robot class, which is shared by all robots of that class.
+	 */
+	private static class DataDirectoryState {
+		String jarPath;
+		long jarLength;
+		long jarLastModified;
+
+		// The data files extracted from the jar, by their names in the data directory
+		final Map<String, ExtractedFile> extractedFiles = new HashMap<String, ExtractedFile>();
+
+		boolean isQuotaValid;
+		long quotaUsed;
+		long directoryLastModified;
+
+		boolean areExtractedFilesUnchanged(File dataDirectory) {
+			for (Map.Entry<String, ExtractedFile> entry : extractedFiles.entrySet()) {
+				if (!entry.getValue().isUnchanged(new File(dataDirectory, entry.getKey()))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		boolean isExtracted(String filename, JarEntry jarEntry, File file) {
+			final ExtractedFile extractedFile = extractedFiles.get(filename);
+
+			return extractedFile != null && extractedFile.crc == jarEntry.getCrc() && extractedFile.size == jarEntry.getSize()
+					&& extractedFile.isUnchanged(file);
+		}
+	}
+
+	/**
+	 * A data file extracted from a robot jar, with the jar entry it was extracted from, and the file as it was written.
+	 */
+	private static class ExtractedFile {
+		final long crc;
+		final long size;
+		final long fileLength;
+		final long fileLastModified;
+
+		ExtractedFile(JarEntry jarEntry, File file) {
+			crc = jarEntry.getCrc();
+			size = jarEntry.getSize();
+			fileLength = file.length();
+			fileLastModified = file.lastModified();
+		}
+
+		boolean isUnchanged(File file) {
+			return file.length() == fileLength && file.lastModified() == fileLastModified;
+		}
+	}
+
 	private static Version toVersion(String vers) {
 		if (vers != null) {
 			vers = vers.trim();
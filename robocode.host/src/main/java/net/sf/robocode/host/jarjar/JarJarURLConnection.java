@@ -10,7 +10,7 @@
 package net.sf.robocode.host.jarjar;
 
 
-import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.io.JarFileCache;
 import net.sf.robocode.io.JarJar;
 
 import java.io.InputStream;
@@ -29,32 +29,26 @@ public class JarJarURLConnection extends URLConnection {
 	private final static char SEPARATOR_CHAR = JarJar.SEPARATOR_CHAR; // this is '^' now
 	private final static String SEPARATOR = SEPARATOR_CHAR + "/";
 
-	private final URLConnection connection;
+	private final URL inner;
 	private static boolean registered;
 
 	private JarJarURLConnection(URL url)
 		throws IOException {
 		super(url);
 		final String file = url.getFile();
-		URL inner = new URL(file);
 
-		// this is same as
-		// connection = inner.openConnection()
-		// we just cache the connection in URLJarCollector 
-		// because we need to be able to close it to release jar files
-		connection = URLJarCollector.openConnection(inner);
+		inner = new URL(file);
 	}
 
 	public void connect() throws IOException {
-		if (!connected) {
-			connection.connect();
-			connected = true;
-		}
+		connected = true;
 	}
 
 	public InputStream getInputStream() throws IOException {
 		connect();
-		return connection.getInputStream();
+
+		// The inner JAR is read from the outer JAR in the JarFileCache, so the outer JAR is released when it is closed
+		return JarFileCache.openStream(inner);
 	}
 
 	public static void register() {
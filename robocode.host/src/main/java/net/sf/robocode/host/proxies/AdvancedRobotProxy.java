@@ -10,6 +10,7 @@ package net.sf.robocode.host.proxies;
 
 import net.sf.robocode.host.RobotStatics;
 import net.sf.robocode.host.IHostManager;
+import net.sf.robocode.io.RobocodeProperties;
 import net.sf.robocode.peer.IRobotPeer;
 import net.sf.robocode.repository.IRobotItem;
 import robocode.*;
@@ -192,7 +193,14 @@ public class AdvancedRobotProxy extends StandardRobotProxy implements IAdvancedR
 	public File getDataDirectory() {
 		getCall();
 		commands.setIORobot();
-		return robotFileSystemManager.getWritableDirectory();
+
+		final File directory = robotFileSystemManager.getWritableDirectory();
+
+		// With security on, the data files kept in memory are written to disk when the robot is about to read them
+		if (directory != null && RobocodeProperties.isSecurityOff()) {
+			robotFileSystemManager.writeBackData(directory.getPath());
+		}
+		return directory;
 	}
 
 	public File getDataFile(final String filename) {
@@ -8,6 +8,7 @@
 package net.sf.robocode.host.proxies;
 
 
+import net.sf.robocode.battle.BattleRandom;
 import net.sf.robocode.host.events.EventManager;
 import net.sf.robocode.host.io.RobotFileSystemManager;
 import net.sf.robocode.host.io.RobotOutputStream;
@@ -83,9 +84,14 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 	}
 
 	public void cleanup() {
+		// Everything released here must be collected after the battle, unless something still holds on to it
+		final String name = statics.getName();
+
+		hostManager.watchForLeaks(robot, "robot " + name);
 		robot = null;
 
 		// Remove the file system and the manager
+		hostManager.watchForLeaks(robotFileSystemManager, "file system of " + name);
 		robotFileSystemManager = null;
 		if (out != null) {
 			out.close();
@@ -94,12 +100,14 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 
 		if (robotThreadManager != null) {
 			robotThreadManager.cleanup();
+			robotThreadManager.watchForLeaks(hostManager);
 		}
 		robotThreadManager = null;
 
 		// Cleanup and remove class manager
 		if (robotClassLoader != null) {
 			robotClassLoader.cleanup();
+			hostManager.watchForLeaks(robotClassLoader, "class loader of " + name);
 			robotClassLoader = null;
 		}
 	}
@@ -207,6 +215,9 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 	protected abstract void executeImpl();
 
 	public void run() {
+		// Robots get their random numbers from the battle they are in, also from threads they create
+		BattleRandom.setThreadRandom(peer.getRandom());
+
 		// Only initialize AWT if we are not running in headless mode.
 		// Bugfix [2833271] IllegalThreadStateException with the AWT-Shutdown thread.
 		// Read more about headless mode here:
@@ -276,6 +287,7 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 			waitForBattleEndImpl();
 		}
 
+		BattleRandom.setThreadRandom(null);
 		peer.setRunning(false);
 
 		// If battle is waiting for us, well, all done!
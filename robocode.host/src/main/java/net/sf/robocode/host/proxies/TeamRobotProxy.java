@@ -14,10 +14,12 @@ import net.sf.robocode.host.serialization.RobocodeObjectInputStream;
 import net.sf.robocode.peer.IRobotPeer;
 import net.sf.robocode.peer.TeamMessage;
 import net.sf.robocode.repository.IRobotItem;
+import robocode.BinaryMessageEvent;
 import robocode.MessageEvent;
 import robocode.robotinterfaces.peer.ITeamRobotPeer;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 
@@ -89,12 +91,45 @@ public class TeamRobotProxy extends AdvancedRobotProxy implements ITeamRobotPeer
 
 	}
 
+	public void broadcastBinaryMessage(ByteBuffer message) throws IOException {
+		sendBinaryMessage(null, message);
+	}
+
+	public void sendBinaryMessage(String name, ByteBuffer message) throws IOException {
+		setCall();
+
+		try {
+			if (!statics.isTeamRobot()) {
+				throw new IOException("You are not on a team.");
+			}
+			final int size = message.remaining();
+
+			if (size > MAX_MESSAGE_SIZE) {
+				throw new IOException("Message too big. " + size + ">" + MAX_MESSAGE_SIZE);
+			}
+			// Copy the bytes, so the robot can reuse its buffer, and leave the position of the buffer untouched
+			final byte[] bytes = new byte[size];
+
+			message.duplicate().get(bytes);
+			commands.getTeamMessages().add(new TeamMessage(getName(), name, bytes, true));
+		} catch (IOException e) {
+			out.printStackTrace(e);
+			throw e;
+		}
+	}
+
 	@Override
 	protected final void loadTeamMessages(List<TeamMessage> teamMessages) {
 		if (teamMessages == null) {
 			return;
 		}
 		for (TeamMessage teamMessage : teamMessages) {
+			if (teamMessage.isBinary) {
+				// Read-only, so every handler of the event reads the message as it was sent
+				eventManager.add(new BinaryMessageEvent(teamMessage.sender,
+						ByteBuffer.wrap(teamMessage.message).asReadOnlyBuffer()));
+				continue;
+			}
 			try {
 				ByteArrayInputStream byteStreamReader = new ByteArrayInputStream(teamMessage.message);
 				byteStreamReader.reset();
@@ -123,4 +158,9 @@ public class TeamRobotProxy extends AdvancedRobotProxy implements ITeamRobotPeer
 		getCall();
 		return eventManager.getMessageEvents();
 	}
+
+	public List<BinaryMessageEvent> getBinaryMessageEvents() {
+		getCall();
+		return eventManager.getBinaryMessageEvents();
+	}
 }
@@ -9,7 +9,7 @@ package net.sf.robocode.host.security;
 
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
-import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.io.JarFileCache;
 
 import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
@@ -17,7 +17,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.nio.ByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -30,9 +29,7 @@ public final class ClassFileReader {
 		BufferedInputStream bis = null;
 		ByteBuffer result;
 		try {
-			URLConnection connection = URLJarCollector.openConnection(url);
-
-			is = connection.getInputStream();
+			is = JarFileCache.openStream(url);
 			bis = new BufferedInputStream(is);
 
 			result = ByteBuffer.allocate(1024 * 8);
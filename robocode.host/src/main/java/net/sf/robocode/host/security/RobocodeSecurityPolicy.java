@@ -265,6 +265,8 @@ public class RobocodeSecurityPolicy extends Policy {
 		}
 		// If this is a writtable file, return.
 		if (fileSystemManager.isWritable(filePermission.getName())) {
+			// The robot must read what it has written, even if it is only kept in memory so far
+			fileSystemManager.writeBackData(filePermission.getName());
 			return true;
 		}
 		// If this is a readable file, return.
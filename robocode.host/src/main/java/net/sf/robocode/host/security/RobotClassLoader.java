@@ -11,11 +11,13 @@ package net.sf.robocode.host.security;
 import net.sf.robocode.core.Container;
 import net.sf.robocode.host.IHostedThread;
 import net.sf.robocode.host.IRobotClassLoader;
+import net.sf.robocode.io.JarFileCache;
 import net.sf.robocode.io.Logger;
 import net.sf.robocode.io.RobocodeProperties;
 import robocode.robotinterfaces.IBasicRobot;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.MalformedURLException;
@@ -61,6 +63,9 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 	// Cached warning messages
 	private String[] staticRobotInstanceWarning;  
 
+	// The JAR file of the robot, which is held open as long as the robot is loaded
+	private JarFileCache.Handle jarHandle;
+
 	public RobotClassLoader(URL robotClassPath, String robotFullClassName) {
 		super(new URL[] { robotClassPath}, Container.systemLoader);
 		fullClassName = robotFullClassName;
@@ -68,6 +73,14 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 		try {
 			codeSource = new CodeSource(new URL(UNTRUSTED_URL), (Certificate[]) null);
 		} catch (MalformedURLException ignored) {}
+
+		if (JarFileCache.isJarURL(robotClassPath)) {
+			try {
+				jarHandle = JarFileCache.acquire(robotClassPath);
+			} catch (IOException e) {
+				Logger.logError(e);
+			}
+		}
 	}
 
 	public void setRobotProxy(Object robotProxy) {
@@ -221,6 +234,12 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 		robotClass = null;
 		referencedClasses = null;
 		foundSystemClasses = null;
+
+		// The JAR file is closed, unless another robot or the repository holds it
+		if (jarHandle != null) {
+			jarHandle.close();
+			jarHandle = null;
+		}
 	}
 
 	/**
@@ -377,6 +396,12 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 	// The URLClassLoader.findResource() in Java 9 returns null with some robot JARs
 	@Override
 	public URL findResource(String name) {
+		// The JAR file of the robot is read through the JarFileCache, so it is closed when the robot is cleaned up
+		final JarFileCache.Handle handle = jarHandle;
+
+		if (handle != null) {
+			return handle.getURL(name);
+		}
 		URL url = super.findResource(name);
 		if (url == null) {
 			// Ignore internal Java and Robocode classes
@@ -400,4 +425,22 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 		}
 		return url;
 	}
+
+	@Override
+	public InputStream getResourceAsStream(String name) {
+		final URL url = getResource(name);
+
+		if (!JarFileCache.isJarURL(url)) {
+			return super.getResourceAsStream(name);
+		}
+		return AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
+			public InputStream run() {
+				try {
+					return JarFileCache.openStream(url);
+				} catch (IOException e) {
+					return null;
+				}
+			}
+		});
+	}
 }
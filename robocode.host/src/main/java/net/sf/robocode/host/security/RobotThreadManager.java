@@ -8,6 +8,7 @@
 package net.sf.robocode.host.security;
 
 
+import net.sf.robocode.host.IHostManager;
 import net.sf.robocode.host.IHostedThread;
 import net.sf.robocode.host.IThreadManager;
 import net.sf.robocode.io.Logger;
@@ -25,6 +26,12 @@ import java.util.Map;
 
 
 /**
+ * Manages the thread running a robot, and the threads created by the robot.
+ * <p>
+ * The run thread is reused for all the rounds of a battle. Between rounds it waits for the next round to start,
+ * where it runs the robot proxy again, which creates a fresh robot instance. The run thread is only replaced if it
+ * had to be forced to stop.
+ *
  * @author Mathew A. Nelson (original)
  * @author Flemming N. Larsen (contributor)
  * @author Pavel Savara (contributor)
@@ -32,6 +39,7 @@ import java.util.Map;
 public class RobotThreadManager {
 
 	private final IHostedThread robotProxy;
+	private RobotRunner runner;
 	private Thread runThread;
 	private ThreadGroup runThreadGroup;
 	private Object awtForThreadGroup;
@@ -43,6 +51,17 @@ public class RobotThreadManager {
 	}
 
 	public void cleanup() {
+		if (runner != null) {
+			runner.dispose();
+			if (!runner.isRunningRound()) {
+				try {
+					runThread.join(1000);
+				} catch (InterruptedException e) {
+					// Immediately reasserts the exception by interrupting the caller thread itself
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
 		try {
 			if (runThread == null || !runThread.isAlive()) {
 				if (!discardAWT()) {
@@ -56,6 +75,18 @@ public class RobotThreadManager {
 		}
 	}
 
+	/**
+	 * Watches the run thread and thread group of the robot, which must be collected when the battle is over.
+	 *
+	 * @param hostManager the host manager that watches for leaks
+	 */
+	public void watchForLeaks(IHostManager hostManager) {
+		final String name = robotProxy.getStatics().getName();
+
+		hostManager.watchForLeaks(runThread, "run thread of " + name);
+		hostManager.watchForLeaks(runThreadGroup, "thread group of " + name);
+	}
+
 	public void initAWT() {
 		if (awtForThreadGroup == null) {
 			awtForThreadGroup = AccessController.doPrivileged(new PrivilegedAction<Object>() {
@@ -86,7 +117,17 @@ public class RobotThreadManager {
 		try {
 			threadManager.addThreadGroup(runThreadGroup, robotProxy);
 
-			runThread = new Thread(runThreadGroup, robotProxy, robotProxy.getStatics().getName());
+			if (runner != null) {
+				if (runThread.isAlive() && !runner.isRunningRound()) {
+					runner.startRound();
+					return;
+				}
+				runner.dispose();
+			}
+			runner = new RobotRunner();
+			runner.startRound();
+
+			runThread = new Thread(runThreadGroup, runner, robotProxy.getStatics().getName());
 			runThread.setDaemon(true);
 			runThread.setPriority(Thread.NORM_PRIORITY - 1);
 			runThread.setContextClassLoader(this.robotProxy.getRobotClassloader());
@@ -102,10 +143,9 @@ public class RobotThreadManager {
 	public boolean waitForStop() {
 		boolean isAlive = false;
 
-		if (runThread != null && runThread.isAlive()) {
+		if (runner != null && runner.isRunningRound()) {
 			runThread.interrupt();
-			waitForStop(runThread);
-			isAlive = runThread.isAlive();
+			isAlive = !runner.waitForRoundEnd();
 		}
 
 		Thread[] threads = new Thread[100];
@@ -140,7 +180,16 @@ public class RobotThreadManager {
 	 * @return true as peaceful stop
 	 */
 	public boolean forceStop() {
-		int res = stopSteps(runThread);
+		int res = 0;
+
+		// An idle run thread has finished its round, and is kept for the next round
+		if (runner == null || runner.isRunningRound()) {
+			// The run thread must end with the round instead of waiting for the next one, so it can be joined
+			if (runner != null) {
+				runner.dispose();
+			}
+			res = stopSteps(runThread);
+		}
 
 		Thread[] threads = new Thread[100];
 
@@ -156,8 +205,13 @@ public class RobotThreadManager {
 
 			// recycle thread group
 			createThreadGroup();
+
+			if (runner != null) {
+				runner.dispose();
+				runner = null;
+			}
+			runThread = null;
 		}
-		runThread = null;
 		return res == 0;
 	}
 
@@ -340,4 +394,89 @@ public class RobotThreadManager {
 	private static class Disposal {
 		boolean isDisposing;
 	}
+
+	/**
+	 * Runs the robot proxy on the run thread once for each round, and waits for the next round in between.
+	 */
+	private class RobotRunner implements Runnable {
+		private boolean isRoundStarted;
+		private boolean isRunningRound;
+		private boolean isDisposed;
+
+		public void run() {
+			while (waitForRoundStart()) {
+				try {
+					robotProxy.run();
+				} finally {
+					// Also executed when the thread is being stopped
+					endRound();
+				}
+			}
+		}
+
+		synchronized void startRound() {
+			isRoundStarted = true;
+			isRunningRound = true;
+			notifyAll();
+		}
+
+		synchronized boolean isRunningRound() {
+			return isRunningRound;
+		}
+
+		synchronized void dispose() {
+			isDisposed = true;
+			notifyAll();
+		}
+
+		/**
+		 * @return true if the round has ended within the time limit
+		 */
+		synchronized boolean waitForRoundEnd() {
+			try {
+				waitWhileRunningRound(500);
+				if (isRunningRound) {
+					logMessage("Waiting for robot " + robotProxy.getStatics().getName() + " to stop thread "
+							+ runThread.getName());
+					waitWhileRunningRound(500);
+				}
+			} catch (InterruptedException e) {
+				// Immediately reasserts the exception by interrupting the caller thread itself
+				Thread.currentThread().interrupt();
+			}
+			return !isRunningRound;
+		}
+
+		private void waitWhileRunningRound(long timeout) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + timeout;
+			long remaining = timeout;
+
+			while (isRunningRound && remaining > 0) {
+				wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+		}
+
+		private synchronized boolean waitForRoundStart() {
+			while (!isRoundStarted && !isDisposed) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// The battle interrupts the thread when the round ends, which might happen after the robot has
+					// already returned. Hence we keep waiting for the next round.
+				}
+			}
+			isRoundStarted = false;
+
+			// Clear an interrupt that arrived after the previous round so that it does not hit the robot
+			Thread.interrupted();
+
+			return !isDisposed;
+		}
+
+		private synchronized void endRound() {
+			isRunningRound = false;
+			notifyAll();
+		}
+	}
 }
@@ -10,13 +10,15 @@ package net.sf.robocode.host.security;
 
 import net.sf.robocode.host.IHostedThread;
 import net.sf.robocode.host.IThreadManager;
+import net.sf.robocode.host.io.RobotDataOutputStream;
+import net.sf.robocode.host.io.RobotDataStore;
 import net.sf.robocode.host.io.RobotFileOutputStream;
 import net.sf.robocode.host.io.RobotFileSystemManager;
 import robocode.exception.RobotException;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -118,7 +120,7 @@ public class ThreadManager implements IThreadManager {
 		return isSafeThread(Thread.currentThread());
 	}
 
-	public FileOutputStream createRobotFileStream(String fileName, boolean append) throws IOException {
+	public OutputStream createRobotFileStream(String fileName, boolean append) throws IOException {
 		final Thread c = Thread.currentThread();
 
 		final IHostedThread robotProxy = getRobotProxy(c);
@@ -148,12 +150,13 @@ public class ThreadManager implements IThreadManager {
 
 		final RobotFileSystemManager fileSystemManager = robotProxy.getRobotFileSystemManager();
 
-		File f = new File(fileName);
-		long len;
+		// Files in the data directory are kept in memory, if enabled, while other files are left to the security checks
+		final boolean inMemory = RobotDataStore.isEnabled() && fileSystemManager.isWritable(fileName);
 
-		if (f.exists()) {
-			len = f.length();
-		} else {
+		File f = inMemory ? fileSystemManager.getCanonicalFile(fileName) : new File(fileName);
+		long len = inMemory ? fileSystemManager.getDataFileLength(f) : (f.exists() ? f.length() : -1);
+
+		if (len < 0) {
 			fileSystemManager.checkQuota();
 			len = 0;
 		}
@@ -162,6 +165,9 @@ public class ThreadManager implements IThreadManager {
 			fileSystemManager.adjustQuota(-len);
 		}
 
+		if (inMemory) {
+			return new RobotDataOutputStream(f, append, fileSystemManager);
+		}
 		outputStreamThreads.add(c);
 		return new RobotFileOutputStream(fileName, append, fileSystemManager);
 	}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+
+/**
+ * Tests that the {@link LeakDetector} reports the released resources that are still reachable.
+ */
+public class LeakDetectorTest {
+
+	@Test
+	public void reportsReachableResourcesAfterSomeBattles() {
+		final LeakDetector detector = new LeakDetector();
+		final Object leaked = new Object();
+
+		detector.watch(leaked, "leaked");
+		detector.watch(new Object(), "collected");
+		collectGarbage(detector);
+
+		Assert.assertEquals(Collections.singletonList("leaked"), detector.getReachable());
+
+		for (int i = 0; i < LeakDetector.BATTLES_BEFORE_REPORT; i++) {
+			Assert.assertTrue(detector.checkTeardown().isEmpty());
+		}
+		Assert.assertEquals(Collections.singletonList("leaked"), detector.checkTeardown());
+
+		// Each leak is only reported once
+		Assert.assertTrue(detector.checkTeardown().isEmpty());
+		Assert.assertTrue(detector.getReachable().isEmpty());
+		Assert.assertNotNull(leaked);
+	}
+
+	@Test
+	public void ignoresNullResources() {
+		final LeakDetector detector = new LeakDetector();
+
+		detector.watch(null, "nothing");
+
+		Assert.assertTrue(detector.getReachable().isEmpty());
+	}
+
+	/**
+	 * Unlike the battles, the test must make sure that the garbage collector has run.
+	 */
+	private static void collectGarbage(LeakDetector detector) {
+		for (int i = 0; i < 50 && detector.getReachable().size() > 1; i++) {
+			System.gc();
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.io;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+
+/**
+ * Tests that the {@link RobotDataStore} and the {@link RobotDataOutputStream} give a robot back what it has written,
+ * write it to disk when asked to, do not bring back a file that has been deleted, and enforce the quota of the robot.
+ */
+public class RobotDataStoreTest {
+
+	private static final long MAX_QUOTA = 10;
+
+	private File dataDirectory;
+	private File file;
+	private TestHostedThread robot;
+	private RobotFileSystemManager fileSystemManager;
+
+	@Before
+	public void setUp() throws IOException {
+		dataDirectory = Files.createTempDirectory("robotdata").toFile().getCanonicalFile();
+		file = new File(dataDirectory, "data.txt");
+		robot = new TestHostedThread("sample.DataBot");
+		fileSystemManager = new RobotFileSystemManager(robot, MAX_QUOTA, dataDirectory.getPath(),
+				dataDirectory.getPath(), dataDirectory.toURI().toString());
+	}
+
+	@After
+	public void tearDown() {
+		// Nothing of the test must be left in the store, which is shared by the whole JVM
+		RobotDataStore.writeBack(file);
+		file.delete();
+		dataDirectory.delete();
+	}
+
+	@Test
+	public void keepsWrittenContentInMemory() throws IOException {
+		write(false, "abc");
+
+		Assert.assertFalse(file.exists());
+		Assert.assertTrue(RobotDataStore.isPending(file));
+		Assert.assertEquals(3, RobotDataStore.getLength(file));
+		Assert.assertEquals("abc", read());
+	}
+
+	@Test
+	public void writesContentBackToDisk() throws IOException {
+		write(false, "abc");
+		RobotDataStore.writeBack(file);
+
+		Assert.assertFalse(RobotDataStore.isPending(file));
+		Assert.assertEquals("abc", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		Assert.assertEquals("abc", read());
+	}
+
+	@Test
+	public void appendsToContentInMemory() throws IOException {
+		write(false, "abc");
+		write(true, "def");
+
+		Assert.assertEquals("abcdef", read());
+	}
+
+	@Test
+	public void appendsToContentOnDisk() throws IOException {
+		Files.write(file.toPath(), "abc".getBytes(StandardCharsets.UTF_8));
+		write(true, "def");
+
+		Assert.assertEquals("abc", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		Assert.assertEquals("abcdef", read());
+	}
+
+	@Test
+	public void truncatesFileWhenOverwritten() throws IOException {
+		write(false, "abcdef");
+
+		final OutputStream out = new RobotDataOutputStream(file, false, fileSystemManager);
+
+		try {
+			Assert.assertEquals(0, RobotDataStore.getLength(file));
+			out.write("x".getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+		Assert.assertEquals("x", read());
+	}
+
+	@Test
+	public void doesNotBringBackDeletedFile() throws IOException {
+		write(false, "abc");
+		RobotDataStore.writeBack(file);
+		write(false, "def");
+
+		// The robot deletes the file, which is on disk with the old content
+		Assert.assertTrue(file.delete());
+
+		Assert.assertFalse(RobotDataStore.isPending(file));
+		Assert.assertEquals(-1, RobotDataStore.getLength(file));
+		RobotDataStore.writeBackAll();
+		Assert.assertFalse(file.exists());
+	}
+
+	@Test
+	public void keepsContentOfUnchangedFile() throws IOException {
+		write(false, "abc");
+		RobotDataStore.writeBack(file);
+		write(true, "def");
+
+		// Asking about the file, like a permission check does, does not change what the robot has written
+		Assert.assertTrue(RobotDataStore.isPending(file));
+		Assert.assertEquals(6, RobotDataStore.getLength(file));
+		Assert.assertEquals("abcdef", read());
+	}
+
+	@Test
+	public void enforcesQuota() throws IOException {
+		final OutputStream out = new RobotDataOutputStream(file, false, fileSystemManager);
+
+		out.write(new byte[8]);
+		try {
+			out.write(new byte[5]);
+			Assert.fail("The quota of " + MAX_QUOTA + " bytes was exceeded");
+		} catch (IOException expected) {
+			Assert.assertTrue(robot.output.toString().contains("quota"));
+		}
+
+		// The stream is closed with what was written within the quota
+		Assert.assertEquals(8, RobotDataStore.getLength(file));
+		try {
+			out.write(1);
+			Assert.fail("The stream is closed");
+		} catch (IOException expected) {}
+	}
+
+	private void write(boolean append, String content) throws IOException {
+		final OutputStream out = new RobotDataOutputStream(file, append, fileSystemManager);
+
+		try {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+		} finally {
+			out.close();
+		}
+	}
+
+	private String read() throws IOException {
+		return new String(RobotDataStore.read(file), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.io;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+
+/**
+ * Tests that the {@link RobotFileSystemManager} extracts the data files of a robot JAR like they were extracted with a
+ * {@link JarInputStream} before it kept a record of the extracted entries, and that it only extracts them again when
+ * the JAR or an extracted file has changed.
+ */
+public class RobotFileSystemManagerTest {
+
+	private static final String ROBOT = "sample.DataBot";
+	private static final String DATA_DIR = "sample/DataBot.data/";
+
+	private File tempDir;
+	private File jarFile;
+	private File dataDirectory;
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("robotjar").toFile().getCanonicalFile();
+		jarFile = new File(tempDir, "DataBot.jar");
+		dataDirectory = new File(tempDir, "DataBot.data");
+	}
+
+	@After
+	public void tearDown() {
+		delete(tempDir);
+	}
+
+	@Test
+	public void extractsDataFilesOfJarWithManifest() throws IOException {
+		writeJar(true, "first");
+		initialize();
+
+		Assert.assertEquals(readDataFilesWithJarInputStream(), readDataDirectory());
+	}
+
+	@Test
+	public void extractsDataFilesOfJarWithoutManifest() throws IOException {
+		writeJar(false, "first");
+		initialize();
+
+		Assert.assertEquals(readDataFilesWithJarInputStream(), readDataDirectory());
+	}
+
+	@Test
+	public void skipsUnchangedDataFiles() throws IOException {
+		writeJar(true, "first");
+		initialize();
+
+		// A change that can not be seen from the length and modification time, so it shows if the file is extracted
+		final File file = new File(dataDirectory, "a.txt");
+		final long lastModified = file.lastModified();
+
+		Files.write(file.toPath(), "FIRST".getBytes(StandardCharsets.UTF_8));
+		Assert.assertTrue(file.setLastModified(lastModified));
+		initialize();
+
+		Assert.assertEquals("FIRST", readDataDirectory().get("a.txt"));
+	}
+
+	@Test
+	public void restoresDataFilesChangedByRobot() throws IOException {
+		writeJar(true, "first");
+		initialize();
+
+		Files.write(new File(dataDirectory, "a.txt").toPath(), "changed by the robot".getBytes(StandardCharsets.UTF_8));
+		initialize();
+
+		Assert.assertEquals(readDataFilesWithJarInputStream(), readDataDirectory());
+	}
+
+	@Test
+	public void extractsDataFilesOfChangedJar() throws IOException {
+		writeJar(true, "first");
+		initialize();
+
+		// A new version of the robot, with other content of the same length
+		writeJar(true, "other");
+		Assert.assertTrue(jarFile.setLastModified(jarFile.lastModified() + 10000));
+		initialize();
+
+		Assert.assertEquals("other", readDataDirectory().get("a.txt"));
+		Assert.assertEquals(readDataFilesWithJarInputStream(), readDataDirectory());
+	}
+
+	private void initialize() {
+		final TestHostedThread robot = new TestHostedThread(ROBOT);
+		final RobotFileSystemManager fileSystemManager = new RobotFileSystemManager(robot, 200000, tempDir.getPath(),
+				tempDir.getPath(), "jar:" + jarFile.toURI() + "!/");
+
+		robot.fileSystemManager = fileSystemManager;
+		fileSystemManager.initialize();
+		Assert.assertEquals("", robot.output.toString());
+	}
+
+	private void writeJar(boolean hasManifest, String content) throws IOException {
+		final FileOutputStream out = new FileOutputStream(jarFile);
+		final JarOutputStream jar;
+
+		if (hasManifest) {
+			final Manifest manifest = new Manifest();
+
+			manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+			manifest.getMainAttributes().putValue("robots", ROBOT);
+			jar = new JarOutputStream(out, manifest);
+		} else {
+			jar = new JarOutputStream(out);
+		}
+		try {
+			putEntry(jar, "sample/DataBot.class", "not a class");
+			putEntry(jar, DATA_DIR, null);
+			putEntry(jar, DATA_DIR + "a.txt", content);
+			putEntry(jar, DATA_DIR + "b.txt", "second data file");
+			putEntry(jar, "sample/Other.data/c.txt", "data of another robot");
+		} finally {
+			jar.close();
+		}
+	}
+
+	private static void putEntry(JarOutputStream jar, String name, String content) throws IOException {
+		jar.putNextEntry(new JarEntry(name));
+		if (content != null) {
+			jar.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+		jar.closeEntry();
+	}
+
+	/**
+	 * Reads the data files of the robot from its JAR, like they were extracted before.
+	 */
+	private Map<String, String> readDataFilesWithJarInputStream() throws IOException {
+		final Map<String, String> files = new TreeMap<String, String>();
+		final JarInputStream jis = new JarInputStream(new FileInputStream(jarFile));
+
+		try {
+			for (JarEntry entry; (entry = jis.getNextJarEntry()) != null; ) {
+				final String name = entry.getName();
+
+				if (name.startsWith(DATA_DIR) && name.length() > DATA_DIR.length()) {
+					files.put(name.substring(DATA_DIR.length()), readFully(jis));
+				}
+			}
+		} finally {
+			jis.close();
+		}
+		Assert.assertEquals(2, files.size());
+		return files;
+	}
+
+	private Map<String, String> readDataDirectory() throws IOException {
+		final Map<String, String> files = new TreeMap<String, String>();
+		final File[] dataFiles = dataDirectory.listFiles();
+
+		Assert.assertNotNull(dataFiles);
+		for (File file : dataFiles) {
+			final InputStream in = new FileInputStream(file);
+
+			try {
+				files.put(file.getName(), readFully(in));
+			} finally {
+				in.close();
+			}
+		}
+		return files;
+	}
+
+	private static String readFully(InputStream in) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+
+		for (int n; (n = in.read(buffer)) > 0; ) {
+			out.write(buffer, 0, n);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static void delete(File file) {
+		final File[] files = file.listFiles();
+
+		if (files != null) {
+			for (File child : files) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.io;
+
+
+import net.sf.robocode.host.IHostedThread;
+import net.sf.robocode.host.RobotStatics;
+import net.sf.robocode.repository.IRobotItem;
+import net.sf.robocode.security.HiddenAccess;
+import robocode.control.RobotSpecification;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+
+/**
+ * A robot for the tests of the file system of robots, which only has the names of its class, and keeps what it prints.
+ */
+class TestHostedThread implements IHostedThread {
+
+	final StringBuilder output = new StringBuilder();
+
+	private final IRobotItem robotItem;
+	private final RobotStatics statics;
+	RobotFileSystemManager fileSystemManager;
+
+	TestHostedThread(final String fullClassName) {
+		HiddenAccess.init();
+
+		robotItem = (IRobotItem) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { IRobotItem.class },
+				new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getName().equals("getShortClassName")) {
+					return fullClassName.substring(fullClassName.lastIndexOf('.') + 1);
+				}
+				if (method.getReturnType() == boolean.class) {
+					return false;
+				}
+				return method.getReturnType() == String.class ? fullClassName : null;
+			}
+		});
+		final RobotSpecification specification = HiddenAccess.createSpecification(robotItem, fullClassName, null, null,
+				null, null, null, fullClassName, null);
+
+		statics = new RobotStatics(specification, fullClassName, "", false, null, null, null, 0, 0);
+	}
+
+	public void println(String s) {
+		output.append(s).append('\n');
+	}
+
+	public void drainEnergy() {}
+
+	public void punishSecurityViolation(String message) {}
+
+	public RobotStatics getStatics() {
+		return statics;
+	}
+
+	public RobotFileSystemManager getRobotFileSystemManager() {
+		return fileSystemManager;
+	}
+
+	public RobotOutputStream getOut() {
+		return null;
+	}
+
+	public ClassLoader getRobotClassloader() {
+		return null;
+	}
+
+	public IRobotItem getRobotSpecification() {
+		return robotItem;
+	}
+
+	public void run() {}
+}
@@ -9,7 +9,6 @@ package net.sf.robocode.host.jarjar;
 
 
 import net.sf.robocode.io.JarJar;
-import net.sf.robocode.io.URLJarCollector;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -41,7 +40,9 @@ public class JarJarTest {
 
 		final String separ = "!/";
 		URL u = new URL("jar:jarjar:" + outer + JarJar.SEPARATOR + inner + separ + clas);
-		final URLConnection urlConnection = URLJarCollector.openConnection(u);
+		final URLConnection urlConnection = u.openConnection();
+
+		urlConnection.setUseCaches(false);
 		final InputStream inputStream = urlConnection.getInputStream();
 		InputStreamReader isr = new InputStreamReader(inputStream);
 		char[] c = new char[4];
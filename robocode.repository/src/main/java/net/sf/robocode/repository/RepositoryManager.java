@@ -11,7 +11,6 @@ package net.sf.robocode.repository;
 import net.sf.robocode.core.Container;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
-import net.sf.robocode.io.URLJarCollector;
 import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.items.RobotItem;
 import net.sf.robocode.repository.items.TeamItem;
@@ -80,7 +79,6 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 		if (!updateItemRoot(friendlyUrl, true)) {
 			refresh(true);
 		}
-		URLJarCollector.gc();
 	}
 
 	public boolean refresh() {
@@ -95,7 +93,6 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 		}
 
 		setStatus("");
-		URLJarCollector.gc();
 
 		return refreshed;
 	}
@@ -160,10 +157,6 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 	}
 	
 	public void reload(boolean rebuild) {
-		// Bug fix [2867326] - Lockup on start if too many bots in robots dir (cont'd).
-		URLJarCollector.enableGc(true);
-		URLJarCollector.gc();
-
 		if (rebuild) {
 			Logger.logMessage("Rebuilding robot database...");
 			repository = new Repository();
@@ -11,7 +11,7 @@ package net.sf.robocode.repository.items;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
 import net.sf.robocode.io.RobocodeProperties;
-import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.io.JarFileCache;
 import static net.sf.robocode.io.Logger.logError;
 import net.sf.robocode.repository.IRobotItem;
 import net.sf.robocode.repository.RobotProperties;
@@ -31,7 +31,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -205,8 +204,7 @@ public class RobotItem extends RobotSpecItem implements IRobotItem {
 		if (url != null) {
 			InputStream is = null;
 			try {
-				URLConnection conn = URLJarCollector.openConnection(url);
-				is = conn.getInputStream();
+				is = JarFileCache.openStream(url);
 				return false;
 			} catch (IOException e) {
 				return true;
@@ -330,9 +328,7 @@ public class RobotItem extends RobotSpecItem implements IRobotItem {
 		if (!isPropertiesLoaded && propertiesURL != null) {
 			InputStream ios = null;
 			try {
-				URLConnection con = URLJarCollector.openConnection(propertiesURL);
-
-				ios = con.getInputStream();
+				ios = JarFileCache.openStream(propertiesURL);
 				properties.load(ios);
 				isPropertiesLoaded = true;
 				return true;
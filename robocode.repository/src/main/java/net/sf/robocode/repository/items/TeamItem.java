@@ -11,7 +11,7 @@ package net.sf.robocode.repository.items;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
 import net.sf.robocode.io.RobocodeProperties;
-import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.io.JarFileCache;
 import net.sf.robocode.repository.IRobotSpecItem;
 import net.sf.robocode.repository.RobotProperties;
 import net.sf.robocode.repository.TeamProperties;
@@ -22,7 +22,6 @@ import net.sf.robocode.version.IVersionManager;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
@@ -66,9 +65,7 @@ public class TeamItem extends RobotSpecItem implements IRobotSpecItem {
 			htmlURL = new URL(itemUrl.toString().replaceAll("\\.team", ".html"));
 
 			// test that html file exists
-			final URLConnection conn = URLJarCollector.openConnection(htmlURL);
-
-			conn.getInputStream().close();
+			JarFileCache.openStream(htmlURL).close();
 		} catch (IOException ignored) {
 			// doesn't exist
 			htmlURL = null;
@@ -113,10 +110,8 @@ public class TeamItem extends RobotSpecItem implements IRobotSpecItem {
 			InputStream ios = null;
 
 			try {
-				final URLConnection connection = URLJarCollector.openConnection(itemUrl);
+				ios = JarFileCache.openStream(itemUrl);
 
-				ios = connection.getInputStream();
-				
 				properties.load(ios);
 				return true;
 			} catch (IOException e) {
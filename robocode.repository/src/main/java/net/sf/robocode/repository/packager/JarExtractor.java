@@ -10,7 +10,7 @@ package net.sf.robocode.repository.packager;
 
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
-import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.io.JarFileCache;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.FileOutputStream;
 import java.util.jar.JarInputStream;
 import java.util.jar.JarEntry;
-import java.net.URLConnection;
 import java.net.URL;
 
 
@@ -35,9 +34,7 @@ public class JarExtractor {
 		JarInputStream jarIS = null;
 
 		try {
-			final URLConnection con = URLJarCollector.openConnection(url);
-
-			is = con.getInputStream();
+			is = JarFileCache.openStream(url);
 			bis = new BufferedInputStream(is);
 			jarIS = new JarInputStream(bis);
 
@@ -64,7 +61,7 @@ public class JarExtractor {
 		}
 	}
 
-	public static void extractFile(File dest, JarInputStream jarIS, JarEntry entry) throws IOException {
+	public static void extractFile(File dest, InputStream jarIS, JarEntry entry) throws IOException {
 		File out = new File(dest, entry.getName());
 		File parentDirectory = new File(out.getParent());
 
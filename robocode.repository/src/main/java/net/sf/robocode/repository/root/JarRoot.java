@@ -12,7 +12,7 @@ import net.sf.robocode.host.security.ClassAnalyzer;
 import net.sf.robocode.host.security.ClassFileReader;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
-import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.io.JarFileCache;
 import net.sf.robocode.io.JarJar;
 import net.sf.robocode.repository.IRepository;
 import net.sf.robocode.repository.packager.JarExtractor;
@@ -20,16 +20,13 @@ import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.items.RobotItem;
 import net.sf.robocode.repository.items.handlers.ItemHandler;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.*;
 import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
 
 
 /**
@@ -74,61 +71,55 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 
 			Set<IRepositoryItem> repositoryItems = new LinkedHashSet<IRepositoryItem>();
 
-			visitItems(repositoryItems);
-			for (IRepositoryItem repositoryItem : repositoryItems) {
-				repositoryItem.update(lastModified, force);
+			// The JAR files are held while the items are read, so each of them is only opened once
+			final List<JarFileCache.Handle> handles = new ArrayList<JarFileCache.Handle>();
+
+			try {
+				visitItems(repositoryItems, handles);
+				for (IRepositoryItem repositoryItem : repositoryItems) {
+					repositoryItem.update(lastModified, force);
+				}
+			} finally {
+				for (JarFileCache.Handle handle : handles) {
+					handle.close();
+				}
 			}
 		}
 	}
 
-	private void visitItems(Collection<IRepositoryItem> repositoryItems) {
-		String root = jarPath;
-		InputStream is = null;
-		BufferedInputStream bis = null;
-		JarInputStream jarIS = null;
-
+	private void visitItems(Collection<IRepositoryItem> repositoryItems, List<JarFileCache.Handle> handles) {
 		try {
-			URLConnection con = URLJarCollector.openConnection(rootURL);
-
-			is = con.getInputStream();
-			bis = new BufferedInputStream(is);
-			jarIS = new JarInputStream(bis);
-			readJarStream(repositoryItems, root, jarIS);
-
+			readJar(repositoryItems, jarPath, handles);
 		} catch (Exception e) {
 			Logger.logError(rootURL + " is probably corrupted (" + e.getClass().getName() + " " + e.getMessage() + ")");
-		} finally {
-			FileUtil.cleanupStream(jarIS);
-			FileUtil.cleanupStream(bis);
-			FileUtil.cleanupStream(is);
 		}
 	}
 
-	private void readJarStream(Collection<IRepositoryItem> repositoryItems, String root, JarInputStream jarIS) throws IOException {
+	private void readJar(Collection<IRepositoryItem> repositoryItems, String root, List<JarFileCache.Handle> handles) throws IOException {
 		final URL rootURL = new URL(root + "!/");
+		final JarFileCache.Handle handle = JarFileCache.acquire(rootURL);
+
+		handles.add(handle);
 
 		ClassAnalyzer.RobotMainClassPredicate mainClassPredicate = ClassFileReader.createMainClassPredicate(rootURL);
 
-		JarEntry entry = jarIS.getNextJarEntry();
-		while (entry != null) {
+		for (JarEntry entry : handle.getEntries()) {
 			String fullName = entry.getName();
 			String name = fullName.toLowerCase();
 
 			if (!entry.isDirectory()) {
 				if (name.contains(".data/") && !name.contains(".robotcache/")) {
-					JarExtractor.extractFile(FileUtil.getRobotsDataDir(), jarIS, entry);
+					InputStream is = null;
+
+					try {
+						is = handle.getInputStream(entry);
+						JarExtractor.extractFile(FileUtil.getRobotsDataDir(), is, entry);
+					} finally {
+						FileUtil.cleanupStream(is);
+					}
 				} else {
 					if (name.endsWith(".jar") || name.endsWith(".zip")) {
-						JarInputStream inner = null;
-
-						try {
-							inner = new JarInputStream(jarIS);
-							readJarStream(repositoryItems, "jar:jar" + root + JarJar.SEPARATOR + fullName, inner);
-						} finally {
-							if (inner != null) {
-								inner.closeEntry();								
-							}
-						}
+						readJar(repositoryItems, "jar:jar" + root + JarJar.SEPARATOR + fullName, handles);
 					} else if (name.endsWith(".class")) {
 						if (mainClassPredicate.isMainClassBinary(fullName.substring(0, fullName.length() - 6))) {
 							createItem(repositoryItems, rootURL, entry);
@@ -138,7 +129,6 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 					}
 				}
 			}
-			entry = jarIS.getNextJarEntry();
 		}
 	}
 
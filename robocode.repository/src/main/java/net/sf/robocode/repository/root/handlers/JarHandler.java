@@ -11,8 +11,6 @@ package net.sf.robocode.repository.root.handlers;
 import net.sf.robocode.repository.IRepository;
 import net.sf.robocode.repository.root.IRepositoryRoot;
 import net.sf.robocode.repository.root.JarRoot;
-import net.sf.robocode.io.Logger;
-import net.sf.robocode.io.URLJarCollector;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -57,13 +55,6 @@ public class JarHandler extends RootHandler {
 
 				root.updateItems(force);
 				newRoots.put(key, root);
-
-				try {
-					URLJarCollector.closeJarURLConnection(jar.toURI().toURL());
-				} catch (MalformedURLException e) {
-					Logger.logError(e);
-				}
-				URLJarCollector.gc();
 			}
 		}
 	}
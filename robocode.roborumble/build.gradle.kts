@@ -8,6 +8,7 @@ dependencies {
     implementation(project(":robocode.core"))
     implementation("net.sf.robocode:codesize:1.3.0")
     runtimeOnly(project(":robocode.battle"))
+    testImplementation("junit:junit:4.13.2")
 }
 
 description = "Roborumble Client"
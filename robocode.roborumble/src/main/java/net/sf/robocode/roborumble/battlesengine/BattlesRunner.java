@@ -9,6 +9,7 @@ package net.sf.robocode.roborumble.battlesengine;
 
 
 import net.sf.robocode.io.Logger;
+import net.sf.robocode.roborumble.ratings.LocalRatings;
 import robocode.control.*;
 import robocode.control.events.BattleAdaptor;
 import robocode.control.events.BattleCompletedEvent;
@@ -36,6 +37,8 @@ public class BattlesRunner {
 	private final String outfile;
 	private final String user;
 	private final String game;
+	private final String localratingsfile;
+	private LocalRatings localratings;
 	private static RobotResults[] lastResults;
 	private static IRobocodeEngine engine;
 
@@ -47,6 +50,7 @@ public class BattlesRunner {
 		fieldhei = Integer.parseInt(parameters.getProperty("FIELDH", "600"));
 		outfile = parameters.getProperty("OUTPUT", "");
 		user = parameters.getProperty("USER", "");
+		localratingsfile = parameters.getProperty("LOCALRATINGS", "");
 		this.game = game;
 
 		initialize();
@@ -80,6 +84,17 @@ public class BattlesRunner {
 			return;
 		}
 
+		// open the local ratings, which are updated with the results as the battles are fought
+		localratings = null;
+		if (localratingsfile.length() != 0) {
+			try {
+				localratings = LocalRatings.open(localratingsfile);
+			} catch (IOException e) {
+				System.out.println("Not able to open local ratings file ... Ignoring");
+				System.out.println(e);
+			}
+		}
+
 		// run battle
 		int index = 0;
 
@@ -101,9 +116,17 @@ public class BattlesRunner {
 							battle.getBattlefield(), robotsList);
 
 					lastResults = null;
+					long startTime = System.nanoTime();
+
 					engine.runBattle(specification, true);
 					if (lastResults != null && lastResults.length > 1) {
 						dumpResults(outtxt, lastResults, rumbleBattle, melee);
+
+						if (localratings != null) {
+							long battleMillis = (System.nanoTime() - startTime) / 1000000;
+
+							localratings.addBattleTime(rumbleBattle.getBots(), battleMillis);
+						}
 					}
 				}
 			} else {
@@ -114,6 +137,15 @@ public class BattlesRunner {
 
 		// close
 		outtxt.close();
+
+		if (localratings != null) {
+			try {
+				localratings.save();
+			} catch (IOException e) {
+				System.out.println("Not able to save local ratings file");
+				System.out.println(e);
+			}
+		}
 	}
 
 	private String getEnemies(boolean melee, String[] bots) {
@@ -174,6 +206,10 @@ public class BattlesRunner {
 										+ System.currentTimeMillis() + "," + rumbleBattle.getRunonly());
 						outtxt.println(name1 + "," + points1 + "," + bullets1 + "," + survival1);
 						outtxt.println(name2 + "," + points2 + "," + bullets2 + "," + survival2);
+
+						if (localratings != null) {
+							localratings.addResult(name1, points1, name2, points2);
+						}
 					}
 				}
 			}
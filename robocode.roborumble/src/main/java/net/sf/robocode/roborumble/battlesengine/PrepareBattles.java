@@ -8,6 +8,9 @@
 package net.sf.robocode.roborumble.battlesengine;
 
 
+import net.sf.robocode.roborumble.ratings.BattleScheduler;
+import net.sf.robocode.roborumble.ratings.LocalRatings;
+
 import static net.sf.robocode.roborumble.util.ExcludesUtil.*;
 import static net.sf.robocode.roborumble.util.PropertiesUtil.getProperties;
 
@@ -38,6 +41,7 @@ public class PrepareBattles {
 	private final Properties miniratings;
 	private final Properties microratings;
 	private final Properties nanoratings;
+	private final LocalRatings localratings;
 	private final String priority;
 	private final int prioritynum;
 	private final int meleebots;
@@ -63,6 +67,7 @@ public class PrepareBattles {
 		microratings = getProperties(parameters.getProperty("RATINGS.MICROBOTS", ""));
 		nanoratings = getProperties(parameters.getProperty("RATINGS.NANOBOTS", ""));
 		priority = parameters.getProperty("PRIORITYBATTLESFILE", "");
+		localratings = openLocalRatings(parameters.getProperty("LOCALRATINGS", ""));
 
 		// Read and prepare exclude filters
 		setExcludes(parameters);
@@ -177,7 +182,7 @@ public class PrepareBattles {
 						if (size.checkCompetitorForSize(name, 250)) {
 							namesNano.add(name);
 						}
-						if (robotHasPriority(name, generalratings)) {
+						if (generalHasPriority(name)) {
 							priorityAll.add(name);
 						}
 						if (size.checkCompetitorForSize(name, 1500) && robotHasPriority(name, miniratings)) {
@@ -268,6 +273,17 @@ public class PrepareBattles {
 
 			count++;
 		}
+		if (localratings != null) {
+			// Add the battles that make the local ratings converge the fastest
+			boolean hasPriority = priorityAll.size() > 0 || (priorityMini.size() > 0 && namesMini.size() > 1)
+					|| (priorityMicro.size() > 0 && namesMicro.size() > 1)
+					|| (priorityNano.size() > 0 && namesNano.size() > 1);
+			List<String[]> scheduled = new BattleScheduler(localratings, namesAll).scheduleBattles(
+					getScheduledBattles(numbattles - count, namesNoRanking.size(), hasPriority));
+
+			writeBatches(scheduled);
+			count += scheduled.size();
+		}
 		// Add bots with less than 500 battles, or a random battle if all bots have enough battles
 		if (namesAll.size() > 1) {
 			while (count < numbattles) {
@@ -301,6 +317,30 @@ public class PrepareBattles {
 		return true;
 	}
 
+	/**
+	 * Returns the number of battles that are left to the scheduler, which only knows the local ratings of the general
+	 * competition. A battle is kept for each robot without ratings, and half of the other battles are kept for the
+	 * robots with priority, which are all added afterwards like when no local ratings are kept.
+	 */
+	static int getScheduledBattles(int freeBattles, int robotsWithoutRatings, boolean hasPriority) {
+		int scheduledBattles = Math.max(0, freeBattles - robotsWithoutRatings);
+
+		return hasPriority ? scheduledBattles / 2 : scheduledBattles;
+	}
+
+	/**
+	 * Writes scheduled battles in batches of battles without robots in common, which can be fought at the same time.
+	 */
+	private void writeBatches(List<String[]> battles) {
+		int batchSize = Runtime.getRuntime().availableProcessors();
+
+		for (List<String[]> batch : BattleScheduler.toBatches(battles, batchSize)) {
+			for (String[] bots : batch) {
+				battlesfile.writeBattle(new RumbleBattle(bots, runonly));
+			}
+		}
+	}
+
 	private String[] getRandomBots(List<String> list1, List<String> list2) {
 		int bot1 = RANDOM.nextInt(list1.size());
 		int bot2 = RANDOM.nextInt(list2.size());
@@ -316,6 +356,31 @@ public class PrepareBattles {
 		return bots;
 	}
 
+	private static LocalRatings openLocalRatings(String filename) {
+		if (filename.length() == 0) {
+			return null;
+		}
+		try {
+			return LocalRatings.open(filename);
+		} catch (IOException e) {
+			System.out.println("Not able to open local ratings file ... Ignoring");
+			System.out.println(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Checks if a robot has priority in the general competition, where the local ratings are used when they are kept.
+	 */
+	private boolean generalHasPriority(String name) {
+		if (localratings == null) {
+			return robotHasPriority(name, generalratings);
+		}
+		LocalRatings.Rating rating = localratings.getRating(name);
+
+		return rating != null && rating.getBattles() < prioritynum;
+	}
+
 	private boolean robotHasPriority(String name, Properties ratings) {
 		if (name == null || ratings == null) {
 			return false;
@@ -336,6 +401,9 @@ public class PrepareBattles {
 		if (name == null || name.trim().length() == 0) {
 			return false;
 		}
+		if (localratings != null && localratings.getRating(name) != null) {
+			return true;
+		}
 		String bot = name.replaceAll(" ", "_");
 		
 		Properties[] ratingLists = new Properties[] { generalratings, miniratings, microratings, nanoratings };
@@ -392,7 +460,7 @@ public class PrepareBattles {
 						if (size.checkCompetitorForSize(name, 250)) {
 							namesNano.add(name);
 						}
-						if (robotHasPriority(name, generalratings)) {
+						if (generalHasPriority(name)) {
 							priorityAll.add(name);
 						}
 						if (size.checkCompetitorForSize(name, 1500) && robotHasPriority(name, miniratings)) {
@@ -473,6 +541,25 @@ public class PrepareBattles {
 		// Create the participants file
 		int count = 0;
 
+		if (localratings != null && namesAll.size() > meleebots) {
+			// Add the prioritized battles, and then the battles that make the local ratings converge the fastest
+			for (String[] prioritybots : priorityPairs) {
+				if (count >= numbattles - namesNoRanking.size()) {
+					break;
+				}
+				battlesfile.writeBattle(new RumbleBattle(
+						getRandomMeleeBots(prioritybots[0], prioritybots[1], namesAll), runonly, true));
+				count++;
+			}
+			boolean hasPriority = priorityAll.size() > 0 || (priorityMini.size() > 0 && namesMini.size() >= meleebots)
+					|| (priorityMicro.size() > 0 && namesMicro.size() >= meleebots)
+					|| (priorityNano.size() > 0 && namesNano.size() >= meleebots);
+			List<String[]> scheduled = new BattleScheduler(localratings, namesAll).scheduleMeleeBattles(
+					getScheduledBattles(numbattles - count, namesNoRanking.size(), hasPriority), meleebots);
+
+			writeBatches(scheduled);
+			count += scheduled.size();
+		}
 		// Add bots with less than 500 battles, or a random battle if all bots have enough battles
 		if (namesAll.size() > meleebots) {
 			while (count < numbattles) {
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.netengine;
+
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+
+
+/**
+ * Downloads robot JAR files into a robot repository, with a bounded number of transfers running at the same time.
+ * <p>
+ * A file is downloaded into a part file in the temp directory, and only moved into the repository when it has been
+ * verified, so the repository never contains a file that is partly downloaded or corrupted. A transfer that breaks off
+ * is resumed from the end of the part file with a HTTP range request, both when it is retried and when the same file
+ * is downloaded by a later run.
+ * <p>
+ * A downloaded file is verified by reading every entry of the JAR file, which checks the CRC of each entry, and by the
+ * SHA-256 checksum when the URL ends with a "#sha256=&lt;hex&gt;" fragment. The caller can add its own check of the
+ * content with a {@link Verifier}.
+ *
+ * @since 1.9.5.3
+ */
+public class BotDownloadManager {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final String SHA256_FRAGMENT = "sha256=";
+
+	/**
+	 * Represents the status returned when downloading a robot.
+	 */
+	public enum Status {
+		OK, // The robot was downloaded into the repository
+		COULD_NOT_CONNECT, // Connection problem
+		FILE_NOT_FOUND, // The file to download was not found
+		INVALID, // The downloaded file is not a valid JAR file, or it was rejected by the checksum or verifier
+		COULD_NOT_SAVE // The file could not be moved into the repository
+	}
+
+	/**
+	 * Checks the content of a downloaded file before it is moved into the repository.
+	 * The verifiers are called from the transfer threads.
+	 */
+	public interface Verifier {
+
+		/**
+		 * Checks a downloaded file.
+		 *
+		 * @param file the downloaded file, which is an intact JAR file
+		 * @return true if the file can be moved into the repository; false if it must be discarded
+		 */
+		boolean verify(File file);
+	}
+
+	private final File tempDir;
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a download manager.
+	 *
+	 * @param tempDir the directory the files are downloaded into before they are verified
+	 * @param maxTransfers the maximum number of transfers running at the same time
+	 */
+	public BotDownloadManager(File tempDir, int maxTransfers) {
+		if (maxTransfers <= 0) {
+			throw new IllegalArgumentException("The number of transfers must be positive");
+		}
+		this.tempDir = tempDir;
+
+		executor = Executors.newFixedThreadPool(maxTransfers, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "BotDownloadManager: Download");
+
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Queues the download of a file into the repository.
+	 *
+	 * @param url the URL of the file, which can end with a "#sha256=&lt;hex&gt;" fragment
+	 * @param destination the file in the repository
+	 * @param verifier the check of the content of the file, or null if the file only needs to be an intact JAR file
+	 * @return the status of the download, once it has finished
+	 */
+	public Future<Status> download(final String url, final File destination, final Verifier verifier) {
+		return executor.submit(new Callable<Status>() {
+			public Status call() {
+				return downloadNow(url, destination, verifier);
+			}
+		});
+	}
+
+	/**
+	 * Stops the transfers, where the part files are kept so the downloads can be resumed later.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	Status downloadNow(String url, File destination, Verifier verifier) {
+		final URL fileUrl;
+
+		try {
+			fileUrl = new URL(url);
+		} catch (IOException e) {
+			return Status.COULD_NOT_CONNECT;
+		}
+		final File partFile = new File(tempDir, destination.getName() + ".part");
+
+		Status status = Status.COULD_NOT_CONNECT;
+		boolean isResumed = partFile.length() > 0;
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS && !Thread.currentThread().isInterrupted(); attempt++) {
+			try {
+				status = transfer(fileUrl, partFile);
+			} catch (IOException e) {
+				// The part file is kept, so the next attempt continues where this one broke off
+				status = Status.COULD_NOT_CONNECT;
+				isResumed = true;
+				continue;
+			}
+			if (status != Status.OK) {
+				break;
+			}
+			if (verify(partFile, fileUrl.getRef(), verifier)) {
+				return promote(partFile, destination) ? Status.OK : Status.COULD_NOT_SAVE;
+			}
+			// The file is discarded, as continuing a corrupted file will not make it valid
+			status = Status.INVALID;
+			partFile.delete();
+
+			// A file pieced together from a file that was changed on the server is downloaded once more as a whole
+			if (!isResumed) {
+				break;
+			}
+			isResumed = false;
+		}
+		return status;
+	}
+
+	private static Status transfer(URL url, File partFile) throws IOException {
+		final long offset = partFile.length();
+
+		final HttpURLConnection conn = (HttpURLConnection) FileTransfer.openDownloadConnection(url);
+
+		InputStream in = null;
+		OutputStream out = null;
+
+		try {
+			// Ranges are byte ranges of the encoded content, so the file is requested as it is
+			conn.setRequestProperty("Accept-Encoding", "identity");
+			if (offset > 0) {
+				conn.setRequestProperty("Range", "bytes=" + offset + "-");
+			}
+			final int responseCode = conn.getResponseCode();
+
+			final boolean append;
+
+			if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+				return Status.FILE_NOT_FOUND;
+			} else if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
+				final String contentRange = conn.getHeaderField("Content-Range");
+
+				if (contentRange == null || !contentRange.startsWith("bytes " + offset + "-")) {
+					partFile.delete();
+					throw new IOException("Unexpected content range: " + contentRange);
+				}
+				append = true;
+			} else if (responseCode == 416 && offset > 0) {
+				// Requested range not satisfiable, as the part file is complete already
+				return Status.OK;
+			} else if (responseCode == HttpURLConnection.HTTP_OK) {
+				append = false;
+			} else {
+				return Status.COULD_NOT_CONNECT;
+			}
+
+			final long contentLength = conn.getContentLengthLong();
+
+			in = conn.getInputStream();
+			out = new FileOutputStream(partFile, append);
+
+			final byte[] buf = new byte[8192];
+			long totalRead = 0;
+
+			for (int bytesRead; (bytesRead = in.read(buf)) != -1; ) {
+				out.write(buf, 0, bytesRead);
+				totalRead += bytesRead;
+			}
+			if (contentLength >= 0 && totalRead != contentLength) {
+				throw new IOException("Transfer ended after " + totalRead + " of " + contentLength + " bytes");
+			}
+			return Status.OK;
+		} finally {
+			closeQuietly(in);
+			closeQuietly(out);
+			conn.disconnect();
+		}
+	}
+
+	private static boolean verify(File file, String fragment, Verifier verifier) {
+		if (fragment != null && fragment.startsWith(SHA256_FRAGMENT)) {
+			final String expected = fragment.substring(SHA256_FRAGMENT.length());
+
+			if (!expected.equalsIgnoreCase(sha256(file))) {
+				System.out.println("Checksum mismatch for " + file.getName());
+				return false;
+			}
+		}
+		return isIntactJar(file) && (verifier == null || verifier.verify(file));
+	}
+
+	/**
+	 * Checks that a file is a JAR file where all entries can be read, and match their CRC.
+	 *
+	 * @param file the file to check
+	 * @return true if the file is an intact JAR file; false otherwise
+	 */
+	static boolean isIntactJar(File file) {
+		JarFile jarFile = null;
+		JarInputStream jarIn = null;
+
+		try {
+			// Opening the JAR file checks the central directory, which is read at the end of the file
+			jarFile = new JarFile(file);
+			if (!jarFile.entries().hasMoreElements()) {
+				return false;
+			}
+
+			// Reading the entries as a stream checks the CRC of each entry
+			jarIn = new JarInputStream(new FileInputStream(file));
+
+			final byte[] buf = new byte[8192];
+
+			while (jarIn.getNextJarEntry() != null) {
+				while (jarIn.read(buf) != -1) {
+					// read to the end of the entry
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		} catch (SecurityException e) {
+			// A signed JAR file with an invalid signature
+			return false;
+		} finally {
+			closeQuietly(jarIn);
+			if (jarFile != null) {
+				try {
+					jarFile.close();
+				} catch (IOException ignored) {}
+			}
+		}
+	}
+
+	private static String sha256(File file) {
+		InputStream in = null;
+
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+			in = new FileInputStream(file);
+
+			final byte[] buf = new byte[8192];
+
+			for (int bytesRead; (bytesRead = in.read(buf)) != -1; ) {
+				digest.update(buf, 0, bytesRead);
+			}
+			final StringBuilder hex = new StringBuilder();
+
+			for (byte b : digest.digest()) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (IOException e) {
+			return null;
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error("SHA-256 is not supported", e);
+		} finally {
+			closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Moves a verified file into the repository, where it appears as a whole, or not at all.
+	 */
+	private static boolean promote(File partFile, File destination) {
+		try {
+			try {
+				Files.move(partFile.toPath(), destination.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				// The temp directory is on another file system, so the file is copied next to the destination first
+				final File staged = new File(destination.getParentFile(), destination.getName() + ".part");
+
+				Files.copy(partFile.toPath(), staged.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				Files.move(staged.toPath(), destination.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				partFile.delete();
+			}
+			return true;
+		} catch (IOException e) {
+			System.out.println(e);
+			return false;
+		}
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException ignored) {}
+		}
+	}
+}
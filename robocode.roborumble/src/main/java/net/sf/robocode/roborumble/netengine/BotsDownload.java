@@ -12,7 +12,6 @@ import net.sf.robocode.io.Logger;
 import net.sf.robocode.repository.CodeSizeCalculator;
 import net.sf.robocode.roborumble.battlesengine.CompetitionsSelector;
 
-import static net.sf.robocode.roborumble.netengine.FileTransfer.DownloadStatus;
 import static net.sf.robocode.roborumble.util.ExcludesUtil.*;
 import static net.sf.robocode.roborumble.util.PropertiesUtil.getProperties;
 
@@ -22,10 +21,15 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
@@ -272,19 +276,56 @@ public class BotsDownload {
         }
 
         // check if the file exists in the repository and download if not present
-        for (int i = 0; i < jars.size(); i++) {
-            String botjar = jars.get(i);
-            String botid = ids.get(i);
-            String botname = names.get(i);
-            String botpath = botsrepository + botjar;
-            boolean exists = (new File(botpath)).exists();
-
-            if (!exists) {
-                boolean downloaded = downloadBot(botname, botjar, botid, botsrepository, tempdir);
-                if (!downloaded) {
-                    System.out.println("Could not download " + botjar);
+        BotDownloadManager downloadManager = new BotDownloadManager(new File(tempdir),
+                FileTransfer.getConcurrentDownloads());
+        Map<String, Future<BotDownloadManager.Status>> downloads =
+                new LinkedHashMap<String, Future<BotDownloadManager.Status>>();
+        Map<String, BotVerifier> verifiers = new HashMap<String, BotVerifier>();
+
+        try {
+            for (int i = 0; i < jars.size(); i++) {
+                String botjar = jars.get(i);
+                String botid = ids.get(i);
+                String botname = names.get(i);
+                String botpath = botsrepository + botjar;
+                boolean exists = (new File(botpath)).exists();
+
+                if (!exists && !downloads.containsKey(botjar)) {
+                    if (botid.indexOf("://") == -1) {
+                        System.out.println("Could not connect to " + botid);
+                        System.out.println("Could not download " + botjar);
+                        continue;
+                    }
+                    BotVerifier verifier = new BotVerifier(botname);
+
+                    verifiers.put(botjar, verifier);
+                    downloads.put(botjar, downloadManager.download(botid, new File(botpath), verifier));
+                }
+            }
+            for (int i = 0; i < jars.size(); i++) {
+                String botjar = jars.get(i);
+                Future<BotDownloadManager.Status> download = downloads.remove(botjar);
+
+                if (download != null) {
+                    BotDownloadManager.Status status;
+
+                    try {
+                        status = download.get();
+                    } catch (ExecutionException e) {
+                        Logger.logError(e.getCause());
+                        status = BotDownloadManager.Status.COULD_NOT_CONNECT;
+                    }
+                    boolean downloaded = reportDownload(names.get(i), botjar, ids.get(i), status,
+                            verifiers.get(botjar));
+                    if (!downloaded) {
+                        System.out.println("Could not download " + botjar);
+                    }
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            downloadManager.shutdown();
         }
     }
 
@@ -313,56 +354,61 @@ public class BotsDownload {
         }
     }
 
-    private boolean downloadBot(String botname, String file, String url, String destination, String tempdir) {
-        String tempFileName = tempdir + file;
-        String repositoryFileName = destination + file;
+    private boolean reportDownload(String botname, String file, String url, BotDownloadManager.Status status,
+            BotVerifier verifier) {
+        String repositoryFileName = botsrepository + file;
 
-        // check if the bot exists in the repository
+        switch (status) {
+        case OK:
+            System.out.println("Downloaded " + botname + " into " + repositoryFileName + " (Codesize: "
+                    + verifier.codeSize + ") from " + url);
+            return true;
 
-        boolean exists = (new File(repositoryFileName)).exists();
-        if (exists) {
-            System.out.println("The bot already exists in the repository.");
+        case FILE_NOT_FOUND:
+            System.out.println("Could not find " + botname + " from " + url);
             return false;
-        }
 
-        if (url.indexOf("://") == -1) {
-            System.out.println("Could not connect to " + url);
+        case INVALID:
+            if (verifier.isCorrupted) {
+                System.out.println("Downloaded file is wrong or corrupted: " + file);
+            }
             return false;
-        }
-
-        // Download the bot
-        DownloadStatus downloadStatus = FileTransfer.download(url, tempFileName);
 
-        if (downloadStatus == DownloadStatus.FILE_NOT_FOUND) {
-            System.out.println("Could not find " + botname + " from " + url);
+        case COULD_NOT_SAVE:
+            System.out.println("Unable to copy " + file + " into the repository");
             return false;
-        } else if (downloadStatus == DownloadStatus.COULD_NOT_CONNECT) {
+
+        default:
             System.out.println("Could not connect to " + url);
             return false;
         }
+    }
 
-        // Check the bot and save it into the repository
+    /**
+     * Checks that a downloaded JAR file contains the expected bot, and that its code size can be calculated.
+     */
+    private final class BotVerifier implements BotDownloadManager.Verifier {
+        private final String botname;
+        volatile Integer codeSize;
+        volatile boolean isCorrupted = true;
 
-        Integer codeSize;
+        BotVerifier(String botname) {
+            this.botname = botname;
+        }
 
-        if (checkJarFile(tempFileName, botname)) {
-            codeSize = CodeSizeCalculator.getJarFileCodeSize(new File(tempFileName));
-            if (codeSize == null) {
-                System.out.println("Unable to calc codesize for " + tempFileName);
+        public boolean verify(File file) {
+            if (!checkJarFile(file.getPath(), botname)) {
+                isCorrupted = true;
                 return false;
             }
-
-            if (!FileTransfer.copy(tempFileName, repositoryFileName)) {
-                System.out.println("Unable to copy " + tempFileName + " into the repository");
+            codeSize = CodeSizeCalculator.getJarFileCodeSize(file);
+            if (codeSize == null) {
+                System.out.println("Unable to calc codesize for " + file);
+                isCorrupted = false;
                 return false;
             }
-        } else {
-            System.out.println("Downloaded file is wrong or corrupted: " + file);
-            return false;
+            return true;
         }
-
-        System.out.println("Downloaded " + botname + " into " + repositoryFileName + " (Codesize: " + codeSize + ") from " + url);
-        return true;
     }
 
     private boolean checkJarFile(String file, String botname) {
@@ -380,8 +426,10 @@ public class BotsDownload {
             bot += ".properties";
         }
 
+        JarFile jarf = null;
+
         try {
-            JarFile jarf = new JarFile(file);
+            jarf = new JarFile(file);
             ZipEntry zipe = jarf.getJarEntry(bot);
 
             if (zipe == null) {
@@ -404,6 +452,14 @@ public class BotsDownload {
         } catch (Exception e) {
             System.out.println(e);
             return false;
+        } finally {
+            // The file is moved into the repository afterwards, which fails on some systems while it is open
+            if (jarf != null) {
+                try {
+                    jarf.close();
+                } catch (IOException ignored) {
+                }
+            }
         }
     }
 
@@ -30,10 +30,14 @@ public class FileTransfer {
 	private final static int DEFAULT_CONNECTION_TIMEOUT = 10000; // 10 seconds
 	private final static int DEFAULT_READ_TIMEOUT = 10000; // 10 seconds
 	private final static int DEFAULT_SESSION_TIMEOUT = 10000; // 10 seconds
+	private final static int DEFAULT_CONCURRENT_DOWNLOADS = 4;
+	private final static int DEFAULT_CONCURRENT_UPLOADS = 2;
 
 	private static int connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
 	private static int readTimeout = DEFAULT_READ_TIMEOUT;
 	private static int sessionTimeout = DEFAULT_SESSION_TIMEOUT;
+	private static int concurrentDownloads = DEFAULT_CONCURRENT_DOWNLOADS;
+	private static int concurrentUploads = DEFAULT_CONCURRENT_UPLOADS;
 
 	static {
 		readProperties();
@@ -555,6 +559,63 @@ public class FileTransfer {
 		return conn;
 	}
 
+	/**
+	 * Opens a {@link java.net.URLConnection} for downloading a file, like {@link #openURLConnection(URL, boolean)},
+	 * where the connection timeout and read timeout are limited to the download session timeout, so waiting for the
+	 * connection, the response or any read of the file takes no longer than the session timeout.
+	 *
+	 * @param url is the URL to open.
+	 * @return a URLConnection.
+	 * @throws IOException if an I/O exception occurs.
+	 */
+	public static URLConnection openDownloadConnection(URL url) throws IOException {
+		URLConnection conn = openURLConnection(url, false);
+
+		conn.setConnectTimeout(limitToSessionTimeout(conn.getConnectTimeout()));
+		conn.setReadTimeout(limitToSessionTimeout(conn.getReadTimeout()));
+
+		return conn;
+	}
+
+	// A timeout of 0 means no timeout, for the connection as well as the session
+	private static int limitToSessionTimeout(int timeout) {
+		if (timeout == 0) {
+			return sessionTimeout;
+		}
+		return sessionTimeout == 0 ? timeout : Math.min(timeout, sessionTimeout);
+	}
+
+	/**
+	 * Sets the download session timeout, which is otherwise read from the properties.
+	 *
+	 * @param timeout the timeout in milliseconds, where 0 means no timeout.
+	 * @return the previous timeout.
+	 */
+	static int setSessionTimeout(int timeout) {
+		int previous = sessionTimeout;
+
+		sessionTimeout = timeout;
+		return previous;
+	}
+
+	/**
+	 * Returns the maximum number of robots that are downloaded at the same time, which is controlled by properties.
+	 *
+	 * @return the maximum number of concurrent downloads.
+	 */
+	public static int getConcurrentDownloads() {
+		return concurrentDownloads;
+	}
+
+	/**
+	 * Returns the maximum number of results that are uploaded at the same time, which is controlled by properties.
+	 *
+	 * @return the maximum number of concurrent uploads.
+	 */
+	public static int getConcurrentUploads() {
+		return concurrentUploads;
+	}
+
 	/**
 	 * Reads the roborumble.properties file and stores property values into global variables.
 	 */
@@ -585,5 +646,21 @@ public class FileTransfer {
 				sessionTimeout = Integer.parseInt(value);
 			} catch (NumberFormatException ignore) {}
 		}
+
+		// Get the number of concurrent downloads
+		value = props.getProperty("download.concurrent");
+		if (value != null) {
+			try {
+				concurrentDownloads = Math.max(1, Integer.parseInt(value));
+			} catch (NumberFormatException ignore) {}
+		}
+
+		// Get the number of concurrent uploads
+		value = props.getProperty("upload.concurrent");
+		if (value != null) {
+			try {
+				concurrentUploads = Math.max(1, Integer.parseInt(value));
+			} catch (NumberFormatException ignore) {}
+		}
 	}
 }
@@ -12,14 +12,23 @@ import net.sf.robocode.roborumble.battlesengine.CompetitionsSelector;
 import static net.sf.robocode.roborumble.util.PropertiesUtil.getProperties;
 
 import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 
 /**
  * Class used for uploading results to a server.
+ * The results are uploaded by a few threads at the same time, over connections that are kept alive between uploads.
  * Controlled by properties files.
  *
  * @author Albert Perez (original)
@@ -28,6 +37,18 @@ import java.util.Vector;
  */
 public class ResultsUpload {
 
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long RETRY_DELAY = 500; // milliseconds, doubled for each retry
+
+	private static final ThreadFactory UPLOAD_THREADS = new ThreadFactory() {
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "ResultsUpload: Upload");
+
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
 	private final String client;
 	private final String resultsfile;
 	private final String resultsurl;
@@ -43,6 +64,7 @@ public class ResultsUpload {
 	private final String priority;
 	private final String teams;
 	private final String melee;
+	private final int batchsize;
 
 	public ResultsUpload(String game, Properties parameters, String clientVersion) {
 
@@ -63,6 +85,15 @@ public class ResultsUpload {
 		teams = parameters.getProperty("TEAMS", "NOT");
 		melee = parameters.getProperty("MELEE", "NOT");
 
+		int batch;
+
+		try {
+			batch = Integer.parseInt(parameters.getProperty("RESULTSBATCHSIZE", "1"));
+		} catch (NumberFormatException e) {
+			batch = 1;
+		}
+		batchsize = Math.max(1, batch);
+
 		// Open competitions selector
 		size = new CompetitionsSelector(sizesfile, botsrepository);
 	}
@@ -149,7 +180,10 @@ public class ResultsUpload {
 			return;
 		}
 
-		// Post the results
+		// Post the results, where the uploads run concurrently and their responses are handled in the order of the
+		// results
+
+		List<List<Upload>> uploads = new ArrayList<List<Upload>>();
 
 		for (int i = 0; i < results.size() / 3; i++) {
 
@@ -173,34 +207,45 @@ public class ResultsUpload {
 					+ first[0] + "&fscore=" + first[1] + "&fbulletd=" + first[2] + "&fsurvival=" + first[3] + "&sname="
 					+ second[0] + "&sscore=" + second[1] + "&sbulletd=" + second[2] + "&ssurvival=" + second[3];
 
-			String data = "game=" + game + commonData;
-
-			boolean errsaved = false;
+			List<Upload> resultUploads = new ArrayList<Upload>();
 
 			if (matchtype.equals("GENERAL") || matchtype.equals("SERVER")) {
-				errsaved = senddata(game, data, outtxt, true, results, i, battlesnum, prioritybattles);
+				resultUploads.add(new Upload(game, "game=" + game + commonData));
 			}
 
 			if (sizesfile.length() != 0) { // upload also related competitions
 				if (minibots.length() != 0 && !matchtype.equals("NANO") && !matchtype.equals("MICRO")
 						&& size.checkCompetitorsForSize(first[0], second[0], 1500)) {
-					data = "game=" + minibots + commonData;
-					errsaved = errsaved
-							| senddata(minibots, data, outtxt, !errsaved, results, i, battlesnum, prioritybattles);
+					resultUploads.add(new Upload(minibots, "game=" + minibots + commonData));
 				}
 				if (microbots.length() != 0 && !matchtype.equals("NANO")
 						&& size.checkCompetitorsForSize(first[0], second[0], 750)) {
-					data = "game=" + microbots + commonData;
-					errsaved = errsaved
-							| senddata(microbots, data, outtxt, !errsaved, results, i, battlesnum, prioritybattles);
+					resultUploads.add(new Upload(microbots, "game=" + microbots + commonData));
 				}
 				if (nanobots.length() != 0 && size.checkCompetitorsForSize(first[0], second[0], 250)) {
-					data = "game=" + nanobots + commonData;
+					resultUploads.add(new Upload(nanobots, "game=" + nanobots + commonData));
+				}
+			}
+			uploads.add(resultUploads);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(FileTransfer.getConcurrentUploads(), UPLOAD_THREADS);
+
+		try {
+			submitUploads(executor, uploads);
+
+			for (int i = 0; i < uploads.size(); i++) {
+				boolean errsaved = false;
+
+				// The results are only saved once, even when several competitions fail
+				for (Upload upload : uploads.get(i)) {
 					errsaved = errsaved
-							| senddata(nanobots, data, outtxt, !errsaved, results, i, battlesnum, prioritybattles);
+							| senddata(upload, outtxt, !errsaved, results, i, battlesnum, prioritybattles);
 				}
+				errorsfound = errorsfound || errsaved;
 			}
-			errorsfound = errorsfound || errsaved;
+		} finally {
+			executor.shutdownNow();
 		}
 
 		// close files
@@ -233,36 +278,38 @@ public class ResultsUpload {
 		System.out.println("Unable to upload results " + match + " " + bot1 + " " + bot2);
 	}
 
-	private boolean senddata(String game, String data, PrintStream outtxt, boolean saveonerror, Vector<String> results, int i, PrintStream battlesnum, PrintStream prioritybattles) {
+	/**
+	 * Hands the uploads to the upload threads in batches of up to RESULTSBATCHSIZE uploads, which are posted one after
+	 * another by the same thread, each in a request of its own.
+	 */
+	private void submitUploads(ExecutorService executor, List<List<Upload>> uploads) {
+		Batch batch = new Batch();
+
+		for (List<Upload> resultUploads : uploads) {
+			for (Upload upload : resultUploads) {
+				batch.uploads.add(upload);
+
+				if (batch.uploads.size() >= batchsize) {
+					batch.submit(executor);
+					batch = new Batch();
+				}
+			}
+		}
+		if (!batch.uploads.isEmpty()) {
+			batch.submit(executor);
+		}
+	}
+
+	private boolean senddata(Upload upload, PrintStream outtxt, boolean saveonerror, Vector<String> results, int i, PrintStream battlesnum, PrintStream prioritybattles) {
 		boolean errorsfound = false;
-		OutputStream out = null;
-		OutputStreamWriter outputStreamWriter = null;
-		PrintWriter wr = null;
-		InputStream in = null;
-		InputStreamReader inputStreamReader = null;
-		BufferedReader bufferedReader = null;
 
 		try {
 			System.out.println("Uploading results to " + resultsurl + " as " + user);
-			// Send data
-			URLConnection conn = FileTransfer.openOutputURLConnection(new URL(resultsurl));
-
-			out = FileTransfer.getOutputStream(conn);
-			outputStreamWriter = new OutputStreamWriter(out);
-			wr = new PrintWriter(outputStreamWriter);
-
-			wr.println(data);
-			wr.flush();
 
 			// Get the response
-			in = FileTransfer.getInputStream(conn);
-			inputStreamReader = new InputStreamReader(in); 
-			bufferedReader = new BufferedReader(inputStreamReader);
-
-			String line;
 			boolean ok = false;
 
-			while ((line = bufferedReader.readLine()) != null) {
+			for (String line : upload.getResponse()) {
 				if (line.indexOf("OK") != -1) {
 					ok = true;
 					System.out.println(line);
@@ -280,8 +327,8 @@ public class ResultsUpload {
 					String[] b = line.split(" ");
 
 					if (b.length == 2) {
-						battlesnum.println(game + "," + bot1 + "," + b[0]);
-						battlesnum.println(game + "," + bot2 + "," + b[1]);
+						battlesnum.println(upload.game + "," + bot1 + "," + b[0]);
+						battlesnum.println(upload.game + "," + bot2 + "," + b[1]);
 					}
 				} else if (line.indexOf("[") != -1 && line.indexOf("]") != -1) {
 					line = line.substring(1);
@@ -312,16 +359,170 @@ public class ResultsUpload {
 				errorsfound = true;
 			}
 			saveError(outtxt, results.get(i * 3), results.get(i * 3 + 1), results.get(i * 3 + 2), saveonerror);
-		} finally {
-			if (wr != null) {
-				wr.close();
+		}
+		return errorsfound;
+	}
+
+	/**
+	 * Posts data to the results URL, and retries with an increasing delay when the server cannot be reached or fails.
+	 * A post is never retried once the data has been sent, as the server might have taken the results already.
+	 *
+	 * @param data the line to post
+	 * @return the lines of the response
+	 * @throws IOException if the data could not be posted
+	 */
+	private List<String> post(String data) throws IOException {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return postOnce(data);
+			} catch (RetryableIOException e) {
+				if (attempt >= MAX_ATTEMPTS) {
+					throw e;
+				}
+				System.out.println(e.getMessage() + " ... retrying");
+			}
+			try {
+				Thread.sleep(RETRY_DELAY << (attempt - 1));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+
+	private List<String> postOnce(String data) throws IOException {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		final PrintWriter wr = new PrintWriter(new OutputStreamWriter(body));
+
+		wr.println(data);
+		wr.close();
+
+		BufferedReader bufferedReader = null;
+
+		try {
+			URLConnection conn = FileTransfer.openOutputURLConnection(new URL(resultsurl));
+
+			if (conn instanceof HttpURLConnection) {
+				// Otherwise HttpURLConnection posts the data again by itself, if the connection is closed before the
+				// response
+				((HttpURLConnection) conn).setFixedLengthStreamingMode(body.size());
+			}
+			try {
+				conn.connect();
+			} catch (IOException e) {
+				throw new RetryableIOException(e.toString(), e);
+			}
+
+			// Send data
+			final OutputStream out = FileTransfer.getOutputStream(conn);
+
+			try {
+				body.writeTo(out);
+			} finally {
+				out.close();
+			}
+
+			// Get the response, which is read to the end so the connection can be kept alive and used again
+			InputStream in;
+
+			if (conn instanceof HttpURLConnection && ((HttpURLConnection) conn).getResponseCode() >= 400) {
+				final HttpURLConnection httpConn = (HttpURLConnection) conn;
+				final int responseCode = httpConn.getResponseCode();
+
+				in = httpConn.getErrorStream();
+				if (responseCode >= 500) {
+					if (in != null) {
+						in.close();
+					}
+					throw new RetryableIOException("Server returned HTTP response code: " + responseCode, null);
+				}
+			} else {
+				in = FileTransfer.getInputStream(conn);
+			}
+
+			List<String> response = new ArrayList<String>();
+
+			if (in != null) {
+				bufferedReader = new BufferedReader(new InputStreamReader(in));
+				for (String line; (line = bufferedReader.readLine()) != null; ) {
+					response.add(line);
+				}
 			}
+			return response;
+		} finally {
 			if (bufferedReader != null) {
 				try {
 					bufferedReader.close();
 				} catch (IOException ignored) {}
 			}
 		}
-		return errorsfound;
+	}
+
+	/**
+	 * A failure of a post where the server has certainly not taken the data, so the data can be posted again.
+	 */
+	private static final class RetryableIOException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		RetryableIOException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
+	/**
+	 * The upload of a result to a competition.
+	 */
+	private static final class Upload {
+		final String game;
+		final String data;
+		Future<?> future;
+		List<String> response;
+		IOException exception;
+
+		Upload(String game, String data) {
+			this.game = game;
+			this.data = data;
+		}
+
+		List<String> getResponse() throws IOException {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				throw new IOException(e.getCause());
+			}
+			if (exception != null) {
+				throw exception;
+			}
+			return response;
+		}
+	}
+
+	/**
+	 * Uploads that are posted one after another by the same upload thread, where each upload is posted in a request of
+	 * its own, and gets the response to that request.
+	 */
+	private final class Batch {
+		final List<Upload> uploads = new ArrayList<Upload>();
+
+		void submit(ExecutorService executor) {
+			final Future<?> future = executor.submit(new Runnable() {
+				public void run() {
+					for (Upload upload : uploads) {
+						try {
+							upload.response = post(upload.data);
+						} catch (IOException e) {
+							upload.exception = e;
+						}
+					}
+				}
+			});
+
+			for (Upload upload : uploads) {
+				upload.future = future;
+			}
+		}
 	}
 }
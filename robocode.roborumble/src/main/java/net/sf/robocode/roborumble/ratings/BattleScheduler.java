@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.ratings;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+
+/**
+ * Chooses the battles that make the {@link LocalRatings} converge the fastest, instead of choosing them at random.
+ * <p>
+ * The APS of a robot is the average of its pairings, so its variance is the sum of the variances of the pairing scores
+ * divided by the square of the number of pairings. A battle between two robots reduces the variance of their pairing
+ * score, which is estimated from the spread of the scores of the pair, and thereby the variances of the APS of both
+ * robots. The battles are chosen by how much they reduce these variances per second of battle time, where the battle
+ * time of each robot is measured by the battles runner. Pairs that have not fought yet, and robots with few pairings,
+ * are therefore chosen first, and pairs whose outcome is already well known are left alone.
+ * <p>
+ * Every chosen battle counts as fought when the next battles are chosen, so the same pair is only chosen again when it
+ * is still the best choice.
+ *
+ * @since 1.9.5.3
+ */
+public final class BattleScheduler {
+
+	// The spread of the scores of a pair that has not fought, as the variance of the percentage score
+	private static final double PRIOR_VARIANCE = 20 * 20;
+
+	// The number of battles the prior variance counts as
+	private static final double PRIOR_BATTLES = 1;
+
+	private static final double DEFAULT_BATTLE_SECONDS = 1;
+
+	private final String[] names;
+	private final int count;
+
+	// The weight of the pairings of each robot in the variance of its APS, which is 1 / pairings^2
+	private final double[] weights;
+	private final double[] battleSeconds;
+
+	// The battles and score variance of each pair, indexed by pairIndex()
+	private final int[] pairBattles;
+	private final float[] pairVariances;
+
+	/**
+	 * Creates a scheduler for battles between robots.
+	 *
+	 * @param ratings the ratings of the competition
+	 * @param names the names and versions of the robots that can fight
+	 */
+	public BattleScheduler(LocalRatings ratings, List<String> names) {
+		this.names = names.toArray(new String[names.size()]);
+		count = this.names.length;
+
+		weights = new double[count];
+		battleSeconds = new double[count];
+		pairBattles = new int[count * (count - 1) / 2];
+		pairVariances = new float[pairBattles.length];
+
+		synchronized (ratings) {
+			final LocalRatings.Bot[] bots = new LocalRatings.Bot[count];
+
+			long totalMillis = 0;
+			int totalBattles = 0;
+
+			for (int i = 0; i < count; i++) {
+				bots[i] = ratings.getBot(this.names[i]);
+
+				final int pairings = (bots[i] != null) ? bots[i].pairings : 0;
+
+				weights[i] = 1.0 / Math.max(1, pairings * pairings);
+				if (bots[i] != null && bots[i].timedBattles > 0) {
+					battleSeconds[i] = bots[i].timeSum / (1000.0 * bots[i].timedBattles);
+					totalMillis += bots[i].timeSum;
+					totalBattles += bots[i].timedBattles;
+				}
+			}
+			// Robots that have not been timed are taken to be as fast as the average robot
+			final double averageSeconds = (totalBattles > 0)
+					? totalMillis / (1000.0 * totalBattles)
+					: DEFAULT_BATTLE_SECONDS;
+
+			for (int i = 0; i < count; i++) {
+				if (battleSeconds[i] <= 0) {
+					battleSeconds[i] = averageSeconds;
+				}
+			}
+
+			for (int j = 1; j < count; j++) {
+				for (int i = 0; i < j; i++) {
+					final int index = pairIndex(i, j);
+					final LocalRatings.Pair pair = (bots[i] != null && bots[j] != null)
+							? ratings.getPair(bots[i], bots[j])
+							: null;
+
+					if (pair == null || pair.battles == 0) {
+						pairVariances[index] = (float) PRIOR_VARIANCE;
+					} else {
+						final int n = pair.battles;
+						final double mean = pair.shareSum / n;
+						final double variance = Math.max(0, pair.shareSquareSum / n - mean * mean);
+
+						pairBattles[index] = n;
+						pairVariances[index] = (float) ((PRIOR_BATTLES * PRIOR_VARIANCE + n * variance)
+								/ (PRIOR_BATTLES + n));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Chooses battles between two robots.
+	 *
+	 * @param battles the number of battles to choose
+	 * @return the robots of each battle, with the most useful battles first
+	 */
+	public List<String[]> scheduleBattles(int battles) {
+		final List<String[]> schedule = new ArrayList<String[]>();
+
+		if (count < 2) {
+			return schedule;
+		}
+		final PriorityQueue<Candidate> candidates = getBestPairs(battles);
+
+		while (schedule.size() < battles && !candidates.isEmpty()) {
+			final Candidate best = candidates.poll();
+
+			schedule.add(new String[] { names[best.bot1], names[best.bot2] });
+
+			pairBattles[pairIndex(best.bot1, best.bot2)]++;
+			candidates.add(new Candidate(best.bot1, best.bot2, getScore(best.bot1, best.bot2)));
+		}
+		return schedule;
+	}
+
+	/**
+	 * Chooses melee battles, which are started from the most useful pair, and filled up with the robots that are most
+	 * useful against the robots chosen so far.
+	 *
+	 * @param battles the number of battles to choose
+	 * @param botsPerBattle the number of robots in each battle
+	 * @return the robots of each battle, with the most useful battles first
+	 */
+	public List<String[]> scheduleMeleeBattles(int battles, int botsPerBattle) {
+		final List<String[]> schedule = new ArrayList<String[]>();
+
+		if (count < botsPerBattle || botsPerBattle < 2) {
+			return schedule;
+		}
+		final PriorityQueue<Candidate> candidates = getBestPairs(battles);
+
+		while (schedule.size() < battles && !candidates.isEmpty()) {
+			final Candidate seed = candidates.poll();
+			final double score = getScore(seed.bot1, seed.bot2);
+
+			// The scores of the pairs in the chosen battles have gone down since they were queued
+			if (score < seed.score) {
+				candidates.add(new Candidate(seed.bot1, seed.bot2, score));
+				continue;
+			}
+			final int[] bots = new int[botsPerBattle];
+
+			bots[0] = seed.bot1;
+			bots[1] = seed.bot2;
+
+			for (int size = 2; size < botsPerBattle; size++) {
+				int bestBot = -1;
+				double bestScore = -1;
+
+				for (int bot = 0; bot < count; bot++) {
+					double botScore = 0;
+
+					for (int i = 0; i < size && botScore >= 0; i++) {
+						botScore = (bots[i] == bot) ? -1 : botScore + getScore(bot, bots[i]);
+					}
+					if (botScore > bestScore) {
+						bestScore = botScore;
+						bestBot = bot;
+					}
+				}
+				bots[size] = bestBot;
+			}
+
+			final String[] battle = new String[botsPerBattle];
+
+			for (int i = 0; i < botsPerBattle; i++) {
+				battle[i] = names[bots[i]];
+				for (int j = 0; j < i; j++) {
+					pairBattles[pairIndex(bots[i], bots[j])]++;
+				}
+			}
+			schedule.add(battle);
+
+			candidates.add(new Candidate(seed.bot1, seed.bot2, getScore(seed.bot1, seed.bot2)));
+		}
+		return schedule;
+	}
+
+	/**
+	 * Groups battles into batches of battles that have no robots in common, so the battles of a batch can be fought at
+	 * the same time. The battles keep their order as far as possible.
+	 *
+	 * @param battles the robots of each battle
+	 * @param batchSize the maximum number of battles in a batch
+	 * @return the batches
+	 */
+	public static List<List<String[]>> toBatches(List<String[]> battles, int batchSize) {
+		final List<List<String[]>> batches = new ArrayList<List<String[]>>();
+		final LinkedList<String[]> remaining = new LinkedList<String[]>(battles);
+
+		while (!remaining.isEmpty()) {
+			final List<String[]> batch = new ArrayList<String[]>();
+			final Set<String> batchBots = new HashSet<String>();
+
+			for (Iterator<String[]> it = remaining.iterator(); it.hasNext() && batch.size() < batchSize; ) {
+				final String[] battle = it.next();
+				boolean isFree = true;
+
+				for (String bot : battle) {
+					isFree &= !batchBots.contains(bot);
+				}
+				// The first remaining battle always fits, so every batch gets at least one battle
+				if (isFree) {
+					Collections.addAll(batchBots, battle);
+					batch.add(battle);
+					it.remove();
+				}
+			}
+			batches.add(batch);
+		}
+		return batches;
+	}
+
+	/**
+	 * Returns the reduction of the variances of the APS of two robots by one more battle between them, per second of
+	 * battle time.
+	 */
+	double getScore(int bot1, int bot2) {
+		final int index = pairIndex(bot1, bot2);
+		final double battles = pairBattles[index] + PRIOR_BATTLES;
+		final double reduction = pairVariances[index] / (battles * (battles + 1));
+		final double seconds = (battleSeconds[bot1] + battleSeconds[bot2]) / 2;
+
+		return (weights[bot1] + weights[bot2]) * reduction / seconds;
+	}
+
+	/**
+	 * Returns the pairs with the highest scores, as many as there are battles to choose, with the best pair first.
+	 * A pair that is chosen is queued again with its lower score, which can not be lower than the pairs that were left
+	 * out before all queued pairs have been chosen.
+	 */
+	private PriorityQueue<Candidate> getBestPairs(int battles) {
+		final int size = Math.max(1, Math.min(battles, pairBattles.length));
+
+		// The worst of the best pairs found so far is at the head
+		final PriorityQueue<Candidate> best = new PriorityQueue<Candidate>(size, Collections.reverseOrder());
+
+		for (int j = 1; j < count; j++) {
+			for (int i = 0; i < j; i++) {
+				final double score = getScore(i, j);
+
+				if (best.size() < size) {
+					best.add(new Candidate(i, j, score));
+				} else if (score > best.peek().score) {
+					best.poll();
+					best.add(new Candidate(i, j, score));
+				}
+			}
+		}
+		final PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>(size);
+
+		queue.addAll(best);
+		return queue;
+	}
+
+	private static int pairIndex(int bot1, int bot2) {
+		return (bot1 < bot2) ? bot2 * (bot2 - 1) / 2 + bot1 : bot1 * (bot1 - 1) / 2 + bot2;
+	}
+
+	/**
+	 * A pair of robots with its score, where the best pair comes first.
+	 */
+	private static final class Candidate implements Comparable<Candidate> {
+		final int bot1;
+		final int bot2;
+		final double score;
+
+		Candidate(int bot1, int bot2, double score) {
+			this.bot1 = bot1;
+			this.bot2 = bot2;
+			this.score = score;
+		}
+
+		public int compareTo(Candidate other) {
+			return Double.compare(other.score, score);
+		}
+	}
+}
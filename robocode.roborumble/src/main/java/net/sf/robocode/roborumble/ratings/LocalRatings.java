@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.ratings;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Ratings of a competition that are kept by the client itself, from the results of the battles it has fought, so a
+ * rumble can run without a ratings server.
+ * <p>
+ * The ratings are updated with each result as it is added. For each pair of robots the average percentage score is
+ * kept, from which the APS (average percentage score against all opponents) and PWIN (percentage of opponents beaten)
+ * of the robots follow, and each robot has a Glicko rating that is updated with every battle.
+ * <p>
+ * The ratings are stored in a compact binary file. The ratings of a file are shared within the process, so the battles
+ * runner adding the results and the battle preparation reading the ratings use the same instance.
+ *
+ * @since 1.9.5.3
+ */
+public final class LocalRatings {
+
+	private static final int MAGIC = 0x52524154; // "RRAT"
+	private static final int FORMAT_VERSION = 1;
+
+	// Glicko constants
+	private static final double INITIAL_RATING = 1600;
+	private static final double INITIAL_DEVIATION = 350;
+	private static final double MIN_DEVIATION = 30; // keeps the ratings moving when robots are changed
+	private static final double Q = Math.log(10) / 400;
+
+	private static final Map<File, LocalRatings> openRatings = new HashMap<File, LocalRatings>();
+
+	private final File file;
+
+	private final List<Bot> bots = new ArrayList<Bot>();
+	private final Map<String, Bot> botsByName = new HashMap<String, Bot>();
+	private final Map<Long, Pair> pairs = new HashMap<Long, Pair>();
+
+	private boolean isChanged;
+
+	private LocalRatings(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Returns the ratings stored in a file, which are read the first time the file is opened in this process.
+	 *
+	 * @param filename the file with the ratings, which does not need to exist
+	 * @return the ratings
+	 * @throws IOException if the file cannot be read
+	 */
+	public static LocalRatings open(String filename) throws IOException {
+		final File file = new File(filename).getCanonicalFile();
+
+		synchronized (openRatings) {
+			LocalRatings ratings = openRatings.get(file);
+
+			if (ratings == null) {
+				ratings = load(file);
+				openRatings.put(file, ratings);
+			}
+			return ratings;
+		}
+	}
+
+	/**
+	 * Reads the ratings of a file, without sharing them.
+	 */
+	static LocalRatings load(File file) throws IOException {
+		final LocalRatings ratings = new LocalRatings(file);
+
+		if (file.exists()) {
+			ratings.read();
+		}
+		return ratings;
+	}
+
+	/**
+	 * Adds the result of a battle between two robots.
+	 *
+	 * @param name1 the name and version of the first robot
+	 * @param score1 the score of the first robot
+	 * @param name2 the name and version of the second robot
+	 * @param score2 the score of the second robot
+	 */
+	public synchronized void addResult(String name1, int score1, String name2, int score2) {
+		if (name1.equals(name2) || score1 < 0 || score2 < 0) {
+			return;
+		}
+		final Bot bot1 = getOrCreateBot(name1);
+		final Bot bot2 = getOrCreateBot(name2);
+
+		// A battle without score is a draw
+		final double share1 = (score1 + score2 == 0) ? 50 : 100.0 * score1 / (score1 + score2);
+
+		final Pair pair = getOrCreatePair(bot1, bot2);
+
+		if (pair.battles > 0) {
+			removePairing(pair);
+		}
+		pair.battles++;
+		final double pairShare = (pair.bot1 == bot1) ? share1 : 100 - share1;
+
+		pair.shareSum += pairShare;
+		pair.shareSquareSum += pairShare * pairShare;
+		addPairing(pair);
+
+		bot1.battles++;
+		bot2.battles++;
+
+		updateGlicko(bot1, bot2, share1 / 100);
+
+		isChanged = true;
+	}
+
+	/**
+	 * Adds the time it took to fight a battle, which is used for estimating how long the battles of the robots take.
+	 * Robots without results are ignored.
+	 *
+	 * @param names the names and versions of the robots in the battle
+	 * @param millis the time the battle took in milliseconds
+	 */
+	public synchronized void addBattleTime(String[] names, long millis) {
+		for (String name : names) {
+			final Bot bot = botsByName.get(name);
+
+			if (bot != null) {
+				bot.timedBattles++;
+				bot.timeSum += millis;
+				isChanged = true;
+			}
+		}
+	}
+
+	/**
+	 * Returns the rating of a robot.
+	 *
+	 * @param name the name and version of the robot
+	 * @return the rating, or null if the robot has not fought any battles
+	 */
+	public synchronized Rating getRating(String name) {
+		final Bot bot = botsByName.get(name);
+
+		return bot != null ? bot.toRating() : null;
+	}
+
+	/**
+	 * Returns the ratings of all robots, with the highest APS first.
+	 */
+	public synchronized List<Rating> getRatings() {
+		final List<Rating> ratings = new ArrayList<Rating>(bots.size());
+
+		for (Bot bot : bots) {
+			ratings.add(bot.toRating());
+		}
+		Collections.sort(ratings, new Comparator<Rating>() {
+			public int compare(Rating r1, Rating r2) {
+				return Double.compare(r2.getAPS(), r1.getAPS());
+			}
+		});
+		return ratings;
+	}
+
+	/**
+	 * Returns the average percentage score of a robot against another robot.
+	 *
+	 * @param name the name and version of the robot
+	 * @param opponent the name and version of the opponent
+	 * @return the average percentage score, or NaN if the robots have not fought each other
+	 */
+	public synchronized double getPairingScore(String name, String opponent) {
+		final Bot bot = botsByName.get(name);
+		final Bot other = botsByName.get(opponent);
+
+		if (bot == null || other == null) {
+			return Double.NaN;
+		}
+		final Pair pair = pairs.get(pairKey(bot, other));
+
+		return (pair == null) ? Double.NaN : pair.getScore(bot);
+	}
+
+	/**
+	 * Writes the ratings to their file if results have been added since they were read or last saved.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void save() throws IOException {
+		if (!isChanged) {
+			return;
+		}
+		final File dir = file.getParentFile();
+
+		if (dir != null && !dir.exists() && !dir.mkdirs()) {
+			throw new IOException("Can't create directory: " + dir);
+		}
+		final File tempFile = new File(file.getPath() + ".tmp");
+
+		DataOutputStream out = null;
+
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			write(out);
+		} finally {
+			if (out != null) {
+				out.close();
+			}
+		}
+		// The ratings are replaced as a whole, so a crash while saving does not lose them
+		try {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		isChanged = false;
+	}
+
+	private void write(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+
+		out.writeInt(bots.size());
+		for (Bot bot : bots) {
+			out.writeUTF(bot.name);
+			out.writeInt(bot.battles);
+			out.writeDouble(bot.rating);
+			out.writeDouble(bot.deviation);
+			out.writeInt(bot.timedBattles);
+			out.writeLong(bot.timeSum);
+		}
+		out.writeInt(pairs.size());
+		for (Pair pair : pairs.values()) {
+			out.writeInt(pair.bot1.index);
+			out.writeInt(pair.bot2.index);
+			out.writeInt(pair.battles);
+			out.writeDouble(pair.shareSum);
+			out.writeDouble(pair.shareSquareSum);
+		}
+	}
+
+	private void read() throws IOException {
+		DataInputStream in = null;
+
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a local ratings file: " + file);
+			}
+			final int version = in.readInt();
+
+			if (version != FORMAT_VERSION) {
+				throw new IOException("Unsupported local ratings file version " + version + ": " + file);
+			}
+			final int botCount = in.readInt();
+
+			for (int i = 0; i < botCount; i++) {
+				final Bot bot = getOrCreateBot(in.readUTF());
+
+				bot.battles = in.readInt();
+				bot.rating = in.readDouble();
+				bot.deviation = in.readDouble();
+				bot.timedBattles = in.readInt();
+				bot.timeSum = in.readLong();
+			}
+			final int pairCount = in.readInt();
+
+			for (int i = 0; i < pairCount; i++) {
+				final Pair pair = getOrCreatePair(bots.get(in.readInt()), bots.get(in.readInt()));
+
+				pair.battles = in.readInt();
+				pair.shareSum = in.readDouble();
+				pair.shareSquareSum = in.readDouble();
+				addPairing(pair);
+			}
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Corrupted local ratings file: " + file);
+		} finally {
+			if (in != null) {
+				in.close();
+			}
+		}
+	}
+
+	// Used by the battle scheduler while it holds the lock of the ratings
+
+	Bot getBot(String name) {
+		return botsByName.get(name);
+	}
+
+	Pair getPair(Bot bot1, Bot bot2) {
+		return pairs.get(pairKey(bot1, bot2));
+	}
+
+	List<Bot> getBots() {
+		return bots;
+	}
+
+	private Bot getOrCreateBot(String name) {
+		Bot bot = botsByName.get(name);
+
+		if (bot == null) {
+			bot = new Bot(name, bots.size());
+			bots.add(bot);
+			botsByName.put(name, bot);
+		}
+		return bot;
+	}
+
+	private Pair getOrCreatePair(Bot bot1, Bot bot2) {
+		final Long key = pairKey(bot1, bot2);
+		Pair pair = pairs.get(key);
+
+		if (pair == null) {
+			pair = (bot1.index < bot2.index) ? new Pair(bot1, bot2) : new Pair(bot2, bot1);
+			pairs.put(key, pair);
+		}
+		return pair;
+	}
+
+	private static Long pairKey(Bot bot1, Bot bot2) {
+		final long low = Math.min(bot1.index, bot2.index);
+		final long high = Math.max(bot1.index, bot2.index);
+
+		return (high << 32) | low;
+	}
+
+	private static void addPairing(Pair pair) {
+		final double score1 = pair.getScore(pair.bot1);
+
+		pair.bot1.addPairing(score1, 1);
+		pair.bot2.addPairing(100 - score1, 1);
+	}
+
+	private static void removePairing(Pair pair) {
+		final double score1 = pair.getScore(pair.bot1);
+
+		pair.bot1.addPairing(score1, -1);
+		pair.bot2.addPairing(100 - score1, -1);
+	}
+
+	/**
+	 * Updates the Glicko ratings of two robots with the outcome of a battle, where both robots are rated against the
+	 * ratings they had before the battle.
+	 */
+	private static void updateGlicko(Bot bot1, Bot bot2, double outcome1) {
+		final double rating1 = bot1.rating;
+		final double deviation1 = bot1.deviation;
+
+		updateGlicko(bot1, bot2.rating, bot2.deviation, outcome1);
+		updateGlicko(bot2, rating1, deviation1, 1 - outcome1);
+	}
+
+	private static void updateGlicko(Bot bot, double opponentRating, double opponentDeviation, double outcome) {
+		final double g = 1 / Math.sqrt(1 + 3 * Q * Q * opponentDeviation * opponentDeviation / (Math.PI * Math.PI));
+		final double expected = 1 / (1 + Math.pow(10, -g * (bot.rating - opponentRating) / 400));
+		final double dSquaredInverse = Q * Q * g * g * expected * (1 - expected);
+		final double precision = 1 / (bot.deviation * bot.deviation) + dSquaredInverse;
+
+		bot.rating += Q / precision * g * (outcome - expected);
+		bot.deviation = Math.max(MIN_DEVIATION, Math.sqrt(1 / precision));
+	}
+
+	/**
+	 * The rating of a robot, as it was when it was returned.
+	 */
+	public static final class Rating {
+		private final String name;
+		private final int battles;
+		private final int pairings;
+		private final double aps;
+		private final double pwin;
+		private final double glicko;
+		private final double deviation;
+
+		Rating(String name, int battles, int pairings, double aps, double pwin, double glicko, double deviation) {
+			this.name = name;
+			this.battles = battles;
+			this.pairings = pairings;
+			this.aps = aps;
+			this.pwin = pwin;
+			this.glicko = glicko;
+			this.deviation = deviation;
+		}
+
+		/**
+		 * Returns the name and version of the robot.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Returns the number of battles the robot has fought.
+		 */
+		public int getBattles() {
+			return battles;
+		}
+
+		/**
+		 * Returns the number of opponents the robot has fought.
+		 */
+		public int getPairings() {
+			return pairings;
+		}
+
+		/**
+		 * Returns the average percentage score of the robot against its opponents, from 0 to 100.
+		 */
+		public double getAPS() {
+			return aps;
+		}
+
+		/**
+		 * Returns the percentage of opponents the robot has beaten, where a draw counts as half, from 0 to 100.
+		 */
+		public double getPWIN() {
+			return pwin;
+		}
+
+		/**
+		 * Returns the Glicko rating of the robot.
+		 */
+		public double getGlicko() {
+			return glicko;
+		}
+
+		/**
+		 * Returns the rating deviation of the Glicko rating.
+		 */
+		public double getDeviation() {
+			return deviation;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: APS %.2f, PWIN %.2f, Glicko %.1f (RD %.1f), %d battles, %d pairings", name, aps,
+					pwin, glicko, deviation, battles, pairings);
+		}
+	}
+
+	static final class Bot {
+		final String name;
+		final int index;
+
+		int battles;
+		double rating = INITIAL_RATING;
+		double deviation = INITIAL_DEVIATION;
+
+		// Sums over the pairings, kept up to date as the pairings change
+		int pairings;
+		double scoreSum;
+		double winSum;
+
+		int timedBattles;
+		long timeSum; // milliseconds
+
+		Bot(String name, int index) {
+			this.name = name;
+			this.index = index;
+		}
+
+		/**
+		 * Adds (sign 1) or removes (sign -1) the average percentage score against an opponent.
+		 */
+		void addPairing(double score, int sign) {
+			final double win = score > 50 ? 1 : (score == 50 ? 0.5 : 0);
+
+			pairings += sign;
+			scoreSum += sign * score;
+			winSum += sign * win;
+		}
+
+		Rating toRating() {
+			final double aps = pairings > 0 ? scoreSum / pairings : 0;
+			final double pwin = pairings > 0 ? 100 * winSum / pairings : 0;
+
+			return new Rating(name, battles, pairings, aps, pwin, rating, deviation);
+		}
+	}
+
+	static final class Pair {
+		final Bot bot1;
+		final Bot bot2;
+
+		int battles;
+		double shareSum; // the sum of the percentage scores of bot1
+		double shareSquareSum; // the sum of the squares of the percentage scores of bot1
+
+		Pair(Bot bot1, Bot bot2) {
+			this.bot1 = bot1;
+			this.bot2 = bot2;
+		}
+
+		double getScore(Bot bot) {
+			final double score1 = shareSum / battles;
+
+			return (bot == bot1) ? score1 : 100 - score1;
+		}
+	}
+}
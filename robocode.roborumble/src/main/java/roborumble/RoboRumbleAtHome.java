@@ -131,7 +131,9 @@ public class RoboRumbleAtHome {
                     System.out.println("Preparing melee battles list ...");
                     ready = battles.createMeleeBattlesList();
                 } else {
-                    final boolean isSmartBattles = ratingsdownloaded && runonly.equals("SERVER");
+                    final boolean hasRatings = ratingsdownloaded
+                            || properties.getProperty("LOCALRATINGS", "").length() != 0;
+                    final boolean isSmartBattles = hasRatings && runonly.equals("SERVER");
 
                     if (isSmartBattles) {
                         System.out.println("Preparing battles list using smart battles...");
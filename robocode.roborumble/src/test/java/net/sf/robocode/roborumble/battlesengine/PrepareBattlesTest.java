@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.battlesengine;
+
+
+import net.sf.robocode.roborumble.ratings.LocalRatings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Tests that the {@link PrepareBattles} leaves battles for new robots and robots with priority when local ratings
+ * are kept.
+ */
+public class PrepareBattlesTest {
+
+	private static final String[] BOTS = { "sample.Crazy 1.0", "sample.Fire 1.0", "sample.Walls 1.0",
+		"sample.SpinBot 1.0" };
+	private static final String NEW_BOT = "sample.Tracker 1.0";
+
+	private File tempDir;
+	private File battlesFile;
+	private File propertiesFile;
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("preparebattles").toFile();
+		battlesFile = new File(tempDir, "meleebattles.txt");
+
+		final List<String> participants = new ArrayList<String>();
+		final List<String> sizes = new ArrayList<String>();
+
+		for (String bot : concat(BOTS, NEW_BOT)) {
+			final String name = bot.replace(' ', '_');
+
+			participants.add(bot + "," + name);
+			sizes.add(name + "=1000");
+			Assert.assertTrue(new File(tempDir, name + ".jar").createNewFile());
+		}
+		write("participants.txt", participants);
+		write("codesize.txt", sizes);
+		write("general.txt", new ArrayList<String>());
+
+		// The first robot has priority in the minibots competition
+		write("mini.txt", Arrays.asList(BOTS[0].replace(' ', '_') + "=1600,0,0"));
+
+		// Every robot except the new one has local ratings, with more battles than needed for priority
+		final LocalRatings ratings = LocalRatings.open(new File(tempDir, "localratings.txt").getPath());
+
+		for (int i = 0; i < BOTS.length; i++) {
+			for (int j = i + 1; j < BOTS.length; j++) {
+				ratings.addResult(BOTS[i], 100 * (i + 1), BOTS[j], 100 * (j + 1));
+			}
+		}
+
+		final String dir = tempDir.getPath() + File.separator;
+
+		write("meleerumble.txt", Arrays.asList(
+				"BOTSREP=" + dir, "PARTICIPANTSFILE=" + dir + "participants.txt", "INPUT=" + battlesFile.getPath(),
+				"NUMBATTLES=10", "CODESIZEFILE=" + dir + "codesize.txt", "BATTLESPERBOT=1", "MELEEBOTS=2",
+				"RATINGS.GENERAL=" + dir + "general.txt", "RATINGS.MINIBOTS=" + dir + "mini.txt",
+				"RATINGS.MICROBOTS=" + dir + "general.txt", "RATINGS.NANOBOTS=" + dir + "general.txt",
+				"PRIORITYBATTLESFILE=" + dir + "priority.txt", "LOCALRATINGS=" + dir + "localratings.txt"));
+		propertiesFile = new File(tempDir, "meleerumble.txt");
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = tempDir.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		tempDir.delete();
+	}
+
+	@Test
+	public void leavesMeleeBattlesForNewAndPrioritizedRobots() throws IOException {
+		Assert.assertTrue(new PrepareBattles(propertiesFile.getPath()).createMeleeBattlesList());
+
+		final List<String> battles = Files.readAllLines(battlesFile.toPath(), StandardCharsets.ISO_8859_1);
+		int newBotBattles = 0;
+		int prioritizedBattles = 0;
+
+		for (String battle : battles) {
+			if (battle.contains(NEW_BOT)) {
+				newBotBattles++;
+			}
+			if (battle.endsWith(":true")) {
+				prioritizedBattles++;
+			}
+		}
+		Assert.assertEquals(10, battles.size());
+		Assert.assertTrue(newBotBattles >= 1);
+
+		// One battle is kept for the new robot, and half of the other ones for the robot with priority
+		Assert.assertEquals(5, prioritizedBattles);
+	}
+
+	@Test
+	public void leavesAllBattlesToSchedulerWithoutPriority() {
+		Assert.assertEquals(10, PrepareBattles.getScheduledBattles(10, 0, false));
+		Assert.assertEquals(8, PrepareBattles.getScheduledBattles(10, 2, false));
+		Assert.assertEquals(4, PrepareBattles.getScheduledBattles(10, 2, true));
+		Assert.assertEquals(0, PrepareBattles.getScheduledBattles(1, 2, true));
+	}
+
+	private void write(String filename, List<String> lines) throws IOException {
+		Files.write(new File(tempDir, filename).toPath(), lines, StandardCharsets.ISO_8859_1);
+	}
+
+	private static List<String> concat(String[] bots, String bot) {
+		final List<String> all = new ArrayList<String>(Arrays.asList(bots));
+
+		all.add(bot);
+		return all;
+	}
+}
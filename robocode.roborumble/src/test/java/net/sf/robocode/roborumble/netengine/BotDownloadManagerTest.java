@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.netengine;
+
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+
+/**
+ * Tests the {@link BotDownloadManager} against a local HTTP server standing in for the robot download sites.
+ */
+public class BotDownloadManagerTest {
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private File tempDir;
+	private File repositoryDir;
+
+	private final List<String> requestedRanges = Collections.synchronizedList(new ArrayList<String>());
+
+	private final AtomicInteger activeTransfers = new AtomicInteger();
+	private final AtomicInteger maxActiveTransfers = new AtomicInteger();
+
+	private byte[] jar;
+
+	@Before
+	public void setUp() throws IOException {
+		jar = createJar(new Random(42));
+
+		tempDir = Files.createTempDirectory("download-temp").toFile();
+		repositoryDir = Files.createTempDirectory("download-robots").toFile();
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+
+		server.createContext("/bot.jar", new FileHandler(jar, false, 0));
+		server.createContext("/broken.jar", new FileHandler(jar, true, 0));
+		server.createContext("/slow.jar", new FileHandler(jar, false, 200));
+		server.createContext("/stalled.jar", new FileHandler(jar, false, 5000));
+		server.createContext("/garbage.jar", new FileHandler(Arrays.copyOf(jar, jar.length / 2), false, 0));
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		serverExecutor.shutdownNow();
+		deleteDir(tempDir);
+		deleteDir(repositoryDir);
+	}
+
+	@Test
+	public void downloadsIntoRepository() throws IOException {
+		final File destination = new File(repositoryDir, "bot.jar");
+
+		Assert.assertEquals(BotDownloadManager.Status.OK, downloadNow(url("/bot.jar"), destination, null));
+		Assert.assertArrayEquals(jar, Files.readAllBytes(destination.toPath()));
+		Assert.assertEquals(0, tempDir.list().length);
+	}
+
+	@Test
+	public void resumesBrokenTransfer() throws IOException {
+		final File destination = new File(repositoryDir, "broken.jar");
+
+		Assert.assertEquals(BotDownloadManager.Status.OK, downloadNow(url("/broken.jar"), destination, null));
+		Assert.assertArrayEquals(jar, Files.readAllBytes(destination.toPath()));
+
+		// The first request gets half of the file, and the second one asks for the rest
+		Assert.assertEquals(Arrays.asList(null, "bytes=" + jar.length / 2 + "-"), requestedRanges);
+	}
+
+	@Test
+	public void resumesPartFileOfEarlierRun() throws IOException {
+		final File destination = new File(repositoryDir, "bot.jar");
+
+		Files.write(new File(tempDir, "bot.jar.part").toPath(), Arrays.copyOf(jar, 1000));
+
+		Assert.assertEquals(BotDownloadManager.Status.OK, downloadNow(url("/bot.jar"), destination, null));
+		Assert.assertArrayEquals(jar, Files.readAllBytes(destination.toPath()));
+		Assert.assertEquals(Collections.singletonList("bytes=1000-"), requestedRanges);
+	}
+
+	@Test
+	public void downloadsAgainWhenResumedFileIsCorrupted() throws IOException {
+		final File destination = new File(repositoryDir, "bot.jar");
+
+		// A part file left by an earlier version of the file
+		final byte[] stale = Arrays.copyOf(jar, 1000);
+
+		Arrays.fill(stale, 500, 1000, (byte) 0);
+		Files.write(new File(tempDir, "bot.jar.part").toPath(), stale);
+
+		Assert.assertEquals(BotDownloadManager.Status.OK, downloadNow(url("/bot.jar"), destination, null));
+		Assert.assertArrayEquals(jar, Files.readAllBytes(destination.toPath()));
+		Assert.assertEquals(Arrays.asList("bytes=1000-", null), requestedRanges);
+	}
+
+	@Test
+	public void rejectsCorruptedJar() {
+		final File destination = new File(repositoryDir, "garbage.jar");
+
+		Assert.assertEquals(BotDownloadManager.Status.INVALID, downloadNow(url("/garbage.jar"), destination, null));
+		Assert.assertFalse(destination.exists());
+		Assert.assertEquals(0, tempDir.list().length);
+	}
+
+	@Test
+	public void verifiesChecksum() throws Exception {
+		final File destination = new File(repositoryDir, "bot.jar");
+
+		Assert.assertEquals(BotDownloadManager.Status.INVALID,
+				downloadNow(url("/bot.jar") + "#sha256=" + sha256(new byte[0]), destination, null));
+		Assert.assertFalse(destination.exists());
+
+		Assert.assertEquals(BotDownloadManager.Status.OK,
+				downloadNow(url("/bot.jar") + "#sha256=" + sha256(jar), destination, null));
+		Assert.assertTrue(destination.exists());
+	}
+
+	@Test
+	public void rejectedByVerifier() {
+		final File destination = new File(repositoryDir, "bot.jar");
+
+		final BotDownloadManager.Verifier verifier = new BotDownloadManager.Verifier() {
+			public boolean verify(File file) {
+				return false;
+			}
+		};
+
+		Assert.assertEquals(BotDownloadManager.Status.INVALID, downloadNow(url("/bot.jar"), destination, verifier));
+		Assert.assertFalse(destination.exists());
+	}
+
+	@Test
+	public void fileNotFound() {
+		final File destination = new File(repositoryDir, "missing.jar");
+
+		Assert.assertEquals(BotDownloadManager.Status.FILE_NOT_FOUND,
+				downloadNow(url("/missing/missing.jar"), destination, null));
+		Assert.assertFalse(destination.exists());
+	}
+
+	@Test
+	public void givesUpAfterSessionTimeout() {
+		final File destination = new File(repositoryDir, "stalled.jar");
+		final int previousTimeout = FileTransfer.setSessionTimeout(300);
+
+		try {
+			final long startMillis = System.currentTimeMillis();
+
+			Assert.assertEquals(BotDownloadManager.Status.COULD_NOT_CONNECT,
+					downloadNow(url("/stalled.jar"), destination, null));
+
+			// Every attempt waits for the response no longer than the session timeout
+			Assert.assertTrue(System.currentTimeMillis() - startMillis < 5000);
+		} finally {
+			FileTransfer.setSessionTimeout(previousTimeout);
+		}
+		Assert.assertFalse(destination.exists());
+	}
+
+	@Test
+	public void limitsConcurrentTransfers() throws Exception {
+		final BotDownloadManager manager = new BotDownloadManager(tempDir, 2);
+
+		try {
+			final List<Future<BotDownloadManager.Status>> downloads = new ArrayList<Future<BotDownloadManager.Status>>();
+
+			for (int i = 0; i < 6; i++) {
+				downloads.add(manager.download(url("/slow.jar"), new File(repositoryDir, "slow" + i + ".jar"), null));
+			}
+			for (Future<BotDownloadManager.Status> download : downloads) {
+				Assert.assertEquals(BotDownloadManager.Status.OK, download.get());
+			}
+		} finally {
+			manager.shutdown();
+		}
+		Assert.assertEquals(6, repositoryDir.list().length);
+		Assert.assertTrue(maxActiveTransfers.get() <= 2);
+	}
+
+	private BotDownloadManager.Status downloadNow(String url, File destination, BotDownloadManager.Verifier verifier) {
+		final BotDownloadManager manager = new BotDownloadManager(tempDir, 1);
+
+		try {
+			return manager.downloadNow(url, destination, verifier);
+		} finally {
+			manager.shutdown();
+		}
+	}
+
+	private String url(String path) {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+	}
+
+	/**
+	 * Serves a file with range requests. A broken file is only sent half the first time, and the connection is
+	 * closed, like when a transfer breaks off.
+	 */
+	private final class FileHandler implements HttpHandler {
+		private final byte[] content;
+		private boolean isBroken;
+		private final long delay;
+
+		FileHandler(byte[] content, boolean isBroken, long delay) {
+			this.content = content;
+			this.isBroken = isBroken;
+			this.delay = delay;
+		}
+
+		public void handle(HttpExchange exchange) throws IOException {
+			final int active = activeTransfers.incrementAndGet();
+
+			try {
+				for (int max; active > (max = maxActiveTransfers.get()); ) {
+					if (maxActiveTransfers.compareAndSet(max, active)) {
+						break;
+					}
+				}
+				if (delay > 0) {
+					Thread.sleep(delay);
+				}
+				final String range = exchange.getRequestHeaders().getFirst("Range");
+
+				requestedRanges.add(range);
+
+				int offset = 0;
+
+				if (range != null) {
+					offset = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+					exchange.getResponseHeaders().set("Content-Range",
+							"bytes " + offset + "-" + (content.length - 1) + "/" + content.length);
+					exchange.sendResponseHeaders(206, content.length - offset);
+				} else {
+					exchange.sendResponseHeaders(200, content.length);
+				}
+				final OutputStream out = exchange.getResponseBody();
+
+				if (isBroken) {
+					isBroken = false;
+					out.write(content, offset, (content.length - offset) / 2);
+					out.flush();
+					throw new IOException("Transfer broken off");
+				}
+				out.write(content, offset, content.length - offset);
+				out.close();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				activeTransfers.decrementAndGet();
+				exchange.close();
+			}
+		}
+	}
+
+	private static byte[] createJar(Random random) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final JarOutputStream out = new JarOutputStream(bytes);
+
+		out.putNextEntry(new JarEntry("sample/Bot.properties"));
+		out.write("robot.classname=sample.Bot\nrobot.version=1.0\n".getBytes("ISO-8859-1"));
+		out.closeEntry();
+
+		// Random data is not compressed, so the file is large enough to be sent in several pieces
+		final byte[] data = new byte[64 * 1024];
+
+		random.nextBytes(data);
+
+		final JarEntry entry = new JarEntry("sample/Bot.class");
+
+		entry.setMethod(ZipEntry.DEFLATED);
+		out.putNextEntry(entry);
+		out.write(data);
+		out.closeEntry();
+		out.close();
+
+		return bytes.toByteArray();
+	}
+
+	private static String sha256(byte[] data) throws Exception {
+		final StringBuilder hex = new StringBuilder();
+
+		for (byte b : MessageDigest.getInstance("SHA-256").digest(data)) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	private static void deleteDir(File dir) {
+		final File[] files = dir.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		dir.delete();
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.netengine;
+
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Tests the {@link ResultsUpload} against a local HTTP server standing in for the results server.
+ */
+public class ResultsUploadTest {
+
+	private static final Pattern TIME = Pattern.compile("&time=(\\d+)");
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private File tempDir;
+	private File resultsFile;
+	private File battlesNumFile;
+	private File priorityFile;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger maxResultsPerRequest = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger();
+	private volatile boolean isRejecting;
+	private volatile boolean isDroppingResponses;
+
+	private final List<String> results = Arrays.asList(
+			"roborumble,35,800x600,tester,1001,GENERAL", "sample.Crazy 1.0,1500,300,10", "sample.Fire 1.0,1200,250,8",
+			"roborumble,35,800x600,tester,1002,GENERAL", "sample.Walls 1.0,2000,400,15", "sample.Fire 1.0,900,200,5",
+			"roborumble,35,800x600,tester,1003,GENERAL", "sample.Crazy 1.0,1100,220,9", "sample.Walls 1.0,1700,380,12");
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("upload-temp").toFile();
+		resultsFile = new File(tempDir, "results1v1.txt");
+		battlesNumFile = new File(tempDir, "battlesnumber.txt");
+		priorityFile = new File(tempDir, "priority1v1.txt");
+
+		Files.write(resultsFile.toPath(), results, StandardCharsets.ISO_8859_1);
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		server.createContext("/UploadedResults", new ResultsHandler());
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		serverExecutor.shutdownNow();
+
+		final File[] files = tempDir.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		tempDir.delete();
+	}
+
+	@Test
+	public void uploadsEachResult() throws IOException {
+		createUpload(1).uploadResults();
+
+		Assert.assertEquals(3, requests.get());
+		Assert.assertFalse(resultsFile.exists());
+		assertBattlesNumbers();
+	}
+
+	@Test
+	public void postsEachResultOfBatchOnItsOwn() throws IOException {
+		createUpload(2).uploadResults();
+
+		Assert.assertEquals(3, requests.get());
+		Assert.assertEquals(1, maxResultsPerRequest.get());
+		Assert.assertFalse(resultsFile.exists());
+		assertBattlesNumbers();
+		assertPriorityBattles();
+	}
+
+	@Test
+	public void retriesWhenServerFails() throws IOException {
+		failures.set(1);
+
+		createUpload(1).uploadResults();
+
+		Assert.assertEquals(4, requests.get());
+		Assert.assertFalse(resultsFile.exists());
+		assertBattlesNumbers();
+	}
+
+	@Test
+	public void keepsRejectedResults() throws IOException {
+		isRejecting = true;
+
+		createUpload(1).uploadResults();
+
+		Assert.assertEquals(results, Files.readAllLines(resultsFile.toPath(), StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	public void keepsResultsWhenServerIsDown() throws IOException {
+		failures.set(Integer.MAX_VALUE);
+
+		createUpload(2).uploadResults();
+
+		Assert.assertEquals(results, Files.readAllLines(resultsFile.toPath(), StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	public void doesNotRetryWhenResponseIsLost() throws IOException {
+		isDroppingResponses = true;
+
+		createUpload(1).uploadResults();
+
+		// The server might have taken the results, so each one has only been posted once
+		Assert.assertEquals(3, requests.get());
+		Assert.assertEquals(results, Files.readAllLines(resultsFile.toPath(), StandardCharsets.ISO_8859_1));
+	}
+
+	private ResultsUpload createUpload(int batchSize) {
+		final Properties properties = new Properties();
+
+		properties.setProperty("OUTPUT", resultsFile.getPath());
+		properties.setProperty("RESULTSURL", "http://" + server.getAddress().getHostString() + ":"
+				+ server.getAddress().getPort() + "/UploadedResults");
+		properties.setProperty("TEMP", tempDir.getPath() + File.separator);
+		properties.setProperty("USER", "tester");
+		properties.setProperty("BATTLESNUMFILE", battlesNumFile.getPath());
+		properties.setProperty("PRIORITYBATTLESFILE", priorityFile.getPath());
+		properties.setProperty("RESULTSBATCHSIZE", "" + batchSize);
+
+		return new ResultsUpload("roborumble", properties, "1.9.5.3");
+	}
+
+	/**
+	 * The server answers the number of battles of each result with the time of the result, so the numbers show which
+	 * result they were given for.
+	 */
+	private void assertBattlesNumbers() throws IOException {
+		final List<String> battlesNumbers = Files.readAllLines(battlesNumFile.toPath(), StandardCharsets.ISO_8859_1);
+
+		Assert.assertEquals(Arrays.asList(
+				"roborumble,sample.Crazy 1.0,1001", "roborumble,sample.Fire 1.0,1001",
+				"roborumble,sample.Walls 1.0,1002", "roborumble,sample.Fire 1.0,1002",
+				"roborumble,sample.Crazy 1.0,1003", "roborumble,sample.Walls 1.0,1003"), battlesNumbers);
+	}
+
+	/**
+	 * The server answers each result with a priority battle of the time of the result against itself.
+	 */
+	private void assertPriorityBattles() throws IOException {
+		final List<String> priorityBattles = Files.readAllLines(priorityFile.toPath(), StandardCharsets.ISO_8859_1);
+
+		Assert.assertEquals(Arrays.asList("sample.Time 1001,sample.Time 1001,SERVER",
+				"sample.Time 1002,sample.Time 1002,SERVER", "sample.Time 1003,sample.Time 1003,SERVER"), priorityBattles);
+	}
+
+	private final class ResultsHandler implements HttpHandler {
+
+		public void handle(HttpExchange exchange) throws IOException {
+			requests.incrementAndGet();
+
+			final List<String> data = new ArrayList<String>();
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(),
+					StandardCharsets.ISO_8859_1));
+
+			for (String line; (line = reader.readLine()) != null; ) {
+				data.add(line);
+			}
+			maxResultsPerRequest.accumulateAndGet(data.size(), Math::max);
+
+			if (isDroppingResponses) {
+				exchange.close();
+				return;
+			}
+			final StringBuilder response = new StringBuilder();
+			final int status;
+
+			if (failures.getAndDecrement() > 0) {
+				status = 503;
+				response.append("Service unavailable\n");
+			} else if (isRejecting) {
+				status = 200;
+				response.append("Rejected\n");
+			} else {
+				// Answered like the results server does, with the OK line first
+				final Matcher matcher = TIME.matcher(data.get(0));
+
+				Assert.assertTrue(matcher.find());
+				status = 200;
+				response.append("OK. Results uploaded\n");
+				response.append('<').append(matcher.group(1)).append(' ').append(matcher.group(1)).append(">\n");
+				response.append("[sample.Time_").append(matcher.group(1)).append(",sample.Time_").append(matcher.group(1))
+						.append("]\n");
+			}
+			final byte[] bytes = response.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+			exchange.sendResponseHeaders(status, bytes.length);
+
+			final OutputStream out = exchange.getResponseBody();
+
+			out.write(bytes);
+			out.close();
+		}
+	}
+}
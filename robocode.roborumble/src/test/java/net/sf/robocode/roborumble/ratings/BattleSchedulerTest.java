@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.ratings;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Tests that the {@link BattleScheduler} chooses the battles that tell the most about the ratings.
+ */
+public class BattleSchedulerTest {
+
+	private static final List<String> BOTS = Arrays.asList("sample.Crazy 1.0", "sample.Fire 1.0", "sample.Walls 1.0",
+			"sample.SpinBot 1.0", "sample.Tracker 1.0");
+
+	private File file;
+	private LocalRatings ratings;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("localratings", ".dat");
+		file.delete();
+		ratings = LocalRatings.load(file);
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void choosesPairsThatHaveNotFought() {
+		// All pairs but Crazy against Fire have fought many times with the same outcome
+		for (int j = 1; j < BOTS.size(); j++) {
+			for (int i = 0; i < j; i++) {
+				if (i != 0 || j != 1) {
+					addResults(BOTS.get(i), BOTS.get(j), 50, 600, 400);
+				}
+			}
+		}
+		final List<String[]> battles = new BattleScheduler(ratings, BOTS).scheduleBattles(3);
+
+		Assert.assertEquals(3, battles.size());
+		for (String[] battle : battles) {
+			Assert.assertEquals(new HashSet<String>(BOTS.subList(0, 2)), new HashSet<String>(Arrays.asList(battle)));
+		}
+	}
+
+	@Test
+	public void choosesPairsWithUncertainOutcome() {
+		// Crazy against Fire is a toss-up, where Walls always beats SpinBot by the same margin
+		for (int i = 0; i < 10; i++) {
+			ratings.addResult(BOTS.get(0), (i % 2 == 0) ? 900 : 100, BOTS.get(1), (i % 2 == 0) ? 100 : 900);
+		}
+		addResults(BOTS.get(2), BOTS.get(3), 10, 700, 300);
+
+		final String[] battle = new BattleScheduler(ratings, BOTS.subList(0, 4)).scheduleBattles(1).get(0);
+
+		Assert.assertTrue(Arrays.asList(battle).contains(BOTS.get(0)) || Arrays.asList(battle).contains(BOTS.get(1)));
+	}
+
+	@Test
+	public void choosesSlowRobotsLessOften() {
+		for (int j = 1; j < BOTS.size(); j++) {
+			for (int i = 0; i < j; i++) {
+				ratings.addResult(BOTS.get(i), 500, BOTS.get(j), 500);
+			}
+		}
+		for (String bot : BOTS) {
+			ratings.addBattleTime(new String[] { bot }, bot.equals(BOTS.get(4)) ? 20000 : 1000);
+		}
+		final int[] battles = new int[BOTS.size()];
+
+		for (String[] battle : new BattleScheduler(ratings, BOTS).scheduleBattles(40)) {
+			for (String bot : battle) {
+				battles[BOTS.indexOf(bot)]++;
+			}
+		}
+		for (int i = 0; i < 4; i++) {
+			Assert.assertTrue(battles[4] < battles[i]);
+		}
+	}
+
+	@Test
+	public void meleeBattlesHaveDifferentRobots() {
+		final List<String[]> battles = new BattleScheduler(ratings, BOTS).scheduleMeleeBattles(10, 3);
+
+		Assert.assertEquals(10, battles.size());
+		for (String[] battle : battles) {
+			Assert.assertEquals(3, new HashSet<String>(Arrays.asList(battle)).size());
+		}
+	}
+
+	@Test
+	public void batchesHaveDifferentRobots() {
+		final List<String[]> battles = new BattleScheduler(ratings, BOTS).scheduleBattles(20);
+		final List<List<String[]>> batches = BattleScheduler.toBatches(battles, 4);
+
+		int count = 0;
+
+		for (List<String[]> batch : batches) {
+			final Set<String> bots = new HashSet<String>();
+
+			Assert.assertTrue(batch.size() >= 1 && batch.size() <= 4);
+			for (String[] battle : batch) {
+				for (String bot : battle) {
+					Assert.assertTrue(bots.add(bot));
+				}
+			}
+			count += batch.size();
+		}
+		Assert.assertEquals(battles.size(), count);
+	}
+
+	private void addResults(String bot1, String bot2, int battles, int score1, int score2) {
+		for (int i = 0; i < battles; i++) {
+			ratings.addResult(bot1, score1, bot2, score2);
+		}
+	}
+}
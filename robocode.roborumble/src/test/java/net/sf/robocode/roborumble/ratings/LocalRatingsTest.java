@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.ratings;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ * Tests that the {@link LocalRatings} are kept up to date with each result, and survive being saved.
+ */
+public class LocalRatingsTest {
+
+	private static final String[] BOTS = { "sample.Crazy 1.0", "sample.Fire 1.0", "sample.Walls 1.0",
+		"sample.SpinBot 1.0", "sample.Tracker 1.0" };
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("localratings", ".dat");
+		file.delete();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void apsFollowsPairings() throws IOException {
+		final LocalRatings ratings = LocalRatings.load(file);
+
+		ratings.addResult(BOTS[0], 300, BOTS[1], 100); // 75%
+		ratings.addResult(BOTS[0], 100, BOTS[1], 100); // 50%, so 62.5% on average
+		ratings.addResult(BOTS[2], 100, BOTS[0], 300); // 75%
+
+		final LocalRatings.Rating crazy = ratings.getRating(BOTS[0]);
+
+		Assert.assertEquals(3, crazy.getBattles());
+		Assert.assertEquals(2, crazy.getPairings());
+		Assert.assertEquals((62.5 + 75) / 2, crazy.getAPS(), 1e-9);
+		Assert.assertEquals(100, crazy.getPWIN(), 1e-9);
+
+		Assert.assertEquals(37.5, ratings.getRating(BOTS[1]).getAPS(), 1e-9);
+		Assert.assertEquals(0, ratings.getRating(BOTS[1]).getPWIN(), 1e-9);
+		Assert.assertEquals(62.5, ratings.getPairingScore(BOTS[0], BOTS[1]), 1e-9);
+		Assert.assertEquals(37.5, ratings.getPairingScore(BOTS[1], BOTS[0]), 1e-9);
+		Assert.assertTrue(Double.isNaN(ratings.getPairingScore(BOTS[1], BOTS[2])));
+		Assert.assertNull(ratings.getRating(BOTS[3]));
+	}
+
+	@Test
+	public void incrementalRatingsMatchRecalculation() throws IOException {
+		final LocalRatings ratings = LocalRatings.load(file);
+		final Random random = new Random(1);
+
+		// The sum of the percentage scores and number of battles of each pair
+		final Map<String, double[]> pairs = new HashMap<String, double[]>();
+
+		for (int i = 0; i < 2000; i++) {
+			final int bot1 = random.nextInt(BOTS.length);
+			final int bot2 = (bot1 + 1 + random.nextInt(BOTS.length - 1)) % BOTS.length;
+			final int score1 = random.nextInt(3000) * (bot1 + 1);
+			final int score2 = random.nextInt(3000) * (bot2 + 1);
+
+			ratings.addResult(BOTS[bot1], score1, BOTS[bot2], score2);
+
+			final double share1 = (score1 + score2 == 0) ? 50 : 100.0 * score1 / (score1 + score2);
+
+			addShare(pairs, BOTS[bot1] + "/" + BOTS[bot2], share1);
+			addShare(pairs, BOTS[bot2] + "/" + BOTS[bot1], 100 - share1);
+		}
+		for (String bot : BOTS) {
+			double scoreSum = 0;
+			int pairings = 0;
+
+			for (String opponent : BOTS) {
+				final double[] pair = pairs.get(bot + "/" + opponent);
+
+				if (pair != null) {
+					scoreSum += pair[0] / pair[1];
+					pairings++;
+				}
+			}
+			Assert.assertEquals(scoreSum / pairings, ratings.getRating(bot).getAPS(), 1e-6);
+		}
+
+		// The robots with the higher scores are rated higher
+		final List<LocalRatings.Rating> ranking = ratings.getRatings();
+
+		Assert.assertEquals(BOTS[4], ranking.get(0).getName());
+		Assert.assertEquals(BOTS[0], ranking.get(BOTS.length - 1).getName());
+		Assert.assertTrue(ranking.get(0).getGlicko() > ranking.get(BOTS.length - 1).getGlicko());
+		Assert.assertTrue(ranking.get(0).getDeviation() < 350);
+	}
+
+	@Test
+	public void savedRatingsAreRead() throws IOException {
+		final LocalRatings ratings = LocalRatings.load(file);
+		final Random random = new Random(2);
+
+		for (int i = 0; i < 200; i++) {
+			ratings.addResult(BOTS[i % 3], random.nextInt(2000), BOTS[3 + i % 2], random.nextInt(2000));
+		}
+		ratings.save();
+
+		final LocalRatings read = LocalRatings.load(file);
+
+		Assert.assertEquals(ratings.getRatings().toString(), read.getRatings().toString());
+
+		// The read ratings continue where the saved ones left off
+		ratings.addResult(BOTS[0], 1500, BOTS[3], 500);
+		read.addResult(BOTS[0], 1500, BOTS[3], 500);
+
+		Assert.assertEquals(ratings.getRatings().toString(), read.getRatings().toString());
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherFiles() throws IOException {
+		Files.write(file.toPath(), "sample.Crazy_1.0=70.5,200,0".getBytes("ISO-8859-1"));
+
+		LocalRatings.load(file);
+	}
+
+	private static void addShare(Map<String, double[]> pairs, String key, double share) {
+		double[] pair = pairs.get(key);
+
+		if (pair == null) {
+			pair = new double[2];
+			pairs.put(key, pair);
+		}
+		pair[0] += share;
+		pair[1]++;
+	}
+}
@@ -17,6 +17,7 @@ import robocode.control.events.BattleStartedEvent;
 import robocode.control.events.TurnEndedEvent;
 import robocode.control.snapshot.IBulletSnapshot;
 import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
 import robocode.control.snapshot.RobotState;
 
 import javax.sound.sampled.AudioSystem;
@@ -351,7 +352,11 @@ public class SoundManager implements ISoundManager {
 			if (isSoundEnabled()) {
 				int battleFieldWidth = battleManager.getBattleProperties().getBattlefieldWidth();
 
-				for (IBulletSnapshot bp : event.getTurnSnapshot().getBullets()) {
+				final ITurnSnapshot turn = event.getTurnSnapshot();
+
+				for (int i = 0; i < turn.getBulletCount(); i++) {
+					final IBulletSnapshot bp = turn.getBullet(i);
+
 					if (bp.getFrame() == 0) {
 						playBulletSound(bp, battleFieldWidth);
 					}
@@ -359,7 +364,9 @@ public class SoundManager implements ISoundManager {
 
 				boolean playedRobotHitRobot = false;
 
-				for (IRobotSnapshot rp : event.getTurnSnapshot().getRobots()) {
+				for (int i = 0; i < turn.getRobotCount(); i++) {
+					final IRobotSnapshot rp = turn.getRobot(i);
+
 					// Make sure that robot-hit-robot events do not play twice (one per colliding robot)
 					if (rp.getState() == RobotState.HIT_ROBOT) {
 						if (playedRobotHitRobot) {
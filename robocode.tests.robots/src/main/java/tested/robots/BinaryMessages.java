@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.BinaryMessageEvent;
+import robocode.TeamRobot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+
+/**
+ * Broadcasts the current turn and its energy to its teammates as a binary message every turn,
+ * and prints what it receives from them.
+ */
+public class BinaryMessages extends TeamRobot {
+	private final ByteBuffer buffer = ByteBuffer.allocate(16);
+
+	@Override
+	public void run() {
+		try {
+			broadcastBinaryMessage(ByteBuffer.allocate(32769));
+			out.println("Too big sent");
+		} catch (IOException e) {
+			out.println("Too big rejected");
+		}
+
+		while (true) {
+			buffer.clear();
+			buffer.putLong(getTime()).putDouble(getEnergy());
+			buffer.flip();
+			try {
+				broadcastBinaryMessage(buffer);
+			} catch (IOException e) {
+				out.println("Not sent: " + e.getMessage());
+			}
+			if (buffer.position() != 0 || buffer.remaining() != 16) {
+				out.println("Buffer changed");
+			}
+			turnGunRight(10);
+		}
+	}
+
+	@Override
+	public void onBinaryMessageReceived(BinaryMessageEvent event) {
+		ByteBuffer message = event.getMessage();
+
+		if (getName().equals(event.getSender())) {
+			out.println("Received from myself");
+		}
+		out.println("Received: " + message.remaining() + " bytes, sent at " + message.getLong());
+		try {
+			message.put(0, (byte) 1);
+			out.println("Message is writable");
+		} catch (ReadOnlyBufferException e) {
+			// expected
+		}
+	}
+}
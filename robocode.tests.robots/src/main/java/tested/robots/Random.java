@@ -9,6 +9,7 @@ package tested.robots;
 
 
 import robocode.Robot;
+import robocode.util.Utils;
 
 
 /**
@@ -19,11 +20,13 @@ public class Random extends Robot {
 	@Override
 	public void run() {
 
+		final java.util.Random random = Utils.getRandom();
+
 		while (true) {
-			ahead(100 * Math.random());
-			turnRight(180 * Math.random());
-			back(100 * Math.random());
-			turnLeft(360 * Math.random());
+			ahead(100 * random.nextDouble());
+			turnRight(180 * random.nextDouble());
+			back(100 * random.nextDouble());
+			turnLeft(360 * random.nextDouble());
 		}
 	}
 }
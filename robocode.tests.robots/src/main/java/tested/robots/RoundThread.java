@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.Robot;
+import robocode.ScannedRobotEvent;
+
+
+/**
+ * Prints the thread it is running on, and the robot instance, at the start of each round.
+ */
+public class RoundThread extends Robot {
+
+	@Override
+	public void run() {
+		out.println("Thread: " + Thread.currentThread().getId());
+		out.println("Robot: " + System.identityHashCode(this));
+
+		while (true) {
+			turnGunRight(360);
+		}
+	}
+
+	@Override
+	public void onScannedRobot(ScannedRobotEvent e) {
+		fire(3);
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.control.metrics;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.metrics.Histogram;
+
+
+public class HistogramTest {
+
+	@Test
+	public void empty() {
+		Histogram histogram = new Histogram();
+
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getMinNanos());
+		Assert.assertEquals(0, histogram.getMaxNanos());
+		Assert.assertEquals(0, histogram.getPercentileNanos(99));
+		Assert.assertEquals(0, histogram.getMeanNanos(), 0);
+	}
+
+	@Test
+	public void exactStatistics() {
+		Histogram histogram = new Histogram();
+
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(1000, histogram.getMinNanos());
+		Assert.assertEquals(1000000, histogram.getMaxNanos());
+		Assert.assertEquals(500500, histogram.getMeanNanos(), 0);
+		Assert.assertEquals(1000000, histogram.getPercentileNanos(100));
+	}
+
+	@Test
+	public void percentilesWithinBucketPrecision() {
+		Histogram histogram = new Histogram();
+
+		for (long value = 1; value <= 100000; value++) {
+			histogram.record(value);
+		}
+		for (double percentile : new double[] { 1, 10, 50, 90, 99, 99.9 }) {
+			final double expected = percentile * 1000;
+			final long actual = histogram.getPercentileNanos(percentile);
+
+			Assert.assertTrue("p" + percentile + " was " + actual, actual >= expected);
+			Assert.assertTrue("p" + percentile + " was " + actual, actual <= expected * 1.125);
+		}
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		Histogram histogram = new Histogram();
+
+		histogram.record(-5);
+		histogram.record(3);
+		histogram.record(7);
+
+		Assert.assertEquals(0, histogram.getPercentileNanos(0));
+		Assert.assertEquals(3, histogram.getPercentileNanos(50));
+		Assert.assertEquals(7, histogram.getPercentileNanos(100));
+	}
+
+	@Test
+	public void largeValues() {
+		Histogram histogram = new Histogram();
+
+		histogram.record(Long.MAX_VALUE / 2);
+		histogram.record(Long.MAX_VALUE);
+
+		Assert.assertEquals(Long.MAX_VALUE, histogram.getMaxNanos());
+		Assert.assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+	}
+
+	@Test
+	public void addAndCopy() {
+		Histogram first = new Histogram();
+		Histogram second = new Histogram();
+
+		first.record(10);
+		second.record(1000);
+
+		Histogram copy = first.copy();
+
+		first.add(second);
+		Assert.assertEquals(2, first.getCount());
+		Assert.assertEquals(10, first.getMinNanos());
+		Assert.assertEquals(1000, first.getMaxNanos());
+		Assert.assertEquals(1, copy.getCount());
+
+		first.reset();
+		Assert.assertEquals(0, first.getCount());
+		Assert.assertEquals(1, copy.getCount());
+	}
+}
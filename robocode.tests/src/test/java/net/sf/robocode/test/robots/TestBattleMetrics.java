@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.metrics.BattleMetrics;
+import robocode.control.metrics.IBattleMetricsListener;
+import robocode.control.metrics.TurnPhase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Tests that the metrics of the turn phases and robots are measured and published.
+ */
+public class TestBattleMetrics extends RobocodeTestBed {
+
+	private final List<BattleMetrics> roundMetrics = new ArrayList<BattleMetrics>();
+	private final List<Integer> roundTurns = new ArrayList<Integer>();
+	private BattleMetrics battleMetrics;
+
+	private final IBattleMetricsListener metricsListener = new IBattleMetricsListener() {
+		public void onRoundMetrics(BattleMetrics metrics) {
+			roundMetrics.add(metrics);
+		}
+
+		public void onBattleMetrics(BattleMetrics metrics) {
+			battleMetrics = metrics;
+		}
+	};
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Walls";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	protected void runSetup() {
+		engine.addBattleMetricsListener(metricsListener);
+	}
+
+	@Override
+	public void onRoundEnded(RoundEndedEvent event) {
+		roundTurns.add(event.getTurns());
+	}
+
+	@Override
+	protected void runTeardown() {
+		engine.removeBattleMetricsListener(metricsListener);
+
+		Assert.assertEquals(getNumRounds(), roundMetrics.size());
+		Assert.assertNotNull(battleMetrics);
+
+		int totalTurns = 0;
+
+		for (int round = 0; round < getNumRounds(); round++) {
+			BattleMetrics metrics = roundMetrics.get(round);
+
+			Assert.assertEquals(round, metrics.getRound());
+			Assert.assertEquals((int) roundTurns.get(round), metrics.getTurns());
+			totalTurns += metrics.getTurns();
+		}
+
+		Assert.assertEquals(-1, battleMetrics.getRound());
+		Assert.assertEquals(totalTurns, battleMetrics.getTurns());
+		Assert.assertEquals(totalTurns, battleMetrics.getTurnHistogram().getCount());
+
+		for (TurnPhase phase : TurnPhase.values()) {
+			Assert.assertEquals(phase.toString(), totalTurns, battleMetrics.getPhaseHistogram(phase).getCount());
+		}
+
+		Assert.assertEquals(2, battleMetrics.getRobotCount());
+		Assert.assertEquals("sample.Fire", battleMetrics.getRobotName(0));
+		Assert.assertEquals("sample.Walls", battleMetrics.getRobotName(1));
+		for (int i = 0; i < battleMetrics.getRobotCount(); i++) {
+			Assert.assertTrue(battleMetrics.getRobotComputeHistogram(i).getCount() > 0);
+			Assert.assertEquals(battleMetrics.getRobotComputeHistogram(i).getCount(),
+					battleMetrics.getRobotWakeupHistogram(i).getCount());
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.IRobotSnapshot;
+
+
+/**
+ * Tests that binary team messages are delivered to the teammates as read-only buffers,
+ * and that messages that are too big are rejected.
+ */
+public class TestBinaryMessages extends RobocodeTestBed {
+	private final int[] received = new int[2];
+	private final int[] rejected = new int[2];
+	private boolean misbehaved;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.BinaryMessageTeam";
+	}
+
+	@Override
+	public int getExpectedRobotCount(String list) {
+		return 3;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+
+		final IRobotSnapshot[] robots = event.getTurnSnapshot().getRobots();
+
+		for (int i = 0; i < received.length; i++) {
+			for (String line : robots[i].getOutputStreamSnapshot().split("\\n")) {
+				if (line.startsWith("Received: 16 bytes")) {
+					received[i]++;
+				} else if (line.equals("Too big rejected")) {
+					rejected[i]++;
+				} else if (line.equals("Received from myself") || line.equals("Message is writable")
+						|| line.equals("Buffer changed") || line.equals("Too big sent") || line.startsWith("Not sent")) {
+					misbehaved = true;
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		for (int i = 0; i < received.length; i++) {
+			Assert.assertTrue("Teammate " + i + " must receive binary messages", received[i] > 0);
+			Assert.assertEquals("Teammate " + i + " must have its too big message rejected", 1, rejected[i]);
+		}
+		Assert.assertFalse("Binary messages must be sent and received as specified", misbehaved);
+	}
+}
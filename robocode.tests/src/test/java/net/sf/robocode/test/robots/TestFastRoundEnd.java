@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.BattleResults;
+import robocode.control.RandomFactory;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.IRobotSnapshot;
+
+
+/**
+ * Tests that a battle with -DFASTROUNDEND gives the same scores as a battle that runs the turns shown after the end of
+ * the round, and that the robots still get the events of the end of the round and battle.
+ */
+public class TestFastRoundEnd extends RobocodeTestBed {
+
+	private BattleResults[] results;
+	private int turns;
+	private final StringBuilder output = new StringBuilder();
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.BattleWin";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.SittingDuck";
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+
+		final IRobotSnapshot robot = event.getTurnSnapshot().getRobots()[0];
+
+		output.append(robot.getOutputStreamSnapshot());
+	}
+
+	@Override
+	public void onRoundEnded(RoundEndedEvent event) {
+		turns = event.getTurns();
+	}
+
+	@Override
+	public void onBattleCompleted(BattleCompletedEvent event) {
+		results = event.getSortedResults();
+	}
+
+	@Override
+	protected void runTeardown() {
+		final BattleResults[] expectedResults = results;
+		final int expectedTurns = turns;
+
+		Assert.assertTrue(output.indexOf("RoundEnded!") >= 0);
+		Assert.assertTrue(output.indexOf("Win!") >= 0);
+		Assert.assertTrue(output.indexOf("BattleEnded!") >= 0);
+
+		// The same battle again, but ending the round as soon as the winner is found
+		output.setLength(0);
+		System.setProperty("FASTROUNDEND", "true");
+		try {
+			RandomFactory.resetDeterministic(0);
+			runBattle(getRobotName() + "," + getEnemyName(), getNumRounds(), getInitialPositions());
+		} finally {
+			System.clearProperty("FASTROUNDEND");
+		}
+
+		Assert.assertTrue(output.indexOf("RoundEnded!") >= 0);
+		Assert.assertTrue(output.indexOf("Win!") >= 0);
+		Assert.assertTrue(output.indexOf("BattleEnded!") >= 0);
+		Assert.assertTrue(turns < expectedTurns);
+
+		Assert.assertEquals(expectedResults.length, results.length);
+		for (int i = 0; i < results.length; i++) {
+			Assert.assertEquals(expectedResults[i].getTeamLeaderName(), results[i].getTeamLeaderName());
+			Assert.assertEquals(expectedResults[i].getRank(), results[i].getRank());
+			Assert.assertEquals(expectedResults[i].getScore(), results[i].getScore());
+			Assert.assertEquals(expectedResults[i].getSurvival(), results[i].getSurvival());
+			Assert.assertEquals(expectedResults[i].getLastSurvivorBonus(), results[i].getLastSurvivorBonus());
+			Assert.assertEquals(expectedResults[i].getBulletDamage(), results[i].getBulletDamage());
+			Assert.assertEquals(expectedResults[i].getBulletDamageBonus(), results[i].getBulletDamageBonus());
+			Assert.assertEquals(expectedResults[i].getRamDamage(), results[i].getRamDamage());
+			Assert.assertEquals(expectedResults[i].getRamDamageBonus(), results[i].getRamDamageBonus());
+			Assert.assertEquals(expectedResults[i].getFirsts(), results[i].getFirsts());
+			Assert.assertEquals(expectedResults[i].getSeconds(), results[i].getSeconds());
+			Assert.assertEquals(expectedResults[i].getThirds(), results[i].getThirds());
+		}
+	}
+}
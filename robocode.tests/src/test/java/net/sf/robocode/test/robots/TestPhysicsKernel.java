@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.RandomFactory;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Tests that a battle with -DPHYSICSKERNEL moves the robots exactly like the same battle without it, by comparing the
+ * state of every robot after every turn.
+ */
+public class TestPhysicsKernel extends RobocodeTestBed {
+
+	private List<String> states = new ArrayList<String>();
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Crazy";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Walls";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+
+		final ITurnSnapshot turn = event.getTurnSnapshot();
+
+		for (IRobotSnapshot robot : turn.getRobots()) {
+			states.add(turn.getRound() + " " + turn.getTurn() + " " + robot.getName() + " " + robot.getState() + " x="
+					+ robot.getX() + " y=" + robot.getY() + " body=" + robot.getBodyHeading() + " gun="
+					+ robot.getGunHeading() + " radar=" + robot.getRadarHeading() + " velocity=" + robot.getVelocity()
+					+ " energy=" + robot.getEnergy());
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		final List<String> expectedStates = states;
+
+		Assert.assertFalse(expectedStates.isEmpty());
+
+		// The same battle again, but moving the robots with the physics kernel
+		states = new ArrayList<String>();
+		System.setProperty("PHYSICSKERNEL", "true");
+		try {
+			RandomFactory.resetDeterministic(0);
+			runBattle(getRobotName() + "," + getEnemyName(), getNumRounds(), getInitialPositions());
+		} finally {
+			System.clearProperty("PHYSICSKERNEL");
+		}
+
+		Assert.assertEquals(expectedStates.size(), states.size());
+		for (int i = 0; i < states.size(); i++) {
+			Assert.assertEquals(expectedStates.get(i), states.get(i));
+		}
+	}
+}
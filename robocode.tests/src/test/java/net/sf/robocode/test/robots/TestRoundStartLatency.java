@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.events.RoundStartedEvent;
+
+
+/**
+ * Tests that the rounds after the first one start without waiting for the start timeout of the robots, when the run
+ * threads of the robots are reused. The battle thread must not miss that a reused thread has already gone to sleep.
+ */
+public class TestRoundStartLatency extends RobocodeTestBed {
+
+	// Far below the start timeout of the robots, which is about 3 seconds
+	private static final long MAX_START_MILLIS = 1000;
+
+	private long roundEndedNanos;
+	private long maxStartMillis;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.RoundThread";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 10;
+	}
+
+	@Override
+	public void onRoundEnded(RoundEndedEvent event) {
+		super.onRoundEnded(event);
+
+		roundEndedNanos = System.nanoTime();
+	}
+
+	@Override
+	public void onRoundStarted(RoundStartedEvent event) {
+		super.onRoundStarted(event);
+
+		if (event.getRound() > 0) {
+			maxStartMillis = Math.max(maxStartMillis, (System.nanoTime() - roundEndedNanos) / 1000000);
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		Assert.assertTrue("A round took " + maxStartMillis + " ms to start", maxStartMillis < MAX_START_MILLIS);
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import org.junit.Assert;
+import org.junit.Test;
+import robocode.control.events.TurnEndedEvent;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+/**
+ * Tests that a robot is run on the same thread in all rounds, but with a new robot instance for each round.
+ */
+public class TestRoundThread extends RobocodeTestBed {
+	private final Set<String> threads = new HashSet<String>();
+	private final Set<String> robots = new HashSet<String>();
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.RoundThread";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+
+		final String out = event.getTurnSnapshot().getRobots()[0].getOutputStreamSnapshot();
+
+		for (String line : out.split("\\n")) {
+			if (line.startsWith("Thread: ")) {
+				threads.add(line);
+			} else if (line.startsWith("Robot: ")) {
+				robots.add(line);
+			}
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		Assert.assertEquals("The robot must run on the same thread in all rounds", 1, threads.size());
+		Assert.assertEquals("The robot must be a new instance in each round", 3, robots.size());
+	}
+}
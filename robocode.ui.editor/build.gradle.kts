@@ -9,6 +9,7 @@ dependencies {
     implementation(project(":robocode.battle"))
     implementation(project(":robocode.ui"))
     implementation("org.picocontainer:picocontainer:2.15")
+    testImplementation("junit:junit:4.13.2")
 }
 
 description = "Robocode UI Robot editor"
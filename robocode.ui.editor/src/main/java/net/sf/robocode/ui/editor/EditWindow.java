@@ -14,6 +14,7 @@ import net.sf.robocode.repository.IRepositoryManager;
 import net.sf.robocode.ui.editor.theme.EditorThemeProperties;
 import net.sf.robocode.ui.editor.theme.EditorThemePropertiesManager;
 import net.sf.robocode.ui.editor.theme.EditorThemePropertyChangeAdapter;
+import net.sf.robocode.util.UrlUtil;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -29,6 +30,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.StringTokenizer;
 
 
@@ -201,8 +203,18 @@ public class EditWindow extends JInternalFrame {
 						error("You must save before compiling.");
 						return;
 					}
-					editor.getCompiler().compile(getRobotDir(), fileName);
-					repositoryManager.refresh(fileName);
+					List<File> writtenClassFiles = editor.getCompiler().compile(getRobotDir(), fileName);
+
+					if (writtenClassFiles == null) {
+						repositoryManager.refresh(fileName);
+					} else {
+						// Only the robots whose classes have changed are updated in the repository
+						for (File classFile : writtenClassFiles) {
+							if (!classFile.getName().contains("$")) {
+								repositoryManager.refresh(UrlUtil.removeFileExtension(classFile.toURI().toString()));
+							}
+						}
+					}
 				}
 			}).start();
 		} else {
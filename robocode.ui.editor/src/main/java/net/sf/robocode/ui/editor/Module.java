@@ -18,6 +18,7 @@ import net.sf.robocode.core.Container;
 public class Module extends BaseModule {
 	static {
 		Container.cache.addComponent(RobocodeCompilerFactory.class);
+		Container.cache.addComponent(RobotCompilerService.class);
 		Container.cache.addComponent(RobocodeEditor.class);
 	}
 }
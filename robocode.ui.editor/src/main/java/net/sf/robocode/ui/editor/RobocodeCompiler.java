@@ -8,6 +8,7 @@
 package net.sf.robocode.ui.editor;
 
 
+import net.sf.robocode.core.Container;
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
 import net.sf.robocode.repository.CodeSizeCalculator;
@@ -16,6 +17,10 @@ import net.sf.robocode.ui.dialog.WindowUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 
 /**
@@ -37,9 +42,14 @@ public class RobocodeCompiler {
 		this.editor = editor;
 	}
 
-	public void compile(String directory, String fileName) {
-		fileName = FileUtil.quoteFileName(fileName);
-
+	/**
+	 * Compiles a robot, and shows the output of the compiler in a console.
+	 *
+	 * @param directory the robot directory
+	 * @param fileName the source file of the robot
+	 * @return the class files that were written, if the compiler runs in this JVM; {@code null} otherwise
+	 */
+	public List<File> compile(String directory, String fileName) {
 		ConsoleDialog console;
 
 		if (editor != null) {
@@ -51,6 +61,74 @@ public class RobocodeCompiler {
 		console.setText("Compiling...\n");
 		WindowUtil.centerShow(editor, console);
 
+		List<File> writtenClassFiles = null;
+
+		if (isInProcess(compilerBinary)) {
+			writtenClassFiles = compileInProcess(fileName, console);
+		} else {
+			compileWithProcess(FileUtil.quoteFileName(fileName), console);
+		}
+
+		printCodeSize(directory, console);
+
+		return writtenClassFiles;
+	}
+
+	/**
+	 * Checks if a compiler is run in this JVM instead of in a process of its own, which is the case for javac when
+	 * Robocode runs on a JDK.
+	 *
+	 * @param compilerBinary the command starting the compiler
+	 */
+	static boolean isInProcess(String compilerBinary) {
+		return "javac".equals(compilerBinary) && Container.getComponent(RobotCompilerService.class).isAvailable();
+	}
+
+	/**
+	 * Compiles a source file in this JVM.
+	 *
+	 * @param fileName the source file
+	 * @param options the compiler options and class path, separated by spaces
+	 * @param console the console the output of the compiler is written to
+	 * @return the result of the compile
+	 */
+	static RobotCompilerService.Result compileInProcess(String fileName, String options, ConsoleDialog console) {
+		List<String> optionList = new ArrayList<String>();
+
+		for (String option : options.split(" ")) {
+			// Quotes are only needed on the command line
+			if (option.length() > 1 && option.startsWith("\"") && option.endsWith("\"")) {
+				option = option.substring(1, option.length() - 1);
+			}
+			if (option.length() > 0) {
+				optionList.add(option);
+			}
+		}
+		Logger.logMessage("Compiling in process: " + fileName + " with options: " + optionList);
+
+		StringWriter output = new StringWriter();
+		RobotCompilerService.Result result = Container.getComponent(RobotCompilerService.class).compile(
+				Collections.singletonList(new File(fileName)), optionList, output);
+
+		console.append(output.toString());
+		return result;
+	}
+
+	private List<File> compileInProcess(String fileName, ConsoleDialog console) {
+		RobotCompilerService.Result result = compileInProcess(fileName, compilerOptions + ' ' + compilerClassPath,
+				console);
+
+		if (result.isSuccess()) {
+			console.append("Compiled successfully.\n");
+			console.setTitle("Compiled successfully.");
+		} else {
+			console.append("Compile Failed\n");
+			console.setTitle("Compile failed.");
+		}
+		return result.getWrittenClassFiles();
+	}
+
+	private void compileWithProcess(String fileName, ConsoleDialog console) {
 		try {
 			StringBuffer command = new StringBuffer(compilerBinary).append(' ').append(compilerOptions).append(' ').append(compilerClassPath).append(' ').append(
 					fileName);
@@ -86,7 +164,9 @@ public class RobocodeCompiler {
 			console.append("Compile interrupted.\n");
 			console.setTitle("Compile interrupted.");
 		}
+	}
 
+	private static void printCodeSize(String directory, ConsoleDialog console) {
 		Integer codesize = CodeSizeCalculator.getDirectoryCodeSize(new File(directory));
 		if (codesize != null) {
 			String weightClass = null;
@@ -178,6 +178,26 @@ public class RobocodeCompilerFactory {
 
 		boolean result = false;
 
+		if (RobocodeCompiler.isInProcess(filepath)) {
+			// The compiler of this JVM is tested without starting a process
+			String testFile = new File(FileUtil.getCwd(), "compilers/CompilerTest.java").getPath();
+
+			result = RobocodeCompiler.compileInProcess(testFile, "", console).isSuccess();
+		} else {
+			result = testCompilerWithProcess(filepath, console);
+		}
+
+		if (result) {
+			console.append(friendlyName + " was found and is working.\n");
+		} else {
+			console.append(friendlyName + " does not exists or cannot compile.\n");
+		}
+		return result;
+	}
+
+	private static boolean testCompilerWithProcess(String filepath, ConsoleDialog console) {
+		boolean result = false;
+
 		try {
 			String cmdAndArgs = filepath + " compilers/CompilerTest.java";
 
@@ -200,12 +220,6 @@ public class RobocodeCompilerFactory {
 			// Immediately reasserts the exception by interrupting the caller thread itself
 			Thread.currentThread().interrupt();
 		}
-
-		if (result) {
-			console.append(friendlyName + " was found and is working.\n");
-		} else {
-			console.append(friendlyName + " does not exists or cannot compile.\n");
-		}
 		return result;
 	}
 }
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.ui.editor;
+
+
+import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.io.Logger;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Compiles robots with the Java compiler of the running JVM, instead of starting a javac process for every compile.
+ * <p>
+ * The compiler and its file manager are kept between compiles, so the libraries on the class path are only opened
+ * once, and the compiler code is only loaded and warmed up once. The compiled classes are kept in memory until the
+ * compile has succeeded, and a class file is only written when its content has changed, so the repository only needs
+ * to update the robots that have actually changed.
+ * <p>
+ * A set of source files is not compiled again when it has been compiled successfully before with the same compiler
+ * options, including the class path, the class files compiled from it still exist, and none of the source files read
+ * by that compile has changed. These are the source files of the set, and the sources of other classes the compiler
+ * has compiled along with them, e.g. a class of the robot in a source file of its own. When any of them has changed,
+ * the whole set is compiled again, so classes that depend on a changed class are compiled again too. Classes that
+ * were only read as class files from the class path, e.g. of a robot that is compiled on its own, are not checked;
+ * a robot that depends on such a class is not compiled again when only that class has changed.
+ * <p>
+ * The file manager keeps the class path of the options it was last used with, so it is replaced when the options
+ * change. The service is only available when Robocode runs on a JDK.
+ *
+ * @since 1.9.5.3
+ */
+public class RobotCompilerService {
+
+	private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+	private StandardJavaFileManager standardFileManager;
+
+	// The resolved compiler options the standard file manager has been used with
+	private List<String> fileManagerOptions;
+
+	// The compiled source sets by their canonical files
+	private final Map<Set<File>, CompiledSet> compiledSets = new HashMap<Set<File>, CompiledSet>();
+
+	/**
+	 * Checks if the Java compiler of the running JVM can be used, which is not the case on a JRE.
+	 */
+	public boolean isAvailable() {
+		return compiler != null;
+	}
+
+	/**
+	 * Compiles the specified source files, unless none of them, nor any other source file compiled along with them,
+	 * has changed since they were last compiled together.
+	 * <p>
+	 * The class files are written next to the source files, like javac does when no output directory is given.
+	 * Relative paths on the class path are relative to the Robocode directory.
+	 *
+	 * @param sourceFiles the source files to compile
+	 * @param options the compiler options, e.g. "-encoding" and "UTF-8", including the class path
+	 * @param output the writer the messages of the compiler are written to
+	 * @return the result of the compile
+	 * @throws IllegalStateException if the compiler is not available
+	 */
+	public synchronized Result compile(Collection<File> sourceFiles, List<String> options, Writer output) {
+		if (!isAvailable()) {
+			throw new IllegalStateException("No Java compiler is available in this JVM");
+		}
+		final List<String> resolvedOptions = resolveClassPath(options);
+		final Set<File> sourceSet = new LinkedHashSet<File>();
+
+		for (File sourceFile : sourceFiles) {
+			sourceSet.add(getCanonicalFile(sourceFile));
+		}
+		final CompiledSet compiled = compiledSets.get(sourceSet);
+
+		if (compiled != null && compiled.isUpToDate(resolvedOptions)) {
+			return new Result(true, Collections.<File>emptyList());
+		}
+		// Forgotten until the compile has succeeded, so a failed compile is never skipped
+		compiledSets.remove(sourceSet);
+
+		final StandardJavaFileManager baseFileManager = getStandardFileManager(resolvedOptions);
+		final MemoryFileManager fileManager = new MemoryFileManager(baseFileManager);
+		final Iterable<? extends JavaFileObject> units = baseFileManager.getJavaFileObjectsFromFiles(sourceSet);
+
+		boolean success;
+
+		try {
+			success = compiler.getTask(output, fileManager, null, resolvedOptions, null, units).call();
+		} catch (RuntimeException e) {
+			// Thrown for invalid options, and by the compiler for errors of its own
+			Logger.logError(e);
+			try {
+				output.write(e.getMessage() + "\n");
+			} catch (IOException ignored) {}
+			success = false;
+		}
+		if (!success) {
+			return new Result(false, Collections.<File>emptyList());
+		}
+
+		final List<File> writtenFiles = new ArrayList<File>();
+
+		for (Map.Entry<File, byte[]> entry : fileManager.classFiles.entrySet()) {
+			try {
+				if (writeIfChanged(entry.getKey(), entry.getValue())) {
+					writtenFiles.add(entry.getKey());
+				}
+			} catch (IOException e) {
+				Logger.logError("Could not write the class file: " + entry.getKey(), e);
+				success = false;
+			}
+		}
+		if (success) {
+			final Set<File> readSources = new LinkedHashSet<File>(sourceSet);
+
+			readSources.addAll(fileManager.compiledSources);
+			compiledSets.put(sourceSet,
+					new CompiledSet(resolvedOptions, readSources, new ArrayList<File>(fileManager.classFiles.keySet())));
+		}
+		return new Result(success, writtenFiles);
+	}
+
+	/**
+	 * Returns the standard file manager for the options, which is a new one if the options have changed, as the file
+	 * manager would otherwise keep the class path of the previous options when the new ones have none.
+	 */
+	private StandardJavaFileManager getStandardFileManager(List<String> resolvedOptions) {
+		if (standardFileManager != null && !resolvedOptions.equals(fileManagerOptions)) {
+			try {
+				standardFileManager.close();
+			} catch (IOException e) {
+				Logger.logError(e);
+			}
+			standardFileManager = null;
+		}
+		if (standardFileManager == null) {
+			standardFileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+			fileManagerOptions = resolvedOptions;
+		}
+		return standardFileManager;
+	}
+
+	/**
+	 * Makes the relative paths of the class path relative to the Robocode directory, which the javac process is
+	 * started in, instead of the working directory of the JVM.
+	 */
+	private static List<String> resolveClassPath(List<String> options) {
+		final List<String> resolved = new ArrayList<String>(options);
+
+		for (int i = 0; i < resolved.size() - 1; i++) {
+			final String option = resolved.get(i);
+
+			if (option.equals("-classpath") || option.equals("-cp") || option.equals("-sourcepath")) {
+				final StringBuilder path = new StringBuilder();
+
+				for (String entry : resolved.get(i + 1).split(File.pathSeparator)) {
+					File file = new File(entry);
+
+					if (!file.isAbsolute()) {
+						file = new File(FileUtil.getCwd(), entry);
+					}
+					if (path.length() > 0) {
+						path.append(File.pathSeparatorChar);
+					}
+					path.append(file.getPath());
+				}
+				resolved.set(i + 1, path.toString());
+			}
+		}
+		return resolved;
+	}
+
+	private static boolean writeIfChanged(File file, byte[] data) throws IOException {
+		if (file.exists() && file.length() == data.length && Arrays.equals(Files.readAllBytes(file.toPath()), data)) {
+			return false;
+		}
+		OutputStream os = null;
+
+		try {
+			os = new FileOutputStream(file);
+			os.write(data);
+		} finally {
+			FileUtil.cleanupStream(os);
+		}
+		return true;
+	}
+
+	private static File getCanonicalFile(File file) {
+		try {
+			return file.getCanonicalFile();
+		} catch (IOException e) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	/**
+	 * The result of a compile.
+	 */
+	public static final class Result {
+		private final boolean success;
+		private final List<File> writtenClassFiles;
+
+		Result(boolean success, List<File> writtenClassFiles) {
+			this.success = success;
+			this.writtenClassFiles = writtenClassFiles;
+		}
+
+		/**
+		 * Checks if the sources were compiled without errors.
+		 */
+		public boolean isSuccess() {
+			return success;
+		}
+
+		/**
+		 * Returns the class files that were written because their content has changed.
+		 */
+		public List<File> getWrittenClassFiles() {
+			return writtenClassFiles;
+		}
+	}
+
+	/**
+	 * A set of source files that was compiled successfully, with the resolved compiler options it was compiled with,
+	 * the source files the compile has read as they were then, and the class files compiled from them.
+	 */
+	private static final class CompiledSet {
+		private final List<String> options;
+		private final Map<File, SourceState> sources = new HashMap<File, SourceState>();
+		private final List<File> classFiles;
+
+		CompiledSet(List<String> options, Set<File> sourceFiles, List<File> classFiles) {
+			this.options = options;
+			this.classFiles = classFiles;
+
+			for (File sourceFile : sourceFiles) {
+				sources.put(sourceFile, new SourceState(sourceFile));
+			}
+		}
+
+		boolean isUpToDate(List<String> options) {
+			if (classFiles.isEmpty() || !options.equals(this.options)) {
+				return false;
+			}
+			for (Map.Entry<File, SourceState> entry : sources.entrySet()) {
+				if (!entry.getValue().equals(new SourceState(entry.getKey()))) {
+					return false;
+				}
+			}
+			for (File classFile : classFiles) {
+				if (!classFile.exists()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The modification time and length of a source file.
+	 */
+	private static final class SourceState {
+		private final long lastModified;
+		private final long length;
+
+		SourceState(File sourceFile) {
+			this.lastModified = sourceFile.lastModified();
+			this.length = sourceFile.length();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SourceState)) {
+				return false;
+			}
+			final SourceState other = (SourceState) obj;
+
+			return lastModified == other.lastModified && length == other.length;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (length ^ lastModified);
+		}
+	}
+
+	/**
+	 * Keeps the class files written by the compiler in memory, by the files the standard file manager would have
+	 * written them to, and the source files they were compiled from.
+	 */
+	private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+		final Map<File, byte[]> classFiles = new LinkedHashMap<File, byte[]>();
+		final Set<File> compiledSources = new LinkedHashSet<File>();
+
+		MemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+				FileObject sibling) throws IOException {
+			final JavaFileObject target = super.getJavaFileForOutput(location, className, kind, sibling);
+
+			if (kind != JavaFileObject.Kind.CLASS) {
+				return target;
+			}
+			final File targetFile = getCanonicalFile(new File(target.toUri()));
+
+			// The sibling is the source file, also of the classes the compiler has found on the class path as sources
+			if (sibling != null && "file".equals(sibling.toUri().getScheme())) {
+				compiledSources.add(getCanonicalFile(new File(sibling.toUri())));
+			}
+			return new SimpleJavaFileObject(target.toUri(), kind) {
+				@Override
+				public OutputStream openOutputStream() {
+					return new ByteArrayOutputStream() {
+						@Override
+						public void close() {
+							classFiles.put(targetFile, toByteArray());
+						}
+					};
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.ui.editor;
+
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Tests that the {@link RobotCompilerService} compiles a robot in process, and only skips it when neither the sources
+ * nor the compiler options have changed.
+ */
+public class RobotCompilerServiceTest {
+
+	private static final String ROBOT_SOURCE = "public class TestBot extends robocode.Robot {\n"
+			+ "\tpublic void run() {\n" + "\t\tahead(100);\n" + "\t}\n" + "}\n";
+
+	// A robot with a class of its own, whose constant is compiled into the robot
+	private static final String DEPENDENT_ROBOT_SOURCE = "public class TestBot extends robocode.Robot {\n"
+			+ "\tpublic void run() {\n" + "\t\tahead(Distance.VALUE);\n" + "\t}\n" + "}\n";
+
+	private RobotCompilerService service;
+	private File tempDir;
+	private File sourceFile;
+	private File classFile;
+	private String apiClassPath;
+
+	@Before
+	public void setUp() throws IOException, URISyntaxException {
+		service = new RobotCompilerService();
+		Assert.assertTrue("The tests need a JDK", service.isAvailable());
+
+		tempDir = Files.createTempDirectory("robotcompiler").toFile();
+		sourceFile = new File(tempDir, "TestBot.java");
+		classFile = new File(tempDir, "TestBot.class");
+		Files.write(sourceFile.toPath(), ROBOT_SOURCE.getBytes(StandardCharsets.UTF_8));
+
+		apiClassPath = new File(robocode.Robot.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+				.getPath();
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = tempDir != null ? tempDir.listFiles() : null;
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+			tempDir.delete();
+		}
+	}
+
+	@Test
+	public void compilesSampleRobot() throws IOException {
+		final StringWriter output = new StringWriter();
+		final RobotCompilerService.Result result = compile(output, "-classpath", apiClassPath);
+
+		Assert.assertTrue(output.toString(), result.isSuccess());
+		Assert.assertTrue(classFile.exists());
+		Assert.assertEquals(Collections.singletonList(classFile.getCanonicalFile()), result.getWrittenClassFiles());
+	}
+
+	@Test
+	public void skipsUnchangedRobot() {
+		Assert.assertTrue(compile(new StringWriter(), "-classpath", apiClassPath).isSuccess());
+
+		final RobotCompilerService.Result result = compile(new StringWriter(), "-classpath", apiClassPath);
+
+		Assert.assertTrue(result.isSuccess());
+		Assert.assertTrue(result.getWrittenClassFiles().isEmpty());
+	}
+
+	@Test
+	public void compilesAgainWhenOptionsChange() {
+		Assert.assertTrue(compile(new StringWriter(), "-g:none", "-classpath", apiClassPath).isSuccess());
+
+		// The debug information changes the class file
+		final RobotCompilerService.Result result = compile(new StringWriter(), "-g", "-classpath", apiClassPath);
+
+		Assert.assertTrue(result.isSuccess());
+		Assert.assertEquals(1, result.getWrittenClassFiles().size());
+	}
+
+	@Test
+	public void compilesAgainWhenClassPathChanges() {
+		Assert.assertTrue(compile(new StringWriter(), "-classpath", apiClassPath).isSuccess());
+
+		// Without the Robocode API on the class path, the robot must fail to compile instead of being skipped
+		final StringWriter output = new StringWriter();
+
+		Assert.assertFalse(compile(output, "-classpath", tempDir.getPath()).isSuccess());
+		Assert.assertTrue(output.toString(), output.toString().contains("robocode"));
+	}
+
+	@Test
+	public void compilesAgainWhenClassCompiledAlongChanges() throws IOException {
+		Files.write(sourceFile.toPath(), DEPENDENT_ROBOT_SOURCE.getBytes(StandardCharsets.UTF_8));
+		writeDistance(100);
+
+		// The compiler finds the source of the other class on the class path, and compiles it along with the robot
+		final String classPath = apiClassPath + File.pathSeparator + tempDir.getPath();
+
+		Assert.assertTrue(compile(new StringWriter(), "-classpath", classPath).isSuccess());
+		Assert.assertTrue(new File(tempDir, "Distance.class").exists());
+
+		writeDistance(2000);
+		final RobotCompilerService.Result result = compile(new StringWriter(), "-classpath", classPath);
+
+		Assert.assertTrue(result.isSuccess());
+		Assert.assertTrue(result.getWrittenClassFiles().contains(classFile.getCanonicalFile()));
+		Assert.assertTrue(result.getWrittenClassFiles().contains(new File(tempDir, "Distance.class").getCanonicalFile()));
+	}
+
+	@Test
+	public void compilesWholeSetWhenOneSourceChanges() throws IOException {
+		Files.write(sourceFile.toPath(), DEPENDENT_ROBOT_SOURCE.getBytes(StandardCharsets.UTF_8));
+		final File distanceFile = writeDistance(100);
+		final List<File> sourceFiles = Arrays.asList(sourceFile, distanceFile);
+		final List<String> options = Arrays.asList("-classpath", apiClassPath);
+
+		Assert.assertTrue(service.compile(sourceFiles, options, new StringWriter()).isSuccess());
+		Assert.assertTrue(service.compile(sourceFiles, options, new StringWriter()).getWrittenClassFiles().isEmpty());
+
+		// Only the other class has changed, but its constant is compiled into the robot
+		writeDistance(2000);
+		final RobotCompilerService.Result result = service.compile(sourceFiles, options, new StringWriter());
+
+		Assert.assertTrue(result.isSuccess());
+		Assert.assertTrue(result.getWrittenClassFiles().contains(classFile.getCanonicalFile()));
+	}
+
+	private File writeDistance(int value) throws IOException {
+		final File file = new File(tempDir, "Distance.java");
+		final boolean existed = file.exists();
+
+		Files.write(file.toPath(), ("class Distance {\n\tstatic final int VALUE = " + value + ";\n}\n").getBytes(
+				StandardCharsets.UTF_8));
+		if (existed) {
+			// Newer than the class file, even on file systems with a coarse modification time
+			Assert.assertTrue(file.setLastModified(System.currentTimeMillis() + 10000));
+		}
+		return file;
+	}
+
+	private RobotCompilerService.Result compile(StringWriter output, String... options) {
+		final List<String> optionList = Arrays.asList(options);
+
+		return service.compile(Collections.singletonList(sourceFile), optionList, output);
+	}
+}
@@ -9,6 +9,7 @@ dependencies {
     implementation(project(":robocode.battle"))
     implementation("org.picocontainer:picocontainer:2.15")
     runtimeOnly(project(":robocode.sound"))
+    testImplementation("junit:junit:4.13.2")
 }
 
 description = "Robocode UI"
@@ -11,6 +11,7 @@ package net.sf.robocode.ui;
 import net.sf.robocode.settings.ISettingsManager;
 import net.sf.robocode.ui.gfx.ImageUtil;
 import net.sf.robocode.ui.gfx.RenderImage;
+import net.sf.robocode.ui.gfx.RotatedRenderImage;
 
 import java.awt.*;
 import java.util.*;
@@ -18,6 +19,12 @@ import java.util.List;
 
 
 /**
+ * Loads and caches the images of the battle view. The methods are synchronized, as the images are also used by the
+ * threads of the {@link net.sf.robocode.ui.battleview.OffscreenBattleRenderer}.
+ * <p>
+ * When the robot images are pre-rotated, the colored robot images are {@link RotatedRenderImage}s, and the colors
+ * least recently used are removed from the caches when the rotated images would use more than the memory budget.
+ *
  * @author Mathew A. Nelson (original)
  * @author Flemming N. Larsen (contributor)
  * @author Titus Chen (contributor)
@@ -37,15 +44,22 @@ public class ImageManager implements IImageManager {
 
 	private static final int MAX_NUM_COLORS = 256;
 
-	private HashMap<Integer, RenderImage> robotBodyImageCache;
-	private HashMap<Integer, RenderImage> robotGunImageCache;
-	private HashMap<Integer, RenderImage> robotRadarImageCache;
+	// The number of headings the robot images are rotated to, and the memory the rotated images of each robot part
+	// (body, gun and radar) may use at most
+	private static final int NUM_ROTATED_HEADINGS = 128;
+	private static final long ROTATED_IMAGES_MEMORY_BUDGET = 32 * 1024 * 1024;
+
+	private boolean preRotateImages;
+
+	private RenderCache robotBodyImageCache;
+	private RenderCache robotGunImageCache;
+	private RenderCache robotRadarImageCache;
 
 	public ImageManager(ISettingsManager properties) {
 		this.properties = properties;
 	}
 
-	public void initialize() {
+	public synchronized void initialize() {
 		// Note that initialize could be called in order to reset all images (image buffering)
 
 		// Reset image cache
@@ -55,9 +69,11 @@ public class ImageManager implements IImageManager {
 		bodyImage = null;
 		gunImage = null;
 		radarImage = null;
-		robotBodyImageCache = new RenderCache<Integer, RenderImage>();
-		robotGunImageCache = new RenderCache<Integer, RenderImage>();
-		robotRadarImageCache = new RenderCache<Integer, RenderImage>();
+		robotBodyImageCache = new RenderCache();
+		robotGunImageCache = new RenderCache();
+		robotRadarImageCache = new RenderCache();
+
+		preRotateImages = properties.getOptionsRenderingPreRotateImages();
 
 		// Read images into the cache
 		getBodyImage();
@@ -66,14 +82,14 @@ public class ImageManager implements IImageManager {
 		getExplosionRenderImage(0, 0);
 	}
 
-	public Image getGroundTileImage(int index) {
+	public synchronized Image getGroundTileImage(int index) {
 		if (groundImages[index] == null) {
 			groundImages[index] = getImage("/net/sf/robocode/ui/images/ground/blue_metal/blue_metal_" + index + ".png");
 		}
 		return groundImages[index];
 	}
 
-	public RenderImage getExplosionRenderImage(int which, int frame) {
+	public synchronized RenderImage getExplosionRenderImage(int which, int frame) {
 		if (explosionRenderImages == null) {
 			int numExplosion, numFrame;
 			String filename;
@@ -111,7 +127,7 @@ public class ImageManager implements IImageManager {
 		return explosionRenderImages[which][frame];
 	}
 
-	public RenderImage getExplosionDebriseRenderImage() {
+	public synchronized RenderImage getExplosionDebriseRenderImage() {
 		if (debriseRenderImage == null) {
 			debriseRenderImage = new RenderImage(getImage("/net/sf/robocode/ui/images/ground/explode_debris.png"));
 		}
@@ -166,43 +182,50 @@ public class ImageManager implements IImageManager {
 		return radarImage;
 	}
 
-	public RenderImage getColoredBodyRenderImage(Integer color) {
+	public synchronized RenderImage getColoredBodyRenderImage(Integer color) {
 		RenderImage img = robotBodyImageCache.get(color);
 
 		if (img == null) {
-			img = new RenderImage(ImageUtil.createColouredRobotImage(getBodyImage(), new Color(color, true)));
+			img = createRobotRenderImage(ImageUtil.createColouredRobotImage(getBodyImage(), new Color(color, true)));
 			robotBodyImageCache.put(color, img);
 		}
 		return img;
 	}
 
-	public RenderImage getColoredGunRenderImage(Integer color) {
+	public synchronized RenderImage getColoredGunRenderImage(Integer color) {
 		RenderImage img = robotGunImageCache.get(color);
 
 		if (img == null) {
-			img = new RenderImage(ImageUtil.createColouredRobotImage(getGunImage(), new Color(color, true)));
+			img = createRobotRenderImage(ImageUtil.createColouredRobotImage(getGunImage(), new Color(color, true)));
 			robotGunImageCache.put(color, img);
 		}
 		return img;
 	}
 
-	public RenderImage getColoredRadarRenderImage(Integer color) {
+	public synchronized RenderImage getColoredRadarRenderImage(Integer color) {
 		RenderImage img = robotRadarImageCache.get(color);
 
 		if (img == null) {
-			img = new RenderImage(ImageUtil.createColouredRobotImage(getRadarImage(), new Color(color, true)));
+			img = createRobotRenderImage(ImageUtil.createColouredRobotImage(getRadarImage(), new Color(color, true)));
 			robotRadarImageCache.put(color, img);
 		}
 		return img;
 	}
 
+	private RenderImage createRobotRenderImage(Image image) {
+		if (preRotateImages) {
+			return new RotatedRenderImage(image, NUM_ROTATED_HEADINGS);
+		}
+		return new RenderImage(image);
+	}
+
 	/**
 	 * Class used for caching rendered robot parts in various colors.
 	 *
 	 * @author Titus Chen
 	 */
 	@SuppressWarnings("serial")
-	private static class RenderCache<K, V> extends LinkedHashMap<K, V> {
+	private static class RenderCache extends LinkedHashMap<Integer, RenderImage> {
 
 		/* Note about initial capacity:
 		 * To avoid rehashing (inefficient though probably unavoidable), initial
@@ -229,7 +252,15 @@ public class ImageManager implements IImageManager {
 		}
 
 		@Override
-		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+		protected boolean removeEldestEntry(Map.Entry<Integer, RenderImage> eldest) {
+			if (eldest.getValue() instanceof RotatedRenderImage) {
+				// All images of a cache are of the same robot part, and hence have the same size
+				long memorySize = ((RotatedRenderImage) eldest.getValue()).getMemorySize();
+
+				if (size() > 1 && size() * memorySize > ROTATED_IMAGES_MEMORY_BUDGET) {
+					return true;
+				}
+			}
 			return size() > MAX_NUM_COLORS;
 		}
 	}
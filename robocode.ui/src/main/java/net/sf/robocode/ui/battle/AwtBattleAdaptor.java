@@ -13,7 +13,6 @@ import net.sf.robocode.battle.events.BattleEventDispatcher;
 import net.sf.robocode.battle.snapshot.RobotSnapshot;
 import net.sf.robocode.io.Logger;
 import robocode.control.events.*;
-import robocode.control.snapshot.IRobotSnapshot;
 import robocode.control.snapshot.ITurnSnapshot;
 
 import javax.swing.*;
@@ -102,14 +101,10 @@ public final class AwtBattleAdaptor {
 				if (lastSnapshot != current || !skipSameFrames || forceRepaint) {
 					lastSnapshot = current;
 
-					IRobotSnapshot[] robots = null;
-
 					if (readoutText) {
 						synchronized (snapshot) {
-							robots = lastSnapshot.getRobots();
-
-							for (int i = 0; i < robots.length; i++) {
-								RobotSnapshot robot = (RobotSnapshot) robots[i];
+							for (int i = 0; i < lastSnapshot.getRobotCount(); i++) {
+								RobotSnapshot robot = (RobotSnapshot) lastSnapshot.getRobot(i);
 
 								final StringBuilder cache = outCache[i];
 
@@ -124,8 +119,8 @@ public final class AwtBattleAdaptor {
 					battleEventDispatcher.onTurnEnded(new TurnEndedEvent(lastSnapshot));
 
 					if (readoutText) {
-						for (IRobotSnapshot robot : robots) {
-							((RobotSnapshot) robot).setOutputStreamSnapshot(null);
+						for (int i = 0; i < lastSnapshot.getRobotCount(); i++) {
+							((RobotSnapshot) lastSnapshot.getRobot(i)).setOutputStreamSnapshot(null);
 						}
 					}
 
@@ -180,10 +175,10 @@ public final class AwtBattleAdaptor {
 				snapshot.set(event.getTurnSnapshot());
 			}
 
-			final IRobotSnapshot[] robots = event.getTurnSnapshot().getRobots();
+			final ITurnSnapshot turnSnapshot = event.getTurnSnapshot();
 
-			for (int i = 0; i < robots.length; i++) {
-				RobotSnapshot robot = (RobotSnapshot) robots[i];
+			for (int i = 0; i < turnSnapshot.getRobotCount(); i++) {
+				RobotSnapshot robot = (RobotSnapshot) turnSnapshot.getRobot(i);
 				final int r = i;
 				final String text = robot.getOutputStreamSnapshot();
 
@@ -0,0 +1,995 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.ui.battleview;
+
+
+import net.sf.robocode.battle.snapshot.RobotSnapshot;
+import net.sf.robocode.robotpaint.Graphics2DSerialized;
+import net.sf.robocode.robotpaint.IGraphicsProxy;
+import net.sf.robocode.settings.ISettingsManager;
+import net.sf.robocode.ui.IImageManager;
+import net.sf.robocode.ui.gfx.GraphicsState;
+import net.sf.robocode.ui.gfx.RenderImage;
+import robocode.BattleRules;
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import static java.lang.Math.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Draws the turns of a battle onto a graphics context of a given size, for the {@link BattleView} and for the
+ * {@link OffscreenBattleRenderer}.
+ * <p>
+ * A renderer keeps the drawing state of one view, so a renderer must only be used by one thread at a time. The images
+ * of the {@link IImageManager} are shared by all renderers.
+ * <p>
+ * The battle view draws with {@link #drawBattleCached}, which keeps the background, ground and sentry border in a
+ * cached layer, and keeps the last frame in another layer. Only the regions of the last frame covered by the robots,
+ * bullets, texts and scan arcs of the previous and the current turn are restored from the cached layer and drawn
+ * again. The whole frame is drawn again when robots paint, as their paintings can cover anything. When the same turn is
+ * drawn again, e.g. while the battle is paused, the last frame is reused without processing the robot paintings again.
+ *
+ * @author Mathew A. Nelson (original)
+ * @author Flemming N. Larsen (original)
+ * @author Pavel Savara (contributor)
+ */
+class BattleRenderer {
+
+	private final static Color CANVAS_BG_COLOR = SystemColor.controlDkShadow;
+
+	private final static Area BULLET_AREA = new Area(new Ellipse2D.Double(-0.5, -0.5, 1, 1));
+
+	private final static int ROBOT_TEXT_Y_OFFSET = 24;
+
+	// The size of the tiles the dirty regions are rounded to, which keeps the clip simple
+	private final static int DIRTY_TILE_SIZE = 32;
+
+	private BattleRules battleRules;
+
+	// The battle and battlefield,
+	private BattleField battleField = new BattleField(800, 600);
+
+	// The size of the view
+	private int width;
+	private int height;
+
+	private double scale = 1.0;
+
+	// Ground
+	private int[][] groundTiles;
+	private Long groundSeed;
+
+	private final int groundTileWidth = 64;
+	private final int groundTileHeight = 64;
+
+	private Image groundImage;
+
+	// Draw option related things
+	private boolean drawRobotName;
+	private boolean drawRobotEnergy;
+	private boolean drawScanArcs;
+	private boolean drawExplosions;
+	private boolean drawGround;
+	private boolean drawExplosionDebris;
+
+	private RenderingHints renderingHints;
+
+	// Fonts and the like
+	private Font smallFont;
+	private FontMetrics smallFontMetrics;
+
+	private final IImageManager imageManager;
+	private final ISettingsManager properties;
+
+	private final MirroredGraphics mirroredGraphics = new MirroredGraphics();
+
+	private final GraphicsState graphicsState = new GraphicsState();
+	private IGraphicsProxy[] robotGraphics;
+
+	// Layer caching for drawBattleCached()
+	private VolatileImage staticLayer;
+	private VolatileImage frameLayer;
+	private boolean isStaticLayerValid;
+	private boolean isFrameLayerValid;
+	private List<Rectangle> lastDrawnBounds = new ArrayList<Rectangle>();
+	private ITurnSnapshot lastFrameSnapshot; // the turn in the frame layer, if it is complete
+
+	// The clip the drawing methods return to, in device space, or null for no clip
+	private Shape baseClip;
+
+	BattleRenderer(ISettingsManager properties, IImageManager imageManager) {
+		this.properties = properties;
+		this.imageManager = imageManager;
+	}
+
+	/**
+	 * Sets up the renderer for a new battle.
+	 *
+	 * @param battleRules the rules of the battle
+	 * @param robotsCount the number of robots in the battle
+	 */
+	void setBattle(BattleRules battleRules, int robotsCount) {
+		this.battleRules = battleRules;
+
+		battleField = new BattleField(battleRules.getBattlefieldWidth(), battleRules.getBattlefieldHeight());
+
+		robotGraphics = new IGraphicsProxy[robotsCount];
+
+		invalidateLayers();
+	}
+
+	/**
+	 * Sets up the renderer for a new battle, where the ground tiles are laid out from a seed, so renderers given the
+	 * same seed paint the same ground.
+	 *
+	 * @param battleRules the rules of the battle
+	 * @param robotsCount the number of robots in the battle
+	 * @param groundSeed the seed of the layout of the ground tiles
+	 */
+	void setBattle(BattleRules battleRules, int robotsCount, long groundSeed) {
+		this.groundSeed = groundSeed;
+		groundTiles = null;
+
+		setBattle(battleRules, robotsCount);
+	}
+
+	/**
+	 * Forgets the robot paintings of the battle that has finished.
+	 */
+	void finishBattle() {
+		robotGraphics = null;
+	}
+
+	BattleField getBattleField() {
+		return battleField;
+	}
+
+	RenderingHints getRenderingHints() {
+		return renderingHints;
+	}
+
+	void loadDisplayOptions() {
+		ISettingsManager props = properties;
+
+		drawRobotName = props.getOptionsViewRobotNames();
+		drawRobotEnergy = props.getOptionsViewRobotEnergy();
+		drawScanArcs = props.getOptionsViewScanArcs();
+		drawGround = props.getOptionsViewGround();
+		drawExplosions = props.getOptionsViewExplosions();
+		drawExplosionDebris = props.getOptionsViewExplosionDebris();
+
+		renderingHints = props.getRenderingHints();
+
+		invalidateLayers();
+	}
+
+	/**
+	 * Makes the next cached drawing draw everything again.
+	 */
+	void invalidateLayers() {
+		isStaticLayerValid = false;
+		isFrameLayerValid = false;
+		lastFrameSnapshot = null;
+	}
+
+	/**
+	 * Sets the size of the view, and scales the battlefield and the fonts to fit into it.
+	 *
+	 * @param width the width of the view
+	 * @param height the height of the view
+	 * @param fontMetrics the metrics of the font used for measuring the robot texts
+	 */
+	void setViewSize(int width, int height, FontMetrics fontMetrics) {
+		this.width = width;
+		this.height = height;
+
+		// If we are scaled...
+		if (width < battleField.getWidth() || height < battleField.getHeight()) {
+			// Use the smaller scale.
+			// Actually we don't need this, since
+			// the RobocodeFrame keeps our aspect ratio intact.
+
+			scale = min((double) width / battleField.getWidth(), (double) height / battleField.getHeight());
+		} else {
+			scale = 1;
+		}
+
+		// Scale font
+		smallFont = new Font("Dialog", Font.PLAIN, (int) (10 / scale));
+		smallFontMetrics = fontMetrics;
+
+		// Initialize ground image
+		if (drawGround) {
+			createGroundImage();
+		} else {
+			groundImage = null;
+		}
+
+		invalidateLayers();
+	}
+
+	private void createGroundImage() {
+		// Reinitialize ground tiles
+
+		Random r = (groundSeed != null) ? new Random(groundSeed) : new Random(); // independent
+
+		final int NUM_HORZ_TILES = battleField.getWidth() / groundTileWidth + 1;
+		final int NUM_VERT_TILES = battleField.getHeight() / groundTileHeight + 1;
+
+		if ((groundTiles == null) || (groundTiles.length != NUM_VERT_TILES) || (groundTiles[0].length != NUM_HORZ_TILES)) {
+
+			groundTiles = new int[NUM_VERT_TILES][NUM_HORZ_TILES];
+			for (int y = NUM_VERT_TILES - 1; y >= 0; y--) {
+				for (int x = NUM_HORZ_TILES - 1; x >= 0; x--) {
+					groundTiles[y][x] = (int) round(r.nextDouble() * 4);
+				}
+			}
+		}
+
+		// Create new buffered image with the ground pre-rendered
+
+		int groundWidth = (int) (battleField.getWidth() * scale);
+		int groundHeight = (int) (battleField.getHeight() * scale);
+
+		groundImage = new BufferedImage(groundWidth, groundHeight, BufferedImage.TYPE_INT_RGB);
+
+		Graphics2D groundGfx = (Graphics2D) groundImage.getGraphics();
+
+		groundGfx.setRenderingHints(renderingHints);
+
+		groundGfx.setTransform(AffineTransform.getScaleInstance(scale, scale));
+
+		for (int y = NUM_VERT_TILES - 1; y >= 0; y--) {
+			for (int x = NUM_HORZ_TILES - 1; x >= 0; x--) {
+				Image img = imageManager.getGroundTileImage(groundTiles[y][x]);
+
+				if (img != null) {
+					groundGfx.drawImage(img, x * groundTileWidth, y * groundTileHeight, null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Draws a turn of the battle, or only the battlefield if there is no turn.
+	 *
+	 * @param g the graphics context of the view
+	 * @param snapShot the turn, or {@code null}
+	 * @param identityTx the transform of the view
+	 */
+	void drawBattle(Graphics2D g, ITurnSnapshot snapShot, AffineTransform identityTx) {
+		// Save the graphics state
+		graphicsState.save(g);
+
+		drawStaticLayer(g, identityTx);
+		drawTurn(g, snapShot, identityTx);
+
+		// Restore the graphics state
+		graphicsState.restore(g);
+	}
+
+	/**
+	 * Draws a turn of the battle like {@link #drawBattle}, but only draws the regions that have changed since the
+	 * last turn drawn by this method, and keeps the parts that do not change in cached images.
+	 *
+	 * @param g the graphics context of the view
+	 * @param snapShot the turn, or {@code null}
+	 * @param identityTx the transform of the view, which must only scale
+	 * @param gc the configuration of the view, which the cached images are made for
+	 */
+	void drawBattleCached(Graphics2D g, ITurnSnapshot snapShot, AffineTransform identityTx, GraphicsConfiguration gc) {
+		final int scaleOnly = AffineTransform.TYPE_UNIFORM_SCALE | AffineTransform.TYPE_GENERAL_SCALE;
+
+		if (gc == null || (identityTx.getType() & ~scaleOnly) != 0) {
+			drawBattle(g, snapShot, identityTx);
+			return;
+		}
+		final int deviceWidth = (int) ceil(width * identityTx.getScaleX());
+		final int deviceHeight = (int) ceil(height * identityTx.getScaleY());
+
+		staticLayer = validateLayer(staticLayer, gc, deviceWidth, deviceHeight);
+		if (staticLayer != null && staticLayer.validate(gc) != VolatileImage.IMAGE_OK) {
+			isStaticLayerValid = false;
+		}
+		frameLayer = validateLayer(frameLayer, gc, deviceWidth, deviceHeight);
+		if (frameLayer != null && frameLayer.validate(gc) != VolatileImage.IMAGE_OK) {
+			isFrameLayerValid = false;
+			lastFrameSnapshot = null;
+		}
+		if (staticLayer == null || frameLayer == null) {
+			drawBattle(g, snapShot, identityTx);
+			return;
+		}
+		if (snapShot != null && snapShot == lastFrameSnapshot && isStaticLayerValid) {
+			// The turn has already been drawn
+			drawFrameLayer(g);
+			return;
+		}
+		if (!isStaticLayerValid) {
+			Graphics2D sg = staticLayer.createGraphics();
+
+			try {
+				sg.setRenderingHints(renderingHints);
+				drawStaticLayer(sg, identityTx);
+			} finally {
+				sg.dispose();
+			}
+			isStaticLayerValid = true;
+			isFrameLayerValid = false;
+		}
+
+		Graphics2D fg = frameLayer.createGraphics();
+
+		try {
+			fg.setRenderingHints(renderingHints);
+
+			final List<Rectangle> drawnBounds = getDrawnBounds(fg, snapShot, identityTx);
+
+			baseClip = null;
+			if (isFrameLayerValid && drawnBounds != null) {
+				baseClip = getDirtyRegion(drawnBounds, deviceWidth, deviceHeight);
+			}
+			// Restores the static layer within the dirty region, and draws the turn on top of it
+			fg.setClip(baseClip);
+			fg.drawImage(staticLayer, 0, 0, null);
+			drawTurn(fg, snapShot, identityTx);
+
+			lastDrawnBounds = drawnBounds;
+			isFrameLayerValid = drawnBounds != null && !staticLayer.contentsLost();
+			lastFrameSnapshot = staticLayer.contentsLost() ? null : snapShot;
+		} finally {
+			baseClip = null;
+			fg.dispose();
+		}
+
+		drawFrameLayer(g);
+	}
+
+	private void drawFrameLayer(Graphics2D g) {
+		final AffineTransform savedTx = g.getTransform();
+
+		g.setTransform(new AffineTransform());
+		g.drawImage(frameLayer, 0, 0, null);
+		g.setTransform(savedTx);
+
+		if (frameLayer.contentsLost()) {
+			isFrameLayerValid = false;
+			lastFrameSnapshot = null;
+		}
+	}
+
+	private VolatileImage validateLayer(VolatileImage layer, GraphicsConfiguration gc, int deviceWidth,
+			int deviceHeight) {
+		if (layer != null && layer.getWidth() == deviceWidth && layer.getHeight() == deviceHeight) {
+			return layer;
+		}
+		if (layer != null) {
+			layer.flush();
+		}
+		invalidateLayers();
+		if (deviceWidth <= 0 || deviceHeight <= 0) {
+			return null;
+		}
+		return gc.createCompatibleVolatileImage(deviceWidth, deviceHeight);
+	}
+
+	/**
+	 * Returns the union of the regions drawn in the last and the current turn, rounded up to whole tiles so the
+	 * region consists of a few rectangles, or {@code null} if most of the frame must be drawn anyway.
+	 */
+	private Shape getDirtyRegion(List<Rectangle> drawnBounds, int deviceWidth, int deviceHeight) {
+		final int columns = (deviceWidth + DIRTY_TILE_SIZE - 1) / DIRTY_TILE_SIZE;
+		final int rows = (deviceHeight + DIRTY_TILE_SIZE - 1) / DIRTY_TILE_SIZE;
+		final boolean[] dirtyTiles = new boolean[columns * rows];
+
+		markDirtyTiles(dirtyTiles, columns, rows, lastDrawnBounds);
+		markDirtyTiles(dirtyTiles, columns, rows, drawnBounds);
+
+		int dirtyCount = 0;
+
+		for (boolean isDirty : dirtyTiles) {
+			if (isDirty) {
+				dirtyCount++;
+			}
+		}
+		if (dirtyCount > dirtyTiles.length / 2) {
+			// Clipping to many small rectangles costs more than drawing everything
+			return null;
+		}
+
+		final Path2D.Float region = new Path2D.Float(Path2D.WIND_NON_ZERO);
+
+		for (int row = 0; row < rows; row++) {
+			int column = 0;
+
+			while (column < columns) {
+				if (!dirtyTiles[row * columns + column]) {
+					column++;
+					continue;
+				}
+				final int start = column;
+
+				while (column < columns && dirtyTiles[row * columns + column]) {
+					column++;
+				}
+				region.append(new Rectangle(start * DIRTY_TILE_SIZE, row * DIRTY_TILE_SIZE,
+						(column - start) * DIRTY_TILE_SIZE, DIRTY_TILE_SIZE), false);
+			}
+		}
+		return region;
+	}
+
+	private static void markDirtyTiles(boolean[] dirtyTiles, int columns, int rows, List<Rectangle> bounds) {
+		for (Rectangle r : bounds) {
+			final int firstColumn = max(0, floorDiv(r.x, DIRTY_TILE_SIZE));
+			final int lastColumn = min(columns - 1, floorDiv(r.x + r.width, DIRTY_TILE_SIZE));
+			final int firstRow = max(0, floorDiv(r.y, DIRTY_TILE_SIZE));
+			final int lastRow = min(rows - 1, floorDiv(r.y + r.height, DIRTY_TILE_SIZE));
+
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					dirtyTiles[row * columns + column] = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the bounds in device space of everything drawn on top of the static layer for a turn, or {@code null}
+	 * if the whole frame must be drawn.
+	 */
+	private List<Rectangle> getDrawnBounds(Graphics2D g, ITurnSnapshot snapShot, AffineTransform identityTx) {
+		final List<Rectangle> bounds = new ArrayList<Rectangle>();
+		final AffineTransform fieldTx = getFieldTransform(identityTx);
+
+		if (snapShot == null) {
+			return bounds;
+		}
+		final int battleFieldHeight = battleField.getHeight();
+
+		for (int i = 0; i < snapShot.getRobotCount(); i++) {
+			final IRobotSnapshot robotSnapshot = snapShot.getRobot(i);
+
+			if (((RobotSnapshot) robotSnapshot).getGraphicsCalls() != null && robotSnapshot.isPaintEnabled()) {
+				// Robot paintings can be anywhere
+				return null;
+			}
+			final double x = robotSnapshot.getX();
+			final double y = battleFieldHeight - robotSnapshot.getY();
+
+			if (robotSnapshot.getState().isDead()) {
+				if (drawGround && drawExplosionDebris) {
+					addBounds(bounds, fieldTx, imageManager.getExplosionDebriseRenderImage().getBounds(
+							AffineTransform.getTranslateInstance(x, y)));
+				}
+				continue;
+			}
+			if (drawScanArcs) {
+				final Arc2D scanArc = getScanArc(robotSnapshot);
+
+				if (scanArc != null) {
+					addBounds(bounds, fieldTx, scanArc.getBounds2D());
+				}
+			}
+			AffineTransform at = AffineTransform.getTranslateInstance(x, y);
+
+			at.rotate(robotSnapshot.getBodyHeading());
+			addBounds(bounds, fieldTx, imageManager.getColoredBodyRenderImage(robotSnapshot.getBodyColor()).getBounds(at));
+
+			at = AffineTransform.getTranslateInstance(x, y);
+			at.rotate(robotSnapshot.getGunHeading());
+			addBounds(bounds, fieldTx, imageManager.getColoredGunRenderImage(robotSnapshot.getGunColor()).getBounds(at));
+
+			if (!robotSnapshot.isDroid()) {
+				at = AffineTransform.getTranslateInstance(x, y);
+				at.rotate(robotSnapshot.getRadarHeading());
+				addBounds(bounds, fieldTx,
+						imageManager.getColoredRadarRenderImage(robotSnapshot.getRadarColor()).getBounds(at));
+			}
+
+			final int textX = (int) robotSnapshot.getX();
+			final int textY = battleFieldHeight - (int) robotSnapshot.getY();
+
+			if (drawRobotEnergy) {
+				addBounds(bounds, fieldTx, getStringBounds(g, getEnergyString(robotSnapshot), textX,
+						textY - ROBOT_TEXT_Y_OFFSET - smallFontMetrics.getHeight() / 2));
+			}
+			if (drawRobotName) {
+				addBounds(bounds, fieldTx, getStringBounds(g, robotSnapshot.getVeryShortName(), textX,
+						textY + ROBOT_TEXT_Y_OFFSET + smallFontMetrics.getHeight() / 2));
+			}
+		}
+
+		for (int i = 0; i < snapShot.getBulletCount(); i++) {
+			final IBulletSnapshot bulletSnapshot = snapShot.getBullet(i);
+
+			if (bulletSnapshot.getState().isActive()) {
+				addBounds(bounds, fieldTx,
+						getBulletTransform(bulletSnapshot).createTransformedShape(BULLET_AREA).getBounds2D());
+			} else if (drawExplosions) {
+				final RenderImage explosionRenderImage = getExplosionRenderImage(bulletSnapshot);
+
+				if (explosionRenderImage != null) {
+					addBounds(bounds, fieldTx, explosionRenderImage.getBounds(getBulletTransform(bulletSnapshot)));
+				}
+			}
+		}
+		return bounds;
+	}
+
+	private static void addBounds(List<Rectangle> bounds, AffineTransform fieldTx, Rectangle2D fieldBounds) {
+		bounds.add(toDeviceBounds(fieldTx, fieldBounds));
+	}
+
+	private static Rectangle toDeviceBounds(AffineTransform fieldTx, Rectangle2D fieldBounds) {
+		final Rectangle deviceBounds = fieldTx.createTransformedShape(fieldBounds).getBounds();
+
+		// Leaves room for antialiasing
+		deviceBounds.grow(2, 2);
+		return deviceBounds;
+	}
+
+	private AffineTransform getFieldTransform(AffineTransform identityTx) {
+		// Calculate border space
+		double dx = (width - scale * battleField.getWidth()) / 2;
+		double dy = (height - scale * battleField.getHeight()) / 2;
+
+		// Scale and translate the graphics
+		AffineTransform at = new AffineTransform(identityTx);
+		at.concatenate(AffineTransform.getTranslateInstance(dx, dy));
+		at.concatenate(AffineTransform.getScaleInstance(scale, scale));
+		return at;
+	}
+
+	/**
+	 * Draws the parts of the battle that do not change between turns: the background, ground and sentry border.
+	 */
+	private void drawStaticLayer(Graphics2D g, AffineTransform identityTx) {
+		// Reset transform
+		g.setTransform(identityTx);
+
+		// Reset clip
+		g.setClip(null);
+
+		// Clear canvas
+		g.setColor(CANVAS_BG_COLOR);
+		g.fillRect(0, 0, width, height);
+
+		g.setTransform(getFieldTransform(identityTx));
+
+		// Set the clip rectangle
+		g.setClip(0, 0, battleField.getWidth(), battleField.getHeight());
+
+		// Draw ground
+		drawGround(g, identityTx);
+	}
+
+	/**
+	 * Draws the parts of the battle that change between turns on top of the static layer.
+	 */
+	private void drawTurn(Graphics2D g, ITurnSnapshot snapShot, AffineTransform identityTx) {
+		g.setTransform(getFieldTransform(identityTx));
+
+		// Set the clip rectangle
+		resetClip(g);
+		g.clip(new Rectangle(0, 0, battleField.getWidth(), battleField.getHeight()));
+
+		if (snapShot != null) {
+			// Draw scan arcs
+			drawScanArcs(g, snapShot);
+
+			// Draw robots
+			drawRobots(g, snapShot);
+
+			// Draw robot (debug) paintings
+			drawRobotPaint(g, snapShot);
+		}
+
+		// Draw the border of the battlefield
+		drawBorderEdge(g);
+
+		if (snapShot != null) {
+			// Draw all bullets
+			drawBullets(g, snapShot);
+
+			// Draw all text
+			drawText(g, snapShot);
+		}
+	}
+
+	/**
+	 * Removes the clip, except for the dirty region when only that is drawn.
+	 */
+	private void resetClip(Graphics2D g) {
+		if (baseClip == null) {
+			g.setClip(null);
+		} else {
+			final AffineTransform savedTx = g.getTransform();
+
+			g.setTransform(new AffineTransform());
+			g.setClip(baseClip);
+			g.setTransform(savedTx);
+		}
+	}
+
+	private void drawGround(Graphics2D g, AffineTransform identityTx) {
+		if (drawGround) {
+			// Create pre-rendered ground image if it is not available
+			if (groundImage == null) {
+				createGroundImage();
+			}
+			// Draw the pre-rendered ground if it is available
+			if (groundImage != null) {
+				int groundWidth = (int) (battleField.getWidth() * scale) + 1;
+				int groundHeight = (int) (battleField.getHeight() * scale) + 1;
+
+				int dx = (width - groundWidth) / 2;
+				int dy = (height - groundHeight) / 2;
+
+				final AffineTransform savedTx = g.getTransform();
+
+				g.setTransform(identityTx);
+				g.drawImage(groundImage, dx, dy, groundWidth, groundHeight, null);
+
+				g.setTransform(savedTx);
+			}
+		} else {
+			// Ground should not be drawn
+			g.setColor(Color.BLACK);
+			g.fillRect(0, 0, battleField.getWidth(), battleField.getHeight());
+		}
+
+		// Draw Sentry Border if it is enabled visually
+		if (properties.getOptionsViewSentryBorder()) {
+			drawSentryBorder(g);
+		}
+	}
+
+	private void drawSentryBorder(Graphics2D g) {
+		int borderSentrySize = battleRules.getSentryBorderSize();
+
+		g.setColor(new Color(0xff, 0x00, 0x00, 0x80));
+		g.fillRect(0, 0, borderSentrySize, battleField.getHeight());
+		g.fillRect(battleField.getWidth() - borderSentrySize, 0, borderSentrySize, battleField.getHeight());
+		g.fillRect(borderSentrySize, 0, battleField.getWidth() - 2 * borderSentrySize, borderSentrySize);
+		g.fillRect(borderSentrySize, battleField.getHeight() - borderSentrySize,
+				battleField.getWidth() - 2 * borderSentrySize, borderSentrySize);
+	}
+
+	private void drawBorderEdge(Graphics2D g) {
+		final Shape savedClip = g.getClip();
+
+		resetClip(g);
+
+		g.setColor(Color.RED);
+		g.drawRect(-1, -1, battleField.getWidth() + 2, battleField.getHeight() + 2);
+
+		g.setClip(savedClip);
+	}
+
+	private void drawScanArcs(Graphics2D g, ITurnSnapshot snapShot) {
+		if (drawScanArcs) {
+			for (int i = 0; i < snapShot.getRobotCount(); i++) {
+				final IRobotSnapshot robotSnapshot = snapShot.getRobot(i);
+
+				if (robotSnapshot.getState().isAlive()) {
+					drawScanArc(g, robotSnapshot);
+				}
+			}
+		}
+	}
+
+	private void drawRobots(Graphics2D g, ITurnSnapshot snapShot) {
+		double x, y;
+		AffineTransform at;
+		int battleFieldHeight = battleField.getHeight();
+
+		if (drawGround && drawExplosionDebris) {
+			RenderImage explodeDebrise = imageManager.getExplosionDebriseRenderImage();
+
+			for (int i = 0; i < snapShot.getRobotCount(); i++) {
+				final IRobotSnapshot robotSnapshot = snapShot.getRobot(i);
+
+				if (robotSnapshot.getState().isDead()) {
+					x = robotSnapshot.getX();
+					y = battleFieldHeight - robotSnapshot.getY();
+
+					at = AffineTransform.getTranslateInstance(x, y);
+
+					explodeDebrise.paint(g, at);
+				}
+			}
+		}
+
+		for (int i = 0; i < snapShot.getRobotCount(); i++) {
+			final IRobotSnapshot robotSnapshot = snapShot.getRobot(i);
+
+			if (robotSnapshot.getState().isAlive()) {
+				x = robotSnapshot.getX();
+				y = battleFieldHeight - robotSnapshot.getY();
+
+				at = AffineTransform.getTranslateInstance(x, y);
+				at.rotate(robotSnapshot.getBodyHeading());
+
+				RenderImage robotRenderImage = imageManager.getColoredBodyRenderImage(robotSnapshot.getBodyColor());
+
+				robotRenderImage.paint(g, at);
+
+				at = AffineTransform.getTranslateInstance(x, y);
+				at.rotate(robotSnapshot.getGunHeading());
+
+				RenderImage gunRenderImage = imageManager.getColoredGunRenderImage(robotSnapshot.getGunColor());
+
+				gunRenderImage.paint(g, at);
+
+				if (!robotSnapshot.isDroid()) {
+					at = AffineTransform.getTranslateInstance(x, y);
+					at.rotate(robotSnapshot.getRadarHeading());
+
+					RenderImage radarRenderImage = imageManager.getColoredRadarRenderImage(robotSnapshot.getRadarColor());
+
+					radarRenderImage.paint(g, at);
+				}
+			}
+		}
+	}
+
+	private void drawText(Graphics2D g, ITurnSnapshot snapShot) {
+		final Shape savedClip = g.getClip();
+
+		resetClip(g);
+
+		for (int i = 0; i < snapShot.getRobotCount(); i++) {
+			final IRobotSnapshot robotSnapshot = snapShot.getRobot(i);
+
+			if (robotSnapshot.getState().isDead()) {
+				continue;
+			}
+			int x = (int) robotSnapshot.getX();
+			int y = battleField.getHeight() - (int) robotSnapshot.getY();
+
+			if (drawRobotEnergy) {
+				g.setColor(Color.white);
+				centerString(g, getEnergyString(robotSnapshot), x,
+						y - ROBOT_TEXT_Y_OFFSET - smallFontMetrics.getHeight() / 2);
+			}
+			if (drawRobotName) {
+				g.setColor(Color.white);
+				centerString(g, robotSnapshot.getVeryShortName(), x,
+						y + ROBOT_TEXT_Y_OFFSET + smallFontMetrics.getHeight() / 2);
+			}
+		}
+
+		g.setClip(savedClip);
+	}
+
+	private static String getEnergyString(IRobotSnapshot robotSnapshot) {
+		if (robotSnapshot.getEnergy() == 0 && robotSnapshot.getState().isAlive()) {
+			return "Disabled";
+		}
+		int ll = (int) robotSnapshot.getEnergy();
+		int rl = (int) ((robotSnapshot.getEnergy() - ll + .001) * 10.0);
+
+		if (rl == 10) {
+			rl = 9;
+		}
+		return ll + "." + rl;
+	}
+
+	private void drawRobotPaint(Graphics2D g, ITurnSnapshot turnSnapshot) {
+
+		int robotIndex = 0;
+
+		for (int i = 0; i < turnSnapshot.getRobotCount(); i++) {
+			final IRobotSnapshot robotSnapshot = turnSnapshot.getRobot(i);
+
+			final Object graphicsCalls = ((RobotSnapshot) robotSnapshot).getGraphicsCalls();
+
+			if (graphicsCalls == null || !robotSnapshot.isPaintEnabled()) {
+				continue;
+			}
+
+			// Save the graphics state
+			GraphicsState gfxState = new GraphicsState();
+
+			gfxState.save(g);
+
+			resetClip(g);
+			g.setComposite(AlphaComposite.SrcAtop);
+
+			IGraphicsProxy gfxProxy = getRobotGraphics(robotIndex);
+
+			if (robotSnapshot.isSGPaintEnabled()) {
+				gfxProxy.processTo(g, graphicsCalls);
+			} else {
+				mirroredGraphics.bind(g, battleField.getHeight());
+				gfxProxy.processTo(mirroredGraphics, graphicsCalls);
+				mirroredGraphics.release();
+			}
+
+			// Restore the graphics state
+			gfxState.restore(g);
+
+			robotIndex++;
+		}
+	}
+
+	private IGraphicsProxy getRobotGraphics(int robotIndex) {
+		if (robotGraphics[robotIndex] == null) {
+			robotGraphics[robotIndex] = new Graphics2DSerialized();
+			robotGraphics[robotIndex].setPaintingEnabled(true);
+		}
+		return robotGraphics[robotIndex];
+	}
+
+	private void drawBullets(Graphics2D g, ITurnSnapshot snapShot) {
+		final Shape savedClip = g.getClip();
+
+		resetClip(g);
+
+		for (int i = 0; i < snapShot.getBulletCount(); i++) {
+			final IBulletSnapshot bulletSnapshot = snapShot.getBullet(i);
+
+			if (bulletSnapshot.getState().isActive()) {
+				Area bulletArea = BULLET_AREA.createTransformedArea(getBulletTransform(bulletSnapshot));
+
+				Color bulletColor;
+
+				if (properties.getOptionsRenderingForceBulletColor()) {
+					bulletColor = Color.WHITE;
+				} else {
+					bulletColor = new Color(bulletSnapshot.getColor());
+				}
+				g.setColor(bulletColor);
+				g.fill(bulletArea);
+
+			} else if (drawExplosions) {
+				RenderImage explosionRenderImage = getExplosionRenderImage(bulletSnapshot);
+
+				if (explosionRenderImage != null) {
+					explosionRenderImage.paint(g, getBulletTransform(bulletSnapshot));
+				}
+			}
+		}
+		g.setClip(savedClip);
+	}
+
+	/**
+	 * Returns the transform of a bullet, or of its explosion, from the bullet or explosion shape to the battlefield.
+	 */
+	private AffineTransform getBulletTransform(IBulletSnapshot bulletSnapshot) {
+		double x = bulletSnapshot.getPaintX();
+		double y = battleField.getHeight() - bulletSnapshot.getPaintY();
+
+		AffineTransform at = AffineTransform.getTranslateInstance(x, y);
+
+		if (bulletSnapshot.getState().isActive()) {
+			// radius = sqrt(x^2 / 0.1 * power), where x is the width of 1 pixel for a minimum 0.1 bullet
+			double scale = max(2 * sqrt(2.5 * bulletSnapshot.getPower()), 2 / this.scale);
+
+			at.scale(scale, scale);
+		} else if (!bulletSnapshot.isExplosion()) {
+			double scale = sqrt(1000 * bulletSnapshot.getPower()) / 128;
+
+			at.scale(scale, scale);
+		}
+		return at;
+	}
+
+	private RenderImage getExplosionRenderImage(IBulletSnapshot bulletSnapshot) {
+		int explosionIndex = bulletSnapshot.getExplosionImageIndex();
+		int frame = bulletSnapshot.getFrame();
+
+		// Sanity check to avoid bug-354 - Replaying an XML record can cause an ArrayIndexOutOfBoundsException
+		if (explosionIndex < 0 || frame < 0) {
+			return null;
+		}
+		return imageManager.getExplosionRenderImage(explosionIndex, frame);
+	}
+
+	private void centerString(Graphics2D g, String s, int x, int y) {
+		g.setFont(smallFont);
+
+		Point2D position = getStringPosition(s, x, y);
+
+		g.drawString(s, (int) position.getX(), (int) position.getY());
+	}
+
+	/**
+	 * Returns the position of the base line of a string centered at a point, where the string is kept within the view.
+	 */
+	private Point2D getStringPosition(String s, int x, int y) {
+		final FontMetrics fm = smallFontMetrics;
+
+		int width = fm.stringWidth(s);
+		int height = fm.getHeight();
+		int descent = fm.getDescent();
+
+		double left = x - width / 2;
+		double top = y - height / 2;
+
+		double scaledViewWidth = this.width / scale;
+		double scaledViewHeight = this.height / scale;
+
+		double borderWidth = (scaledViewWidth - battleField.getWidth()) / 2;
+		double borderHeight = (scaledViewHeight - battleField.getHeight()) / 2;
+
+		if (left + width > scaledViewWidth) {
+			left = scaledViewWidth - width;
+		}
+		if (top + height > scaledViewHeight) {
+			top = scaledViewHeight - height;
+		}
+		if (left < -borderWidth) {
+			left = -borderWidth;
+		}
+		if (top < -borderHeight) {
+			top = -borderHeight;
+		}
+		return new Point((int) (left + 0.5), (int) (top + height - descent + 0.5));
+	}
+
+	/**
+	 * Returns the bounds of a string drawn by {@link #centerString}, measured with the font it is drawn with.
+	 */
+	private Rectangle2D getStringBounds(Graphics2D g, String s, int x, int y) {
+		final Point2D position = getStringPosition(s, x, y);
+		final FontMetrics fm = g.getFontMetrics(smallFont);
+
+		return new Rectangle2D.Double(position.getX(), position.getY() - fm.getMaxAscent(), fm.stringWidth(s),
+				fm.getMaxAscent() + fm.getMaxDescent());
+	}
+
+	private void drawScanArc(Graphics2D g, IRobotSnapshot robotSnapshot) {
+		Arc2D scanArc = getScanArc(robotSnapshot);
+
+		if (scanArc == null) {
+			return;
+		}
+
+		final Composite savedComposite = g.getComposite();
+
+		g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f));
+
+		int scanColor = robotSnapshot.getScanColor();
+
+		g.setColor(new Color(scanColor, true));
+
+		if (abs(scanArc.getAngleExtent()) >= .5) {
+			g.fill(scanArc);
+		} else {
+			g.draw(scanArc);
+		}
+
+		g.setComposite(savedComposite);
+	}
+
+	/**
+	 * Returns the scan arc of a robot on the battlefield, which is upside down compared to the robot coordinates.
+	 */
+	private Arc2D getScanArc(IRobotSnapshot robotSnapshot) {
+		Arc2D.Double scanArc = (Arc2D.Double) ((RobotSnapshot) robotSnapshot).getScanArc();
+
+		if (scanArc == null) {
+			return null;
+		}
+		scanArc.setAngleStart((360 - scanArc.getAngleStart() - scanArc.getAngleExtent()) % 360);
+		scanArc.y = battleField.getHeight() - robotSnapshot.getY() - robocode.Rules.RADAR_SCAN_RADIUS;
+
+		return scanArc;
+	}
+}
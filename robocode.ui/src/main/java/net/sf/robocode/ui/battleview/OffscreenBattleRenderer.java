@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.ui.battleview;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.recording.BattleRecordFormat;
+import net.sf.robocode.recording.IRecordManager;
+import net.sf.robocode.settings.ISettingsManager;
+import net.sf.robocode.ui.IImageManager;
+import robocode.BattleRules;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ * Renders the turns of a battle to numbered PNG images without a window, e.g. for making videos of recorded battles.
+ * <p>
+ * The turns are handed to the renderer in the order of the battle, and are cut into ranges of turns that are rendered
+ * by a pool of threads, each with its own {@link BattleRenderer} and image. The robot and explosion images are shared
+ * through the {@link IImageManager}. The frames look like the battle view with the current view options, at the given
+ * size.
+ * <p>
+ * Every frameStep-th turn is rendered, and the frames are numbered from 0 without gaps, as frame-000000.png,
+ * frame-000001.png, and so on, which is what video encoders expect.
+ *
+ * @since 1.9.5.3
+ */
+public class OffscreenBattleRenderer implements IRecordManager.CheckedConsumer<ITurnSnapshot> {
+
+	private static final int FRAMES_PER_RANGE = 25;
+
+	private final ISettingsManager properties;
+	private final IImageManager imageManager;
+	private final BattleRules battleRules;
+	private final File outputDir;
+	private final int width;
+	private final int height;
+	private final int frameStep;
+
+	// All rendering threads lay out the ground tiles from the same seed, so the ground does not change between ranges
+	private final long groundSeed = new Random().nextLong();
+
+	private final int threads = Runtime.getRuntime().availableProcessors();
+	private final ExecutorService executor;
+	private final ThreadLocal<FrameContext> frameContexts = new ThreadLocal<FrameContext>();
+
+	private final Deque<Future<Integer>> pendingRanges = new ArrayDeque<Future<Integer>>();
+	private List<ITurnSnapshot> range = new ArrayList<ITurnSnapshot>();
+	private int rangeFirstFrame;
+
+	private int turnCount;
+	private int frameCount;
+	private int writtenFrames;
+
+	/**
+	 * Creates a renderer for a battle.
+	 *
+	 * @param properties the settings with the view options
+	 * @param imageManager the images to draw with
+	 * @param battleRules the rules of the battle, which give the size of the battlefield
+	 * @param outputDir the directory the frames are written to, which is created if needed
+	 * @param width the width of the frames in pixels
+	 * @param height the height of the frames in pixels
+	 * @param frameStep the number of turns per frame, where 1 renders every turn
+	 */
+	public OffscreenBattleRenderer(ISettingsManager properties, IImageManager imageManager, BattleRules battleRules,
+			File outputDir, int width, int height, int frameStep) {
+		if (width <= 0 || height <= 0 || frameStep <= 0) {
+			throw new IllegalArgumentException("The frame size and the frame step must be positive");
+		}
+		this.properties = properties;
+		this.imageManager = imageManager;
+		this.battleRules = battleRules;
+		this.outputDir = outputDir;
+		this.width = width;
+		this.height = height;
+		this.frameStep = frameStep;
+
+		FileUtil.createDir(outputDir);
+
+		executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Offscreen battle renderer");
+
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Renders a battle record to frames, with the settings and images of the container.
+	 *
+	 * @param recordFilename the battle record
+	 * @param format the format of the battle record
+	 * @param outputDir the directory the frames are written to
+	 * @param width the width of the frames in pixels
+	 * @param height the height of the frames in pixels
+	 * @param frameStep the number of turns per frame, where 1 renders every turn
+	 * @return the number of frames written
+	 */
+	public static int renderRecord(String recordFilename, BattleRecordFormat format, File outputDir, int width,
+			int height, int frameStep) throws IOException {
+		IRecordManager recordManager = Container.getComponent(IRecordManager.class);
+
+		recordManager.loadRecord(recordFilename, format);
+		if (!recordManager.hasRecord()) {
+			throw new IOException("Could not load the battle record: " + recordFilename);
+		}
+		IImageManager imageManager = Container.getComponent(IImageManager.class);
+
+		imageManager.initialize();
+
+		OffscreenBattleRenderer renderer = new OffscreenBattleRenderer(Container.getComponent(ISettingsManager.class),
+				imageManager, recordManager.getBattleRules(), outputDir, width, height, frameStep);
+
+		try {
+			recordManager.provideTurns(renderer);
+		} catch (ClassNotFoundException e) {
+			renderer.cancel();
+			throw new IOException(e);
+		} catch (IOException e) {
+			renderer.cancel();
+			throw e;
+		}
+		return renderer.finish();
+	}
+
+	/**
+	 * Adds the next turn of the battle, which is rendered if it is one of the turns to render.
+	 *
+	 * @param turn the turn
+	 */
+	public void accept(ITurnSnapshot turn) throws IOException {
+		if (turnCount++ % frameStep != 0) {
+			return;
+		}
+		range.add(turn);
+		frameCount++;
+
+		if (range.size() == FRAMES_PER_RANGE) {
+			submitRange();
+		}
+	}
+
+	/**
+	 * Renders the remaining turns, and waits until all frames have been written.
+	 *
+	 * @return the number of frames written
+	 */
+	public int finish() throws IOException {
+		try {
+			if (!range.isEmpty()) {
+				submitRange();
+			}
+			while (!pendingRanges.isEmpty()) {
+				waitForRange(pendingRanges.removeFirst());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return writtenFrames;
+	}
+
+	/**
+	 * Stops rendering, where frames that have already been written are kept.
+	 */
+	public void cancel() {
+		executor.shutdownNow();
+	}
+
+	private void submitRange() throws IOException {
+		final List<ITurnSnapshot> turns = range;
+		final int firstFrame = rangeFirstFrame;
+
+		range = new ArrayList<ITurnSnapshot>();
+		rangeFirstFrame = frameCount;
+
+		pendingRanges.addLast(executor.submit(new Callable<Integer>() {
+			public Integer call() throws IOException {
+				return renderRange(turns, firstFrame);
+			}
+		}));
+
+		// Limits the turns kept in memory, as turns are read faster than they are rendered
+		while (pendingRanges.size() > 2 * threads) {
+			waitForRange(pendingRanges.removeFirst());
+		}
+	}
+
+	private void waitForRange(Future<Integer> pendingRange) throws IOException {
+		try {
+			writtenFrames += pendingRange.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			executor.shutdownNow();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private int renderRange(List<ITurnSnapshot> turns, int firstFrame) throws IOException {
+		FrameContext context = frameContexts.get();
+
+		if (context == null) {
+			context = new FrameContext();
+			frameContexts.set(context);
+		}
+		int frame = firstFrame;
+
+		for (ITurnSnapshot turn : turns) {
+			context.render(turn);
+
+			File file = new File(outputDir, String.format(Locale.US, "frame-%06d.png", frame++));
+
+			if (!ImageIO.write(context.image, "png", file)) {
+				throw new IOException("No PNG writer is available");
+			}
+		}
+		return turns.size();
+	}
+
+	/**
+	 * The renderer and image of a rendering thread.
+	 */
+	private final class FrameContext {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		final Graphics2D graphics = image.createGraphics();
+		final BattleRenderer renderer = new BattleRenderer(properties, imageManager);
+		final AffineTransform identityTx = new AffineTransform();
+		boolean isBattleSet;
+
+		FrameContext() {
+			renderer.loadDisplayOptions();
+		}
+
+		void render(ITurnSnapshot turn) {
+			if (!isBattleSet) {
+				// The robots are known from the first turn
+				renderer.setBattle(battleRules, turn.getRobotCount(), groundSeed);
+				renderer.setViewSize(width, height, graphics.getFontMetrics());
+				isBattleSet = true;
+			}
+			graphics.setRenderingHints(renderer.getRenderingHints());
+			renderer.drawBattle(graphics, turn, identityTx);
+		}
+	}
+}
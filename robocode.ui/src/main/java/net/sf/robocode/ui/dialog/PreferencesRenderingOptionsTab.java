@@ -35,6 +35,7 @@ public class PreferencesRenderingOptionsTab extends WizardPanel {
 	private JComboBox optionsRenderingNoBuffersComboBox;
 	private JCheckBox optionsRenderingBufferImagesCheckBox;
 	private JCheckBox optionsRenderingForceBulletColorCheckBox;
+	private JCheckBox optionsRenderingPreRotateImagesCheckBox;
 
 	private JButton predefinedPlaformDefaultButton;
 	private JButton predefinedSpeedButton;
@@ -153,6 +154,7 @@ public class PreferencesRenderingOptionsTab extends WizardPanel {
 			otherSettingsPanel.setLayout(new BoxLayout(otherSettingsPanel, BoxLayout.Y_AXIS));
 			otherSettingsPanel.add(getOptionsRenderingBufferImagesCheckBox());
 			otherSettingsPanel.add(getOptionsRenderingForceBulletColorCheckBox());
+			otherSettingsPanel.add(getOptionsRenderingPreRotateImagesCheckBox());
 		}
 		return otherSettingsPanel;
 	}
@@ -238,6 +240,16 @@ public class PreferencesRenderingOptionsTab extends WizardPanel {
 		return optionsRenderingForceBulletColorCheckBox;
 	}
 
+	private JCheckBox getOptionsRenderingPreRotateImagesCheckBox() {
+		if (optionsRenderingPreRotateImagesCheckBox == null) {
+			optionsRenderingPreRotateImagesCheckBox = new JCheckBox("Pre-rotate robot images (uses memory)");
+			optionsRenderingPreRotateImagesCheckBox.setMnemonic('r');
+			optionsRenderingPreRotateImagesCheckBox.setDisplayedMnemonicIndex(4);
+			optionsRenderingPreRotateImagesCheckBox.addActionListener(eventHandler);
+		}
+		return optionsRenderingPreRotateImagesCheckBox;
+	}
+
 	private void loadPreferences(ISettingsManager props) {
 		getOptionsRenderingAntialiasingComboBox().setSelectedIndex(props.getOptionsRenderingAntialiasing());
 		getOptionsRenderingTextAntialiasingComboBox().setSelectedIndex(props.getOptionsRenderingTextAntialiasing());
@@ -245,6 +257,7 @@ public class PreferencesRenderingOptionsTab extends WizardPanel {
 		getOptionsRenderingNoBuffersComboBox().setSelectedIndex(props.getOptionsRenderingNoBuffers() - 1);
 		getOptionsRenderingBufferImagesCheckBox().setSelected(props.getOptionsRenderingBufferImages());
 		getOptionsRenderingForceBulletColorCheckBox().setSelected(props.getOptionsRenderingForceBulletColor());
+		getOptionsRenderingPreRotateImagesCheckBox().setSelected(props.getOptionsRenderingPreRotateImages());
 	}
 
 	public void storePreferences() {
@@ -256,6 +269,7 @@ public class PreferencesRenderingOptionsTab extends WizardPanel {
 		props.setOptionsRenderingNoBuffers(optionsRenderingNoBuffersComboBox.getSelectedIndex() + 1);
 		props.setOptionsRenderingBufferImages(optionsRenderingBufferImagesCheckBox.isSelected());
 		props.setOptionsRenderingForceBulletColor(optionsRenderingForceBulletColorCheckBox.isSelected());
+		props.setOptionsRenderingPreRotateImages(optionsRenderingPreRotateImagesCheckBox.isSelected());
 		properties.saveProperties();
 	}
 
@@ -281,8 +295,8 @@ public class PreferencesRenderingOptionsTab extends WizardPanel {
 				setPredefinedSettings(1);
 			} else if (src == predefinedSpeedButton) {
 				setPredefinedSettings(2);
-			} else if (src == optionsRenderingBufferImagesCheckBox) {
-				// Reset images so they are reloaded and gets buffered or unbuffered
+			} else if (src == optionsRenderingBufferImagesCheckBox || src == optionsRenderingPreRotateImagesCheckBox) {
+				// Reset images so they are reloaded and gets buffered or unbuffered, rotated or not
 				new Thread() {
 					@Override
 					public void run() {
@@ -50,6 +50,7 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 	private JLabel desiredTpsLabel;
 	private JCheckBox displayFpsCheckBox;
 	private JCheckBox displayTpsCheckBox;
+	private JCheckBox displayFrameTimeCheckBox;
 
 	private JPanel visibleOptionsPanel;
 	private JPanel tpsOptionsPanel;
@@ -225,6 +226,13 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 		return displayTpsCheckBox;
 	}
 
+	private JCheckBox getDisplayFrameTimeCheckBox() {
+		if (displayFrameTimeCheckBox == null) {
+			displayFrameTimeCheckBox = new JCheckBox("Display FPS and frame time in view");
+		}
+		return displayFrameTimeCheckBox;
+	}
+
 	private JButton getDefaultTpsButton() {
 		if (defaultTpsButton == null) {
 			defaultTpsButton = new JButton("Default");
@@ -279,6 +287,8 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 			tpsOptionsPanel.add(getDisplayTpsCheckBox(), c);
 			c.gridy = 1;
 			tpsOptionsPanel.add(getDisplayFpsCheckBox(), c);
+			c.gridy = 2;
+			tpsOptionsPanel.add(getDisplayFrameTimeCheckBox(), c);
 
 			JPanel tpsPanel = new JPanel();
 
@@ -286,13 +296,13 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 			tpsPanel.add(getDesiredTpsTextField());
 
 			c.fill = GridBagConstraints.VERTICAL;
-			c.gridy = 2;
+			c.gridy = 3;
 			c.insets = new Insets(10, 0, 0, 0);
 			tpsOptionsPanel.add(tpsPanel, c);
 
 			c.fill = GridBagConstraints.NONE;
 			c.gridx = 0;
-			c.gridy = 3;
+			c.gridy = 4;
 			c.gridwidth = 1;
 			c.weightx = 0.25;
 			tpsOptionsPanel.add(getMinTpsButton(), c);
@@ -306,7 +316,7 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 			c.insets = new Insets(20, 0, 0, 0);
 			c.gridwidth = 4;
 			c.gridx = 0;
-			c.gridy = 4;
+			c.gridy = 5;
 			c.weighty = 1;
 			tpsOptionsPanel.add(getPreventSpeedupWhenMinimizedCheckBox(), c);
 		}
@@ -428,6 +438,7 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 	private void loadPreferences(ISettingsManager robocodeProperties) {
 		getDisplayFpsCheckBox().setSelected(robocodeProperties.getOptionsViewFPS());
 		getDisplayTpsCheckBox().setSelected(robocodeProperties.getOptionsViewTPS());
+		getDisplayFrameTimeCheckBox().setSelected(robocodeProperties.getOptionsViewFrameTime());
 		getVisibleRobotNameCheckBox().setSelected(robocodeProperties.getOptionsViewRobotNames());
 		getVisibleRobotEnergyCheckBox().setSelected(robocodeProperties.getOptionsViewRobotEnergy());
 		getVisibleScanArcsCheckBox().setSelected(robocodeProperties.getOptionsViewScanArcs());
@@ -445,6 +456,7 @@ public class PreferencesViewOptionsTab extends WizardPanel {
 
 		props.setOptionsViewFPS(getDisplayFpsCheckBox().isSelected());
 		props.setOptionsViewTPS(getDisplayTpsCheckBox().isSelected());
+		props.setOptionsViewFrameTime(getDisplayFrameTimeCheckBox().isSelected());
 		props.setOptionsViewRobotNames(getVisibleRobotNameCheckBox().isSelected());
 		props.setOptionsViewRobotEnergy(getVisibleRobotEnergyCheckBox().isSelected());
 		props.setOptionsViewScanArcs(getVisibleScanArcsCheckBox().isSelected());
@@ -174,11 +174,12 @@ public class RobotButton extends JButton implements ActionListener {
 			if (turn == null) {
 				return;
 			}
-			final IRobotSnapshot[] robots = turn.getRobots();
-			final IScoreSnapshot[] scoreSnapshotList = event.getTurnSnapshot().getIndexedTeamScores();
+			final IScoreSnapshot[] scoreSnapshotList = turn.getIndexedTeamScores();
 
 			maxEnergy = 0;
-			for (IRobotSnapshot robot : robots) {
+			for (int i = 0; i < turn.getRobotCount(); i++) {
+				final IRobotSnapshot robot = turn.getRobot(i);
+
 				if (maxEnergy < robot.getEnergy()) {
 					maxEnergy = (int) robot.getEnergy();
 				}
@@ -198,7 +199,7 @@ public class RobotButton extends JButton implements ActionListener {
 			}
 
 			final int newScore = (int) scoreSnapshotList[teamIndex >= 0 ? teamIndex : contestantIndex].getCurrentScore();
-			final int newEnergy = (int) robots[robotIndex].getEnergy();
+			final int newEnergy = (int) turn.getRobot(robotIndex).getEnergy();
 			boolean rep = (lastEnergy != newEnergy || lastScore != newScore);
 
 			lastEnergy = newEnergy;
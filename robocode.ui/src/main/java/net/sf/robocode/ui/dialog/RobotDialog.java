@@ -433,7 +433,7 @@ public class RobotDialog extends JFrame {
 				return;
 			}
 
-			lastSnapshot = turn.getRobots()[robotIndex];
+			lastSnapshot = turn.getRobot(robotIndex);
 			final String text = lastSnapshot.getOutputStreamSnapshot();
 
 			if (text != null && text.length() > 0) {
@@ -11,6 +11,7 @@ package net.sf.robocode.ui.gfx;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
 
 
 /**
@@ -76,6 +77,34 @@ public class RenderImage extends RenderObject {
 		g.drawImage(image, transform, null);
 	}
 
+	/**
+	 * Paints the image with the specified transform instead of the current transform. The image itself is not
+	 * changed, so the same image can be painted by several threads at once.
+	 *
+	 * @param g the graphics context where the image must be painted
+	 * @param tx the transform, which is concatenated with the base transform
+	 */
+	public void paint(Graphics2D g, AffineTransform tx) {
+		AffineTransform imageTx = new AffineTransform(tx);
+
+		imageTx.concatenate(baseTransform);
+		g.drawImage(image, imageTx, null);
+	}
+
+	/**
+	 * Returns the bounds of the image when painted with the specified transform.
+	 *
+	 * @param tx the transform, which is concatenated with the base transform
+	 * @return the bounds of the image
+	 */
+	public Rectangle2D getBounds(AffineTransform tx) {
+		AffineTransform imageTx = new AffineTransform(tx);
+
+		imageTx.concatenate(baseTransform);
+		return imageTx.createTransformedShape(
+				new Rectangle(0, 0, image.getWidth(null), image.getHeight(null))).getBounds2D();
+	}
+
 	@Override
 	public Rectangle getBounds() {
 		return boundArea.createTransformedArea(transform).getBounds();
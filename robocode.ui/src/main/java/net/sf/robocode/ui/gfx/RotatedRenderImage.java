@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.ui.gfx;
+
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+
+/**
+ * A render image that keeps copies of its image rotated to a fixed number of headings, so painting it rotated is a
+ * plain copy of the nearest rotated image instead of a rotation of the image.
+ * <p>
+ * The rotated images are made the first time a heading is painted. Transforms that do more than translate and rotate
+ * the image are painted like by a {@link RenderImage}.
+ *
+ * @since 1.9.5.3
+ */
+public class RotatedRenderImage extends RenderImage {
+
+	// The rounding error allowed for a transform that only translates and rotates. AffineTransform.getType() is not
+	// used for this, as it often reports a scale for a rotation, where sin^2 + cos^2 is not exactly 1.
+	private static final double ROTATION_EPSILON = 1e-9;
+
+	private final BufferedImage[] rotatedImages;
+
+	// The size of the rotated images, which have the origin of the image in their center
+	private final int rotatedSize;
+
+	/**
+	 * Constructs a new {@code RotatedRenderImage}, which has it's origin in the center of the image.
+	 *
+	 * @param image the image to be rendered
+	 * @param headings the number of headings the image is rotated to
+	 */
+	public RotatedRenderImage(Image image, int headings) {
+		super(image);
+
+		rotatedImages = new BufferedImage[headings];
+
+		// The rotated images must fit the corner farthest from the origin at any heading
+		double originX = -baseTransform.getTranslateX();
+		double originY = -baseTransform.getTranslateY();
+		double radius = Math.hypot(Math.max(originX, image.getWidth(null) - originX),
+				Math.max(originY, image.getHeight(null) - originY));
+
+		rotatedSize = 2 * (int) Math.ceil(radius) + 2;
+	}
+
+	/**
+	 * Returns the number of bytes used by the rotated images when all headings have been painted.
+	 */
+	public long getMemorySize() {
+		return 4L * rotatedSize * rotatedSize * rotatedImages.length;
+	}
+
+	@Override
+	public void paint(Graphics2D g, AffineTransform tx) {
+		if (!isTranslateAndRotate(tx)) {
+			super.paint(g, tx);
+			return;
+		}
+		final int headings = rotatedImages.length;
+		final double heading = Math.atan2(tx.getShearY(), tx.getScaleX());
+
+		int index = (int) Math.round(heading * headings / (2 * Math.PI)) % headings;
+
+		if (index < 0) {
+			index += headings;
+		}
+		final AffineTransform imageTx = AffineTransform.getTranslateInstance(tx.getTranslateX() - rotatedSize / 2.0,
+				tx.getTranslateY() - rotatedSize / 2.0);
+
+		g.drawImage(getRotatedImage(index), imageTx, null);
+	}
+
+	/**
+	 * Checks if a transform only translates and rotates, i.e. its axes have a length of 1 and are perpendicular to
+	 * each other without being mirrored.
+	 */
+	static boolean isTranslateAndRotate(AffineTransform tx) {
+		final double m00 = tx.getScaleX();
+		final double m10 = tx.getShearY();
+		final double m01 = tx.getShearX();
+		final double m11 = tx.getScaleY();
+
+		return Math.abs(m00 * m00 + m10 * m10 - 1) < ROTATION_EPSILON // length of the x axis
+				&& Math.abs(m01 * m01 + m11 * m11 - 1) < ROTATION_EPSILON // length of the y axis
+				&& Math.abs(m00 * m01 + m10 * m11) < ROTATION_EPSILON // no shear
+				&& Math.abs(m00 * m11 - m01 * m10 - 1) < ROTATION_EPSILON; // no mirroring
+	}
+
+	private synchronized BufferedImage getRotatedImage(int index) {
+		BufferedImage rotatedImage = rotatedImages[index];
+
+		if (rotatedImage == null) {
+			rotatedImage = new BufferedImage(rotatedSize, rotatedSize, BufferedImage.TYPE_INT_ARGB);
+
+			Graphics2D g = rotatedImage.createGraphics();
+
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+				AffineTransform tx = AffineTransform.getTranslateInstance(rotatedSize / 2.0, rotatedSize / 2.0);
+
+				tx.rotate(2 * Math.PI * index / rotatedImages.length);
+				tx.concatenate(baseTransform);
+				g.drawImage(image, tx, null);
+			} finally {
+				g.dispose();
+			}
+			rotatedImages[index] = rotatedImage;
+		}
+		return rotatedImage;
+	}
+}
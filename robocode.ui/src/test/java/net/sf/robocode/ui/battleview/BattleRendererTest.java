@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.ui.battleview;
+
+
+import net.sf.robocode.security.HiddenAccess;
+import net.sf.robocode.settings.ISettingsManager;
+import net.sf.robocode.ui.IImageManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import robocode.BattleRules;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+
+
+/**
+ * Tests that the {@link BattleRenderer}s of several threads, like the ones of the {@link OffscreenBattleRenderer},
+ * paint the same ground when they are given the same seed. The tests are headless, and paint with ground tiles of a
+ * plain color instead of the images of Robocode.
+ */
+public class BattleRendererTest {
+
+	private static final int WIDTH = 800;
+	private static final int HEIGHT = 600;
+
+	private static final Color[] TILE_COLORS = {
+		Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.MAGENTA
+	};
+
+	private ISettingsManager properties;
+	private IImageManager imageManager;
+	private BattleRules battleRules;
+	private ITurnSnapshot turn;
+	private File outputDir;
+
+	@Before
+	public void setUp() throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		HiddenAccess.init();
+
+		properties = stub(ISettingsManager.class, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getName().equals("getOptionsViewGround")) {
+					return true;
+				}
+				if (method.getName().equals("getRenderingHints")) {
+					return new RenderingHints(null);
+				}
+				return defaultValue(method.getReturnType());
+			}
+		});
+		imageManager = stub(IImageManager.class, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if (method.getName().equals("getGroundTileImage")) {
+					return createTile(TILE_COLORS[(Integer) args[0]]);
+				}
+				return defaultValue(method.getReturnType());
+			}
+		});
+		battleRules = HiddenAccess.createRules(WIDTH, HEIGHT, 1, 0.1, 450, false, 100);
+
+		// A turn without robots and bullets, so only the ground and the border are painted
+		turn = stub(ITurnSnapshot.class, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				return defaultValue(method.getReturnType());
+			}
+		});
+		outputDir = Files.createTempDirectory("frames").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		final File[] files = outputDir.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		outputDir.delete();
+	}
+
+	@Test
+	public void paintsSameGroundOnTwoThreads() throws InterruptedException {
+		final long groundSeed = 42;
+		final BufferedImage[] images = new BufferedImage[2];
+		final Thread[] threads = new Thread[images.length];
+
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					images[index] = render(groundSeed);
+				}
+			}, "Rendering thread " + i);
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertNotNull(images[0]);
+		Assert.assertNotNull(images[1]);
+		assertGroundPainted(images[0]);
+		assertSamePixels(images[0], images[1]);
+	}
+
+	@Test
+	public void writesSameGroundInAllRanges() throws IOException {
+		final OffscreenBattleRenderer renderer = new OffscreenBattleRenderer(properties, imageManager, battleRules,
+				outputDir, WIDTH, HEIGHT, 1);
+
+		// Two ranges of frames, which are rendered by different threads when there is more than one processor
+		for (int i = 0; i < 50; i++) {
+			renderer.accept(turn);
+		}
+		Assert.assertEquals(50, renderer.finish());
+
+		final BufferedImage first = ImageIO.read(new File(outputDir, "frame-000000.png"));
+		final BufferedImage second = ImageIO.read(new File(outputDir, "frame-000025.png"));
+
+		assertGroundPainted(first);
+		assertSamePixels(first, second);
+	}
+
+	private BufferedImage render(long groundSeed) {
+		final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		final Graphics2D graphics = image.createGraphics();
+		final BattleRenderer renderer = new BattleRenderer(properties, imageManager);
+
+		try {
+			renderer.loadDisplayOptions();
+			renderer.setBattle(battleRules, 0, groundSeed);
+			renderer.setViewSize(WIDTH, HEIGHT, graphics.getFontMetrics());
+			graphics.setRenderingHints(renderer.getRenderingHints());
+			renderer.drawBattle(graphics, turn, new AffineTransform());
+		} finally {
+			graphics.dispose();
+		}
+		return image;
+	}
+
+	private static void assertGroundPainted(BufferedImage image) {
+		// The ground must consist of tiles of more than one color, or the seed would make no difference
+		final int tileSize = 64;
+		final int firstTile = image.getRGB(tileSize / 2, tileSize / 2);
+
+		for (int y = tileSize / 2; y < HEIGHT; y += tileSize) {
+			for (int x = tileSize / 2; x < WIDTH; x += tileSize) {
+				if (image.getRGB(x, y) != firstTile) {
+					return;
+				}
+			}
+		}
+		Assert.fail("The ground tiles were not painted");
+	}
+
+	private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+		Assert.assertEquals(expected.getWidth(), actual.getWidth());
+		Assert.assertEquals(expected.getHeight(), actual.getHeight());
+
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+					Assert.fail("The pixels at " + x + "," + y + " differ");
+				}
+			}
+		}
+	}
+
+	private static Image createTile(Color color) {
+		final BufferedImage tile = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+		final Graphics2D graphics = tile.createGraphics();
+
+		graphics.setColor(color);
+		graphics.fillRect(0, 0, 64, 64);
+		graphics.dispose();
+		return tile;
+	}
+
+	private static <T> T stub(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(BattleRendererTest.class.getClassLoader(), new Class<?>[] { type },
+				handler));
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		}
+		if (type == int.class) {
+			return 0;
+		}
+		if (type == long.class) {
+			return 0L;
+		}
+		if (type == double.class) {
+			return 0.0;
+		}
+		if (type == float.class) {
+			return 0f;
+		}
+		if (type.isArray()) {
+			return Array.newInstance(type.getComponentType(), 0);
+		}
+		return null;
+	}
+}
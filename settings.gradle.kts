@@ -1,6 +1,7 @@
 rootProject.name = "robocode"
 include(":robocode.api")
 include(":robocode.battle")
+include(":robocode.benchmarks")
 include(":robocode.core")
 include(":robocode.host")
 include(":robocode.installer")